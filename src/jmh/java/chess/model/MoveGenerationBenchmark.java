@@ -0,0 +1,101 @@
+package chess.model;
+
+import chess.model.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the move-generation hot paths the game and the server call on
+ * every move, one position per parameter value. Run with:
+ * {@code mvn -Pjmh test-compile exec:exec}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MoveGenerationBenchmark {
+
+    @Param({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    })
+    public String fen;
+
+    private BoardState board;
+    private List<Piece> movers;
+    private List<Piece> candidatePieces;
+    private List<Square> candidateTargets;
+    private CheckmateDetector detector;
+
+    @Setup
+    public void setUp() {
+        board = Fen.toBoardState(fen);
+        movers = new ArrayList<>(board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces());
+        candidatePieces = new ArrayList<>();
+        candidateTargets = new ArrayList<>();
+        for (Piece piece : movers) {
+            for (Square target : piece.getLegalMoves(board)) {
+                candidatePieces.add(piece);
+                candidateTargets.add(target);
+            }
+        }
+        detector = new CheckmateDetector(board);
+    }
+
+    /** Pseudo-legal targets of every piece of the side to move. */
+    @Benchmark
+    public void getLegalMoves(Blackhole blackhole) {
+        for (Piece piece : movers) {
+            blackhole.consume(piece.getLegalMoves(board));
+        }
+    }
+
+    /** The king-safety filter over every pseudo-legal move of the side to move. */
+    @Benchmark
+    public int isKingSafeAfterMove() {
+        int legal = 0;
+        for (int i = 0; i < candidatePieces.size(); i++) {
+            if (board.isKingSafeAfterMove(candidatePieces.get(i), candidateTargets.get(i))) legal++;
+        }
+        return legal;
+    }
+
+    @Benchmark
+    public boolean hasAnyLegalMovesForCurrentPlayer() {
+        return board.hasAnyLegalMovesForCurrentPlayer();
+    }
+
+    /** Building a detector from the squares, then the check/mate/stalemate queries a move triggers. */
+    @Benchmark
+    public void checkmateDetector(Blackhole blackhole) {
+        CheckmateDetector detector = new CheckmateDetector(board);
+        blackhole.consume(detector.whiteInCheck());
+        blackhole.consume(detector.blackInCheck());
+        blackhole.consume(detector.whiteCheckMated());
+        blackhole.consume(detector.blackCheckMated());
+        blackhole.consume(detector.whiteStalemated());
+        blackhole.consume(detector.blackStalemated());
+    }
+
+    /** Apply and undo of one move on an existing detector, the incremental path used during play. */
+    @Benchmark
+    public boolean checkmateDetectorIncremental() {
+        Square from = candidatePieces.get(0).getPosition();
+        Square to = candidateTargets.get(0);
+        detector.applyMove(from, to);
+        boolean mated = detector.whiteCheckMated() || detector.blackCheckMated();
+        detector.undoMove(from, to, to.getOccupyingPiece());
+        return mated;
+    }
+}
@@ -0,0 +1,121 @@
+package chess.engine;
+
+import chess.model.bitboard.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP: every thread runs its own iterative-deepening {@link Search} on a copy
+ * of the root, and all of them share one {@link TranspositionTable}. Helpers do not
+ * split the tree explicitly; they fill the table with results the main search then
+ * finds, and half of them start one ply deeper so the threads drift apart.
+ *
+ * The main search runs on the caller's thread and decides when to stop. Helpers
+ * run on a fixed pool of platform threads, because the work is CPU-bound and
+ * would only pin carrier threads if run on virtual threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final TranspositionTable table;
+    private final Search[] workers;
+    private final ExecutorService helpers;
+
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is needed, got " + threads);
+        }
+        this.table = table;
+        this.workers = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Search(table);
+        }
+        if (threads > 1) {
+            String prefix = "search-" + POOL_COUNT.incrementAndGet() + "-helper-";
+            AtomicInteger helperCount = new AtomicInteger();
+            helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, prefix + helperCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            helpers = null;
+        }
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public SearchResult search(Position root, long budgetMillis) {
+        return search(root, Search.MAX_PLY - 1, budgetMillis);
+    }
+
+    /**
+     * Searches like {@link Search#search(Position, int, long)} with all threads. The
+     * reported node count is the sum over all threads; the move comes from the thread
+     * that completed the deepest iteration, preferring the main search on ties.
+     */
+    public SearchResult search(Position root, int maxDepth, long budgetMillis) {
+        if (helpers == null) {
+            return workers[0].search(root, maxDepth, budgetMillis);
+        }
+
+        long start = System.nanoTime();
+        table.newSearch();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Future<SearchResult>> helperResults = new ArrayList<>();
+        for (int i = 1; i < workers.length; i++) {
+            Search worker = workers[i];
+            Position copy = root.copy();
+            int startDepth = 1 + (i & 1);
+            helperResults.add(helpers.submit(() -> worker.search(copy, maxDepth, budgetMillis, startDepth, stop)));
+        }
+
+        SearchResult best = workers[0].search(root, maxDepth, budgetMillis, 1, stop);
+        stop.set(true);
+
+        long nodes = best.getNodes();
+        for (Future<SearchResult> future : helperResults) {
+            SearchResult helper = await(future);
+            nodes += helper.getNodes();
+            if (helper.getDepth() > best.getDepth()) {
+                best = helper;
+            }
+        }
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes, System.nanoTime() - start);
+    }
+
+    private SearchResult await(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search helpers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
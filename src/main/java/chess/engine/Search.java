@@ -0,0 +1,305 @@
+package chess.engine;
+
+import chess.model.bitboard.MoveList;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Negamax alpha-beta search with iterative deepening under a time budget.
+ *
+ * Each iteration searches one ply deeper than the last, so when time runs out the
+ * best move of the last completed iteration is played. Moves are tried in the
+ * order transposition-table move, captures by MVV-LVA, killer moves, then quiet
+ * moves by history score. Leaf nodes run a captures-only quiescence search so the
+ * evaluation is never taken in the middle of an exchange.
+ *
+ * A search instance keeps its transposition table, killers and history between
+ * calls, and is not thread-safe. Several instances may share one table; that is
+ * how {@link ParallelSearch} runs them side by side.
+ */
+public class Search {
+    public static final int MATE = 30000;
+    public static final int MAX_PLY = 64;
+
+    private static final int INFINITY = 32000;
+    private static final int MATE_BOUND = MATE - MAX_PLY;
+    private static final int CHECK_TIME_MASK = 1023;
+
+    private static final int TT_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int FIRST_KILLER_SCORE = 90_000;
+    private static final int SECOND_KILLER_SCORE = 80_000;
+    private static final int HISTORY_LIMIT = 50_000;
+
+    private final TranspositionTable table;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.CAPACITY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64];
+
+    private Position position;
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    private int completedDepth;
+    private int rootBest;
+    private AtomicBoolean stopSignal;
+
+    public Search() {
+        this(new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+    }
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    public SearchResult search(Position root, long budgetMillis) {
+        return search(root, MAX_PLY - 1, budgetMillis);
+    }
+
+    /**
+     * Searches the side to move in {@code root} until {@code maxDepth} is reached or
+     * the budget runs out. The position is used as scratch space and is restored
+     * before this method returns. Depth 1 always completes, whatever the budget.
+     */
+    public SearchResult search(Position root, int maxDepth, long budgetMillis) {
+        table.newSearch();
+        return search(root, maxDepth, budgetMillis, 1, null);
+    }
+
+    /**
+     * As {@link #search(Position, int, long)}, but starting iterative deepening at
+     * {@code startDepth} and also stopping as soon as {@code stopSignal} is set.
+     */
+    SearchResult search(Position root, int maxDepth, long budgetMillis, int startDepth, AtomicBoolean stopSignal) {
+        long start = System.nanoTime();
+        this.stopSignal = stopSignal;
+        position = root;
+        deadline = start + budgetMillis * 1_000_000L;
+        nodes = 0;
+        stopped = false;
+        completedDepth = 0;
+        prepareOrdering();
+
+        int bestMove = firstLegalMove();
+        int bestScore = 0;
+        if (bestMove == Moves.NONE) {
+            int score = position.isInCheck(position.getSideToMove()) ? -MATE : 0;
+            return new SearchResult(Moves.NONE, score, 0, 0, System.nanoTime() - start);
+        }
+
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            rootBest = Moves.NONE;
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) break;
+
+            bestMove = rootBest;
+            bestScore = score;
+            completedDepth = depth;
+            if (Math.abs(score) >= MATE_BOUND) break; // a forced mate will not get any shorter
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_TIME_MASK) == 0) checkTime();
+        if (stopped) return 0;
+
+        int us = position.getSideToMove();
+        boolean inCheck = position.isInCheck(us);
+        if (inCheck) depth++; // check extension
+        if (depth <= 0) return quiescence(alpha, beta, ply);
+        if (ply >= MAX_PLY - 1) return Evaluator.evaluate(position);
+
+        long key = position.getKey();
+        int ttMove = Moves.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        position.generatePseudoLegalMoves(moves);
+        scoreMoves(moves, ply, ttMove, us);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Moves.NONE;
+        int legal = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            position.makeMove(move);
+            if (position.isInCheck(us)) {
+                position.unmakeMove(move);
+                continue;
+            }
+            legal++;
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (stopped) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) rootBest = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!Moves.isCapture(move)) rememberQuietCutoff(move, ply, depth, us);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND
+                : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_TIME_MASK) == 0) checkTime();
+        if (stopped) return 0;
+
+        int standPat = Evaluator.evaluate(position);
+        if (ply >= MAX_PLY - 1 || standPat >= beta) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        int us = position.getSideToMove();
+        MoveList moves = moveLists[ply];
+        position.generatePseudoLegalCaptures(moves);
+        scoreMoves(moves, ply, Moves.NONE, us);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            position.makeMove(move);
+            if (position.isInCheck(us)) {
+                position.unmakeMove(move);
+                continue;
+            }
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (stopped) return 0;
+
+            if (score >= beta) return score;
+            if (score > alpha) alpha = score;
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int ttMove, int us) {
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (Moves.isCapture(move)) {
+                // MVV-LVA: most valuable victim first, cheapest attacker breaks ties
+                scores[i] = CAPTURE_SCORE + Moves.captured(move) * 10 - Moves.piece(move);
+            } else if (move == killers[ply][0]) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else {
+                scores[i] = history[us][Moves.from(move)][Moves.to(move)];
+            }
+        }
+    }
+
+    // Selection sort step: moves are usually cut off long before the list is sorted
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void rememberQuietCutoff(int move, int ply, int depth, int us) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[us][Moves.from(move)];
+        fromHistory[Moves.to(move)] += depth * depth;
+        if (fromHistory[Moves.to(move)] > HISTORY_LIMIT) ageHistory();
+    }
+
+    // Killers belong to the previous search's plies; history is kept but halved
+    private void prepareOrdering() {
+        for (int[] pair : killers) {
+            pair[0] = Moves.NONE;
+            pair[1] = Moves.NONE;
+        }
+        ageHistory();
+    }
+
+    private void ageHistory() {
+        for (int[][] byColor : history) {
+            for (int[] byFrom : byColor) {
+                for (int to = 0; to < 64; to++) {
+                    byFrom[to] >>= 1;
+                }
+            }
+        }
+    }
+
+    private int firstLegalMove() {
+        MoveList moves = moveLists[0];
+        position.generateLegalMoves(moves);
+        return moves.isEmpty() ? Moves.NONE : moves.get(0);
+    }
+
+    private void checkTime() {
+        if ((stopSignal != null && stopSignal.get())
+                || (completedDepth > 0 && System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+    }
+
+    // Mate scores are stored relative to the node so they stay correct at other plies
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+}
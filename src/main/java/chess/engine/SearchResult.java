@@ -0,0 +1,58 @@
+package chess.engine;
+
+import chess.model.bitboard.Moves;
+
+/** Outcome of one {@link Search#search} call: the move to play and what it cost to find. */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Packed {@link Moves} value, or {@link Moves#NONE} when the side to move has no legal move. */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /** Centipawns from the mover's point of view; mates are near {@link Search#MATE}. */
+    public int getScore() {
+        return score;
+    }
+
+    /** Deepest fully completed iteration. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("move %s, score %d, depth %d, %d nodes in %.1f ms (%d nps)",
+                bestMove == Moves.NONE ? "none" : Moves.toNotation(bestMove),
+                score, depth, nodes, getElapsedMillis(), getNodesPerSecond());
+    }
+}
@@ -0,0 +1,51 @@
+package chess.engine;
+
+/**
+ * Running totals over all searches of one player: nodes per second and
+ * time-to-move, the two numbers we watch when bots are used as load generators.
+ */
+public class SearchStats {
+    private long searches;
+    private long totalNodes;
+    private long totalDepth;
+    private long totalNanos;
+    private long maxNanos;
+
+    public synchronized void record(SearchResult result) {
+        searches++;
+        totalNodes += result.getNodes();
+        totalDepth += result.getDepth();
+        totalNanos += result.getElapsedNanos();
+        maxNanos = Math.max(maxNanos, result.getElapsedNanos());
+    }
+
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    public synchronized long getTotalNodes() {
+        return totalNodes;
+    }
+
+    public synchronized double getAverageDepth() {
+        return searches == 0 ? 0 : (double) totalDepth / searches;
+    }
+
+    public synchronized long getNodesPerSecond() {
+        return totalNanos == 0 ? 0 : totalNodes * 1_000_000_000L / totalNanos;
+    }
+
+    public synchronized double getAverageTimeToMoveMillis() {
+        return searches == 0 ? 0 : totalNanos / 1_000_000.0 / searches;
+    }
+
+    public synchronized double getMaxTimeToMoveMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d moves, %d nps, depth avg %.1f, time to move avg %.1f ms / max %.1f ms",
+                searches, getNodesPerSecond(), getAverageDepth(), getAverageTimeToMoveMillis(), getMaxTimeToMoveMillis());
+    }
+}
@@ -0,0 +1,272 @@
+package chess.engine;
+
+import chess.model.bitboard.Moves;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free hash table of search results indexed by Zobrist key.
+ *
+ * The table is a single {@code long[]}. Each entry is two longs: a data word that
+ * packs move, score, depth, bound and search generation, and a check word holding
+ * {@code key ^ data}. Writers store both words without locking; a reader accepts an
+ * entry only if {@code check ^ data} gives back its key. An entry torn by two
+ * racing writers (or belonging to another position) fails that test and reads as
+ * a miss, so threads of a {@link ParallelSearch} can share the table freely.
+ *
+ * Entries are grouped in buckets of two. Which entry of a bucket a new position
+ * replaces is decided by the {@link ReplacementPolicy}.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    /** Returned by {@link #probe} when the position is not stored. */
+    public static final long MISS = 0L;
+
+    public enum ReplacementPolicy {
+        /** Always store, over the shallower entry of the bucket. */
+        ALWAYS_REPLACE,
+        /** Store over the shallower entry only if the new result is at least as deep. */
+        DEPTH_PREFERRED,
+        /** Always store, preferring entries left over from earlier searches, then the shallower one. */
+        AGE_THEN_DEPTH
+    }
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 2;
+    private static final int BYTES_PER_ENTRY = ENTRY_LONGS * Long.BYTES;
+
+    // Data word layout
+    private static final int MOVE_BITS = 18;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final long NO_MOVE = MOVE_MASK; // no packed move uses all 18 bits
+    private static final int SCORE_SHIFT = 18;
+    private static final int DEPTH_SHIFT = 34;
+    private static final int BOUND_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 44;
+    private static final int GENERATION_MASK = 63;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final ReplacementPolicy policy;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    public TranspositionTable(int megabytes) {
+        this(megabytes, ReplacementPolicy.AGE_THEN_DEPTH);
+    }
+
+    /** Sized to the largest power-of-two number of entries that fits in {@code megabytes}. */
+    public TranspositionTable(int megabytes, ReplacementPolicy policy) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB, got " + megabytes);
+        }
+        long entries = Long.highestOneBit(megabytes * 1024L * 1024L / BYTES_PER_ENTRY);
+        if (entries * ENTRY_LONGS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Table of " + megabytes + " MB does not fit in one array");
+        }
+        this.table = new long[(int) entries * ENTRY_LONGS];
+        this.bucketMask = (int) (entries / BUCKET_ENTRIES) - 1;
+        this.policy = policy;
+    }
+
+    public int getEntries() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    public long getSizeBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /** Starts a new search generation, so entries of earlier searches count as stale. */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        resetStatistics();
+    }
+
+    /** The packed entry for {@code key}, or {@link #MISS}. Decode it with the static accessors. */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketBase(key);
+        boolean occupied = false;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int index = base + i * ENTRY_LONGS;
+            long data = table[index + 1];
+            long check = table[index];
+            if (data == 0L) continue;
+            if ((check ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+            occupied = true;
+        }
+        if (occupied) collisions.increment();
+        return MISS;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = bucketBase(key);
+        int target = -1;
+        long existing = 0L;
+        for (int i = 0; i < BUCKET_ENTRIES && target < 0; i++) {
+            int index = base + i * ENTRY_LONGS;
+            long data = table[index + 1];
+            if (data != 0L && (table[index] ^ data) == key) {
+                target = index;
+                existing = data;
+            }
+        }
+
+        int current = generation;
+        if (target >= 0) {
+            // Same position: keep a deeper result from this search unless told to always replace
+            if (policy != ReplacementPolicy.ALWAYS_REPLACE && depth < depth(existing)
+                    && generation(existing) == current) {
+                return;
+            }
+            if (move == Moves.NONE) move = move(existing);
+        } else {
+            target = chooseVictim(base, depth, current);
+            if (target < 0) return;
+            if (table[target + 1] != 0L) overwrites.increment();
+        }
+
+        long data = pack(move, score, depth, bound, current);
+        table[target + 1] = data;
+        table[target] = key ^ data;
+        stores.increment();
+    }
+
+    private int chooseVictim(int base, int depth, int current) {
+        int shallowest = -1;
+        int stale = -1;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int index = base + i * ENTRY_LONGS;
+            long data = table[index + 1];
+            if (data == 0L) return index;
+            if (generation(data) != current && (stale < 0 || depth(data) < depth(table[stale + 1]))) {
+                stale = index;
+            }
+            if (shallowest < 0 || depth(data) < depth(table[shallowest + 1])) {
+                shallowest = index;
+            }
+        }
+        return switch (policy) {
+            case ALWAYS_REPLACE -> shallowest;
+            case DEPTH_PREFERRED -> stale >= 0 ? stale
+                    : depth >= depth(table[shallowest + 1]) ? shallowest : -1;
+            case AGE_THEN_DEPTH -> stale >= 0 ? stale : shallowest;
+        };
+    }
+
+    private int bucketBase(long key) {
+        return ((int) key & bucketMask) * BUCKET_ENTRIES * ENTRY_LONGS;
+    }
+
+    static long pack(int move, int score, int depth, int bound, int generation) {
+        long packedMove = move == Moves.NONE ? NO_MOVE : move & MOVE_MASK;
+        return packedMove
+                | ((long) (score & 0xFFFF) << SCORE_SHIFT)
+                | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                | ((long) (bound & 3) << BOUND_SHIFT)
+                | ((long) (generation & GENERATION_MASK) << GENERATION_SHIFT);
+    }
+
+    public static int move(long entry) {
+        long move = entry & MOVE_MASK;
+        return move == NO_MOVE ? Moves.NONE : (int) move;
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+
+    static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Probes that found their bucket holding other positions only. */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /** Stores that evicted another position's entry. */
+    public long getOverwrites() {
+        return overwrites.sum();
+    }
+
+    public double getHitRate() {
+        long probed = getProbes();
+        return probed == 0 ? 0 : (double) getHits() / probed;
+    }
+
+    public double getCollisionRate() {
+        long probed = getProbes();
+        return probed == 0 ? 0 : (double) getCollisions() / probed;
+    }
+
+    /** Per-mille of the first thousand entries holding results of the current search. */
+    public int hashfull() {
+        int sample = Math.min(1000, getEntries());
+        int current = generation;
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+            if (data != 0L && generation(data) == current) used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+        stores.reset();
+        overwrites.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d MB, %d probes, hit rate %.1f%%, collision rate %.1f%%, %d stores, %d overwrites, hashfull %d",
+                getSizeBytes() / (1024 * 1024), getProbes(), getHitRate() * 100, getCollisionRate() * 100,
+                getStores(), getOverwrites(), hashfull());
+    }
+}
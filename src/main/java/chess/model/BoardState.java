@@ -1,23 +1,49 @@
 package chess.model;
 
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Position;
+import chess.model.bitboard.Zobrist;
 import chess.model.pieces.*;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 public class BoardState implements Serializable {
     public static final int SIZE = 8;
 
+    // Castling rights bits. Castling itself is not part of the rule set yet, but the
+    // rights are tracked so positions can be identified (hashing, FEN) correctly.
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
     private Square[][] board = new Square[SIZE][SIZE];
     private boolean whiteTurn = true;
     private final List<Piece> whitePieces = new LinkedList<>();
     private final List<Piece> blackPieces = new LinkedList<>();
     private King whiteKing, blackKing;
+    private transient CheckmateDetector detector;
+    private int castlingRights;
+    private transient Square enPassantSquare;
+    private long zobristKey;
+    private int halfmoveClock; // plies since the last capture or pawn move
+    private int fullmoveNumber = 1;
+
+    // Undo records are pooled: undoStack[0..undoDepth) are live, the rest are reusable.
+    // Search-time state only, like the detector; created on the first makeMove
+    private transient List<UndoRecord> undoStack;
+    private transient int undoDepth;
 
     public BoardState() {
         initializeSquares();
         initializePieces();
+        castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        zobristKey = computeZobristKey();
     }
 //    public BoardState(Square[][] board){
 //        this.board = board;
@@ -44,8 +70,24 @@ public class BoardState implements Serializable {
                  }
              }
          }
+         castlingRights = inferCastlingRights();
+         zobristKey = computeZobristKey();
  }
 
+    // Without history, assume the rights that the king and rook placement still allows
+    private int inferCastlingRights() {
+        int rights = 0;
+        if (board[7][4].getOccupyingPiece() instanceof King k && k.getColor() == 1) {
+            if (board[7][7].getOccupyingPiece() instanceof Rook r && r.getColor() == 1) rights |= WHITE_KINGSIDE;
+            if (board[7][0].getOccupyingPiece() instanceof Rook r && r.getColor() == 1) rights |= WHITE_QUEENSIDE;
+        }
+        if (board[0][4].getOccupyingPiece() instanceof King k && k.getColor() == 0) {
+            if (board[0][7].getOccupyingPiece() instanceof Rook r && r.getColor() == 0) rights |= BLACK_KINGSIDE;
+            if (board[0][0].getOccupyingPiece() instanceof Rook r && r.getColor() == 0) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
     private void initializeSquares() {
         for (int y = 0; y < SIZE; y++) {
             for (int x = 0; x < SIZE; x++) {
@@ -111,6 +153,36 @@ public class BoardState implements Serializable {
 
     public void toggleTurn() {
         whiteTurn = !whiteTurn;
+        zobristKey ^= Zobrist.blackToMove();
+    }
+
+    /** 64-bit Zobrist key of the position, kept up to date by every move. */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /** The key recomputed from scratch; equal to {@link #getZobristKey()} unless squares were edited directly. */
+    public final long computeZobristKey() {
+        long key = whiteTurn ? 0L : Zobrist.blackToMove();
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                Piece piece = board[row][col].getOccupyingPiece();
+                if (piece != null) {
+                    key ^= Zobrist.piece(piece.getColor(), bitboardType(piece), Bitboards.square(row, col));
+                }
+            }
+        }
+        return key ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(index(enPassantSquare));
+    }
+
+    // The en passant square is not serialized, so the key must not include it either
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        zobristKey = computeZobristKey();
+    }
+
+    private static int index(Square sq) {
+        return sq == null ? Position.EMPTY : Bitboards.square(sq.getYNum(), sq.getXNum());
     }
 
     public List<Piece> getWhitePieces() {
@@ -122,81 +194,276 @@ public class BoardState implements Serializable {
     }
 
     public boolean isKingSafeAfterMove(Piece p, Square target) {
-        Square original = p.getPosition();
-        Piece captured = target.getOccupyingPiece();
+        CheckmateDetector detector = detector();
+        makeMove(p.getPosition(), target);
+        boolean isSafe = p.getColor() == 1 ? !detector.whiteInCheck() : !detector.blackInCheck();
+        unmakeMove();
+        return isSafe;
+    }
 
-        original.removePiece();
-        target.setOccupyingPiece(p);
-        p.setPosition(target);
+    public boolean isWhiteCheckmated() {
+        return detector().whiteCheckMated();
+    }
 
-        LinkedList<Piece> whiteSim = new LinkedList<>(whitePieces);
-        LinkedList<Piece> blackSim = new LinkedList<>(blackPieces);
+    public boolean isBlackCheckmated() {
+        return detector().blackCheckMated();
+    }
 
-        if (p.getColor() == 0) {
-            blackSim.remove(p);
-        } else {
-            whiteSim.remove(p);
-        }
+    public boolean isStalemate() {
+        return whiteTurn ? detector().whiteStalemated() : detector().blackStalemated();
+    }
 
-        if (captured != null) {
-            if (captured.getColor() == 0) blackSim.remove(captured);
-            else whiteSim.remove(captured);
+    // The detector follows commitMove incrementally; it is built on first use
+    private CheckmateDetector detector() {
+        if (detector == null) {
+            detector = new CheckmateDetector(this);
         }
+        return detector;
+    }
 
-        CheckmateDetector detector = new CheckmateDetector(this, whiteSim, blackSim, whiteKing, blackKing);
-        boolean isSafe = p.getColor() == 1 ? !detector.whiteInCheck() : !detector.blackInCheck();
-
-        target.setOccupyingPiece(captured);
-        original.setOccupyingPiece(p);
-        p.setPosition(original);
+    /**
+     * Call after editing squares directly (e.g. promotion in the view) so the
+     * detector is rebuilt and the Zobrist key is recomputed.
+     */
+    public void squaresChanged() {
+        detector = null;
+        zobristKey = computeZobristKey();
+    }
 
-        return isSafe;
+    // Used when a position is set up from a description (FEN) rather than played into
+    void setPositionState(boolean whiteTurn, int castlingRights, Square enPassantSquare,
+                          int halfmoveClock, int fullmoveNumber) {
+        this.whiteTurn = whiteTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        clearUndoHistory();
+        squaresChanged();
     }
 
-    public boolean isWhiteCheckmated() {
-        CheckmateDetector dt =
-                new CheckmateDetector(this,
-                        new LinkedList<>(whitePieces),
-                        new LinkedList<>(blackPieces),
-                        whiteKing, blackKing);
-        return dt.whiteCheckMated();
+    /**
+     * Plays a move for good, as a game does: no undo record is kept, and moves
+     * made before it can no longer be taken back.
+     */
+    public void commitMove(Square from, Square to) {
+        clearUndoHistory();
+        play(from, to, null);
     }
 
-    public boolean isBlackCheckmated() {
-        CheckmateDetector dt =
-                new CheckmateDetector(this,
-                        new LinkedList<>(whitePieces),
-                        new LinkedList<>(blackPieces),
-                        whiteKing, blackKing);
-        return dt.blackCheckMated();
+    /**
+     * Plays the piece on {@code from} to {@code to} and pushes an undo record,
+     * so the move can be taken back with {@link #unmakeMove()}.
+     */
+    public void makeMove(Square from, Square to) {
+        play(from, to, pushUndoRecord());
     }
 
-    public void commitMove(Square from, Square to, Piece mover) {
+    // record is null for a committed move
+    private void play(Square from, Square to, UndoRecord record) {
+        Piece mover = from.getOccupyingPiece();
         Piece captured = to.getOccupyingPiece();
+        if (record != null) {
+            record.from = from;
+            record.to = to;
+            record.mover = mover;
+            record.captured = captured;
+            record.pawnWasMoved = mover instanceof Pawn pawn && pawn.hasMoved();
+            record.castlingRights = castlingRights;
+            record.enPassantSquare = enPassantSquare;
+            record.zobristKey = zobristKey;
+            record.halfmoveClock = halfmoveClock;
+            record.fullmoveNumber = fullmoveNumber;
+        }
+
+        if (detector != null) {
+            detector.applyMove(from, to);
+        }
         if (captured != null) {
-            if (captured.getColor() == 1)
-                whitePieces.remove(captured);
-            else
-                blackPieces.remove(captured);
+            List<Piece> owner = captured.getColor() == 1 ? whitePieces : blackPieces;
+            int capturedIndex = owner.indexOf(captured);
+            if (capturedIndex >= 0) owner.remove(capturedIndex);
+            if (record != null) record.capturedIndex = capturedIndex;
         }
 
+        int moverType = bitboardType(mover);
+        zobristKey ^= Zobrist.piece(mover.getColor(), moverType, index(from))
+                ^ Zobrist.piece(mover.getColor(), moverType, index(to));
+        if (captured != null) {
+            zobristKey ^= Zobrist.piece(captured.getColor(), bitboardType(captured), index(to));
+        }
+        zobristKey ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(index(enPassantSquare));
+
         from.removePiece();
         to.put(mover);
         if (mover instanceof Pawn) {
             ((Pawn) mover).setWasMoved(true);
         }
+        updateCastlingRights(mover, from, to);
+        updateEnPassantSquare(mover, from, to);
+        zobristKey ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(index(enPassantSquare));
+        halfmoveClock = mover instanceof Pawn || captured != null ? 0 : halfmoveClock + 1;
+        if (!whiteTurn) fullmoveNumber++;
         toggleTurn();
     }
 
+    /** Takes back the last move played with {@link #makeMove}. */
+    public void unmakeMove() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        UndoRecord record = undoStack.get(--undoDepth);
+        if (detector != null) {
+            detector.undoMove(record.from, record.to, record.captured);
+        }
+
+        record.from.put(record.mover);
+        record.to.setOccupyingPiece(record.captured);
+        if (record.captured != null) {
+            record.captured.setPosition(record.to);
+            // Put the piece back where it was so list iteration order is unchanged
+            List<Piece> owner = record.captured.getColor() == 1 ? whitePieces : blackPieces;
+            if (record.capturedIndex >= 0) owner.add(record.capturedIndex, record.captured);
+        }
+        if (record.mover instanceof Pawn pawn) {
+            pawn.setWasMoved(record.pawnWasMoved);
+        }
+        castlingRights = record.castlingRights;
+        enPassantSquare = record.enPassantSquare;
+        halfmoveClock = record.halfmoveClock;
+        fullmoveNumber = record.fullmoveNumber;
+        whiteTurn = !whiteTurn;
+        zobristKey = record.zobristKey;
+
+        // Drop references so pooled records do not keep pieces alive
+        record.mover = null;
+        record.captured = null;
+    }
+
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    /** Forgets all undo records, e.g. after the squares were replaced wholesale. */
+    public void clearUndoHistory() {
+        for (int i = 0; i < undoDepth; i++) {
+            undoStack.get(i).mover = null;
+            undoStack.get(i).captured = null;
+        }
+        undoDepth = 0;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public Square getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /** This position in Forsyth-Edwards Notation; see {@link Fen}. */
+    public String toFen() {
+        return Fen.toFen(this);
+    }
+
+    private UndoRecord pushUndoRecord() {
+        if (undoStack == null) {
+            undoStack = new ArrayList<>();
+        }
+        if (undoDepth == undoStack.size()) {
+            undoStack.add(new UndoRecord());
+        }
+        return undoStack.get(undoDepth++);
+    }
+
+    private void updateCastlingRights(Piece mover, Square from, Square to) {
+        castlingRights = castlingRightsAfterMove(castlingRights, mover instanceof King, mover.getColor(),
+                index(from), index(to));
+    }
+
+    /**
+     * Castling rights left after a move between two bitboard squares: a king move
+     * loses both sides, and a rook leaving its corner or being captured there loses that side.
+     */
+    public static int castlingRightsAfterMove(int rights, boolean kingMove, int moverColor, int from, int to) {
+        if (kingMove) {
+            rights &= moverColor == 1
+                    ? ~(WHITE_KINGSIDE | WHITE_QUEENSIDE)
+                    : ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        }
+        return rights & ~(cornerRight(from) | cornerRight(to));
+    }
+
+    private static int cornerRight(int sq) {
+        return switch (sq) {
+            case 63 -> WHITE_KINGSIDE;   // h1
+            case 56 -> WHITE_QUEENSIDE;  // a1
+            case 7 -> BLACK_KINGSIDE;    // h8
+            case 0 -> BLACK_QUEENSIDE;   // a8
+            default -> 0;
+        };
+    }
+
+    // The square a pawn skipped with a double step; en passant captures are not generated yet
+    private void updateEnPassantSquare(Piece mover, Square from, Square to) {
+        if (mover instanceof Pawn && Math.abs(from.getYNum() - to.getYNum()) == 2) {
+            enPassantSquare = board[(from.getYNum() + to.getYNum()) / 2][from.getXNum()];
+        } else {
+            enPassantSquare = null;
+        }
+    }
+
     public boolean hasAnyLegalMovesForCurrentPlayer() {
-        List<Piece> activePieces = whiteTurn ? whitePieces : blackPieces;
-        for (Piece p : activePieces) {
-            List<Square> legalMoves = p.getLegalMoves(this);
-            for (Square move : legalMoves) {
-                if (isKingSafeAfterMove(p, move)) return true;
+        return detector().hasLegalMoves(whiteTurn);
+    }
+
+    /**
+     * Snapshot of this board as a bitboard {@link Position}. The snapshot is
+     * independent of the squares, so it can be searched or mutated freely.
+     */
+    public Position toPosition() {
+        Position position = new Position();
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                Piece piece = board[row][col].getOccupyingPiece();
+                if (piece != null) {
+                    position.put(Bitboards.square(row, col), piece.getColor(), bitboardType(piece));
+                }
             }
         }
-        return false;
+        position.setSideToMove(whiteTurn ? Position.WHITE : Position.BLACK);
+        return position;
     }
 
+    static int bitboardType(Piece piece) {
+        if (piece instanceof Pawn) return Position.PAWN;
+        if (piece instanceof Knight) return Position.KNIGHT;
+        if (piece instanceof Bishop) return Position.BISHOP;
+        if (piece instanceof Rook) return Position.ROOK;
+        if (piece instanceof Queen) return Position.QUEEN;
+        if (piece instanceof King) return Position.KING;
+        throw new IllegalArgumentException("Unknown piece type: " + piece.getClass());
+    }
+
+    private static final class UndoRecord {
+        Square from;
+        Square to;
+        Piece mover;
+        Piece captured;
+        int capturedIndex;
+        boolean pawnWasMoved;
+        int castlingRights;
+        Square enPassantSquare;
+        long zobristKey;
+        int halfmoveClock;
+        int fullmoveNumber;
+    }
 }
@@ -1,32 +1,104 @@
 package chess.model;
 
+import shared.timer.TimerWheel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A player's remaining time. Nothing ticks it: while it runs, one timeout on a
+ * {@link TimerWheel} is due at the moment the time would run out and fires the
+ * flag callback, and stopping the clock cancels it and books the time used.
+ */
 public class Clock {
-    private int hh, mm, ss;
+    private final TimerWheel timers;
+    private long remainingMillis;
+    private long startedAt = -1; // System.nanoTime() while running
+    private TimerWheel.Timeout flag;
+    private Runnable onFlag = () -> { };
 
     public Clock(int hh, int mm, int ss) {
-        this.hh = hh;
-        this.mm = mm;
-        this.ss = ss;
+        this(((hh * 60L + mm) * 60 + ss) * 1000, TimerWheel.shared());
+    }
+
+    public Clock(long millis, TimerWheel timers) {
+        this.remainingMillis = millis;
+        this.timers = timers;
+    }
+
+    /** Called on the timer thread when the time runs out; keep it short. */
+    public synchronized void setOnFlag(Runnable onFlag) {
+        this.onFlag = onFlag;
+    }
+
+    public synchronized void start() {
+        if (isRunning()) return;
+        startedAt = System.nanoTime();
+        flag = timers.schedule(this::flagFell, remainingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the clock and returns the time left. If the time ran out before the
+     * timeout fired (it fires up to a wheel tick late), the flag falls here instead.
+     */
+    public long stop() {
+        Runnable callback = null;
+        long left;
+        synchronized (this) {
+            if (!isRunning()) return remainingMillis;
+            remainingMillis = getRemainingMillis();
+            startedAt = -1;
+            flag.cancel();
+            left = remainingMillis;
+            if (left == 0) {
+                callback = onFlag;
+            }
+        }
+        if (callback != null) {
+            callback.run();
+        }
+        return left;
+    }
+
+    public synchronized void addMillis(long millis) {
+        boolean running = isRunning();
+        stop();
+        remainingMillis += millis;
+        if (running) start();
+    }
+
+    public synchronized boolean isRunning() {
+        return startedAt >= 0;
+    }
+
+    public synchronized long getRemainingMillis() {
+        if (!isRunning()) return remainingMillis;
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        return Math.max(0, remainingMillis - elapsed);
     }
 
     public boolean outOfTime() {
-        return hh == 0 && mm == 0 && ss == 0;
+        return getRemainingMillis() == 0;
     }
 
+    /** Takes one second off by hand. */
     public void decr() {
-        if (mm == 0 && ss == 0) {
-            hh--;
-            mm = 59;
-            ss = 59;
-        } else if (ss == 0) {
-            mm--;
-            ss = 59;
-        } else {
-            ss--;
-        }
+        addMillis(-Math.min(1000, getRemainingMillis()));
     }
 
     public String getTime() {
-        return String.format("%02d:%02d:%02d", hh, mm, ss);
+        long seconds = getRemainingMillis() / 1000;
+        return String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    private void flagFell() {
+        Runnable callback;
+        synchronized (this) {
+            // A stop that lost the race with this timeout leaves the clock stopped or restarted
+            if (!isRunning() || getRemainingMillis() > 0) return;
+            remainingMillis = 0;
+            startedAt = -1;
+            callback = onFlag;
+        }
+        callback.run();
     }
 }
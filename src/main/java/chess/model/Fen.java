@@ -0,0 +1,242 @@
+package chess.model;
+
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import chess.model.pieces.Bishop;
+import chess.model.pieces.King;
+import chess.model.pieces.Knight;
+import chess.model.pieces.Pawn;
+import chess.model.pieces.Piece;
+import chess.model.pieces.Queen;
+import chess.model.pieces.Rook;
+
+/**
+ * Forsyth-Edwards Notation: piece placement, side to move, castling rights, en
+ * passant square and the two move clocks in one canonical line, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1}.
+ *
+ * {@link #parse} and {@link #format} work on {@link Fields}, which any board
+ * representation can fill; {@link #toBoardState} and {@link #toFen(BoardState)}
+ * do the conversion for {@link BoardState}.
+ */
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * The six FEN fields. {@code pieces} is indexed {@code [row][col]} like the board
+     * squares (row 0 is rank 8) and holds FEN letters, or {@code 0} for an empty square.
+     * {@code enPassantSquare} is a square name such as "e3", or {@code null}.
+     */
+    public record Fields(char[][] pieces, boolean whiteTurn, int castlingRights, String enPassantSquare,
+                         int halfmoveClock, int fullmoveNumber) {
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Splits {@code fen} into its fields. Only placement and side to move are
+     * required; missing trailing fields default to {@code - - 0 1}.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static Fields parse(String fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("Invalid FEN: null");
+        }
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2 || fields.length > 6) {
+            throw new IllegalArgumentException("Invalid FEN, expected 2 to 6 fields: " + fen);
+        }
+
+        char[][] pieces = parsePlacement(fields[0], fen);
+        boolean whiteTurn = switch (fields[1]) {
+            case "w" -> true;
+            case "b" -> false;
+            default -> throw new IllegalArgumentException("Invalid FEN side to move '" + fields[1] + "': " + fen);
+        };
+        int castlingRights = fields.length > 2 ? parseCastling(fields[2], fen) : 0;
+        String enPassant = null;
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            if (Moves.parseSquare(fields[3]) == Position.EMPTY) {
+                throw new IllegalArgumentException("Invalid FEN en passant square '" + fields[3] + "': " + fen);
+            }
+            enPassant = fields[3];
+        }
+        int halfmoveClock = fields.length > 4 ? parseNumber(fields[4], 0, fen) : 0;
+        int fullmoveNumber = fields.length > 5 ? parseNumber(fields[5], 1, fen) : 1;
+        return new Fields(pieces, whiteTurn, castlingRights, enPassant, halfmoveClock, fullmoveNumber);
+    }
+
+    public static String format(Fields fields) {
+        StringBuilder sb = new StringBuilder(64);
+        char[][] pieces = fields.pieces();
+        for (int row = 0; row < BoardState.SIZE; row++) {
+            int empty = 0;
+            for (int col = 0; col < BoardState.SIZE; col++) {
+                char piece = pieces[row][col];
+                if (piece == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(piece);
+            }
+            if (empty > 0) sb.append(empty);
+            if (row < BoardState.SIZE - 1) sb.append('/');
+        }
+        sb.append(fields.whiteTurn() ? " w " : " b ");
+        sb.append(castling(fields.castlingRights()));
+        sb.append(' ').append(fields.enPassantSquare() != null ? fields.enPassantSquare() : "-");
+        sb.append(' ').append(fields.halfmoveClock());
+        sb.append(' ').append(fields.fullmoveNumber());
+        return sb.toString();
+    }
+
+    /**
+     * Builds a board from {@code fen}. Pawns off their start rank lose their double step.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static BoardState toBoardState(String fen) {
+        Fields fields = parse(fen);
+        Square[][] squares = new Square[BoardState.SIZE][BoardState.SIZE];
+        for (int row = 0; row < BoardState.SIZE; row++) {
+            for (int col = 0; col < BoardState.SIZE; col++) {
+                squares[row][col] = new Square(col, row, (row + col) % 2 == 0 ? 1 : 0);
+                char letter = fields.pieces()[row][col];
+                if (letter != 0) {
+                    squares[row][col].setOccupyingPiece(createPiece(letter, squares[row][col]));
+                }
+            }
+        }
+        BoardState board = new BoardState(squares);
+
+        Square enPassant = null;
+        if (fields.enPassantSquare() != null) {
+            int sq = Moves.parseSquare(fields.enPassantSquare());
+            enPassant = squares[Bitboards.row(sq)][Bitboards.col(sq)];
+        }
+        board.setPositionState(fields.whiteTurn(), fields.castlingRights(), enPassant,
+                fields.halfmoveClock(), fields.fullmoveNumber());
+        return board;
+    }
+
+    public static String toFen(BoardState board) {
+        Square[][] squares = board.getSquareArray();
+        char[][] pieces = new char[BoardState.SIZE][BoardState.SIZE];
+        for (int row = 0; row < BoardState.SIZE; row++) {
+            for (int col = 0; col < BoardState.SIZE; col++) {
+                Piece piece = squares[row][col].getOccupyingPiece();
+                if (piece != null) {
+                    pieces[row][col] = letter(piece.getColor(), BoardState.bitboardType(piece));
+                }
+            }
+        }
+        Square ep = board.getEnPassantSquare();
+        String enPassant = ep != null ? Moves.squareName(Bitboards.square(ep.getYNum(), ep.getXNum())) : null;
+        return format(new Fields(pieces, board.isWhiteTurn(), board.getCastlingRights(), enPassant,
+                board.getHalfmoveClock(), board.getFullmoveNumber()));
+    }
+
+    /** FEN letter of a piece: upper case for white, e.g. 'N' for a white knight. */
+    public static char letter(int color, int type) {
+        char letter = "pnbrqk".charAt(type);
+        return color == Position.WHITE ? Character.toUpperCase(letter) : letter;
+    }
+
+    /** Bitboard piece type of a FEN letter, or {@link Position#EMPTY} if it is not one. */
+    public static int type(char letter) {
+        int type = "pnbrqk".indexOf(Character.toLowerCase(letter));
+        return type >= 0 ? type : Position.EMPTY;
+    }
+
+    public static int color(char letter) {
+        return Character.isUpperCase(letter) ? Position.WHITE : Position.BLACK;
+    }
+
+    /** The castling field, e.g. "KQkq", or "-" without rights. */
+    public static String castling(int rights) {
+        if (rights == 0) return "-";
+        StringBuilder sb = new StringBuilder(4);
+        if ((rights & BoardState.WHITE_KINGSIDE) != 0) sb.append('K');
+        if ((rights & BoardState.WHITE_QUEENSIDE) != 0) sb.append('Q');
+        if ((rights & BoardState.BLACK_KINGSIDE) != 0) sb.append('k');
+        if ((rights & BoardState.BLACK_QUEENSIDE) != 0) sb.append('q');
+        return sb.toString();
+    }
+
+    private static char[][] parsePlacement(String placement, String fen) {
+        String[] ranks = placement.split("/", -1);
+        if (ranks.length != BoardState.SIZE) {
+            throw new IllegalArgumentException("Invalid FEN, expected 8 ranks: " + fen);
+        }
+        char[][] pieces = new char[BoardState.SIZE][BoardState.SIZE];
+        for (int row = 0; row < BoardState.SIZE; row++) {
+            int col = 0;
+            for (char c : ranks[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                if (type(c) == Position.EMPTY) {
+                    throw new IllegalArgumentException("Invalid FEN piece '" + c + "': " + fen);
+                }
+                if (col >= BoardState.SIZE) {
+                    throw new IllegalArgumentException("Invalid FEN, rank " + (8 - row) + " too long: " + fen);
+                }
+                pieces[row][col++] = c;
+            }
+            if (col != BoardState.SIZE) {
+                throw new IllegalArgumentException("Invalid FEN, rank " + (8 - row) + " has " + col + " files: " + fen);
+            }
+        }
+        return pieces;
+    }
+
+    private static Piece createPiece(char letter, Square sq) {
+        int color = color(letter) == Position.WHITE ? 1 : 0;
+        String prefix = color == 1 ? "/images/w" : "/images/b";
+        return switch (type(letter)) {
+            case Position.PAWN -> {
+                Pawn pawn = new Pawn(color, sq, prefix + "pawn.png");
+                pawn.setWasMoved(sq.getYNum() != (color == 1 ? 6 : 1));
+                yield pawn;
+            }
+            case Position.KNIGHT -> new Knight(color, sq, prefix + "knight.png");
+            case Position.BISHOP -> new Bishop(color, sq, prefix + "bishop.png");
+            case Position.ROOK -> new Rook(color, sq, prefix + "rook.png");
+            case Position.QUEEN -> new Queen(color, sq, prefix + "queen.png");
+            default -> new King(color, sq, prefix + "king.png");
+        };
+    }
+
+    private static int parseCastling(String field, String fen) {
+        if (field.equals("-")) return 0;
+        int rights = 0;
+        for (char c : field.toCharArray()) {
+            rights |= switch (c) {
+                case 'K' -> BoardState.WHITE_KINGSIDE;
+                case 'Q' -> BoardState.WHITE_QUEENSIDE;
+                case 'k' -> BoardState.BLACK_KINGSIDE;
+                case 'q' -> BoardState.BLACK_QUEENSIDE;
+                default -> throw new IllegalArgumentException("Invalid FEN castling field '" + field + "': " + fen);
+            };
+        }
+        return rights;
+    }
+
+    private static int parseNumber(String field, int min, String fen) {
+        try {
+            int value = Integer.parseInt(field);
+            if (value >= min) return value;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid FEN move clock '" + field + "': " + fen);
+    }
+}
@@ -0,0 +1,130 @@
+package chess.model;
+
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.MoveList;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import chess.model.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Perft: counts the leaf nodes of the full legal move tree to a fixed depth.
+ * Any bug in move generation, the king-safety filter or make/unmake changes the
+ * count, so comparing against known totals checks them all at once.
+ *
+ * The board variant walks the same path the game uses ({@link Piece#getLegalMoves},
+ * {@link BoardState#isKingSafeAfterMove}, {@link BoardState#makeMove}); the
+ * {@link Position} variant is the bitboard reference for cross-checking.
+ * Castling, en passant and promotion are not part of this rule set, so published
+ * counts only match for depths where none of them occur. Run with:
+ * {@code java -cp target/classes chess.model.Perft <depth> ["<fen>"] [divide]}
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    public static long perft(BoardState board, int depth) {
+        if (depth == 0) return 1;
+        long nodes = 0;
+        // Copy: captures in deeper plies take pieces out of these lists and put them back
+        List<Piece> movers = new ArrayList<>(board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces());
+        for (Piece piece : movers) {
+            Square from = piece.getPosition();
+            for (Square to : piece.getLegalMoves(board)) {
+                if (!board.isKingSafeAfterMove(piece, to)) continue;
+                if (depth == 1) {
+                    nodes++;
+                    continue;
+                }
+                board.makeMove(from, to);
+                nodes += perft(board, depth - 1);
+                board.unmakeMove();
+            }
+        }
+        return nodes;
+    }
+
+    /** Node count below each root move, keyed by coordinate notation (e.g. "e2e4"). */
+    public static Map<String, Long> divide(BoardState board, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide needs a depth of at least 1, got " + depth);
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        List<Piece> movers = new ArrayList<>(board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces());
+        for (Piece piece : movers) {
+            Square from = piece.getPosition();
+            for (Square to : piece.getLegalMoves(board)) {
+                if (!board.isKingSafeAfterMove(piece, to)) continue;
+                board.makeMove(from, to);
+                counts.put(name(from) + name(to), perft(board, depth - 1));
+                board.unmakeMove();
+            }
+        }
+        return counts;
+    }
+
+    public static long perft(Position position, int depth) {
+        if (depth == 0) return 1;
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        if (depth == 1) return moves.size();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            nodes += perft(position, depth - 1);
+            position.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    public static Map<String, Long> divide(Position position, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide needs a depth of at least 1, got " + depth);
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            counts.put(Moves.toNotation(move), perft(position, depth - 1));
+            position.unmakeMove(move);
+        }
+        return counts;
+    }
+
+    private static String name(Square sq) {
+        return Moves.squareName(Bitboards.square(sq.getYNum(), sq.getXNum()));
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Perft <depth> [\"<fen>\"] [divide]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 && !args[1].equals("divide") ? args[1] : Fen.START_POSITION;
+        boolean divide = args[args.length - 1].equals("divide");
+        BoardState board = Fen.toBoardState(fen);
+
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            Map<String, Long> counts = divide(board, depth);
+            counts.forEach((move, count) -> System.out.println(move + ": " + count));
+            nodes = counts.values().stream().mapToLong(Long::longValue).sum();
+            System.out.println("Moves: " + counts.size());
+        } else {
+            nodes = perft(board, depth);
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + millis + " ms (" + nodes * 1000 / millis + " nodes/s)");
+    }
+}
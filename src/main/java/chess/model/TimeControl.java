@@ -0,0 +1,67 @@
+package chess.model;
+
+/**
+ * How much time each player gets: a base time plus a per-move bonus, which is
+ * added after the move (increment), spent before the clock starts (simple
+ * delay) or refunded up to the time the move took (Bronstein delay).
+ *
+ * Written as minutes and seconds, e.g. {@code 10+5}, {@code 5d3}, {@code 5b3},
+ * or {@code none} for untimed games.
+ */
+public record TimeControl(long baseMillis, long bonusMillis, Mode mode) {
+
+    public enum Mode {
+        INCREMENT('+'), SIMPLE_DELAY('d'), BRONSTEIN('b');
+
+        private final char symbol;
+
+        Mode(char symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    public static final TimeControl NONE = new TimeControl(0, 0, Mode.INCREMENT);
+
+    public TimeControl {
+        if (baseMillis < 0 || bonusMillis < 0) {
+            throw new IllegalArgumentException("Negative time control: " + baseMillis + ", " + bonusMillis);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code text} is not of the form base+bonus, base{d|b}bonus or none
+     */
+    public static TimeControl parse(String text) {
+        String spec = text.trim().toLowerCase();
+        if (spec.equals("none") || spec.isEmpty()) {
+            return NONE;
+        }
+        for (Mode mode : Mode.values()) {
+            int at = spec.indexOf(mode.symbol);
+            if (at > 0) {
+                try {
+                    long base = Math.round(Double.parseDouble(spec.substring(0, at)) * 60_000);
+                    long bonus = Math.round(Double.parseDouble(spec.substring(at + 1)) * 1000);
+                    return new TimeControl(base, bonus, mode);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed time control: " + text, e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Malformed time control: " + text);
+    }
+
+    public boolean isTimed() {
+        return baseMillis > 0;
+    }
+
+    @Override
+    public String toString() {
+        if (!isTimed()) return "none";
+        return trim(baseMillis / 60_000.0) + mode.symbol + trim(bonusMillis / 1000.0);
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,155 @@
+package chess.model.bitboard;
+
+/**
+ * Attack/defend map kept in step with a {@link Position} through incremental deltas.
+ *
+ * For every occupied square the map remembers the squares that piece attacks, and
+ * for every square it counts how many white and black pieces attack (or defend)
+ * it. A move only changes the attack sets of the moved piece, the captured piece
+ * and the sliders whose rays run through the source or target square, so
+ * {@link #makeMove}/{@link #unmakeMove} touch just those pieces instead of
+ * regenerating the whole board. Check queries are then a single counter lookup.
+ */
+public final class AttackMap {
+    private final Position position;
+    private final long[] attacks = new long[64];
+    private final int[][] attackers = new int[2][64];
+    private final MoveList scratch = new MoveList();
+
+    public AttackMap(Position position) {
+        this.position = position;
+        rebuild();
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    /** Recomputes the whole map, e.g. after the position was edited square by square. */
+    public void rebuild() {
+        for (int sq = 0; sq < 64; sq++) {
+            attacks[sq] = 0L;
+            attackers[Position.WHITE][sq] = 0;
+            attackers[Position.BLACK][sq] = 0;
+        }
+        for (long bb = position.occupied(); bb != 0; bb &= bb - 1) {
+            addPiece(Long.numberOfTrailingZeros(bb));
+        }
+    }
+
+    public int attackerCount(int sq, int byColor) {
+        return attackers[byColor][sq];
+    }
+
+    public boolean isAttacked(int sq, int byColor) {
+        return attackers[byColor][sq] > 0;
+    }
+
+    public long attacksFrom(int sq) {
+        return attacks[sq];
+    }
+
+    public boolean isInCheck(int color) {
+        int king = position.kingSquare(color);
+        return king != Position.EMPTY && attackers[color ^ 1][king] > 0;
+    }
+
+    public void makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        long sliders = slidersSeeing(from, to);
+
+        removePiece(from);
+        if (Moves.isCapture(move)) removePiece(to);
+        for (long bb = sliders; bb != 0; bb &= bb - 1) removePiece(Long.numberOfTrailingZeros(bb));
+
+        position.makeMove(move);
+
+        addPiece(to);
+        for (long bb = sliders; bb != 0; bb &= bb - 1) addPiece(Long.numberOfTrailingZeros(bb));
+    }
+
+    public void unmakeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        long sliders = slidersSeeing(from, to);
+
+        removePiece(to);
+        for (long bb = sliders; bb != 0; bb &= bb - 1) removePiece(Long.numberOfTrailingZeros(bb));
+
+        position.unmakeMove(move);
+
+        addPiece(from);
+        if (Moves.isCapture(move)) addPiece(to);
+        for (long bb = sliders; bb != 0; bb &= bb - 1) addPiece(Long.numberOfTrailingZeros(bb));
+    }
+
+    /** Plays the piece standing on {@code from} to {@code to}, whoever's turn it is. */
+    public int applyMove(int from, int to) {
+        position.setSideToMove(position.colorAt(from));
+        int move = Moves.encode(from, to, position.typeAt(from), position.typeAt(to));
+        makeMove(move);
+        return move;
+    }
+
+    public boolean isLegal(int move) {
+        int us = position.getSideToMove();
+        makeMove(move);
+        boolean legal = !isInCheck(us);
+        unmakeMove(move);
+        return legal;
+    }
+
+    public boolean hasLegalMoves(int color) {
+        int sideToMove = position.getSideToMove();
+        position.setSideToMove(color);
+        position.generatePseudoLegalMoves(scratch);
+        boolean found = false;
+        for (int i = 0; i < scratch.size() && !found; i++) {
+            found = isLegal(scratch.get(i));
+        }
+        position.setSideToMove(sideToMove);
+        return found;
+    }
+
+    public boolean isCheckmated(int color) {
+        return isInCheck(color) && !hasLegalMoves(color);
+    }
+
+    public boolean isStalemated(int color) {
+        return !isInCheck(color) && !hasLegalMoves(color);
+    }
+
+    // Sliders whose rays reach either square, apart from the pieces standing on them
+    private long slidersSeeing(int from, int to) {
+        long occupied = position.occupied();
+        long diagonal = 0L;
+        long straight = 0L;
+        for (int color = 0; color < 2; color++) {
+            long queens = position.pieces(color, Position.QUEEN);
+            diagonal |= position.pieces(color, Position.BISHOP) | queens;
+            straight |= position.pieces(color, Position.ROOK) | queens;
+        }
+        long seeing = ((Bitboards.bishopAttacks(from, occupied) | Bitboards.bishopAttacks(to, occupied)) & diagonal)
+                | ((Bitboards.rookAttacks(from, occupied) | Bitboards.rookAttacks(to, occupied)) & straight);
+        return seeing & ~(Bitboards.bit(from) | Bitboards.bit(to));
+    }
+
+    private void addPiece(int sq) {
+        long squares = position.attacksFrom(sq);
+        int[] counts = attackers[position.colorAt(sq)];
+        attacks[sq] = squares;
+        for (; squares != 0; squares &= squares - 1) {
+            counts[Long.numberOfTrailingZeros(squares)]++;
+        }
+    }
+
+    private void removePiece(int sq) {
+        long squares = attacks[sq];
+        int[] counts = attackers[position.colorAt(sq)];
+        attacks[sq] = 0L;
+        for (; squares != 0; squares &= squares - 1) {
+            counts[Long.numberOfTrailingZeros(squares)]--;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package chess.model.bitboard;
+
+/**
+ * Precomputed attack tables for the bitboard move generator.
+ *
+ * Squares are numbered {@code row * 8 + col} using the same orientation as
+ * {@link chess.model.BoardState#getSquareArray()}: row 0 is black's back rank,
+ * row 7 is white's. Sliding-piece attacks use PEXT-style perfect hashing
+ * ({@link Long#compress}) of the relevant occupancy bits into a per-square table.
+ */
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    static {
+        int[][] knightSteps = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+        for (int sq = 0; sq < 64; sq++) {
+            int row = row(sq), col = col(sq);
+            for (int[] step : knightSteps) {
+                KNIGHT_ATTACKS[sq] |= bitIfOnBoard(row + step[0], col + step[1]);
+            }
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr != 0 || dc != 0) {
+                        KING_ATTACKS[sq] |= bitIfOnBoard(row + dr, col + dc);
+                    }
+                }
+            }
+            // White pawns advance towards row 0, black pawns towards row 7
+            PAWN_ATTACKS[Position.WHITE][sq] = bitIfOnBoard(row - 1, col - 1) | bitIfOnBoard(row - 1, col + 1);
+            PAWN_ATTACKS[Position.BLACK][sq] = bitIfOnBoard(row + 1, col - 1) | bitIfOnBoard(row + 1, col + 1);
+
+            ROOK_MASKS[sq] = relevantOccupancy(sq, ROOK_DIRECTIONS);
+            BISHOP_MASKS[sq] = relevantOccupancy(sq, BISHOP_DIRECTIONS);
+        }
+
+        ROOK_TABLE = new long[fillOffsets(ROOK_MASKS, ROOK_OFFSETS)];
+        BISHOP_TABLE = new long[fillOffsets(BISHOP_MASKS, BISHOP_OFFSETS)];
+        for (int sq = 0; sq < 64; sq++) {
+            fillSliderTable(sq, ROOK_MASKS[sq], ROOK_OFFSETS[sq], ROOK_TABLE, ROOK_DIRECTIONS);
+            fillSliderTable(sq, BISHOP_MASKS[sq], BISHOP_OFFSETS[sq], BISHOP_TABLE, BISHOP_DIRECTIONS);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    public static int row(int sq) {
+        return sq >>> 3;
+    }
+
+    public static int col(int sq) {
+        return sq & 7;
+    }
+
+    public static long bit(int sq) {
+        return 1L << sq;
+    }
+
+    public static long knightAttacks(int sq) {
+        return KNIGHT_ATTACKS[sq];
+    }
+
+    public static long kingAttacks(int sq) {
+        return KING_ATTACKS[sq];
+    }
+
+    public static long pawnAttacks(int color, int sq) {
+        return PAWN_ATTACKS[color][sq];
+    }
+
+    public static long rookAttacks(int sq, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSETS[sq] + (int) Long.compress(occupied, ROOK_MASKS[sq])];
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[sq] + (int) Long.compress(occupied, BISHOP_MASKS[sq])];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    // Reference ray walk, used to build the lookup tables
+    static long slidingAttacks(int sq, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int r = row(sq) + dir[0];
+            int c = col(sq) + dir[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long b = bit(square(r, c));
+                attacks |= b;
+                if ((occupied & b) != 0) break;
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    static long rookAttacksSlow(int sq, long occupied) {
+        return slidingAttacks(sq, occupied, ROOK_DIRECTIONS);
+    }
+
+    static long bishopAttacksSlow(int sq, long occupied) {
+        return slidingAttacks(sq, occupied, BISHOP_DIRECTIONS);
+    }
+
+    private static long bitIfOnBoard(int row, int col) {
+        return (row >= 0 && row < 8 && col >= 0 && col < 8) ? bit(square(row, col)) : 0L;
+    }
+
+    // Squares whose occupancy can change the attack set: the rays minus their last square
+    private static long relevantOccupancy(int sq, int[][] directions) {
+        long mask = 0L;
+        for (int[] dir : directions) {
+            int r = row(sq) + dir[0];
+            int c = col(sq) + dir[1];
+            while (r + dir[0] >= 0 && r + dir[0] < 8 && c + dir[1] >= 0 && c + dir[1] < 8) {
+                mask |= bit(square(r, c));
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static int fillOffsets(long[] masks, int[] offsets) {
+        int total = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            offsets[sq] = total;
+            total += 1 << Long.bitCount(masks[sq]);
+        }
+        return total;
+    }
+
+    private static void fillSliderTable(int sq, long mask, int offset, long[] table, int[][] directions) {
+        // Carry-rippler enumeration of every subset of the mask
+        long subset = 0L;
+        do {
+            table[offset + (int) Long.compress(subset, mask)] = slidingAttacks(sq, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0L);
+    }
+}
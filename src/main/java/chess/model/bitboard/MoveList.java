@@ -0,0 +1,40 @@
+package chess.model.bitboard;
+
+/**
+ * Reusable, fixed-capacity buffer of packed moves. A position never has more
+ * than 218 legal moves, so 256 slots are always enough.
+ */
+public final class MoveList {
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    void truncate(int newSize) {
+        size = newSize;
+    }
+}
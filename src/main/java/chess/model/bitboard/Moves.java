@@ -0,0 +1,59 @@
+package chess.model.bitboard;
+
+/**
+ * Moves are packed into a single {@code int} so that generation never allocates:
+ * bits 0-5 hold the source square, 6-11 the target square, 12-14 the moving
+ * piece type and 15-17 the captured piece type (7 when nothing is captured).
+ */
+public final class Moves {
+    public static final int NONE = -1;
+
+    private static final int NO_CAPTURE = 7;
+
+    private Moves() {
+    }
+
+    public static int encode(int from, int to, int piece, int captured) {
+        int capturedBits = captured == Position.EMPTY ? NO_CAPTURE : captured;
+        return from | (to << 6) | (piece << 12) | (capturedBits << 15);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static int captured(int move) {
+        int captured = (move >>> 15) & 0x7;
+        return captured == NO_CAPTURE ? Position.EMPTY : captured;
+    }
+
+    public static boolean isCapture(int move) {
+        return ((move >>> 15) & 0x7) != NO_CAPTURE;
+    }
+
+    // Coordinate notation used across the network protocol, e.g. "e2e4"
+    public static String toNotation(int move) {
+        return squareName(from(move)) + squareName(to(move));
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + Bitboards.col(sq)) + (8 - Bitboards.row(sq));
+    }
+
+    /** Inverse of {@link #squareName}; returns {@link Position#EMPTY} for anything else. */
+    public static int parseSquare(String name) {
+        if (name == null || name.length() != 2) return Position.EMPTY;
+        int col = name.charAt(0) - 'a';
+        int rank = name.charAt(1) - '0';
+        if (col < 0 || col > 7 || rank < 1 || rank > 8) return Position.EMPTY;
+        return Bitboards.square(8 - rank, col);
+    }
+}
@@ -0,0 +1,323 @@
+package chess.model.bitboard;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard representation of a chess position with allocation-free move generation.
+ *
+ * Colors use the same values as {@link chess.model.pieces.Piece#getColor()}
+ * (1 = white, 0 = black). The rules match the piece generators in
+ * {@code chess.model.pieces}: pawns may advance two squares from their starting
+ * row, and there is no castling, en passant or promotion. Unlike the legacy
+ * {@link chess.model.CheckmateDetector}, the enemy king counts as an attacker,
+ * so the two kings can never stand next to each other.
+ *
+ * The position keeps its {@link Zobrist} key (piece placement and side to move)
+ * up to date on every edit and move.
+ */
+public final class Position {
+    public static final int BLACK = 0;
+    public static final int WHITE = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int EMPTY = -1;
+
+    private static final int WHITE_PAWN_START_ROW = 6;
+    private static final int BLACK_PAWN_START_ROW = 1;
+
+    private final long[][] pieces = new long[2][6];
+    private final long[] occupancy = new long[2];
+    private final int[] mailbox = new int[64];
+    private final MoveList scratch = new MoveList();
+    private int sideToMove = WHITE;
+    private long key;
+
+    public Position() {
+        Arrays.fill(mailbox, EMPTY);
+    }
+
+    /** Independent copy, e.g. for a search thread of its own. */
+    public Position copy() {
+        Position copy = new Position();
+        for (int color = 0; color < 2; color++) {
+            System.arraycopy(pieces[color], 0, copy.pieces[color], 0, 6);
+        }
+        System.arraycopy(occupancy, 0, copy.occupancy, 0, 2);
+        System.arraycopy(mailbox, 0, copy.mailbox, 0, 64);
+        copy.sideToMove = sideToMove;
+        copy.key = key;
+        return copy;
+    }
+
+    // Mailbox entries pack (color << 3) | type so captures can be looked up in O(1)
+    private static int code(int color, int type) {
+        return (color << 3) | type;
+    }
+
+    public void put(int sq, int color, int type) {
+        remove(sq);
+        long b = Bitboards.bit(sq);
+        pieces[color][type] |= b;
+        occupancy[color] |= b;
+        mailbox[sq] = code(color, type);
+        key ^= Zobrist.piece(color, type, sq);
+    }
+
+    public void remove(int sq) {
+        int code = mailbox[sq];
+        if (code == EMPTY) return;
+        long b = Bitboards.bit(sq);
+        pieces[code >>> 3][code & 7] &= ~b;
+        occupancy[code >>> 3] &= ~b;
+        mailbox[sq] = EMPTY;
+        key ^= Zobrist.piece(code >>> 3, code & 7, sq);
+    }
+
+    public int typeAt(int sq) {
+        int code = mailbox[sq];
+        return code == EMPTY ? EMPTY : code & 7;
+    }
+
+    public int colorAt(int sq) {
+        int code = mailbox[sq];
+        return code == EMPTY ? EMPTY : code >>> 3;
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[color][type];
+    }
+
+    public long occupancy(int color) {
+        return occupancy[color];
+    }
+
+    public long occupied() {
+        return occupancy[WHITE] | occupancy[BLACK];
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int color) {
+        if (color != sideToMove) key ^= Zobrist.blackToMove();
+        sideToMove = color;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public boolean isWhiteToMove() {
+        return sideToMove == WHITE;
+    }
+
+    public int kingSquare(int color) {
+        long king = pieces[color][KING];
+        return king == 0L ? EMPTY : Long.numberOfTrailingZeros(king);
+    }
+
+    public void makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int piece = Moves.piece(move);
+        int captured = Moves.captured(move);
+        int us = sideToMove;
+        int them = us ^ 1;
+
+        if (captured != EMPTY) {
+            long toBit = Bitboards.bit(to);
+            pieces[them][captured] &= ~toBit;
+            occupancy[them] &= ~toBit;
+        }
+        long fromTo = Bitboards.bit(from) | Bitboards.bit(to);
+        pieces[us][piece] ^= fromTo;
+        occupancy[us] ^= fromTo;
+        mailbox[from] = EMPTY;
+        mailbox[to] = code(us, piece);
+        sideToMove = them;
+        key ^= moveKey(from, to, piece, captured, us);
+    }
+
+    public void unmakeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int piece = Moves.piece(move);
+        int captured = Moves.captured(move);
+        int them = sideToMove;
+        int us = them ^ 1;
+
+        long fromTo = Bitboards.bit(from) | Bitboards.bit(to);
+        pieces[us][piece] ^= fromTo;
+        occupancy[us] ^= fromTo;
+        mailbox[from] = code(us, piece);
+        if (captured != EMPTY) {
+            long toBit = Bitboards.bit(to);
+            pieces[them][captured] |= toBit;
+            occupancy[them] |= toBit;
+            mailbox[to] = code(them, captured);
+        } else {
+            mailbox[to] = EMPTY;
+        }
+        sideToMove = us;
+        key ^= moveKey(from, to, piece, captured, us);
+    }
+
+    // XOR delta of a move; applying it twice cancels out, so make and unmake share it
+    private static long moveKey(int from, int to, int piece, int captured, int us) {
+        long delta = Zobrist.piece(us, piece, from) ^ Zobrist.piece(us, piece, to) ^ Zobrist.blackToMove();
+        if (captured != EMPTY) delta ^= Zobrist.piece(us ^ 1, captured, to);
+        return delta;
+    }
+
+    public boolean isSquareAttacked(int sq, int byColor) {
+        long[] attacker = pieces[byColor];
+        long occupied = occupied();
+        if ((Bitboards.pawnAttacks(byColor ^ 1, sq) & attacker[PAWN]) != 0) return true;
+        if ((Bitboards.knightAttacks(sq) & attacker[KNIGHT]) != 0) return true;
+        if ((Bitboards.kingAttacks(sq) & attacker[KING]) != 0) return true;
+        if ((Bitboards.bishopAttacks(sq, occupied) & (attacker[BISHOP] | attacker[QUEEN])) != 0) return true;
+        return (Bitboards.rookAttacks(sq, occupied) & (attacker[ROOK] | attacker[QUEEN])) != 0;
+    }
+
+    public boolean isInCheck(int color) {
+        int king = kingSquare(color);
+        return king != EMPTY && isSquareAttacked(king, color ^ 1);
+    }
+
+    /** Squares attacked by the piece on {@code sq}, ignoring whose turn it is. */
+    public long attacksFrom(int sq) {
+        int type = typeAt(sq);
+        return switch (type) {
+            case PAWN -> Bitboards.pawnAttacks(colorAt(sq), sq);
+            case KNIGHT -> Bitboards.knightAttacks(sq);
+            case BISHOP -> Bitboards.bishopAttacks(sq, occupied());
+            case ROOK -> Bitboards.rookAttacks(sq, occupied());
+            case QUEEN -> Bitboards.queenAttacks(sq, occupied());
+            case KING -> Bitboards.kingAttacks(sq);
+            default -> 0L;
+        };
+    }
+
+    public void generatePseudoLegalMoves(MoveList moves) {
+        generate(moves, false);
+    }
+
+    /** Pseudo-legal captures only, e.g. for a quiescence search. */
+    public void generatePseudoLegalCaptures(MoveList moves) {
+        generate(moves, true);
+    }
+
+    private void generate(MoveList moves, boolean capturesOnly) {
+        moves.clear();
+        int us = sideToMove;
+        long own = occupancy[us];
+        long enemy = occupancy[us ^ 1];
+        long occupied = own | enemy;
+        long targets = capturesOnly ? enemy : ~own;
+
+        generatePawnMoves(moves, us, enemy, occupied, capturesOnly);
+        for (long bb = pieces[us][KNIGHT]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(moves, from, KNIGHT, Bitboards.knightAttacks(from) & targets);
+        }
+        for (long bb = pieces[us][BISHOP]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(moves, from, BISHOP, Bitboards.bishopAttacks(from, occupied) & targets);
+        }
+        for (long bb = pieces[us][ROOK]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(moves, from, ROOK, Bitboards.rookAttacks(from, occupied) & targets);
+        }
+        for (long bb = pieces[us][QUEEN]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(moves, from, QUEEN, Bitboards.queenAttacks(from, occupied) & targets);
+        }
+        for (long bb = pieces[us][KING]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(moves, from, KING, Bitboards.kingAttacks(from) & targets);
+        }
+    }
+
+    private void generatePawnMoves(MoveList moves, int us, long enemy, long occupied, boolean capturesOnly) {
+        int forward = us == WHITE ? -8 : 8;
+        int startRow = us == WHITE ? WHITE_PAWN_START_ROW : BLACK_PAWN_START_ROW;
+        for (long bb = pieces[us][PAWN]; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            int single = from + forward;
+            if (!capturesOnly && single >= 0 && single < 64 && (occupied & Bitboards.bit(single)) == 0) {
+                moves.add(Moves.encode(from, single, PAWN, EMPTY));
+                int twice = single + forward;
+                if (Bitboards.row(from) == startRow && (occupied & Bitboards.bit(twice)) == 0) {
+                    moves.add(Moves.encode(from, twice, PAWN, EMPTY));
+                }
+            }
+            addTargets(moves, from, PAWN, Bitboards.pawnAttacks(us, from) & enemy);
+        }
+    }
+
+    private void addTargets(MoveList moves, int from, int piece, long targets) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(Moves.encode(from, to, piece, typeAt(to)));
+        }
+    }
+
+    /** Whether a pseudo-legal move leaves the mover's own king out of check. */
+    public boolean isLegal(int move) {
+        int us = sideToMove;
+        makeMove(move);
+        boolean legal = !isInCheck(us);
+        unmakeMove(move);
+        return legal;
+    }
+
+    public void generateLegalMoves(MoveList moves) {
+        generatePseudoLegalMoves(moves);
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isLegal(move)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    public boolean hasLegalMoves() {
+        generatePseudoLegalMoves(scratch);
+        for (int i = 0; i < scratch.size(); i++) {
+            if (isLegal(scratch.get(i))) return true;
+        }
+        return false;
+    }
+
+    public boolean isCheckmate() {
+        return isInCheck(sideToMove) && !hasLegalMoves();
+    }
+
+    public boolean isStalemate() {
+        return !isInCheck(sideToMove) && !hasLegalMoves();
+    }
+
+    /** Finds the pseudo-legal move between two squares, or {@link Moves#NONE}. */
+    public int findMove(int from, int to) {
+        generatePseudoLegalMoves(scratch);
+        for (int i = 0; i < scratch.size(); i++) {
+            int move = scratch.get(i);
+            if (Moves.from(move) == from && Moves.to(move) == to) return move;
+        }
+        return Moves.NONE;
+    }
+
+    public int findLegalMove(int from, int to) {
+        int move = findMove(from, to);
+        return move != Moves.NONE && isLegal(move) ? move : Moves.NONE;
+    }
+}
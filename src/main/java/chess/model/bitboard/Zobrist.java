@@ -0,0 +1,71 @@
+package chess.model.bitboard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys: one random 64-bit value per (color, piece, square), plus values for
+ * the side to move, the castling rights and the en passant file. A position's key is
+ * the XOR of the values for everything in it, so a move updates the key by XOR-ing
+ * out what changed and XOR-ing in what replaced it.
+ *
+ * The table is generated from a fixed seed, so keys are the same in every JVM and
+ * can be compared between the server and its clients.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5EED_C0DE_2024L;
+
+    private static final long[][][] PIECES = new long[2][6][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int color = 0; color < 2; color++) {
+            for (int type = 0; type < 6; type++) {
+                for (int sq = 0; sq < 64; sq++) {
+                    PIECES[color][type][sq] = random.nextLong();
+                }
+            }
+        }
+        // No rights hash to zero, so a board without castling keys like the bare position
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int color, int type, int sq) {
+        return PIECES[color][type][sq];
+    }
+
+    /** Hashed in when black is to move. */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights & 15];
+    }
+
+    /** Key for an en passant target square, or 0 for {@link Position#EMPTY}. */
+    public static long enPassant(int sq) {
+        return sq == Position.EMPTY ? 0L : EN_PASSANT_FILE[Bitboards.col(sq)];
+    }
+
+    /** Full key of the piece placement and side to move of a position. */
+    public static long keyOf(Position position) {
+        long key = position.getSideToMove() == Position.BLACK ? BLACK_TO_MOVE : 0L;
+        for (long bb = position.occupied(); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            key ^= PIECES[position.colorAt(sq)][position.typeAt(sq)][sq];
+        }
+        return key;
+    }
+}
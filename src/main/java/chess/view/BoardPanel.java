@@ -91,7 +91,7 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
             } else {
                 List<Square> legal = draggingPiece.getLegalMoves(model);
                 if (legal.contains(targetSq) && model.isKingSafeAfterMove(draggingPiece, targetSq)) {
-                    model.commitMove(sourceSquare, targetSq, draggingPiece);
+                    model.commitMove(sourceSquare, targetSq);
                     tp.setDisplayPiece(true);
 
                     if (draggingPiece instanceof chess.model.pieces.Pawn) {
@@ -174,6 +174,7 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
             model.getBlackPieces().removeIf(p -> p.getPosition() == square);
             model.getBlackPieces().add(promoted);
         }
+        model.squaresChanged();
 
         repaint();
     }
@@ -200,6 +201,7 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         shake.start();
     }
 
+    /** Plays a replayed move, keeping an undo record so {@link #undoMove()} can step back over it. */
     public void applyMove(ChessMove move) {
         int fromRow = move.getFromRow();
         int fromCol = move.getFromCol();
@@ -211,7 +213,15 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
 
         Piece piece = fromSquare.getOccupyingPiece();
         if (piece != null) {
-            model.commitMove(fromSquare, toSquare, piece);
+            model.makeMove(fromSquare, toSquare);
+            revalidate();
+            repaint();
+        }
+    }
+
+    public void undoMove() {
+        if (model.getUndoDepth() > 0) {
+            model.unmakeMove();
             revalidate();
             repaint();
         }
@@ -228,6 +238,8 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
                 this.model.getSquareArray()[row][col] = newSquares[row][col];
             }
         }
+        model.squaresChanged();
+        model.clearUndoHistory();
 
         // Re-add new SquarePanels
         setLayout(new GridLayout(BoardState.SIZE, BoardState.SIZE));
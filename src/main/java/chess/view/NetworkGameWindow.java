@@ -17,6 +17,12 @@ public class NetworkGameWindow {
     private JLabel statusLabel;
     private JLabel turnLabel;
     private JLabel moveCountLabel;
+    private JLabel clockLabel;
+
+    // The server only sends clock times with each state; the side to move counts down locally in between
+    private final Timer clockTimer = new Timer(200, e -> refreshClocks());
+    private GameState clockState;
+    private long clockReceivedAt;
 
     public NetworkGameWindow(String playerRole, String playerColor) {
         this.playerRole = playerRole;
@@ -54,7 +60,7 @@ public class NetworkGameWindow {
     }
 
     private JPanel createInfoPanel() {
-        JPanel infoPanel = new JPanel(new GridLayout(3, 1, 5, 5));
+        JPanel infoPanel = new JPanel(new GridLayout(4, 1, 5, 5));
         infoPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         // Role and color info
@@ -78,6 +84,10 @@ public class NetworkGameWindow {
         infoPanel.add(statusLabel);
         infoPanel.add(gameInfoPanel);
 
+        clockLabel = new JLabel("Untimed game", SwingConstants.CENTER);
+        clockLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
+        infoPanel.add(clockLabel);
+
         return infoPanel;
     }
 
@@ -178,6 +188,17 @@ public class NetworkGameWindow {
 
             moveCountLabel.setText("Move: " + gameState.getMoveCount());
 
+            if (gameState.hasClocks()) {
+                clockState = gameState;
+                clockReceivedAt = System.nanoTime();
+                refreshClocks();
+                if (gameState.isGameOver()) {
+                    clockTimer.stop();
+                } else if (!clockTimer.isRunning()) {
+                    clockTimer.start();
+                }
+            }
+
             // Update window title if game is over
             if (gameState.isGameOver()) {
                 gameWindow.setTitle("Chess - " + getWindowTitle() + " - GAME OVER");
@@ -199,8 +220,23 @@ public class NetworkGameWindow {
         });
     }
 
+    private void refreshClocks() {
+        GameState state = clockState;
+        if (state == null) return;
+        long elapsed = state.isGameOver() ? 0 : (System.nanoTime() - clockReceivedAt) / 1_000_000;
+        long white = state.getWhiteTimeMillis() - (state.isWhiteTurn() ? elapsed : 0);
+        long black = state.getBlackTimeMillis() - (state.isWhiteTurn() ? 0 : elapsed);
+        clockLabel.setText("White " + formatClock(white) + "   Black " + formatClock(black));
+    }
+
+    private static String formatClock(long millis) {
+        long seconds = Math.max(0, millis) / 1000;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
     public void closeWindow() {
         SwingUtilities.invokeLater(() -> {
+            clockTimer.stop();
             gameWindow.dispose();
         });
     }
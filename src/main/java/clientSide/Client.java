@@ -3,27 +3,34 @@ package clientSide;
 import clientSide.clients.BotPlayerClient;
 import clientSide.clients.PlayerClient;
 import clientSide.clients.SpectatorClient;
+import clientSide.utils.Reconnector;
 import clientSide.utils.ServerConnector;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
 import startMenu.ClientConnection;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
 public class Client {
     private Scanner userInputScanner; // Single scanner for user input
-    private Scanner serverScanner;    // Single scanner for server input
+    private MessageReader serverReader; // Single reader for server input
     private PrintWriter printWriter;
     private ServerConnector serverConnector;
     private Socket gameSocket;
     private String role;
 
+    private static final String SERVER_HOST = "localhost";
     private int SERVER_PORT;
+    private int gameId;
 
     private ClientConnection clientConnection;
 
-    public Client(int serverPort,String role, ClientConnection clientConnection){
+    public Client(int serverPort, int gameId, String role, ClientConnection clientConnection){
         SERVER_PORT = serverPort;
+        this.gameId = gameId;
         this.role = role;
         this.clientConnection = clientConnection;
     }
@@ -31,7 +38,7 @@ public class Client {
     public void start() throws IOException {
         try{
             System.out.println("Connecting to chess server...");
-            gameSocket = new Socket("localhost", SERVER_PORT);
+            gameSocket = new Socket(SERVER_HOST, SERVER_PORT);
             System.out.println("Connected to server successfully!");
         }
         catch (Exception e){
@@ -41,18 +48,22 @@ public class Client {
         }
 
         try {
-            serverConnector = new ServerConnector(gameSocket);
+            // The lobby routes the connection to the game before anything else is said
+            OutputStream routeOut = gameSocket.getOutputStream();
+            routeOut.write((WireProtocol.GAME_PREFIX + gameId + "\n").getBytes(StandardCharsets.UTF_8));
+            routeOut.flush();
 
-            // heartbeat handling method
-            serverConnector.handleHeartbeat();
-            // listen to the server using second socket, not for actual game, for other processes
-            serverConnector.serverConnectionListener();
+            serverConnector = new ServerConnector(gameSocket);
 
             // Initialize streams once
             OutputStream outputStream = gameSocket.getOutputStream();
             printWriter = new PrintWriter(outputStream, true);
+
+            // heartbeats go in-band, through the same writer as the game
+            serverConnector.handleHeartbeat(printWriter);
+
             InputStream inputStream = gameSocket.getInputStream();
-            serverScanner = new Scanner(inputStream);
+            serverReader = new MessageReader(inputStream);
             userInputScanner = new Scanner(System.in); // single scanner for all user input
 
             // ✅ Send userId and role to server
@@ -60,30 +71,45 @@ public class Client {
             printWriter.println("USER_ID:" + userId);
             printWriter.flush();
 
+            // Binary updates unless -Dchess.protocol=text; older servers answer with text
+            String protocol = serverReader.negotiate(printWriter, WireProtocol.requestedByClient());
+            System.out.println("Using protocol " + protocol);
+
+            // A session token lets us take the seat back if the connection drops mid-game
+            String sessionToken = serverReader.requestSession(printWriter);
+            Reconnector reconnector = new Reconnector(SERVER_HOST, SERVER_PORT, gameId, userId, protocol, sessionToken,
+                    new Reconnector.Connection(gameSocket, serverConnector, printWriter));
+
             // assigning the role
             role = assignRole();
 
 
             if (role.equals("player")) {
-                String color = serverScanner.nextLine();
+                String color = serverReader.readLine();
                 if(color.equals("white")){
                     System.out.println("You are assigned as White player");
-                    PlayerClient whitePlayer = new PlayerClient(true, serverConnector, serverScanner, printWriter, userInputScanner, clientConnection
+                    PlayerClient whitePlayer = new PlayerClient(true, serverConnector, serverReader, printWriter, userInputScanner, clientConnection
                     );
+                    whitePlayer.setReconnector(reconnector);
                     whitePlayer.runPlayer();
                 }
                 else {
                     System.out.println("You are assigned as Black player");
-                    PlayerClient blackPlayer = new PlayerClient(false, serverConnector, serverScanner, printWriter, userInputScanner, clientConnection);
+                    PlayerClient blackPlayer = new PlayerClient(false, serverConnector, serverReader, printWriter, userInputScanner, clientConnection);
+                    blackPlayer.setReconnector(reconnector);
                     blackPlayer.runPlayer();
                 }
             } else if(role.equals("spectator")){
-                SpectatorClient spectator = new SpectatorClient(serverConnector, serverScanner);
+                SpectatorClient spectator = new SpectatorClient(serverConnector, serverReader);
+                spectator.setReconnector(reconnector);
                 spectator.clientSpectator();
             }
             else if(role.equals("bot")){
-                System.out.println("you are assigned as Black Bot");
-                BotPlayerClient bot = new BotPlayerClient(false, serverConnector, serverScanner, printWriter, userInputScanner, clientConnection, gameSocket);
+                // The server assigns colors to bots exactly like it does to players
+                boolean white = "white".equals(serverReader.readLine());
+                System.out.println("you are assigned as " + (white ? "White" : "Black") + " Bot");
+                BotPlayerClient bot = new BotPlayerClient(white, serverConnector, serverReader, printWriter, userInputScanner, clientConnection, gameSocket);
+                bot.setReconnector(reconnector);
                 bot.runBot();
             }
             else {
@@ -100,13 +126,13 @@ public class Client {
     }
 
 
-    private String assignRole(){
+    private String assignRole() throws IOException {
         printWriter.println(role);
 
         // read server responses
         String informativeMessage;
         try{
-            informativeMessage = serverScanner.nextLine();
+            informativeMessage = serverReader.readLine();
             System.out.println("Server: " + informativeMessage);
         }
         catch (Exception e){
@@ -114,9 +140,9 @@ public class Client {
             throw new RuntimeException();
         }
 
-        String acknowledgement = serverScanner.nextLine();
+        String acknowledgement = serverReader.readLine();
 
-        if (acknowledgement.equals("ok")) {
+        if ("ok".equals(acknowledgement)) {
             System.out.println("Successfully connected as " + role);
 
             System.out.println("I am assigneeeed");
@@ -133,8 +159,8 @@ public class Client {
             if (userInputScanner != null) {
                 userInputScanner.close();
             }
-            if (serverScanner != null) {
-                serverScanner.close();
+            if (serverReader != null) {
+                serverReader.close();
             }
             if (printWriter != null) {
                 printWriter.close();
@@ -143,7 +169,7 @@ public class Client {
                 gameSocket.close();
             }
             if (serverConnector != null) {
-                // Close serverConnector if it has cleanup methods
+                serverConnector.shutdown();
             }
         } catch (Exception e) {
             System.out.println("Error during cleanup: " + e.getMessage());
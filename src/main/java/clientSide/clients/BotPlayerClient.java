@@ -1,11 +1,19 @@
 package clientSide.clients;
 
-import chess.model.BoardState;
-import chess.model.Square;
-import chess.model.pieces.*;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.engine.SearchStats;
+import chess.engine.TranspositionTable;
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import clientSide.utils.Reconnector;
 import clientSide.utils.ServerConnector;
 import shared.GameState;
 import shared.ChessMove;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
 import chess.view.NetworkGameWindow;
 import startMenu.ClientConnection;
 import startMenu.buttonFunctions.PlayWithBotButton;
@@ -15,7 +23,6 @@ import java.io.ObjectInputStream;
 import java.io.PrintWriter;
 import java.net.Socket;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -23,10 +30,13 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class BotPlayerClient {
+    public static final long DEFAULT_MOVE_TIME_MILLIS = 1000;
+    public static final int DEFAULT_SEARCH_THREADS = 1;
+
     private boolean isWhite;
-    private ServerConnector serverConnector;
-    private Scanner serverScanner;
-    private PrintWriter printWriter;
+    private volatile ServerConnector serverConnector;
+    private MessageReader serverReader;
+    private volatile PrintWriter printWriter; // replaced on reconnect
     private Scanner userInputScanner;
     private NetworkGameWindow gameWindow;
     private CountDownLatch windowCreatedLatch = new CountDownLatch(1);
@@ -34,18 +44,29 @@ public class BotPlayerClient {
     private ClientConnection clientConnection;
     private GameState gameState;
     private Socket clientSocket;
-
-    public BotPlayerClient(boolean isWhite, ServerConnector serverConnector, Scanner serverScanner,
+    private Reconnector reconnector;
+    private final int hashMegabytes = Integer.getInteger("bot.hashMegabytes", TranspositionTable.DEFAULT_MEGABYTES);
+    private ParallelSearch search = new ParallelSearch(Integer.getInteger("bot.threads", DEFAULT_SEARCH_THREADS),
+            new TranspositionTable(hashMegabytes));
+    private final SearchStats searchStats = new SearchStats();
+    private long moveTimeMillis = Long.getLong("bot.moveTimeMillis", DEFAULT_MOVE_TIME_MILLIS);
+
+    public BotPlayerClient(boolean isWhite, ServerConnector serverConnector, MessageReader serverReader,
                         PrintWriter printWriter, Scanner userInputScanner, ClientConnection clientConnection, Socket clientSocket){
         this.isWhite = isWhite;
         this.serverConnector = serverConnector;
-        this.serverScanner = serverScanner;
+        this.serverReader = serverReader;
         this.printWriter = printWriter;
         this.userInputScanner = userInputScanner;
         this.clientConnection = clientConnection;
         this.clientSocket = clientSocket;
     }
 
+    /** Lets the bot take its seat back after a dropped connection; without one a drop ends the game. */
+    public void setReconnector(Reconnector reconnector) {
+        this.reconnector = reconnector;
+    }
+
     public void requestShutdown() {
         if (shutdownRequested.getAndSet(true)) {
             return; // Already shutting down
@@ -70,7 +91,9 @@ public class BotPlayerClient {
 //                System.exit(0);
 
                 // reshow the start menu
-                clientConnection.showStartMenu();
+                if (clientConnection != null) {
+                    clientConnection.showStartMenu();
+                }
             } catch (Exception e) {
                 System.err.println("Error during shutdown: " + e.getMessage());
                 System.exit(1); // Force exit even on error
@@ -87,25 +110,24 @@ public class BotPlayerClient {
 
         while (serverConnector.getIsConnected().get() && !shutdownRequested.get()) {
             try {
-                // Check if scanner has data available (non-blocking check)
-                if (!serverScanner.hasNextLine()) {
-                    Thread.sleep(100); // Brief pause to prevent busy waiting
-                    continue;
+                Message message = serverReader.read();
+                if (message == null) {
+                    // Server closed the connection without ending the game
+                    if (reconnect()) continue;
+                    break;
                 }
 
-                String messageFromServer = serverScanner.nextLine();
-
                 // Check for shutdown during processing
                 if (shutdownRequested.get()) {
                     break;
                 }
 
+                String messageFromServer = message.isGameState() ? WireProtocol.GAME_STATE_UPDATE : message.text();
                 System.out.println("Received from server: " + messageFromServer);
 
-                if (messageFromServer.equals("GAME_STATE_UPDATE")) {
+                if (message.isGameState()) {
                     // This is a game state update
-                    String gameStateData = serverScanner.nextLine();
-                    gameState = deserializeGameState(gameStateData);
+                    gameState = message.gameState();
 
                     System.out.println("Game state updated in bot player");
 
@@ -114,13 +136,13 @@ public class BotPlayerClient {
                     System.out.println("Your turn! Make your move on the board or type 'resign'");
 
 
-                    ChessMove botMove = findLegalMove();
+                    ChessMove botMove = findBestMove();
 
                     sendMoveToServer(botMove);
 
                 } else if (messageFromServer.equals("INVALID_MOVE")) {
                     // Server rejected our move
-                    String errorMessage = serverScanner.nextLine();
+                    String errorMessage = serverReader.readLine();
                     System.out.println("Invalid move: " + errorMessage);
 
                     if (gameWindow != null && !shutdownRequested.get()) {
@@ -131,7 +153,7 @@ public class BotPlayerClient {
 
                 } else if (messageFromServer.equals("GAME_END")) {
                     // Game has ended
-                    String endMessage = serverScanner.nextLine();
+                    String endMessage = serverReader.readLine();
                     System.out.println("Game ended: " + endMessage);
 
                     if (gameWindow != null && !shutdownRequested.get()) {
@@ -148,6 +170,7 @@ public class BotPlayerClient {
             } catch (Exception e) {
                 if (!shutdownRequested.get()) {
                     System.out.println("Connection lost or error occurred: " + e.getMessage());
+                    if (reconnect()) continue;
                 }
                 break;
             }
@@ -161,89 +184,62 @@ public class BotPlayerClient {
         }
     }
 
-    private ChessMove findLegalMove() {
-        String[][] stringBoard = gameState.getBoard();
-        Square[][] squareBoard = generateSquareBoard(stringBoard);
-
-        BoardState currentBoard = new BoardState(squareBoard);
+    // Back on a new connection if the server still holds the seat
+    private boolean reconnect() {
+        if (reconnector == null || shutdownRequested.get()) return false;
+        System.out.println("Reconnecting to the game...");
+        Reconnector.Connection connection = reconnector.reconnect(serverReader);
+        if (connection == null) return false;
+        serverConnector = connection.connector();
+        printWriter = connection.writer();
+        clientSocket = connection.socket();
+        System.out.println("Reconnected to the game");
+        return true;
+    }
 
-        List<Piece> blackPieces = currentBoard.getBlackPieces();
+    private ChessMove findBestMove() {
+        Position position = gameState.toPosition();
+        position.setSideToMove(isWhite ? Position.WHITE : Position.BLACK);
 
-        for(Piece piece : blackPieces){
-            List<Square> legalMoves = piece.getLegalMoves(currentBoard);
+        SearchResult result = search.search(position, moveTimeMillis);
+        searchStats.record(result);
+        System.out.println("Bot search: " + result);
+        System.out.println("Bot totals: " + searchStats);
+        System.out.println("Bot hash table: " + search.getTable());
 
-            for (Square targetSquare : legalMoves){
-                if(currentBoard.isKingSafeAfterMove(piece, targetSquare)){
-                    return new ChessMove(
-                            piece.getPosition().getYNum(),
-                            piece.getPosition().getXNum(),
-                            targetSquare.getYNum(),
-                            targetSquare.getXNum());
-                }
-            }
+        int move = result.getBestMove();
+        if (move == Moves.NONE) {
+            return null;
         }
-        return null;
+        return new ChessMove(
+                Bitboards.row(Moves.from(move)),
+                Bitboards.col(Moves.from(move)),
+                Bitboards.row(Moves.to(move)),
+                Bitboards.col(Moves.to(move)));
     }
 
-    private Square[][] generateSquareBoard(String[][] stringBoard) {
-        Square[][] board = new Square[8][8];
-
-        // First pass: Create all squares with proper colors
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                // Square color follows same pattern as original BoardState
-                int squareColor = ((col + row) % 2 == 0) ? 1 : 0;
-                board[row][col] = new Square(col, row, squareColor);
-            }
-        }
-
-        // Second pass: Create and place pieces
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                String pieceString = stringBoard[row][col];
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
 
-                if (pieceString != null && !pieceString.isEmpty()) {
-                    Piece piece = createPieceFromString(pieceString, board[row][col]);
-                    if (piece != null) {
-                        board[row][col].setOccupyingPiece(piece);
-                    }
-                }
-            }
-        }
+    public void setMoveTimeMillis(long moveTimeMillis) {
+        this.moveTimeMillis = moveTimeMillis;
+    }
 
-        return board;
+    public int getSearchThreads() {
+        return search.getThreads();
     }
 
-    private Piece createPieceFromString(String pieceString, Square square) {
-        if (pieceString == null || pieceString.length() < 2) {
-            return null;
-        }
+    // Takes effect from the next move; the transposition table starts empty again
+    public void setSearchThreads(int threads) {
+        if (threads == search.getThreads()) return;
+        ParallelSearch previous = search;
+        search = new ParallelSearch(threads, new TranspositionTable(hashMegabytes));
+        previous.close();
+    }
 
-        // Extract color and piece type
-        int pieceColor = pieceString.charAt(0) == 'w' ? 1 : 0; // 1 = white, 0 = black
-        String pieceType = pieceString.substring(1); // Everything after color char
-
-        // Create image path
-        String imagePath = "/images/" + pieceString + ".png";
-
-        // Create appropriate piece based on type
-        switch (pieceType) {
-            case "pawn":
-                return new Pawn(pieceColor, square, imagePath);
-            case "rook":
-                return new Rook(pieceColor, square, imagePath);
-            case "knight":
-                return new Knight(pieceColor, square, imagePath);
-            case "bishop":
-                return new Bishop(pieceColor, square, imagePath);
-            case "queen":
-                return new Queen(pieceColor, square, imagePath);
-            case "king":
-                return new King(pieceColor, square, imagePath);
-            default:
-                System.err.println("Unknown piece type: " + pieceType);
-                return null;
-        }
+    public SearchStats getSearchStats() {
+        return searchStats;
     }
 
     // Called by the board panel when player makes a move
@@ -273,82 +269,6 @@ public class BotPlayerClient {
         }
     }
 
-    // Deserialize game state from server format
-    private GameState deserializeGameState(String data) {
-        GameState gameState = new GameState();
-
-        try {
-            if (data == null || data.trim().isEmpty()) {
-                return gameState;
-            }
-
-            String[] parts = data.split("\\|", -1);
-
-            // Parse board state
-            if (parts.length > 0 && !parts[0].isEmpty()) {
-                String[] pieces = parts[0].split(";");
-                String[][] board = gameState.getBoard();
-
-                for (String piece : pieces) {
-                    if (!piece.trim().isEmpty()) {
-                        String[] pieceData = piece.split(",");
-                        if (pieceData.length >= 3) {
-                            int row = Integer.parseInt(pieceData[0]);
-                            int col = Integer.parseInt(pieceData[1]);
-                            String pieceType = pieceData[2];
-                            board[row][col] = pieceType;
-                        }
-                    }
-                }
-            }
-
-            // Parse metadata
-            if (parts.length > 1 && !parts[1].isEmpty()) {
-                String[] metadata = parts[1].split(";");
-                for (String meta : metadata) {
-                    if (meta.contains(":")) {
-                        String[] keyValue = meta.split(":", 2);
-                        if (keyValue.length >= 2) {
-                            String key = keyValue[0].trim();
-                            String value = keyValue[1].trim();
-
-                            switch (key) {
-                                case "whiteTurn":
-                                    gameState.setWhiteTurn(Boolean.parseBoolean(value));
-                                    break;
-                                case "whiteInCheck":
-                                    gameState.setWhiteInCheck(Boolean.parseBoolean(value));
-                                    break;
-                                case "blackInCheck":
-                                    gameState.setBlackInCheck(Boolean.parseBoolean(value));
-                                    break;
-                                case "gameOver":
-                                    gameState.setGameOver(Boolean.parseBoolean(value));
-                                    break;
-                                case "winner":
-                                    gameState.setWinner(value.equals("none") ? null : value);
-                                    break;
-                                case "moveCount":
-                                    gameState.setMoveCount(Integer.parseInt(value));
-                                    break;
-                                case "lastMove":
-                                    gameState.setLastMove(value.equals("none") ? null : value);
-                                    break;
-                            }
-                        }
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            if (!shutdownRequested.get()) {
-                System.out.println("Error deserializing game state: " + e.getMessage());
-            }
-        }
-
-        return gameState;
-    }
-
     public boolean isWhite() {
         return isWhite;
     }
@@ -361,6 +281,8 @@ public class BotPlayerClient {
         System.out.println("Closing all client resources...");
 
         try {
+            search.close();
+
             // Close server connector first (this stops heartbeat threads)
             if (serverConnector != null) {
                 serverConnector.shutdown();
@@ -371,8 +293,8 @@ public class BotPlayerClient {
                 printWriter.close();
             }
 
-            if (serverScanner != null) {
-                serverScanner.close();
+            if (serverReader != null) {
+                serverReader.close();
             }
 
             if (userInputScanner != null) {
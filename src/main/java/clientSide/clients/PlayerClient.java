@@ -1,8 +1,12 @@
 package clientSide.clients;
 
+import clientSide.utils.Reconnector;
 import clientSide.utils.ServerConnector;
 import shared.GameState;
 import shared.ChessMove;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
 import chess.view.NetworkGameWindow;
 import startMenu.ClientConnection;
 
@@ -14,20 +18,21 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PlayerClient {
     private boolean isWhite;
-    private ServerConnector serverConnector;
-    private Scanner serverScanner;
-    private PrintWriter printWriter;
+    private volatile ServerConnector serverConnector;
+    private MessageReader serverReader;
+    private volatile PrintWriter printWriter; // replaced on reconnect, used by the board on the EDT
     private Scanner userInputScanner;
     private NetworkGameWindow gameWindow;
     private CountDownLatch windowCreatedLatch = new CountDownLatch(1);
     private AtomicBoolean shutdownRequested = new AtomicBoolean(false);
     private ClientConnection clientConnection;
+    private Reconnector reconnector;
 
-    public PlayerClient(boolean isWhite, ServerConnector serverConnector, Scanner serverScanner,
+    public PlayerClient(boolean isWhite, ServerConnector serverConnector, MessageReader serverReader,
                         PrintWriter printWriter, Scanner userInputScanner, ClientConnection clientConnection){
         this.isWhite = isWhite;
         this.serverConnector = serverConnector;
-        this.serverScanner = serverScanner;
+        this.serverReader = serverReader;
         this.printWriter = printWriter;
         this.userInputScanner = userInputScanner;
         this.clientConnection = clientConnection;
@@ -73,6 +78,11 @@ public class PlayerClient {
         }
     }
 
+    /** Lets the player take the seat back after a dropped connection; without one a drop ends the game. */
+    public void setReconnector(Reconnector reconnector) {
+        this.reconnector = reconnector;
+    }
+
     public void requestShutdown() {
         if (shutdownRequested.getAndSet(true)) {
             return; // Already shutting down
@@ -121,25 +131,24 @@ public class PlayerClient {
 
         while (serverConnector.getIsConnected().get() && !shutdownRequested.get()) {
             try {
-                // Check if scanner has data available (non-blocking check)
-                if (!serverScanner.hasNextLine()) {
-                    Thread.sleep(100); // Brief pause to prevent busy waiting
-                    continue;
+                Message message = serverReader.read();
+                if (message == null) {
+                    // Server closed the connection without ending the game
+                    if (reconnect()) continue;
+                    break;
                 }
 
-                String messageFromServer = serverScanner.nextLine();
-
                 // Check for shutdown during processing
                 if (shutdownRequested.get()) {
                     break;
                 }
 
+                String messageFromServer = message.isGameState() ? WireProtocol.GAME_STATE_UPDATE : message.text();
                 System.out.println("Received from server: " + messageFromServer);
 
-                if (messageFromServer.equals("GAME_STATE_UPDATE")) {
+                if (message.isGameState()) {
                     // This is a game state update
-                    String gameStateData = serverScanner.nextLine();
-                    GameState gameState = deserializeGameState(gameStateData);
+                    GameState gameState = message.gameState();
 
                     if (gameWindow != null && !shutdownRequested.get()) {
                         SwingUtilities.invokeLater(() -> {
@@ -154,7 +163,7 @@ public class PlayerClient {
 
                 } else if (messageFromServer.equals("INVALID_MOVE")) {
                     // Server rejected our move
-                    String errorMessage = serverScanner.nextLine();
+                    String errorMessage = serverReader.readLine();
                     System.out.println("Invalid move: " + errorMessage);
 
                     if (gameWindow != null && !shutdownRequested.get()) {
@@ -165,7 +174,7 @@ public class PlayerClient {
 
                 } else if (messageFromServer.equals("GAME_END")) {
                     // Game has ended
-                    String endMessage = serverScanner.nextLine();
+                    String endMessage = serverReader.readLine();
                     System.out.println("Game ended: " + endMessage);
 
                     if (gameWindow != null && !shutdownRequested.get()) {
@@ -182,6 +191,7 @@ public class PlayerClient {
             } catch (Exception e) {
                 if (!shutdownRequested.get()) {
                     System.out.println("Connection lost or error occurred: " + e.getMessage());
+                    if (reconnect()) continue;
                 }
                 break;
             }
@@ -195,6 +205,18 @@ public class PlayerClient {
         }
     }
 
+    // Back on a new connection if the server still holds the seat
+    private boolean reconnect() {
+        if (reconnector == null || shutdownRequested.get()) return false;
+        System.out.println("Reconnecting to the game...");
+        Reconnector.Connection connection = reconnector.reconnect(serverReader);
+        if (connection == null) return false;
+        serverConnector = connection.connector();
+        printWriter = connection.writer();
+        System.out.println("Reconnected to the game");
+        return true;
+    }
+
     // Called by the board panel when player makes a move
     public void sendMoveToServer(ChessMove move) {
         if (shutdownRequested.get()) return;
@@ -210,82 +232,6 @@ public class PlayerClient {
     }
 
 
-    // Deserialize game state from server format
-    private GameState deserializeGameState(String data) {
-        GameState gameState = new GameState();
-
-        try {
-            if (data == null || data.trim().isEmpty()) {
-                return gameState;
-            }
-
-            String[] parts = data.split("\\|", -1);
-
-            // Parse board state
-            if (parts.length > 0 && !parts[0].isEmpty()) {
-                String[] pieces = parts[0].split(";");
-                String[][] board = gameState.getBoard();
-
-                for (String piece : pieces) {
-                    if (!piece.trim().isEmpty()) {
-                        String[] pieceData = piece.split(",");
-                        if (pieceData.length >= 3) {
-                            int row = Integer.parseInt(pieceData[0]);
-                            int col = Integer.parseInt(pieceData[1]);
-                            String pieceType = pieceData[2];
-                            board[row][col] = pieceType;
-                        }
-                    }
-                }
-            }
-
-            // Parse metadata
-            if (parts.length > 1 && !parts[1].isEmpty()) {
-                String[] metadata = parts[1].split(";");
-                for (String meta : metadata) {
-                    if (meta.contains(":")) {
-                        String[] keyValue = meta.split(":", 2);
-                        if (keyValue.length >= 2) {
-                            String key = keyValue[0].trim();
-                            String value = keyValue[1].trim();
-
-                            switch (key) {
-                                case "whiteTurn":
-                                    gameState.setWhiteTurn(Boolean.parseBoolean(value));
-                                    break;
-                                case "whiteInCheck":
-                                    gameState.setWhiteInCheck(Boolean.parseBoolean(value));
-                                    break;
-                                case "blackInCheck":
-                                    gameState.setBlackInCheck(Boolean.parseBoolean(value));
-                                    break;
-                                case "gameOver":
-                                    gameState.setGameOver(Boolean.parseBoolean(value));
-                                    break;
-                                case "winner":
-                                    gameState.setWinner(value.equals("none") ? null : value);
-                                    break;
-                                case "moveCount":
-                                    gameState.setMoveCount(Integer.parseInt(value));
-                                    break;
-                                case "lastMove":
-                                    gameState.setLastMove(value.equals("none") ? null : value);
-                                    break;
-                            }
-                        }
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            if (!shutdownRequested.get()) {
-                System.out.println("Error deserializing game state: " + e.getMessage());
-            }
-        }
-
-        return gameState;
-    }
-
     public boolean isWhite() {
         return isWhite;
     }
@@ -308,8 +254,8 @@ public class PlayerClient {
                 printWriter.close();
             }
 
-            if (serverScanner != null) {
-                serverScanner.close();
+            if (serverReader != null) {
+                serverReader.close();
             }
 
             if (userInputScanner != null) {
@@ -1,20 +1,25 @@
 package clientSide.clients;
 
+import clientSide.utils.Reconnector;
 import clientSide.utils.ServerConnector;
 import shared.GameState;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
 import chess.view.NetworkGameWindow;
 
 import javax.swing.*;
-import java.util.Scanner;
+import java.io.EOFException;
 
 public class SpectatorClient {
     private ServerConnector serverConnector;
-    private Scanner serverScanner;
+    private MessageReader serverReader;
     private NetworkGameWindow gameWindow;
+    private Reconnector reconnector;
 
-    public SpectatorClient(ServerConnector serverConnector, Scanner serverScanner){
+    public SpectatorClient(ServerConnector serverConnector, MessageReader serverReader){
         this.serverConnector = serverConnector;
-        this.serverScanner = serverScanner;
+        this.serverReader = serverReader;
 
         initializeSpectatorWindow();
     }
@@ -31,18 +36,26 @@ public class SpectatorClient {
         }
     }
 
+    /** Lets the spectator pick the game up again after a dropped connection. */
+    public void setReconnector(Reconnector reconnector) {
+        this.reconnector = reconnector;
+    }
+
     public void clientSpectator() {
         System.out.println("You are now a spectator. Watching the game...");
 
-        try {
-            while (serverConnector.getIsConnected().get()) {
-                String messageFromServer = serverScanner.nextLine();
+        while (serverConnector.getIsConnected().get()) {
+            try {
+                Message message = serverReader.read();
+                if (message == null) {
+                    throw new EOFException("server closed the connection");
+                }
+                String messageFromServer = message.isGameState() ? WireProtocol.GAME_STATE_UPDATE : message.text();
                 System.out.println("Spectator received: " + messageFromServer);
 
-                if (messageFromServer.equals("GAME_STATE_UPDATE")) {
+                if (message.isGameState()) {
                     // This is a game state update
-                    String gameStateData = serverScanner.nextLine();
-                    GameState gameState = deserializeGameState(gameStateData);
+                    GameState gameState = message.gameState();
 
                     if (gameWindow != null) {
                         gameWindow.updateGameState(gameState);
@@ -53,7 +66,7 @@ public class SpectatorClient {
 
                 } else if (messageFromServer.equals("GAME_END")) {
                     // Game has ended
-                    String endMessage = serverScanner.nextLine();
+                    String endMessage = serverReader.readLine();
                     System.out.println("Game ended: " + endMessage);
 
                     gameWindow.showInfo("Game Over: " + endMessage);
@@ -69,91 +82,25 @@ public class SpectatorClient {
                         System.out.println("Game update: " + messageFromServer);
                     }
                 }
+            } catch (Exception e) {
+                System.out.println("Connection lost or error occurred: " + e.getMessage());
+                if (reconnect()) continue;
+                serverConnector.getIsConnected().set(false);
+                closeAllResources();
+                break;
             }
-        } catch (Exception e) {
-            System.out.println("Connection lost or error occurred: " + e.getMessage());
-            serverConnector.getIsConnected().set(false);
-            closeAllResources();
         }
     }
 
-    // Deserialize game state from server format
-    private GameState deserializeGameState(String data) {
-        GameState gameState = new GameState();
-
-        try {
-            System.out.println("Spectator deserializing game state data: " + data);
-
-            if (data == null || data.trim().isEmpty()) {
-                System.out.println("Empty game state data received");
-                return gameState;
-            }
-
-            String[] parts = data.split("\\|", -1); // -1 to keep empty strings
-            System.out.println("Split into " + parts.length + " parts");
-
-            // Parse board state
-            if (parts.length > 0 && !parts[0].isEmpty()) {
-                String[] pieces = parts[0].split(";");
-                String[][] board = gameState.getBoard();
-
-                for (String piece : pieces) {
-                    if (!piece.trim().isEmpty()) {
-                        String[] pieceData = piece.split(",");
-                        if (pieceData.length >= 3) {
-                            int row = Integer.parseInt(pieceData[0]);
-                            int col = Integer.parseInt(pieceData[1]);
-                            String pieceType = pieceData[2];
-                            board[row][col] = pieceType;
-                        }
-                    }
-                }
-            }
-
-            // Parse metadata
-            if (parts.length > 1 && !parts[1].isEmpty()) {
-                String[] metadata = parts[1].split(";");
-                for (String meta : metadata) {
-                    if (meta.contains(":")) {
-                        String[] keyValue = meta.split(":", 2); // Limit to 2 parts
-                        if (keyValue.length >= 2) {
-                            String key = keyValue[0].trim();
-                            String value = keyValue[1].trim();
-
-                            switch (key) {
-                                case "whiteTurn":
-                                    gameState.setWhiteTurn(Boolean.parseBoolean(value));
-                                    break;
-                                case "whiteInCheck":
-                                    gameState.setWhiteInCheck(Boolean.parseBoolean(value));
-                                    break;
-                                case "blackInCheck":
-                                    gameState.setBlackInCheck(Boolean.parseBoolean(value));
-                                    break;
-                                case "gameOver":
-                                    gameState.setGameOver(Boolean.parseBoolean(value));
-                                    break;
-                                case "winner":
-                                    gameState.setWinner(value.equals("none") ? null : value);
-                                    break;
-                                case "moveCount":
-                                    gameState.setMoveCount(Integer.parseInt(value));
-                                    break;
-                                case "lastMove":
-                                    gameState.setLastMove(value.equals("none") ? null : value);
-                                    break;
-                            }
-                        }
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            System.out.println("Error deserializing game state: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return gameState;
+    // Back on a new connection if the server still holds our place
+    private boolean reconnect() {
+        if (reconnector == null) return false;
+        System.out.println("Reconnecting to the game...");
+        Reconnector.Connection connection = reconnector.reconnect(serverReader);
+        if (connection == null) return false;
+        serverConnector = connection.connector();
+        System.out.println("Reconnected to the game");
+        return true;
     }
 
     private void closeAllResources(){
@@ -162,8 +109,8 @@ public class SpectatorClient {
                 gameWindow.closeWindow();
             }
 
-            if (serverScanner != null) {
-                serverScanner.close();
+            if (serverReader != null) {
+                serverReader.close();
             }
 
         } catch (Exception e) {
@@ -0,0 +1,126 @@
+package clientSide.utils;
+
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Brings a client back into its game after the connection drops. The client asks
+ * for a session token when it joins; on a drop this connects again, goes through
+ * the usual handshake and sends {@code RESUME:<token>:<ply>} in place of the role,
+ * with the last ply its {@link MessageReader} saw. The server holds the seat for a
+ * grace period, so attempts are retried until {@link #RETRY_WINDOW_MILLIS} is up.
+ *
+ * The reader is kept across reconnects, so the moves the server replays apply to
+ * the state the client already has.
+ */
+public class Reconnector {
+    private static final Logger LOGGER = Logger.getLogger(Reconnector.class.getName());
+    // Matches the server's default grace period (server.reconnectGraceMillis)
+    public static final long RETRY_WINDOW_MILLIS = Long.getLong("client.reconnectMillis", 30_000);
+    private static final long RETRY_DELAY_MILLIS = 500;
+
+    /** One connection to the game; its writer is the one heartbeats and moves go through. */
+    public record Connection(Socket socket, ServerConnector connector, PrintWriter writer) { }
+
+    private final String host;
+    private final int port;
+    private final int gameId;
+    private final int userId;
+    private final String protocol;
+    private final String sessionToken;
+    private Connection current;
+
+    /**
+     * @param protocol the protocol the first connection negotiated, asked for again on each reconnect
+     * @param current  the connection the client joined on
+     */
+    public Reconnector(String host, int port, int gameId, int userId, String protocol, String sessionToken,
+                       Connection current) {
+        this.host = host;
+        this.port = port;
+        this.gameId = gameId;
+        this.userId = userId;
+        this.protocol = protocol;
+        this.sessionToken = sessionToken;
+        this.current = current;
+    }
+
+    /**
+     * Drops the current connection and resumes the session on a new one, moving
+     * {@code reader} over to it.
+     *
+     * @return the new connection, or {@code null} if the server no longer holds the
+     * seat or could not be reached in time
+     */
+    public Connection reconnect(MessageReader reader) {
+        close(current);
+        long deadline = System.currentTimeMillis() + RETRY_WINDOW_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Socket socket = null;
+            try {
+                socket = new Socket(host, port);
+                Connection connection = resume(socket, reader);
+                if (connection == null) {
+                    LOGGER.warning("Reconnect - Session for game " + gameId + " is no longer held");
+                    return null;
+                }
+                current = connection;
+                LOGGER.info("Reconnect - Resumed game " + gameId + " from ply " + reader.getLastSeenPly());
+                return connection;
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Reconnect - Attempt failed, retrying", e);
+                closeQuietly(socket);
+            }
+            try {
+                Thread.sleep(RETRY_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        LOGGER.warning("Reconnect - Gave up on game " + gameId + " after " + RETRY_WINDOW_MILLIS + " ms");
+        return null;
+    }
+
+    // The handshake of a fresh join, with RESUME instead of the role
+    private Connection resume(Socket socket, MessageReader reader) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write((WireProtocol.GAME_PREFIX + gameId + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+
+        ServerConnector connector = new ServerConnector(socket);
+        PrintWriter writer = new PrintWriter(out, true);
+        reader.reattach(socket.getInputStream());
+        writer.println("USER_ID:" + userId);
+        reader.negotiate(writer, protocol);
+        if (!reader.resume(writer, sessionToken)) {
+            closeQuietly(socket);
+            return null;
+        }
+        connector.handleHeartbeat(writer);
+        return new Connection(socket, connector, writer);
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) return;
+        connection.connector().shutdown();
+        closeQuietly(connection.socket());
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) return;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Reconnect - Error closing socket", e);
+        }
+    }
+}
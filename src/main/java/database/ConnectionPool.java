@@ -0,0 +1,183 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed set of open connections to one database, handed out as
+ * {@link PooledConnection}s and taken back when those are closed. Connections
+ * are opened on demand up to the pool size and each keeps its prepared
+ * statements, so a login or history lookup neither connects nor re-parses SQL.
+ *
+ * Every connection gets {@link DatabaseManager#configureConnection}'s pragmas;
+ * the schema is created or migrated once, when the first one is opened.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    public static final String DEFAULT_URL = System.getProperty("db.url", "jdbc:sqlite:chess.db");
+    public static final int DEFAULT_SIZE = Integer.getInteger("db.poolSize", 4);
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+
+    private static ConnectionPool shared;
+    private static final List<Runnable> beforeSharedClose = new ArrayList<>();
+
+    private final String url;
+    private final int size;
+    private final BlockingQueue<PooledConnection> idle;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicLong borrows = new AtomicLong();
+    private boolean schemaReady;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        this.url = url;
+        this.size = size;
+        this.idle = new ArrayBlockingQueue<>(size);
+    }
+
+    /** The pool for the application database, opened on first use and closed on JVM exit. */
+    public static synchronized ConnectionPool shared() {
+        if (shared == null) {
+            ConnectionPool pool = new ConnectionPool(DEFAULT_URL, DEFAULT_SIZE);
+            // The JVM runs hooks concurrently, so flushing and closing share one hook to stay in order
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeAtExit(pool), "Connection-Pool-Close"));
+            shared = pool;
+        }
+        return shared;
+    }
+
+    /** Runs {@code task} on JVM exit before the shared pool closes, e.g. to flush queued writes. */
+    static void beforeSharedClose(Runnable task) {
+        shared();
+        synchronized (ConnectionPool.class) {
+            beforeSharedClose.add(task);
+        }
+    }
+
+    private static void closeAtExit(ConnectionPool pool) {
+        List<Runnable> tasks;
+        synchronized (ConnectionPool.class) {
+            tasks = new ArrayList<>(beforeSharedClose);
+        }
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Pool - Error before closing on exit", e);
+            }
+        }
+        pool.close();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * An idle connection, a new one while the pool is below its size, or the
+     * next one returned. Close it to give it back.
+     *
+     * @throws SQLException if none frees up within ten seconds or a new connection cannot be opened
+     */
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        borrows.incrementAndGet();
+        PooledConnection connection = idle.poll();
+        if (connection == null) {
+            connection = openIfBelowSize();
+        }
+        if (connection == null) {
+            try {
+                connection = idle.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a connection", e);
+            }
+            if (connection == null) {
+                throw new SQLException("No connection free after " + BORROW_TIMEOUT_MILLIS + " ms");
+            }
+        }
+        return connection;
+    }
+
+    /** Connections opened so far, never more than the pool size unless some broke. */
+    public int getOpenedCount() {
+        return opened.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getBorrowCount() {
+        return borrows.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<PooledConnection> connections;
+        synchronized (this) {
+            connections = new ArrayList<>(all);
+            all.clear();
+        }
+        idle.clear();
+        connections.forEach(PooledConnection::closePhysical);
+    }
+
+    // Called by PooledConnection.close()
+    void giveBack(PooledConnection connection) {
+        if (closed || !connection.reset()) {
+            discard(connection);
+            return;
+        }
+        idle.offer(connection);
+    }
+
+    private void discard(PooledConnection connection) {
+        synchronized (this) {
+            all.remove(connection);
+        }
+        connection.closePhysical();
+    }
+
+    private synchronized PooledConnection openIfBelowSize() throws SQLException {
+        if (all.size() >= size) return null;
+        Connection raw = DriverManager.getConnection(url);
+        try {
+            DatabaseManager.configureConnection(raw);
+            if (!schemaReady) {
+                DatabaseManager.initializeSchema(raw);
+                schemaReady = true;
+            }
+        } catch (SQLException e) {
+            try {
+                raw.close();
+            } catch (SQLException closeEx) {
+                LOGGER.log(Level.FINE, "Pool - Error closing connection", closeEx);
+            }
+            throw e;
+        }
+        PooledConnection connection = new PooledConnection(raw, this);
+        all.add(connection);
+        opened.incrementAndGet();
+        LOGGER.fine("Pool - Opened connection " + all.size() + " of " + size + " to " + url);
+        return connection;
+    }
+}
@@ -1,11 +1,81 @@
 package database;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+/**
+ * Creates and upgrades the schema. The tables themselves are created if
+ * missing on every call; changes after them are numbered migrations, applied
+ * once each and recorded in SQLite's {@code user_version}.
+ */
 public class DatabaseManager {
+    /** The version {@link #initializeSchema} brings a database to. */
+    public static final int SCHEMA_VERSION = 2;
+
+    // MIGRATIONS[i] takes the schema from version i to i + 1; version 1 is the tables alone
+    private static final String[][] MIGRATIONS = {
+            {},
+            {
+                    // History lookups filter on either player; moves are read per game, in order
+                    "CREATE INDEX IF NOT EXISTS idx_games_white ON games (white_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_games_black ON games (black_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_moves_game ON moves (game_id, move_number)"
+            }
+    };
+
     public static void initializeSchema(Connection conn) throws SQLException {
+        migrate(conn, SCHEMA_VERSION);
+    }
+
+    /** Creates the tables and applies migrations up to {@code targetVersion}, e.g. to measure an older schema. */
+    public static void migrate(Connection conn, int targetVersion) throws SQLException {
+        createTables(conn);
+        int version = schemaVersion(conn);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (; version < targetVersion && version < MIGRATIONS.length; version++) {
+                for (String sql : MIGRATIONS[version]) {
+                    stmt.execute(sql);
+                }
+                stmt.execute("PRAGMA user_version = " + (version + 1));
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    public static int schemaVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Per-connection settings for the server's mix of many small writes and
+     * indexed reads: write-ahead logging, so readers never wait for the writer
+     * and a commit appends instead of rewriting pages; NORMAL sync, which WAL
+     * keeps crash-safe; and a larger page cache and memory map.
+     */
+    public static void configureConnection(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA cache_size = -16000");
+            stmt.execute("PRAGMA mmap_size = 268435456");
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            stmt.execute("PRAGMA busy_timeout = 5000");
+        }
+    }
+
+    private static void createTables(Connection conn) throws SQLException {
         try (Statement stmt = conn.createStatement()) {
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS users (
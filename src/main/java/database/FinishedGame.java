@@ -0,0 +1,13 @@
+package database;
+
+import shared.ChessMove;
+
+import java.util.List;
+
+/** A game waiting to be stored: players, PGN result tag ("1-0", "0-1", "1/2-1/2" or "*"), moves and PGN. */
+public record FinishedGame(int whiteId, int blackId, String result, List<ChessMove> moves, String pgn) {
+
+    public FinishedGame {
+        moves = List.copyOf(moves);
+    }
+}
@@ -7,55 +7,93 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class GameDatabase {
-    private static final String DB_URL = "jdbc:sqlite:chess.db";
-
-    protected Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
-    }
-
-    public void insertGameWithMoves(int whiteId, int blackId, List<ChessMove> moves, String pgn) {
-        try (Connection conn = getConnection()) {
-            String gameSql = """
+    private static final String INSERT_GAME_SQL = """
             INSERT INTO games (white_id, black_id, result, status, pgn_text, end_time)
             VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
         """;
-            int generatedGameId = -1;
+    private static final String INSERT_MOVE_SQL = "INSERT INTO moves (game_id, move_number, move_text) VALUES (?, ?, ?)";
+    private static final String PGN_BY_ID_SQL = "SELECT pgn_text FROM games WHERE id = ?";
+    private static final String PGNS_BY_USER_SQL = "SELECT pgn_text FROM games WHERE white_id = ? OR black_id = ?";
+    // Each side walks its player index backwards from the cursor and stops after a page, so the
+    // cost of a page does not grow with the history; the outer query only sees those rows
+    private static final String HISTORY_PAGE_SQL = """
+            SELECT g.id, g.white_id, g.black_id, g.result, g.end_time, u.username AS opponent,
+                   (SELECT COUNT(*) FROM moves m WHERE m.game_id = g.id) AS move_count
+            FROM (SELECT id FROM (SELECT id FROM games WHERE white_id = ? AND id < ? ORDER BY id DESC LIMIT ?)
+                  UNION
+                  SELECT id FROM (SELECT id FROM games WHERE black_id = ? AND id < ? ORDER BY id DESC LIMIT ?)) page
+            JOIN games g ON g.id = page.id
+            LEFT JOIN users u ON u.id = CASE WHEN g.white_id = ? THEN g.black_id ELSE g.white_id END
+            ORDER BY g.id DESC
+            LIMIT ?
+        """;
 
-            try (PreparedStatement stmt = conn.prepareStatement(gameSql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setInt(1, whiteId);
-                stmt.setInt(2, blackId);
-                stmt.setString(3, "1-0"); // or use actual result
-                stmt.setString(4, "finished");
-                stmt.setString(5, pgn);
-                stmt.executeUpdate();
+    private final ConnectionPool pool;
 
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    generatedGameId = rs.getInt(1);
+    public GameDatabase() {
+        this(ConnectionPool.shared());
+    }
+
+    public GameDatabase(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    protected PooledConnection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    /** Stores one game; its result is unknown to this overload, so it is recorded as "*". */
+    public void insertGameWithMoves(int whiteId, int blackId, List<ChessMove> moves, String pgn) {
+        try {
+            insertGames(List.of(new FinishedGame(whiteId, blackId, "*", moves, pgn)));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stores all {@code games} and their moves in one transaction, so a batch
+     * costs one commit however many games it holds. Nothing is stored if it fails.
+     */
+    public void insertGames(List<FinishedGame> games) throws SQLException {
+        try (PooledConnection conn = getConnection()) {
+            conn.connection().setAutoCommit(false);
+            PreparedStatement gameStmt = conn.prepare(INSERT_GAME_SQL, Statement.RETURN_GENERATED_KEYS);
+            PreparedStatement moveStmt = conn.prepare(INSERT_MOVE_SQL);
+            for (FinishedGame game : games) {
+                gameStmt.setInt(1, game.whiteId());
+                gameStmt.setInt(2, game.blackId());
+                gameStmt.setString(3, game.result());
+                gameStmt.setString(4, "finished");
+                gameStmt.setString(5, game.pgn());
+                gameStmt.executeUpdate();
+
+                int generatedGameId = -1;
+                try (ResultSet rs = gameStmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        generatedGameId = rs.getInt(1);
+                    }
                 }
-            }
 
-            String moveSql = "INSERT INTO moves (game_id, move_number, move_text) VALUES (?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(moveSql)) {
+                List<ChessMove> moves = game.moves();
                 for (int i = 0; i < moves.size(); i++) {
-                    stmt.setInt(1, generatedGameId);
-                    stmt.setInt(2, i + 1);
-                    stmt.setString(3, moves.get(i).toChessNotation());
-                    stmt.addBatch();
+                    moveStmt.setInt(1, generatedGameId);
+                    moveStmt.setInt(2, i + 1);
+                    moveStmt.setString(3, moves.get(i).toChessNotation());
+                    moveStmt.addBatch();
                 }
-                stmt.executeBatch();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            moveStmt.executeBatch();
+            conn.connection().commit();
+            // On failure, giving the connection back rolls the transaction back
         }
     }
 
     public String loadPGNByGameId(int gameId) {
-        try (Connection conn = getConnection()) {
-            String sql = "SELECT pgn_text FROM games WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, gameId);
-                ResultSet rs = stmt.executeQuery();
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement stmt = conn.prepare(PGN_BY_ID_SQL);
+            stmt.setInt(1, gameId);
+            try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getString("pgn_text");
                 }
@@ -66,20 +104,58 @@ public class GameDatabase {
         return null;
     }
 
+    /**
+     * Up to {@code pageSize} of {@code userId}'s games older than {@code cursor},
+     * newest first; start with {@link HistoryPage#FIRST}. No PGN text is read.
+     */
+    public HistoryPage loadHistory(int userId, long cursor, int pageSize) {
+        List<GameSummary> games = new ArrayList<>();
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement stmt = conn.prepare(HISTORY_PAGE_SQL);
+            int fetch = pageSize + 1; // one more tells whether there is a next page
+            stmt.setInt(1, userId);
+            stmt.setLong(2, cursor);
+            stmt.setInt(3, fetch);
+            stmt.setInt(4, userId);
+            stmt.setLong(5, cursor);
+            stmt.setInt(6, fetch);
+            stmt.setInt(7, userId);
+            stmt.setInt(8, fetch);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    boolean white = rs.getInt("white_id") == userId;
+                    games.add(new GameSummary(rs.getInt("id"), white,
+                            rs.getInt(white ? "black_id" : "white_id"), rs.getString("opponent"),
+                            rs.getString("result"), rs.getString("end_time"), rs.getInt("move_count")));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        if (games.size() > pageSize) {
+            games = games.subList(0, pageSize);
+            return new HistoryPage(games, games.get(pageSize - 1).id());
+        }
+        return new HistoryPage(games, -1);
+    }
+
+    /** Every PGN of {@code userId} at once; for long histories page with {@link #loadHistory} instead. */
     public static List<String> getPGNsByUser(int userId) {
-        List<String> pgns = new ArrayList<>();
-        String query = "SELECT pgn_text FROM games WHERE white_id = ? OR black_id = ?";
+        return new GameDatabase().loadPGNsByUser(userId);
+    }
 
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:chess.db");
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+    public List<String> loadPGNsByUser(int userId) {
+        List<String> pgns = new ArrayList<>();
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement stmt = conn.prepare(PGNS_BY_USER_SQL);
             stmt.setInt(1, userId);
             stmt.setInt(2, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String pgn = rs.getString("pgn_text");
-                if (pgn != null && !pgn.isBlank()) {
-                    pgns.add(pgn);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String pgn = rs.getString("pgn_text");
+                    if (pgn != null && !pgn.isBlank()) {
+                        pgns.add(pgn);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -89,13 +165,8 @@ public class GameDatabase {
     }
 
     public static void insertGamePGN(int userId, String pgnText) {
-        String insertSQL = """
-        INSERT INTO games (white_id, black_id, result, status, pgn_text, end_time)
-        VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-    """;
-
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:chess.db");
-             PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
+        try (PooledConnection conn = ConnectionPool.shared().borrow()) {
+            PreparedStatement stmt = conn.prepare(INSERT_GAME_SQL);
 
             // Insert as if the user is white, opponent unknown (id = -1)
             stmt.setInt(1, userId);        // white_id = user
@@ -0,0 +1,191 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores finished games off the game threads. {@link #submit} only queues the
+ * game; one writer thread drains whatever has piled up into a single
+ * transaction, so a burst of finished games costs a few commits instead of one
+ * connection and one sync each.
+ *
+ * A batch that fails is retried with backoff. If it keeps failing, its games
+ * are tried once more one by one, so a single bad game cannot take the others
+ * with it.
+ */
+public final class GamePersister implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(GamePersister.class.getName());
+    public static final int DEFAULT_CAPACITY = Integer.getInteger("server.persistQueueCapacity", 4096);
+    public static final int MAX_BATCH = 256;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long FIRST_BACKOFF_MILLIS = 50;
+    private static final long POLL_MILLIS = 100;
+
+    private static GamePersister shared;
+
+    private final GameDatabase database;
+    private final BlockingQueue<FinishedGame> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicInteger peakDepth = new AtomicInteger();
+
+    public GamePersister(GameDatabase database, int capacity) {
+        this.database = database;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = Thread.ofPlatform().daemon().name("Game-Persister").start(this::run);
+    }
+
+    /** The process-wide persister, writing to the default database; flushed on JVM exit. */
+    public static synchronized GamePersister shared() {
+        if (shared == null) {
+            GamePersister persister = new GamePersister(new GameDatabase(), DEFAULT_CAPACITY);
+            // Flushed by the pool's exit hook, so the games are written before its connections close
+            ConnectionPool.beforeSharedClose(persister::close);
+            shared = persister;
+        }
+        return shared;
+    }
+
+    /**
+     * Queues {@code game} for the writer without waiting.
+     *
+     * @return false if the queue is full or closed; the game is then not stored
+     */
+    public boolean submit(FinishedGame game) {
+        if (!running || !queue.offer(game)) {
+            rejected.incrementAndGet();
+            LOGGER.severe("Persister - Queue full or closed, dropping game " + game.whiteId() + " vs " + game.blackId());
+            return false;
+        }
+        accepted.incrementAndGet();
+        peakDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    /** Games queued and not yet picked up by the writer. */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakDepth.get();
+    }
+
+    public long getSavedCount() {
+        return saved.get();
+    }
+
+    /** Games given up on after every retry. */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /** Games refused by {@link #submit} because the queue was full or closed. */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** Transactions committed. */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Waits until every accepted game is stored or given up on.
+     *
+     * @return false if that did not happen within the timeout
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (saved.get() + failed.get() < accepted.get()) {
+            if (System.nanoTime() >= deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /** Stops accepting games and waits a few seconds for the queued ones to be written. */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warning("Persister - Closed with " + queue.size() + " games unsaved");
+        }
+    }
+
+    private void run() {
+        List<FinishedGame> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                FinishedGame first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch, MAX_ATTEMPTS);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } catch (RuntimeException e) {
+                failed.addAndGet(batch.size());
+                LOGGER.log(Level.SEVERE, "Persister - Unexpected error, " + batch.size() + " games lost", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        LOGGER.fine("Persister - Writer stopped after " + saved.get() + " games in " + batches.get() + " batches");
+    }
+
+    private void write(List<FinishedGame> batch, int attempts) throws InterruptedException {
+        long backoff = FIRST_BACKOFF_MILLIS;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                database.insertGames(batch);
+                saved.addAndGet(batch.size());
+                batches.incrementAndGet();
+                LOGGER.fine("Persister - Saved " + batch.size() + " games, " + queue.size() + " queued");
+                return;
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Persister - Attempt " + attempt + " to save "
+                        + batch.size() + " games failed", e);
+                if (attempt < attempts) {
+                    retries.incrementAndGet();
+                    Thread.sleep(backoff);
+                    backoff *= 2;
+                }
+            }
+        }
+        if (batch.size() > 1) {
+            // The retries are spent; one try each finds the games that cannot be stored
+            for (FinishedGame game : batch) {
+                write(List.of(game), 1);
+            }
+        } else {
+            failed.addAndGet(batch.size());
+            FinishedGame game = batch.get(0);
+            LOGGER.severe("Persister - Giving up on game " + game.whiteId() + " vs " + game.blackId());
+        }
+    }
+}
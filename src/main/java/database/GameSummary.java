@@ -0,0 +1,23 @@
+package database;
+
+/**
+ * One line of a player's history, without the PGN: fetch that with
+ * {@link GameDatabase#loadPGNByGameId} once the game is opened.
+ *
+ * @param opponentName null if the opponent has no account, e.g. in imported games
+ * @param endTime      as stored, e.g. "2025-06-01 18:30:12"
+ */
+public record GameSummary(int id, boolean playedWhite, int opponentId, String opponentName,
+                          String result, String endTime, int moveCount) {
+
+    /** The result from this player's side: "won", "lost", "draw" or "unfinished". */
+    public String outcome() {
+        if (result == null) return "unfinished";
+        return switch (result) {
+            case "1-0" -> playedWhite ? "won" : "lost";
+            case "0-1" -> playedWhite ? "lost" : "won";
+            case "1/2-1/2" -> "draw";
+            default -> "unfinished";
+        };
+    }
+}
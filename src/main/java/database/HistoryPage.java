@@ -0,0 +1,21 @@
+package database;
+
+import java.util.List;
+
+/**
+ * A page of {@link GameSummary}s, newest first. Pass {@link #nextCursor()} to
+ * {@link GameDatabase#loadHistory} for the page after it; games saved in the
+ * meantime never shift or repeat what the next page holds.
+ */
+public record HistoryPage(List<GameSummary> games, long nextCursor) {
+    /** Cursor for the first page. */
+    public static final long FIRST = Long.MAX_VALUE;
+
+    public HistoryPage {
+        games = List.copyOf(games);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != -1;
+    }
+}
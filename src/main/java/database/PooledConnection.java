@@ -0,0 +1,116 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}, with the statements
+ * prepared on it so far. Statements from {@link #prepare} belong to the cache:
+ * close their result sets but not the statements. Closing this gives the
+ * connection back, rolling back anything left uncommitted.
+ *
+ * Only one thread uses it at a time, between borrow and close.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(PooledConnection.class.getName());
+
+    private final Connection connection;
+    private final ConnectionPool pool; // null when wrapping a caller's connection
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private int hits;
+
+    PooledConnection(Connection connection, ConnectionPool pool) {
+        this.connection = connection;
+        this.pool = pool;
+    }
+
+    /**
+     * Statement caching for a connection that did not come from a pool; closing
+     * the wrapper closes its statements and leaves the connection open.
+     */
+    public static PooledConnection unpooled(Connection connection) {
+        return new PooledConnection(connection, null);
+    }
+
+    /** The underlying connection, e.g. for transactions; do not close it. */
+    public Connection connection() {
+        return connection;
+    }
+
+    /** The cached statement for {@code sql}, prepared on first use; parameters are cleared. */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /** @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS} */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        PreparedStatement statement = statements.get(key);
+        if (statement != null && !statement.isClosed()) {
+            hits++;
+            statement.clearParameters();
+            return statement;
+        }
+        statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, statement);
+        return statement;
+    }
+
+    /** Times {@link #prepare} found the statement already prepared. */
+    public int getCacheHits() {
+        return hits;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.giveBack(this);
+        } else {
+            closeStatements();
+        }
+    }
+
+    // Readies the connection for its next borrower; false if it is no longer usable
+    boolean reset() {
+        try {
+            if (connection.isClosed()) return false;
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            for (PreparedStatement statement : statements.values()) {
+                statement.clearBatch();
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Pool - Dropping connection that failed to reset", e);
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        closeStatements();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Pool - Error closing connection", e);
+        }
+    }
+
+    private void closeStatements() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Pool - Error closing statement", e);
+            }
+        }
+        statements.clear();
+    }
+}
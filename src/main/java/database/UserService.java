@@ -5,11 +5,21 @@ import org.mindrot.jbcrypt.BCrypt;
 import java.sql.*;
 
 public class UserService {
+    private static final String INSERT_USER_SQL = "INSERT INTO users (username, password_hash, email) VALUES (?, ?, ?)";
+    private static final String LOGIN_SQL = "SELECT id, username, password_hash FROM users WHERE username = ?";
+    private static final String ID_BY_NAME_SQL = "SELECT id FROM users WHERE username = ?";
+    private static final String NAME_BY_ID_SQL = "SELECT username FROM users WHERE id = ?";
 
     public static boolean register(Connection conn, String username, String password, String email) {
+        try (PooledConnection pooled = PooledConnection.unpooled(conn)) {
+            return register(pooled, username, password, email);
+        }
+    }
+
+    public static boolean register(PooledConnection conn, String username, String password, String email) {
         String hash = BCrypt.hashpw(password, BCrypt.gensalt());
-        try (PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO users (username, password_hash, email) VALUES (?, ?, ?)")) {
+        try {
+            PreparedStatement stmt = conn.prepare(INSERT_USER_SQL);
             stmt.setString(1, username);
             stmt.setString(2, hash);
             stmt.setString(3, email);
@@ -21,16 +31,23 @@ public class UserService {
     }
 
     public static UserLoginResult login(Connection conn, String username, String password) {
-        String query = "SELECT id, username, password_hash FROM users WHERE username = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (PooledConnection pooled = PooledConnection.unpooled(conn)) {
+            return login(pooled, username, password);
+        }
+    }
+
+    public static UserLoginResult login(PooledConnection conn, String username, String password) {
+        try {
+            PreparedStatement stmt = conn.prepare(LOGIN_SQL);
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String hashedPassword = rs.getString("password_hash");
-                if (BCrypt.checkpw(password, hashedPassword)) {
-                    int userId = rs.getInt("id");
-                    String fetchedUsername = rs.getString("username");
-                    return new UserLoginResult(userId, fetchedUsername);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    String hashedPassword = rs.getString("password_hash");
+                    if (BCrypt.checkpw(password, hashedPassword)) {
+                        int userId = rs.getInt("id");
+                        String fetchedUsername = rs.getString("username");
+                        return new UserLoginResult(userId, fetchedUsername);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -40,14 +57,35 @@ public class UserService {
     }
 
     public static int getUserId(Connection conn, String username) {
-        try (PreparedStatement stmt = conn.prepareStatement(
-                "SELECT id FROM users WHERE username = ?")) {
+        try (PooledConnection pooled = PooledConnection.unpooled(conn)) {
+            return getUserId(pooled, username);
+        }
+    }
+
+    public static int getUserId(PooledConnection conn, String username) {
+        try {
+            PreparedStatement stmt = conn.prepare(ID_BY_NAME_SQL);
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) return rs.getInt("id");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) return rs.getInt("id");
+            }
         } catch (SQLException e) {
             return -1;
         }
         return -1;
     }
+
+    /** The name of the user with {@code id}, or null if there is none. */
+    public static String getUsername(PooledConnection conn, String id) {
+        try {
+            PreparedStatement stmt = conn.prepare(NAME_BY_ID_SQL);
+            stmt.setString(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) return rs.getString("username");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
 }
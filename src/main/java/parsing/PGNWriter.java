@@ -32,6 +32,17 @@ public class PGNWriter {
         return sb.toString();
     }
 
+    /** The PGN result tag for a {@link shared.GameState} winner: "White", "Black", "Draw" or none yet. */
+    public static String resultFor(String winner) {
+        if (winner == null) return "*";
+        return switch (winner) {
+            case "White" -> "1-0";
+            case "Black" -> "0-1";
+            case "Draw" -> "1/2-1/2";
+            default -> "*";
+        };
+    }
+
     // Basic algebraic notation; refine this if you want proper Nf3, O-O, etc.
     private static String toAlgebraic(ChessMove move) {
         return String.valueOf((char) ('a' + move.getFromCol())) +
@@ -0,0 +1,518 @@
+package serverSide;
+
+import shared.GameState;
+import shared.ChessMove;
+import shared.protocol.Broadcast;
+import shared.protocol.Frame;
+import shared.protocol.MessageWriter;
+import shared.protocol.MoveDelta;
+import shared.protocol.WireProtocol;
+import shared.timer.TimerWheel;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * The conversation with one client (handshake, role, moves, game end) written
+ * against a {@link MessageWriter}. Subclasses supply the transport: from
+ * {@link #start()} on they feed every line the client sends to
+ * {@link #lineReceived(String)}, report the end of input with
+ * {@link #inputClosed()} and know how to close the connection.
+ *
+ * Heartbeats arrive in-band as {@link WireProtocol#HEARTBEAT} lines. Any line
+ * counts as a sign of life, and a check on the shared {@link TimerWheel} drops
+ * clients that stay silent for {@link #IDLE_TIMEOUT_MILLIS}.
+ *
+ * Once the client has joined, everything sent to it goes through its
+ * {@link OutboundQueue}, so the game loop never waits on a slow socket.
+ */
+public abstract class AbstractClientHandler implements ClientHandler {
+    private static final Logger LOGGER = Logger.getLogger(AbstractClientHandler.class.getName());
+    public static final long HEARTBEAT_INTERVAL_MILLIS = Long.getLong("server.heartbeatIntervalMillis", 500);
+    // A few missed beats are tolerated so a busy host does not drop its clients
+    public static final long IDLE_TIMEOUT_MILLIS = Long.getLong("server.heartbeatTimeoutMillis", 3000);
+    private static final String EOF = new String("EOF"); // compared by identity
+
+    private boolean isPlayer = false;
+    private boolean isBot = false;
+    private boolean isWhitePlayer = false;
+    protected final MessageWriter messageWriter;
+    private boolean assigned = false;
+    private volatile boolean acceptsDeltas = false;
+    private volatile boolean isAlive = true;
+    private volatile boolean spectating = false;
+    private volatile boolean playing = false;
+    private final BlockingQueue<String> inbound = new LinkedBlockingQueue<>();
+    private final AtomicBoolean lost = new AtomicBoolean(false);
+    private volatile long lastSeen = System.currentTimeMillis();
+    private volatile TimerWheel.Timeout idleCheck;
+    private OutboundQueue outbound; // created by start(), before any thread can reach it
+    private volatile boolean queueing = false;
+    private String sessionToken; // handed out on request, opened once seated
+    private Session resumedSession;
+    private int resumedFromPly;
+
+    public boolean getIsAlive(){
+        return isAlive;
+    }
+
+    protected final Server server;
+
+    private int userId = -1;
+
+    protected AbstractClientHandler(MessageWriter messageWriter, Server server) {
+        this.messageWriter = messageWriter;
+        this.server = server;
+    }
+
+    /**
+     * Sets up the outbound queue and starts watching for heartbeats; transports
+     * also start reading here. Call once, right after construction.
+     */
+    public void start() {
+        outbound = new OutboundQueue(messageWriter, () -> Thread.startVirtualThread(this::lose), this::lose);
+        scheduleIdleCheck(IDLE_TIMEOUT_MILLIS);
+    }
+
+    /** Closes the connection once the messages already sent are out. */
+    protected abstract void closeConnection() throws Exception;
+
+    /** Closes the connection right away. */
+    protected abstract void closeNow();
+
+    /** Called by the transport for every line the client sends. */
+    protected void lineReceived(String line) {
+        lastSeen = System.currentTimeMillis();
+        String trimmed = line.trim();
+        if (trimmed.equals(WireProtocol.HEARTBEAT)) {
+            return;
+        }
+        if (spectating) {
+            // Spectators never send moves; the only thing they can ask for is a resync
+            if (trimmed.equals(WireProtocol.RESYNC)) {
+                Thread.startVirtualThread(this::sendKeyframe);
+            }
+            return;
+        }
+        if (playing) {
+            // Moves go to the game's mailbox; nothing waits for them
+            if (trimmed.equals(WireProtocol.RESYNC)) {
+                Thread.startVirtualThread(this::sendKeyframe);
+            } else {
+                server.moveReceived(this, ChessMove.fromString(trimmed));
+            }
+            return;
+        }
+        inbound.add(line);
+    }
+
+    /** Called by the transport once the client closed its side or the connection broke. */
+    protected void inputClosed() {
+        inbound.add(EOF);
+        lose();
+    }
+
+    /** The next line from the client, or {@code null} once it disconnected. */
+    protected String readLine() throws IOException {
+        try {
+            String line = inbound.take();
+            if (line == EOF) {
+                inbound.add(EOF); // keep answering null
+                return null;
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the client", e);
+        }
+    }
+
+    protected boolean isConnected() {
+        return !lost.get();
+    }
+
+    private void scheduleIdleCheck(long delayMillis) {
+        idleCheck = TimerWheel.shared().schedule(this::checkIdle, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Timer thread: reschedules itself until the client has been silent for the whole timeout
+    private void checkIdle() {
+        if (lost.get()) return;
+        long silent = System.currentTimeMillis() - lastSeen;
+        if (silent < IDLE_TIMEOUT_MILLIS) {
+            scheduleIdleCheck(IDLE_TIMEOUT_MILLIS - silent);
+            return;
+        }
+        System.out.println("wait time is out, good bye client");
+        LOGGER.warning("Server - Heartbeat timeout - client disconnected");
+        Thread.startVirtualThread(this::lose);
+    }
+
+    // The client is gone, whichever side noticed first
+    private void lose() {
+        if (lost.getAndSet(true)) return;
+        cancelIdleCheck();
+        outbound.stop();
+        connectionLost();
+        closeNow();
+    }
+
+    private void cancelIdleCheck() {
+        TimerWheel.Timeout check = idleCheck;
+        if (check != null) {
+            check.cancel();
+        }
+    }
+
+    /** Releases the connection after a failed handshake. */
+    protected void cleanup() {
+        LOGGER.info("Server - Starting client handler cleanup");
+        lost.set(true);
+        cancelIdleCheck();
+        outbound.stop();
+        closeNow();
+        LOGGER.info("Server - Client handler cleanup completed");
+    }
+
+    private void readUserId() {
+        try {
+            String idStr = readLine();
+            if (idStr != null && idStr.startsWith("USER_ID:")) {
+                userId = Integer.parseInt(idStr.substring("USER_ID:".length()));
+                System.out.println("✅ Received userId from client: " + userId);
+            } else {
+                System.err.println("❌ Invalid format. Expected USER_ID:<id>, got: " + idStr);
+                userId = -1;
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Failed to parse userId from client.");
+            userId = -1;
+        }
+    }
+
+    /** The client stopped answering: players end the game, spectators are dropped. */
+    private void connectionLost() {
+        isAlive = false;
+
+        if(isPlayer){
+            server.clientDisconnected(this);
+        }
+        else {
+            server.kickoutSpectator();
+            server.clientDisconnected(this);
+        }
+    }
+
+    public void handleClient() {
+        try {
+            messageWriter.sendLine(WireProtocol.HEARTBEAT_INTERVAL_PREFIX + HEARTBEAT_INTERVAL_MILLIS);
+            readUserId();
+
+            // role assignment
+            assignRole();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Server - Error handling client", e);
+            System.out.println("Error handling client: " + e.getMessage());
+            cleanup();
+        }
+    }
+
+    private void assignRole() {
+        LOGGER.info("Server - Starting role assignment");
+        while (!assigned && isConnected()) {
+            try {
+                System.out.println("Current players: " + server.getPlayers().size());
+
+                String line = readLine();
+                if (line == null) {
+                    break; // Client disconnected
+                }
+
+                String userInput = line.trim();
+                System.out.println("Role request: " + userInput);
+                LOGGER.info("Server - Role request: " + userInput);
+
+                if (userInput.startsWith(WireProtocol.HELLO_PREFIX)) {
+                    // Protocol negotiation; the reply is the last line sent before the switch
+                    String protocol = WireProtocol.negotiate(userInput.substring(WireProtocol.HELLO_PREFIX.length()));
+                    messageWriter.sendLine(WireProtocol.ACCEPT_PREFIX + protocol);
+                    messageWriter.setBinary(WireProtocol.isBinary(protocol));
+                    acceptsDeltas = WireProtocol.DELTA.equals(protocol);
+                    LOGGER.info("Server - Using protocol " + protocol);
+                } else if (userInput.equals(WireProtocol.SESSION_REQUEST)) {
+                    sessionToken = Session.newToken();
+                    messageWriter.sendLine(WireProtocol.SESSION_PREFIX + sessionToken);
+                } else if (userInput.startsWith(WireProtocol.RESUME_PREFIX)) {
+                    resume(userInput.substring(WireProtocol.RESUME_PREFIX.length()));
+                } else if (userInput.equals("player") || userInput.equals("bot")) {
+                    if(userInput.equals("bot")){
+                        isBot = true;
+                    }
+                    if (server.isRelay()) {
+                        messageWriter.sendLine("This game is relayed, join the origin server to play");
+                        messageWriter.sendLine("not ok");
+                    } else if (server.getPlayers().size() >= 2) {
+                        messageWriter.sendLine("There are already 2 players");
+                        messageWriter.sendLine("not ok");
+                    } else {
+                        messageWriter.sendLine("You successfully connected to server as Player");
+                        messageWriter.sendLine("ok");
+                        assigned = true;
+                        isPlayer = true;
+                        System.out.println("Player has connected");
+                        LOGGER.info("Server - Player has connected");
+                    }
+                } else if (userInput.equals("spectator")) {
+                    assigned = true;
+                    messageWriter.sendLine("You successfully connected to server as Spectator");
+                    messageWriter.sendLine("ok");
+
+                    if (server.isGameStarted()) {
+                        sendGameState(server.getCurrentState());
+                    }
+                } else {
+                    messageWriter.sendLine("Invalid role. Please choose 'player' or 'spectator'");
+                    messageWriter.sendLine("not ok");
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Server - Client disconnected during role assignment", e);
+                break;
+            }
+        }
+
+        if (assigned) {
+            // From here on the writer thread sends, in order, whatever the game queues
+            queueing = true;
+            outbound.start();
+            if (resumedSession != null) {
+                // Back in the old seat; the game sends what was missed
+                playing = isPlayer;
+                spectating = !isPlayer;
+                server.resume(resumedSession, this, resumedFromPly);
+                return;
+            }
+            if (isPlayer) {
+                playing = true;
+                synchronized (server.getPlayers()) {
+                    server.getPlayers().add(this);
+                    System.out.println("Total players: " + server.getPlayers().size());
+                    LOGGER.info("Server - Total players: " + server.getPlayers().size());
+
+                    if (server.getPlayers().size() == 1) {
+                        isWhitePlayer = true;
+                        sendColor("white");
+                        LOGGER.info("Server - Assigned as White player");
+                    } else {
+                        isWhitePlayer = false;
+                        sendColor("black");
+                        LOGGER.info("Server - Assigned as Black player");
+                    }
+                }
+
+                openSession();
+                if (!server.isGameStarted() && server.getPlayers().size() == 2) {
+                    server.setGameStarted(true);
+                    server.startGame();
+                }
+            } else {
+                spectating = true;
+                synchronized (server.getSpectators()) {
+                    server.getSpectators().add(this);
+                    LOGGER.info("Server - Total spectators: " + server.getSpectators().size());
+                }
+                openSession();
+            }
+        } else {
+            cleanup();
+        }
+    }
+
+    // RESUME:<token>:<ply>; answered like a role request
+    private void resume(String request) throws IOException {
+        int separator = request.lastIndexOf(':');
+        Session session = null;
+        try {
+            if (separator > 0) {
+                resumedFromPly = Integer.parseInt(request.substring(separator + 1));
+                session = server.findSession(request.substring(0, separator));
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Server - Malformed resume request: " + request);
+        }
+        if (session == null) {
+            messageWriter.sendLine("Session expired or unknown");
+            messageWriter.sendLine("not ok");
+            return;
+        }
+        resumedSession = session;
+        isPlayer = session.isPlayer();
+        isWhitePlayer = session.isWhite();
+        assigned = true;
+        messageWriter.sendLine("Session resumed");
+        messageWriter.sendLine("ok");
+        LOGGER.info("Server - Client resumed a session from ply " + resumedFromPly);
+    }
+
+    private void openSession() {
+        if (sessionToken != null) {
+            server.openSession(new Session(sessionToken, isPlayer, isWhitePlayer, this));
+        }
+    }
+
+    private void sendColor(String color) {
+        try {
+            sendLine(color);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Server - Error sending color assignment", e);
+        }
+    }
+
+    // Queued once the client joined, written straight away during the handshake
+    private void sendLine(String line) throws IOException {
+        if (queueing) {
+            outbound.offer(Frame.line(line, messageWriter.isBinary()));
+        } else {
+            messageWriter.sendLine(line);
+        }
+    }
+
+    // Send game state to client
+    public void sendGameState(GameState gameState) {
+        try {
+            if (queueing) {
+                outbound.offer(Broadcast.of(gameState), acceptsDeltas);
+                return;
+            }
+            messageWriter.sendGameState(gameState);
+            LOGGER.fine("Server - Game state sent to client");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error sending game state", e);
+        }
+    }
+
+    public boolean acceptsDeltas() {
+        return acceptsDeltas;
+    }
+
+    // Send a single move to a client that negotiated the delta protocol
+    public void sendDelta(MoveDelta delta) {
+        try {
+            if (queueing) {
+                outbound.offer(Frame.delta(delta));
+                return;
+            }
+            messageWriter.sendDelta(delta);
+            LOGGER.fine("Server - Move delta sent to client");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error sending move delta", e);
+        }
+    }
+
+    public void sendBroadcast(Broadcast update) {
+        try {
+            if (queueing) {
+                outbound.offer(update, acceptsDeltas);
+                return;
+            }
+            messageWriter.sendFrame(update.frameFor(messageWriter.isBinary(), acceptsDeltas));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error sending broadcast", e);
+        }
+    }
+
+    /** Messages waiting for this client's writer. */
+    public int getQueueDepth() {
+        return outbound.getQueueDepth();
+    }
+
+    /** How far behind the game this client is, in milliseconds. */
+    public long getLagMillis() {
+        return outbound.getLagMillis();
+    }
+
+    public OutboundQueue getOutboundQueue() {
+        return outbound;
+    }
+
+    protected void sendKeyframe() {
+        LOGGER.info("Server - Client requested resync, sending full game state");
+        sendGameState(server.getCurrentState());
+    }
+
+    // Ask the player for a move; the answer arrives in lineReceived
+    public void requestMove() {
+        try {
+            sendLine("REQUEST_MOVE");
+            LOGGER.info("Server - Move requested from player");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error requesting move from player", e);
+        }
+    }
+
+    // Send invalid move message to player
+    public void sendInvalidMoveMessage() {
+        try {
+            sendLine("INVALID_MOVE");
+            sendLine("Invalid move. Please try again.");
+            LOGGER.info("Server - Invalid move message sent to player");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error sending invalid move message", e);
+        }
+    }
+
+    public void close() {
+        try {
+            // Mark as not alive first
+            isAlive = false;
+            lost.set(true);
+            cancelIdleCheck();
+
+            if(isPlayer){
+                if(isWhitePlayer){
+                    System.out.println("game end was sent to white player");
+                    LOGGER.info("Server - Game end sent to white player");
+                } else {
+                    System.out.println("game end was sent to black player");
+                    LOGGER.info("Server - Game end sent to black player");
+                }
+            } else {
+                System.out.println("game end was sent to spectator");
+                LOGGER.info("Server - Game end sent to spectator");
+            }
+
+            // Send game end through main connection, after whatever is still queued
+            sendLine("GAME_END");
+            sendLine("Game has ended");
+
+            if (queueing) {
+                outbound.closeAfterDrain(this::closeQuietly);
+                // A client that stopped reading would keep its writer blocked forever
+                TimerWheel.shared().schedule(() -> Thread.startVirtualThread(this::closeNow),
+                        OutboundQueue.DEFAULT_LAG_LIMIT_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                closeConnection();
+            }
+
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error closing client handler", e);
+            System.out.println("Error closing client handler: " + e.getMessage());
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            closeConnection();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Server - Error closing client connection", e);
+        }
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+}
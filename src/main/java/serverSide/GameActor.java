@@ -0,0 +1,79 @@
+package serverSide;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A game's mailbox. Events are posted from any thread (selector, socket
+ * readers, the timer wheel) and handled one at a time, in order, by a task on
+ * a scheduler shared by all games. A game waiting for a move has nothing
+ * scheduled, so it holds no thread, only its state.
+ *
+ * By default each drain is a short-lived virtual thread, so the JVM's carrier
+ * pool is the shared scheduler and a handler that briefly blocks (a log write,
+ * a socket close) parks its virtual thread instead of holding up other games.
+ */
+public final class GameActor {
+    private static final Logger LOGGER = Logger.getLogger(GameActor.class.getName());
+    // Events handled per turn on the scheduler, so a busy game does not starve the others
+    private static final int BATCH = 64;
+
+    private static final ExecutorService SHARED_SCHEDULER = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("Game-Actor-", 1).factory());
+
+    private final Queue<GameEvent> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Consumer<GameEvent> handler;
+    private final Executor scheduler;
+
+    public GameActor(Consumer<GameEvent> handler) {
+        this(handler, SHARED_SCHEDULER);
+    }
+
+    public GameActor(Consumer<GameEvent> handler, Executor scheduler) {
+        this.handler = handler;
+        this.scheduler = scheduler;
+    }
+
+    public void post(GameEvent event) {
+        mailbox.add(event);
+        schedule();
+    }
+
+    /** Events posted and not yet handled. */
+    public int getPendingCount() {
+        return mailbox.size();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            GameEvent event;
+            for (int handled = 0; handled < BATCH && (event = mailbox.poll()) != null; handled++) {
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Server - Error handling game event " + event, e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        // Posted after the last poll, or left over from a full batch
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package serverSide;
+
+import chess.model.Clock;
+import chess.model.TimeControl;
+import shared.timer.TimerWheel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The authoritative clocks of one game. The game loop starts a player's turn
+ * before asking for a move and ends it once a legal move arrives; flag fall is
+ * detected by the clock's own timeout, so a player who never answers still
+ * loses on time instead of holding the game open.
+ */
+public class GameClock {
+    private final TimeControl control;
+    private final TimerWheel timers;
+    private final Clock white;
+    private final Clock black;
+    private Boolean onMove; // null between turns
+    private long turnStartedWith; // remaining time when the turn began
+    private TimerWheel.Timeout delayedStart;
+    private boolean stopped;
+
+    /**
+     * @param onFlag called on the timer thread with {@code true} when White's
+     *               time ran out, {@code false} for Black; keep it short
+     */
+    public GameClock(TimeControl control, TimerWheel timers, Consumer<Boolean> onFlag) {
+        this.control = control;
+        this.timers = timers;
+        this.white = new Clock(control.baseMillis(), timers);
+        this.black = new Clock(control.baseMillis(), timers);
+        white.setOnFlag(() -> onFlag.accept(true));
+        black.setOnFlag(() -> onFlag.accept(false));
+    }
+
+    public TimeControl getTimeControl() {
+        return control;
+    }
+
+    /** Starts {@code isWhite}'s clock; a retry after an invalid move keeps the turn running. */
+    public synchronized void startTurn(boolean isWhite) {
+        if (stopped || (onMove != null && onMove == isWhite)) return;
+        onMove = isWhite;
+        Clock clock = clock(isWhite);
+        turnStartedWith = clock.getRemainingMillis();
+        if (control.mode() == TimeControl.Mode.SIMPLE_DELAY && control.bonusMillis() > 0) {
+            delayedStart = timers.schedule(() -> startUnlessEnded(clock, isWhite),
+                    control.bonusMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            clock.start();
+        }
+    }
+
+    /**
+     * Stops {@code isWhite}'s clock after a move and credits the bonus.
+     *
+     * @return false if the flag fell before the move arrived, in which case the move must not count
+     */
+    public synchronized boolean endTurn(boolean isWhite) {
+        if (onMove == null || onMove != isWhite) return !stopped;
+        onMove = null;
+        if (delayedStart != null) {
+            delayedStart.cancel();
+            delayedStart = null;
+        }
+        Clock clock = clock(isWhite);
+        long left = clock.stop();
+        if (left == 0) {
+            return false;
+        }
+        long used = turnStartedWith - left;
+        switch (control.mode()) {
+            case INCREMENT -> clock.addMillis(control.bonusMillis());
+            case BRONSTEIN -> clock.addMillis(Math.min(used, control.bonusMillis()));
+            case SIMPLE_DELAY -> { } // the delay was spent before the clock started
+        }
+        return true;
+    }
+
+    public long getRemainingMillis(boolean isWhite) {
+        return clock(isWhite).getRemainingMillis();
+    }
+
+    /** Stops both clocks for good, e.g. when the game ends some other way. */
+    public synchronized void stop() {
+        stopped = true;
+        onMove = null;
+        if (delayedStart != null) {
+            delayedStart.cancel();
+        }
+        white.stop();
+        black.stop();
+    }
+
+    private synchronized void startUnlessEnded(Clock clock, boolean isWhite) {
+        if (!stopped && onMove != null && onMove == isWhite) {
+            clock.start();
+        }
+    }
+
+    private Clock clock(boolean isWhite) {
+        return isWhite ? white : black;
+    }
+}
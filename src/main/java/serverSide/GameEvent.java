@@ -0,0 +1,39 @@
+package serverSide;
+
+import shared.ChessMove;
+import shared.GameState;
+import shared.protocol.MoveDelta;
+
+/** Something that happened to a game, delivered to its {@link GameActor} in order. */
+public sealed interface GameEvent {
+
+    /** Both players have joined. */
+    record Start() implements GameEvent { }
+
+    /** The time allowed for players to join ran out; ignored if the game has started since. */
+    record Abandoned() implements GameEvent { }
+
+    /** A player sent a move; {@code move} is an error move if the line did not parse. */
+    record MoveReceived(ClientHandler player, ChessMove move) implements GameEvent { }
+
+    /** A player resigned, on their turn or not. */
+    record Resigned(ClientHandler player) implements GameEvent { }
+
+    /** The clock of the side to move ran out. */
+    record FlagFell(boolean white) implements GameEvent { }
+
+    /** A client's connection was lost; players without a session end the game. */
+    record Disconnected(ClientHandler client) implements GameEvent { }
+
+    /** A client reconnected with a session token and the last ply it saw. */
+    record Resumed(Session session, ClientHandler client, int lastSeenPly) implements GameEvent { }
+
+    /** A dropped session's grace period is over. */
+    record GraceExpired(Session session) implements GameEvent { }
+
+    /** An update from the game a relay subscribes to; {@code delta} is null for a full state. */
+    record Relayed(GameState state, MoveDelta delta) implements GameEvent { }
+
+    /** The game a relay subscribes to ended, or the relay lost it. */
+    record RelayEnded() implements GameEvent { }
+}
@@ -0,0 +1,243 @@
+package serverSide;
+
+import serverSide.nio.NioServer;
+import shared.protocol.WireProtocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hosts any number of games on one port. Each game is a {@link Server} session
+ * holding its own players, spectators and board; the lobby only owns the
+ * listening socket and the registry of games by ID.
+ *
+ * A client's first line is {@code GAME:<id>}. The lobby hands the socket to that
+ * game's session, which continues with the usual handshake on the same socket
+ * ({@code HEARTBEAT_INTERVAL:<ms>}, USER_ID, protocol, role). Unknown IDs get
+ * {@code GAME_NOT_FOUND} and are closed.
+ * Handshakes and game loops run on virtual threads, so an idle game costs a few
+ * parked threads rather than platform threads.
+ *
+ * With the {@link Transport#NIO} transport (the default, see {@code server.transport})
+ * one {@link NioServer} selector thread does all socket I/O, which is what lets
+ * thousands of idle spectators share a handful of threads. {@link Transport#BLOCKING}
+ * keeps a socket and a reading thread per client.
+ */
+public class LobbyServer {
+    private static final Logger LOGGER = Logger.getLogger(LobbyServer.class.getName());
+    public static final int DEFAULT_PORT = 10000;
+    private static final int MAX_LINE_BYTES = 64;
+    private static final int MAX_GAME_ID = 1_000_000;
+    private static final Transport DEFAULT_TRANSPORT =
+            Transport.valueOf(System.getProperty("server.transport", "nio").toUpperCase());
+
+    public enum Transport { BLOCKING, NIO }
+
+    private static LobbyServer local;
+
+    private final Map<Integer, Server> games = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Transport transport;
+    private final ServerSocket serverSocket;
+    private final ServerSocketChannel channel; // null for the blocking transport
+    private volatile NioServer nioServer; // created by start()
+    private boolean stopped; // guarded by this
+
+    /** Binds {@code port} (0 for any free port); call {@link #start()} to accept clients. */
+    public LobbyServer(int port) throws IOException {
+        this(port, DEFAULT_TRANSPORT);
+    }
+
+    public LobbyServer(int port, Transport transport) throws IOException {
+        this.transport = transport;
+        if (transport == Transport.NIO) {
+            channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(port));
+            serverSocket = channel.socket();
+        } else {
+            serverSocket = new ServerSocket(port);
+            channel = null;
+        }
+        LOGGER.info("Lobby - Listening on port " + serverSocket.getLocalPort() + " (" + transport + ")");
+    }
+
+    /**
+     * The lobby of this process on {@link #DEFAULT_PORT}, started on first use.
+     *
+     * @throws IOException if the port is taken, e.g. by a lobby in another process
+     */
+    public static synchronized LobbyServer local() throws IOException {
+        if (local == null || !local.isRunning()) {
+            LobbyServer lobby = new LobbyServer(DEFAULT_PORT);
+            Thread thread = new Thread(lobby::start, "Chess-Lobby-Thread");
+            thread.setDaemon(true);
+            lobby.running.set(true);
+            thread.start();
+            local = lobby;
+        }
+        return local;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /** The selector behind the NIO transport, or {@code null} for the blocking one or before {@link #start()}. */
+    public NioServer getNioServer() {
+        return nioServer;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /** Registers a new game under a random unused ID and returns the ID. */
+    public int createGame() {
+        while (true) {
+            int gameId = ThreadLocalRandom.current().nextInt(1, MAX_GAME_ID);
+            if (createGame(gameId)) {
+                return gameId;
+            }
+        }
+    }
+
+    /** Registers a new game under {@code gameId}; false if that ID is already in use. */
+    public boolean createGame(int gameId) {
+        Server game = new Server(gameId);
+        if (games.putIfAbsent(gameId, game) != null) {
+            return false;
+        }
+        // Finished games leave the registry so their ID can be reused
+        game.setOnFinished(() -> games.remove(gameId, game));
+        game.abandonIfNotStartedWithin(Server.ABANDON_MILLIS);
+        LOGGER.info("Lobby - Created game " + gameId + ", " + games.size() + " active");
+        return true;
+    }
+
+    public Server getGame(int gameId) {
+        return games.get(gameId);
+    }
+
+    public Collection<Server> getGames() {
+        return Collections.unmodifiableCollection(games.values());
+    }
+
+    /** Accepts clients until {@link #stop()}; blocks the calling thread. */
+    public void start() {
+        running.set(true);
+        if (channel != null) {
+            NioServer selector;
+            synchronized (this) {
+                if (stopped) return;
+                try {
+                    selector = new NioServer(this, channel);
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Lobby - Could not open the selector", e);
+                    running.set(false);
+                    return;
+                }
+                nioServer = selector;
+            }
+            selector.run();
+            return;
+        }
+        while (running.get()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.startVirtualThread(() -> route(socket));
+            } catch (IOException e) {
+                if (running.get()) {
+                    LOGGER.log(Level.WARNING, "Lobby - Error accepting client connection", e);
+                }
+            }
+        }
+        LOGGER.info("Lobby - Stopped accepting clients");
+    }
+
+    /** Closes the listening socket and ends every game still running. */
+    public void stop() {
+        running.set(false);
+        NioServer selector;
+        synchronized (this) {
+            stopped = true;
+            selector = nioServer;
+        }
+        if (selector != null) {
+            selector.stop();
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Lobby - Error closing server socket", e);
+        }
+        games.values().forEach(Server::endGame);
+        games.clear();
+    }
+
+    private void route(Socket socket) {
+        try {
+            int gameId = readGameId(socket.getInputStream());
+            Server game = gameId >= 0 ? games.get(gameId) : null;
+            if (game == null) {
+                LOGGER.warning("Lobby - No game " + gameId + " for " + socket.getRemoteSocketAddress());
+                OutputStream out = socket.getOutputStream();
+                out.write((WireProtocol.GAME_NOT_FOUND + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                socket.close();
+                return;
+            }
+            game.acceptClient(socket);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Lobby - Error routing client", e);
+            try {
+                socket.close();
+            } catch (IOException closeEx) {
+                LOGGER.log(Level.WARNING, "Lobby - Error closing client socket", closeEx);
+            }
+        }
+    }
+
+    /**
+     * Reads the {@code GAME:<id>} line without buffering past it, so the game
+     * session can read the rest of the stream itself.
+     *
+     * @return the game ID, or -1 if the line is missing or malformed
+     */
+    static int readGameId(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (line.length() >= MAX_LINE_BYTES) return -1;
+            if (b != '\r') line.append((char) b);
+        }
+        return parseGameId(line.toString());
+    }
+
+    /** The game ID in a {@code GAME:<id>} line, or -1 if it is malformed. */
+    public static int parseGameId(String line) {
+        if (line == null || !line.startsWith(WireProtocol.GAME_PREFIX)) return -1;
+        try {
+            return Integer.parseInt(line.substring(WireProtocol.GAME_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
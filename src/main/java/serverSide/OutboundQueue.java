@@ -0,0 +1,275 @@
+package serverSide;
+
+import shared.protocol.Broadcast;
+import shared.protocol.Frame;
+import shared.protocol.MessageWriter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Everything the server sends one client once it has joined, written in order by
+ * the connection's own virtual thread. Senders only enqueue, so a spectator whose
+ * socket is full holds up nothing but its own writer, never the game loop.
+ *
+ * Game state updates may be discarded; messages the game depends on (move
+ * requests, colours, game end) never are. When updates fill the queue the
+ * {@link Policy} decides what gives.
+ */
+public final class OutboundQueue {
+    private static final Logger LOGGER = Logger.getLogger(OutboundQueue.class.getName());
+    public static final int DEFAULT_CAPACITY = Integer.getInteger("server.outboundQueueCapacity", 32);
+    public static final Policy DEFAULT_POLICY = Policy.valueOf(
+            System.getProperty("server.slowConsumerPolicy", "coalesce").toUpperCase());
+    public static final long DEFAULT_LAG_LIMIT_MILLIS = Long.getLong("server.slowConsumerLagMillis", 5000);
+
+    /** What happens to a client that falls behind. */
+    public enum Policy {
+        /** Replace the queued updates with one full state, the latest. */
+        COALESCE,
+        /** Discard the oldest queued updates; delta clients notice the gap and ask for a resync. */
+        DROP,
+        /** Disconnect once the queue is full or its oldest message is older than the lag limit. */
+        DISCONNECT
+    }
+
+    // update is null for messages that must not be discarded; frame is null for the close marker
+    private record Entry(Frame frame, Broadcast update, Runnable then, long queuedAt) { }
+
+    private final MessageWriter writer;
+    private final int capacity;
+    private final Policy policy;
+    private final long lagLimitMillis;
+    private final Runnable onSlowConsumer;
+    private final Runnable onWriteFailed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private int updates; // queued entries that may be discarded
+    private long writingSince; // when the message being written was queued, 0 if none
+    private boolean stopped;
+    private Thread writerThread;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile int peakDepth;
+
+    public OutboundQueue(MessageWriter writer, Runnable onSlowConsumer, Runnable onWriteFailed) {
+        this(writer, DEFAULT_CAPACITY, DEFAULT_POLICY, DEFAULT_LAG_LIMIT_MILLIS, onSlowConsumer, onWriteFailed);
+    }
+
+    /**
+     * @param onSlowConsumer runs, on the sender's thread, when the {@link Policy#DISCONNECT} policy gives up on the client
+     * @param onWriteFailed  runs on the writer thread when the connection breaks
+     */
+    public OutboundQueue(MessageWriter writer, int capacity, Policy policy, long lagLimitMillis,
+                         Runnable onSlowConsumer, Runnable onWriteFailed) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.writer = writer;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.lagLimitMillis = lagLimitMillis;
+        this.onSlowConsumer = onSlowConsumer;
+        this.onWriteFailed = onWriteFailed;
+    }
+
+    /** Starts the writer; messages offered before are sent as soon as it runs. */
+    public void start() {
+        lock.lock();
+        try {
+            if (writerThread == null && !stopped) {
+                writerThread = Thread.ofVirtual().name("Outbound-Writer").start(this::drain);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Queues a message that is always delivered, e.g. a move request. */
+    public void offer(Frame frame) {
+        enqueue(new Entry(frame, null, null, System.currentTimeMillis()));
+    }
+
+    /** Queues a game state update, which the policy may discard or merge under pressure. */
+    public void offer(Broadcast update, boolean acceptsDeltas) {
+        Frame frame = update.frameFor(writer.isBinary(), acceptsDeltas);
+        boolean slow = false;
+        lock.lock();
+        try {
+            if (stopped) return;
+            if (queue.size() >= capacity || lagExceeded()) {
+                switch (policy) {
+                    case COALESCE -> {
+                        coalesced.addAndGet(removeUpdates(updates));
+                        // Whatever the client missed, a full state brings it up to date
+                        frame = update.frameFor(writer.isBinary(), false);
+                    }
+                    case DROP -> dropped.addAndGet(removeUpdates(queue.size() - capacity + 1));
+                    case DISCONNECT -> slow = true;
+                }
+            }
+            if (!slow) {
+                add(new Entry(frame, update, null, System.currentTimeMillis()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (slow) {
+            LOGGER.warning("Server - Slow consumer disconnected: " + getQueueDepth()
+                    + " messages queued, " + getLagMillis() + " ms behind");
+            onSlowConsumer.run();
+        }
+    }
+
+    /** Runs {@code then} on the writer thread once everything queued before it is written, then stops. */
+    public void closeAfterDrain(Runnable then) {
+        enqueue(new Entry(null, null, then, System.currentTimeMillis()));
+    }
+
+    /** Discards whatever is queued and stops the writer. */
+    public void stop() {
+        lock.lock();
+        try {
+            stopped = true;
+            queue.clear();
+            updates = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPeakQueueDepth() {
+        return peakDepth;
+    }
+
+    /** How long the oldest message not yet written has waited, 0 when the client is up to date. */
+    public long getLagMillis() {
+        lock.lock();
+        try {
+            long oldest = oldestQueuedAt();
+            return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /** Updates discarded by the {@link Policy#DROP} policy. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Updates replaced by a later full state under the {@link Policy#COALESCE} policy. */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private void enqueue(Entry entry) {
+        lock.lock();
+        try {
+            if (!stopped) {
+                add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lock held
+    private void add(Entry entry) {
+        queue.addLast(entry);
+        if (entry.update() != null) updates++;
+        if (queue.size() > peakDepth) peakDepth = queue.size();
+        notEmpty.signal();
+    }
+
+    // Lock held; removes up to max updates, oldest first
+    private int removeUpdates(int max) {
+        int removed = 0;
+        for (Iterator<Entry> it = queue.iterator(); it.hasNext() && removed < max; ) {
+            if (it.next().update() != null) {
+                it.remove();
+                removed++;
+            }
+        }
+        updates -= removed;
+        return removed;
+    }
+
+    // Lock held
+    private boolean lagExceeded() {
+        if (policy != Policy.DISCONNECT) return false;
+        long oldest = oldestQueuedAt();
+        return oldest != 0 && System.currentTimeMillis() - oldest > lagLimitMillis;
+    }
+
+    // Lock held; 0 when nothing waits
+    private long oldestQueuedAt() {
+        if (writingSince != 0) return writingSince;
+        return queue.isEmpty() ? 0 : queue.peekFirst().queuedAt();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Entry entry;
+                lock.lock();
+                try {
+                    while (queue.isEmpty() && !stopped) {
+                        notEmpty.await();
+                    }
+                    if (stopped) return;
+                    entry = queue.pollFirst();
+                    if (entry.update() != null) updates--;
+                    writingSince = entry.queuedAt();
+                } finally {
+                    lock.unlock();
+                }
+
+                if (entry.frame() == null) {
+                    stop();
+                    entry.then().run();
+                    return;
+                }
+                writer.sendFrame(entry.frame());
+                sent.incrementAndGet();
+
+                lock.lock();
+                try {
+                    writingSince = 0;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Server - Outbound write failed", e);
+            stop();
+            onWriteFailed.run();
+        }
+    }
+}
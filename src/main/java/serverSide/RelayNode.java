@@ -0,0 +1,171 @@
+package serverSide;
+
+import clientSide.utils.ServerConnector;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
+import shared.timer.TimerWheel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches one game on another server as a single spectator and re-broadcasts it
+ * to spectators of its own, so the origin writes each update once per relay
+ * however large the audience. The relay's own {@link LobbyServer} speaks the
+ * usual protocol, so clients join it exactly as they would the origin, only
+ * as spectators, and another relay can subscribe to it in turn.
+ *
+ * The upstream connection asks for the delta protocol, and deltas are passed on
+ * as deltas; full states (keyframes) stay full states. Run several relays on one
+ * machine, each in its own JVM, with e.g.:
+ * {@code java -cp target/classes serverSide.RelayNode localhost 10000 <gameId> 10001}
+ * and {@code java -cp target/classes serverSide.RelayNode localhost 10001 <gameId> 10002}
+ */
+public class RelayNode {
+    private static final Logger LOGGER = Logger.getLogger(RelayNode.class.getName());
+    private static final int RELAY_USER_ID = -1;
+    // Once the game ends, time for the game end queued to each spectator to go out before the port closes
+    private static final long CLOSE_DELAY_MILLIS = 1000;
+
+    private final String upstreamHost;
+    private final int upstreamPort;
+    private final int gameId;
+    private final LobbyServer lobby;
+    private final Server game;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private Socket upstream;
+    private ServerConnector connector;
+    private MessageReader reader;
+
+    /** Binds {@code port} (0 for any free port) for downstream spectators; call {@link #start()} to subscribe. */
+    public RelayNode(String upstreamHost, int upstreamPort, int gameId, int port) throws IOException {
+        this.upstreamHost = upstreamHost;
+        this.upstreamPort = upstreamPort;
+        this.gameId = gameId;
+        this.lobby = new LobbyServer(port);
+        lobby.createGame(gameId);
+        this.game = lobby.getGame(gameId);
+        game.setRelay(true);
+    }
+
+    public int getPort() {
+        return lobby.getPort();
+    }
+
+    /** The relayed game, whose spectators are this relay's audience. */
+    public Server getGame() {
+        return game;
+    }
+
+    /**
+     * Joins the game upstream as a spectator, then accepts spectators and relays
+     * updates on virtual threads until the game ends or {@link #stop()} is called.
+     *
+     * @throws IOException if the upstream server cannot be reached or refuses the relay
+     */
+    public void start() throws IOException {
+        try {
+            subscribe();
+        } catch (IOException e) {
+            stop();
+            throw e;
+        }
+        running.set(true);
+        game.setOnFinished(() -> TimerWheel.shared().schedule(
+                () -> Thread.startVirtualThread(this::stop), CLOSE_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+        Thread.startVirtualThread(lobby::start);
+        Thread.ofVirtual().name("Relay-" + gameId).start(this::relay);
+        LOGGER.info("Relay - Relaying game " + gameId + " from " + upstreamHost + ":" + upstreamPort
+                + " on port " + getPort());
+    }
+
+    /** Waits until the relay has stopped, which it does shortly after the game ends. */
+    public void awaitEnd() throws InterruptedException {
+        finished.await();
+    }
+
+    /** Leaves the game upstream and closes the relay's own clients and port. */
+    public void stop() {
+        if (stopped.getAndSet(true)) return;
+        running.set(false);
+        if (connector != null) {
+            connector.shutdown();
+        }
+        try {
+            if (upstream != null) {
+                upstream.close();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Relay - Error closing upstream connection", e);
+        }
+        lobby.stop(); // ends the relayed game, if it has not ended yet
+        finished.countDown();
+    }
+
+    // The same handshake a spectator client goes through
+    private void subscribe() throws IOException {
+        upstream = new Socket(upstreamHost, upstreamPort);
+        OutputStream out = upstream.getOutputStream();
+        out.write((WireProtocol.GAME_PREFIX + gameId + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+
+        connector = new ServerConnector(upstream);
+        PrintWriter writer = new PrintWriter(out, true);
+        connector.handleHeartbeat(writer);
+
+        reader = new MessageReader(upstream.getInputStream());
+        writer.println("USER_ID:" + RELAY_USER_ID);
+        String protocol = reader.negotiate(writer, WireProtocol.DELTA);
+        LOGGER.info("Relay - Upstream protocol " + protocol);
+
+        writer.println("spectator");
+        String info = reader.readLine();
+        if (!"ok".equals(reader.readLine())) {
+            throw new IOException("Upstream refused the relay: " + info);
+        }
+    }
+
+    private void relay() {
+        try {
+            Message message;
+            while ((message = reader.read()) != null) {
+                if (message.isGameState()) {
+                    game.relayed(message.gameState(), reader.getLastDelta());
+                } else if (message.text().equals("GAME_END")) {
+                    LOGGER.info("Relay - Game " + gameId + " ended upstream");
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            if (running.get()) {
+                LOGGER.log(Level.WARNING, "Relay - Lost the upstream connection", e);
+            }
+        } finally {
+            // Through the game's mailbox, so updates still queued there go out first
+            game.relayEnded();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Usage: RelayNode <upstream host> <upstream port> <game id> [port]");
+            return;
+        }
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        RelayNode relay = new RelayNode(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), port);
+        relay.start();
+        System.out.println("Relaying game " + args[2] + " on port " + relay.getPort());
+        relay.awaitEnd();
+    }
+}
@@ -0,0 +1,55 @@
+package serverSide;
+
+import shared.protocol.MoveDelta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The last few moves of a game, as the deltas that were broadcast for them,
+ * so a client that reconnects can be sent just what it missed. Deltas are
+ * numbered by the ply they produce, which every update already carries.
+ *
+ * Used from the game's actor only.
+ */
+final class ReplayBuffer {
+    private final MoveDelta[] ring;
+    private int newestPly;
+    private int size;
+
+    ReplayBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.ring = new MoveDelta[capacity];
+    }
+
+    /** Records the delta for the next ply; plies must arrive in order. */
+    void add(MoveDelta delta) {
+        ring[delta.moveCount() % ring.length] = delta;
+        newestPly = delta.moveCount();
+        size = Math.min(size + 1, ring.length);
+    }
+
+    /**
+     * The deltas after {@code lastSeenPly}, oldest first, or {@code null} if some
+     * of them have already been overwritten (or the ply is from the future).
+     */
+    List<MoveDelta> since(int lastSeenPly) {
+        if (lastSeenPly > newestPly || lastSeenPly < newestPly - size) {
+            return null;
+        }
+        List<MoveDelta> missed = new ArrayList<>(newestPly - lastSeenPly);
+        for (int ply = lastSeenPly + 1; ply <= newestPly; ply++) {
+            missed.add(ring[ply % ring.length]);
+        }
+        return missed;
+    }
+
+    void clear() {
+        Arrays.fill(ring, null);
+        newestPly = 0;
+        size = 0;
+    }
+}
@@ -2,35 +2,54 @@ package serverSide;
 
 import chess.model.BoardState;
 import chess.model.Square;
+import chess.model.TimeControl;
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
 import chess.model.pieces.Piece;import shared.GameState;
 import chess.model.pieces.Piece;
-import database.GameDatabase;
+import database.FinishedGame;
+import database.GamePersister;
 import parsing.PGNWriter;
 import shared.GameState;
 import shared.ChessMove;
+import shared.protocol.Broadcast;
+import shared.protocol.MoveDelta;
+import shared.timer.TimerWheel;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
-public class Server {
+public final class Server {
     private static final Logger LOGGER = Logger.getLogger(Server.class.getName());
     private int SERVER_PORT;
     private final int GAME_ID;
     private final int SHUTDOWN_DELAY_MS = 500;
     private final String COLOR_WHITE = "white";
     private final String COLOR_BLACK = "black";
-    private final String HEARTBEAT_PORT_PREFIX = "HEARTBEAT_PORT:";
-
-    private List<ClientHandler> spectators = Collections.synchronizedList(new ArrayList<>());
+    // Delta clients get a full state every this many plies, so a lost delta never lingers
+    private static final int KEYFRAME_INTERVAL = Integer.getInteger("server.keyframeInterval", 16);
+    // -Dserver.persistGames=false keeps load tests from writing every game to the database
+    private static final boolean PERSIST_GAMES = Boolean.parseBoolean(System.getProperty("server.persistGames", "true"));
+    // Lobby games that never get two players are ended after this long, freeing their ID
+    public static final long ABANDON_MILLIS = Long.getLong("server.abandonMillis", 10 * 60 * 1000);
+    // e.g. 10+5 (increment), 5d3 (simple delay), 5b3 (Bronstein delay) or none
+    private static final String TIME_CONTROL = System.getProperty("server.timeControl", "10+5");
+    // How long a dropped client with a session keeps its seat, and how many moves it can catch up on
+    public static final long RECONNECT_GRACE_MILLIS = Long.getLong("server.reconnectGraceMillis", 30_000);
+    private static final int REPLAY_MOVES = Integer.getInteger("server.replayMoves", 64);
+
+    private final List<ClientHandler> spectators = Collections.synchronizedList(new ArrayList<>());
     private final List<ClientHandler> players = Collections.synchronizedList(new ArrayList<>());
 
     private int whiteId = -1;
@@ -38,19 +57,94 @@ public class Server {
 
     private List<ChessMove> moveHistory = new ArrayList<>();
     private BoardState gameBoard; // Server maintains authoritative game state
+    private volatile GameState currentState; // Last state broadcast, for keyframes on resync and join
 
     private final AtomicBoolean gameFinished = new AtomicBoolean(false);
     private final AtomicBoolean gameStarted = new AtomicBoolean(false);
     private ServerSocket serverSocket;
+    private volatile Runnable onFinished;
+    private volatile TimerWheel.Timeout abandonTimer;
+    private TimeControl timeControl = TimeControl.parse(TIME_CONTROL);
+    private volatile GameClock clock;
+    private volatile String forfeitWinner; // set by a flag fall or resignation
+    private final GameActor actor = new GameActor(this::handle);
+    private boolean whiteToMove; // actor only
+    private final List<GameEvent> early = new ArrayList<>(); // actor only, sent between joining and the start
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ReplayBuffer replay = new ReplayBuffer(REPLAY_MOVES); // actor only
+    private volatile long reconnectGraceMillis = RECONNECT_GRACE_MILLIS;
+    private volatile boolean relay;
 
     public Server(int gameID){
         GAME_ID = gameID;
     }
 
+    public int getGameId() {
+        return GAME_ID;
+    }
+
+    /** Runs once the game has ended, e.g. to drop it from the lobby. */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /** Takes effect for the next game started; {@link TimeControl#NONE} for untimed play. */
+    public void setTimeControl(TimeControl timeControl) {
+        this.timeControl = timeControl;
+    }
+
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    /** How long a client with a session may be gone before its seat is given up. */
+    public void setReconnectGraceMillis(long reconnectGraceMillis) {
+        this.reconnectGraceMillis = reconnectGraceMillis;
+    }
+
+    /**
+     * A relay game has no players of its own: its updates come from another
+     * server through {@link #relayed} and it only seats spectators.
+     */
+    public void setRelay(boolean relay) {
+        this.relay = relay;
+    }
+
+    public boolean isRelay() {
+        return relay;
+    }
+
+    /** Ends the game unless it has started within {@code millis}. */
+    public void abandonIfNotStartedWithin(long millis) {
+        abandonTimer = TimerWheel.shared().schedule(
+                () -> actor.post(new GameEvent.Abandoned()), millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelAbandonTimer() {
+        TimerWheel.Timeout timer = abandonTimer;
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
+    /**
+     * Takes over a connection routed here by a {@link LobbyServer}, whose
+     * {@code GAME:<id>} line has already been read.
+     */
+    public void acceptClient(Socket socket) {
+        LOGGER.info("Server - Game " + GAME_ID + " accepted client from: " + socket.getRemoteSocketAddress());
+        handleNewClient(socket);
+    }
+
     public BoardState getBoard() {
         return gameBoard;
     }
 
+    public GameState getCurrentState() {
+        GameState state = currentState;
+        return state != null ? state : new GameState(gameBoard);
+    }
+
     public void setGameStarted(boolean started) {
         gameStarted.set(started);
         LOGGER.info("Server - Game started status changed to: " + started);
@@ -73,6 +167,9 @@ public class Server {
         // RESET ALL STATIC FLAGS FOR NEW GAME
         gameFinished.set(false);
         gameStarted.set(false);
+        clock = null;
+        forfeitWinner = null;
+        sessions.clear();
 
         // Clear any leftover client lists
         synchronized (players) {
@@ -136,6 +233,11 @@ public class Server {
                 Socket socket = serverSocket.accept();
                 LOGGER.info("Server - New client connected from: " + socket.getRemoteSocketAddress());
 
+                // Clients open with the lobby's routing line; a standalone server hosts one game whatever it says
+                int requestedGame = LobbyServer.readGameId(socket.getInputStream());
+                if (requestedGame != GAME_ID) {
+                    LOGGER.warning("Server - Client asked for game " + requestedGame + ", hosting " + GAME_ID);
+                }
                 handleNewClient(socket);
             } catch (IOException e) {
                 if (!gameFinished.get()) {
@@ -149,32 +251,16 @@ public class Server {
 
     private void handleNewClient(Socket socket) {
         try {
-            // Create heartbeat server socket
-            ServerSocket heartbeatServerSocket = new ServerSocket(0); // 0 means OS will find available random port
-            int heartbeatPort = heartbeatServerSocket.getLocalPort();
-
-            LOGGER.info("Server - Created heartbeat socket on port: " + heartbeatPort);
-
-            // Send heartbeat port to client
-            PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
-            writer.println(HEARTBEAT_PORT_PREFIX + heartbeatPort);
-            writer.flush();
-
-            // Accept heartbeat connection
-            Socket heartbeatSocket = heartbeatServerSocket.accept();
-            LOGGER.info("Server - Heartbeat connection established");
             System.out.println("Current players: " + players.size());
 
-            // Create client handler
-            ClientHandler clientHandler = new ClientHandler(socket, heartbeatSocket, this);
+            // Heartbeats arrive in-band on the game socket
+            SocketClientHandler clientHandler = new SocketClientHandler(socket, this);
+            clientHandler.start();
 
             // Start handling client in separate thread
             Thread.startVirtualThread(clientHandler::handleClient);
 
-            // Close the heartbeat server socket as we only need one connection
-            heartbeatServerSocket.close();
-
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             LOGGER.log(Level.SEVERE, "Server - Error handling new client", e);
             try {
                 if (!socket.isClosed()) {
@@ -186,8 +272,87 @@ public class Server {
         }
     }
 
+    /** Both players have joined; the game begins on its actor. */
     public void startGame() {
+        actor.post(new GameEvent.Start());
+    }
+
+    /** Called by a player's handler for every move line it sends; never blocks. */
+    public void moveReceived(ClientHandler player, ChessMove move) {
+        actor.post(move.isResign() ? new GameEvent.Resigned(player) : new GameEvent.MoveReceived(player, move));
+    }
+
+    /** Called by a handler once its connection is lost. */
+    public void clientDisconnected(ClientHandler client) {
+        actor.post(new GameEvent.Disconnected(client));
+    }
+
+    /** Makes a seated client's seat reclaimable with its token. */
+    public void openSession(Session session) {
+        sessions.put(session.getToken(), session);
+    }
+
+    /** The session for {@code token}, or {@code null} if it expired, never existed or the game is over. */
+    public Session findSession(String token) {
+        return gameFinished.get() ? null : sessions.get(token);
+    }
+
+    /** Hands {@code session}'s seat to {@code client}, which saw updates up to {@code lastSeenPly}. */
+    public void resume(Session session, ClientHandler client, int lastSeenPly) {
+        actor.post(new GameEvent.Resumed(session, client, lastSeenPly));
+    }
+
+    /** Passes on an update of the game this relay subscribes to; {@code delta} is null for a full state. */
+    public void relayed(GameState state, MoveDelta delta) {
+        actor.post(new GameEvent.Relayed(state, delta));
+    }
+
+    /** Ends this relay game once the updates already passed on have been sent. */
+    public void relayEnded() {
+        actor.post(new GameEvent.RelayEnded());
+    }
+
+    // Actor: one event at a time, never on more than one thread at once
+    private void handle(GameEvent event) {
+        if (gameFinished.get()) {
+            if (event instanceof GameEvent.Resumed resumed) {
+                resumed.client().close(); // too late, the game is over
+            }
+            return;
+        }
+        // A second player may answer its colour before the start event is handled
+        boolean beforeStart = gameBoard == null && players.size() >= 2;
+        if (beforeStart && (event instanceof GameEvent.MoveReceived || event instanceof GameEvent.Resigned)) {
+            early.add(event);
+            return;
+        }
+        switch (event) {
+            case GameEvent.Start start -> begin();
+            case GameEvent.Abandoned abandoned -> abandon();
+            case GameEvent.MoveReceived received -> handleMove(received.player(), received.move());
+            case GameEvent.Resigned resigned -> resign(resigned.player());
+            case GameEvent.FlagFell flag -> flagFell(flag.white());
+            case GameEvent.Disconnected disconnected -> disconnected(disconnected.client());
+            case GameEvent.Resumed resumed -> resumed(resumed.session(), resumed.client(), resumed.lastSeenPly());
+            case GameEvent.GraceExpired expired -> graceExpired(expired.session());
+            case GameEvent.Relayed relayed -> relay(relayed.state(), relayed.delta());
+            case GameEvent.RelayEnded ended -> endGame();
+        }
+    }
+
+    // The second player may have joined after the timer fired, before this event was handled
+    private void abandon() {
+        if (gameStarted.get() || gameBoard != null) {
+            return;
+        }
+        LOGGER.info("Server - Game " + GAME_ID + " abandoned before it started");
+        endGame();
+    }
+
+    private void begin() {
         LOGGER.info("Server - Starting game with 2 players");
+        cancelAbandonTimer();
+        replay.clear();
 
         if (players.size() >= 2) {
             whiteId = players.get(0).getUserId();
@@ -201,120 +366,254 @@ public class Server {
         this.gameBoard = new BoardState();
         System.out.println("✅ Initialized gameBoard in startGame");
 
+        if (timeControl.isTimed()) {
+            clock = new GameClock(timeControl, TimerWheel.shared(),
+                    whiteFlagged -> actor.post(new GameEvent.FlagFell(whiteFlagged)));
+            LOGGER.info("Server - Time control " + timeControl);
+        }
+
         // Send initial game state to both players and spectators
         GameState initialState = new GameState(gameBoard);
+        stampClocks(initialState);
+        currentState = initialState;
         broadcastGameState(initialState);
 
         LOGGER.info("Server - Initial game state broadcasted");
 
-        LOGGER.info("Game board state right before loop: " + gameBoard);
-        LOGGER.info("Both players alive? " + bothPlayersAlive());
-        LOGGER.info("Is game board null? " + (gameBoard == null));
-        LOGGER.info("Players list size: " + players.size());
-
-        // Game loop
-        int turnCount = 0;
-        while (!gameFinished.get() && bothPlayersAlive()) {
-            turnCount++;
-            LOGGER.info("Server - Starting turn " + turnCount);
-
-            // White player's turn
-            LOGGER.info("Server - White player's turn");
-            if (!handlePlayerTurn(0, true)) {
-                LOGGER.info("Server - White player turn failed, ending game");
-                break;
-            }
-
-            // Check for game end after white's move
-            if (isGameFinished()) {
-                LOGGER.info("Server - Game finished after white's move");
-                break;
-            }
-
-            // Black player's turn
-            LOGGER.info("Server - Black player's turn");
-            if (!handlePlayerTurn(1, false)) {
-                LOGGER.info("Server - Black player turn failed, ending game");
-                break;
-            }
+        whiteToMove = true;
+        requestMove();
+        List<GameEvent> pending = new ArrayList<>(early);
+        early.clear();
+        pending.forEach(this::handle);
+    }
 
-            // Check for game end after black's move
-            if (isGameFinished()) {
-                LOGGER.info("Server - Game finished after black's move");
-                break;
-            }
+    // Asks the side to move for a move and starts its clock; the answer comes back as an event
+    private void requestMove() {
+        int playerIndex = whiteToMove ? 0 : 1;
+        String color = whiteToMove ? COLOR_WHITE : COLOR_BLACK;
+        boolean away = !isPlayerAlive(playerIndex);
+        if (away && !hasSession(whiteToMove)) {
+            LOGGER.warning("Server - " + color + " player is not alive");
+            endGame();
+            return;
+        }
+        LOGGER.info("Server - Requesting move from " + color + " player");
+        GameClock gameClock = clock;
+        if (gameClock != null) {
+            gameClock.startTurn(whiteToMove);
+        }
+        // A player who is away is asked again when they resume; their clock runs meanwhile
+        if (!away) {
+            players.get(playerIndex).requestMove();
         }
-
-        LOGGER.info("Server - Game loop ended, calling endGame()");
-        endGame();
     }
 
-    private boolean handlePlayerTurn(int playerIndex, boolean isWhite) {
-        try {
-            LOGGER.info("Handling move. gameBoard = " + gameBoard);
-
-            String color = isWhite ? COLOR_WHITE : COLOR_BLACK;
-            LOGGER.info("Server - Requesting move from " + color + " player");
+    private void handleMove(ClientHandler player, ChessMove move) {
+        if (gameBoard == null) return;
+        int playerIndex = players.indexOf(player);
+        boolean isWhite = playerIndex == 0;
+        String color = isWhite ? COLOR_WHITE : COLOR_BLACK;
+        if (playerIndex < 0 || isWhite != whiteToMove) {
+            LOGGER.warning("Server - Ignoring move from the player not on turn: " + move);
+            return;
+        }
 
-            // Check if player is still alive before requesting move
-            if (!isPlayerAlive(playerIndex)) {
-                LOGGER.warning("Server - " + color + " player is not alive");
+        // Validate the move, and only put it on the server's board if it beat the flag
+        GameClock gameClock = clock;
+        if (move.isNormalMove() && validateMove(move, isWhite)) {
+            if (gameClock != null && !gameClock.endTurn(isWhite)) {
+                // The timeout may not have fired yet; whichever comes second finds the game over
+                LOGGER.info("Server - " + color + " moved after the flag fell");
+                flagFell(isWhite);
+                return;
+            }
+            applyMove(move);
+            // Create updated game state
+            GameState newState = new GameState(gameBoard);
+            newState.setLastMove(move.toChessNotation());
+            stampClocks(newState);
+            currentState = newState;
+
+            LOGGER.info("Server - Valid move applied: " + move.toChessNotation());
+
+            // Broadcast to all clients, and keep the move for clients that reconnect
+            MoveDelta delta = MoveDelta.of(move, newState);
+            replay.add(delta);
+            broadcastMove(move, delta, newState);
+
+            //store played move
+            moveHistory.add(move);
+
+            // Check for game end conditions
+            if (newState.isGameOver()) {
+                LOGGER.info("Server - Game over detected: " + newState.getWinner());
                 endGame();
-                return false;
+                return;
             }
 
-            // Request move from current player
-            ChessMove move = players.get(playerIndex).requestMoveFromPlayer();
+            whiteToMove = !whiteToMove;
+            requestMove();
+        } else {
+            // Invalid move - ask player to try again; their clock keeps running
+            LOGGER.warning("Server - Invalid move attempted by " + color + ": " + move);
+            player.sendInvalidMoveMessage();
+            player.requestMove();
+        }
+    }
 
-            if (move == null) {
-                LOGGER.warning("Server - Received null move from " + color + " player");
-                endGame();
-                return false;
-            }
+    // The same frames the origin sent, so a delta stays a delta at every hop
+    private void relay(GameState state, MoveDelta delta) {
+        if (!gameStarted.getAndSet(true)) {
+            cancelAbandonTimer();
+            LOGGER.info("Server - Relaying game " + GAME_ID);
+        }
+        if (delta != null) {
+            replay.add(delta);
+        } else {
+            replay.clear(); // keyframes carry no move, so earlier deltas no longer join up
+        }
+        currentState = state;
+        send(delta != null ? Broadcast.of(state, delta) : Broadcast.of(state), allClients());
+    }
 
-            if (!move.isNormalMove()) {
-                LOGGER.info("Server - Game ending move received from " + color + ": " + move.getMoveType());
-                endGame();
-                return false;
-            }
+    private void stampClocks(GameState state) {
+        GameClock gameClock = clock;
+        if (gameClock != null) {
+            state.setWhiteTimeMillis(gameClock.getRemainingMillis(true));
+            state.setBlackTimeMillis(gameClock.getRemainingMillis(false));
+        }
+    }
 
-            // Validate and apply move on server's board
-            if (validateAndApplyMove(move, isWhite)) {
-                // Create updated game state
-                GameState newState = new GameState(gameBoard);
-                newState.setLastMove(move.toChessNotation());
-                newState.incrementMoveCount();
+    private void disconnected(ClientHandler client) {
+        Session session = sessionOf(client);
+        if (session != null) {
+            LOGGER.info("Server - " + describe(session) + " disconnected, holding the seat for "
+                    + reconnectGraceMillis + " ms");
+            session.detach(TimerWheel.shared().schedule(
+                    () -> actor.post(new GameEvent.GraceExpired(session)), reconnectGraceMillis, TimeUnit.MILLISECONDS));
+            return;
+        }
+        // A spectator, or a connection that a resumed session already replaced, does not end the game
+        if (players.contains(client)) {
+            LOGGER.info("Server - A player disconnected, ending game");
+            endGame();
+        }
+    }
 
-                LOGGER.info("Server - Valid move applied: " + move.toChessNotation());
+    private void resumed(Session session, ClientHandler client, int lastSeenPly) {
+        if (sessions.get(session.getToken()) != session) {
+            client.close(); // the grace period ran out while it was reconnecting
+            return;
+        }
+        ClientHandler previous = session.getClient();
+        session.attach(client);
+        if (session.isPlayer()) {
+            int index = session.isWhite() ? 0 : 1;
+            synchronized (players) {
+                if (index < players.size()) {
+                    players.set(index, client);
+                } else {
+                    players.add(client);
+                }
+            }
+        } else {
+            spectators.remove(previous);
+            spectators.add(client);
+        }
+        LOGGER.info("Server - " + describe(session) + " resumed at ply " + lastSeenPly);
+        // Still connected as far as we knew: a half-open socket the client gave up on
+        if (previous != null && previous != client) {
+            previous.close();
+        }
 
-                // Broadcast to all clients
-                broadcastGameState(newState);
+        catchUp(client, lastSeenPly);
+        if (session.isPlayer() && gameBoard != null && whiteToMove == session.isWhite()) {
+            client.requestMove();
+        }
+    }
 
-                //store played move
-                moveHistory.add(move);
+    // The moves after lastSeenPly as deltas if the client takes them and they are all still here, else one full state
+    private void catchUp(ClientHandler client, int lastSeenPly) {
+        GameState state = currentState;
+        if (state == null || !gameStarted.get() || lastSeenPly == state.getMoveCount()) {
+            return; // not begun (the start will be broadcast) or nothing missed
+        }
+        List<MoveDelta> missed = client.acceptsDeltas() ? replay.since(lastSeenPly) : null;
+        if (missed != null) {
+            missed.forEach(client::sendDelta);
+            LOGGER.info("Server - Replayed " + missed.size() + " moves");
+        } else {
+            client.sendGameState(state);
+            LOGGER.info("Server - Sent a snapshot at ply " + state.getMoveCount());
+        }
+    }
 
-                // Check for game end conditions
-                if (newState.isGameOver()) {
-                    LOGGER.info("Server - Game over detected: " + newState.getWinner());
-                    // Don't call endGame() here, let the game loop handle it naturally
-                    return false;
-                }
+    private void graceExpired(Session session) {
+        if (session.getClient() != null || sessions.get(session.getToken()) != session) {
+            return; // came back in time, or a session of an earlier game
+        }
+        sessions.remove(session.getToken());
+        if (session.isPlayer()) {
+            LOGGER.info("Server - " + describe(session) + " did not come back, ending game");
+            endGame();
+        }
+    }
 
+    private Session sessionOf(ClientHandler client) {
+        for (Session session : sessions.values()) {
+            if (session.getClient() == client) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    // Whether the player of this colour can resume: their seat is held if they drop, or already is.
+    // A connection that just broke keeps its session attached until its Disconnected event is handled
+    private boolean hasSession(boolean white) {
+        for (Session session : sessions.values()) {
+            if (session.isPlayer() && session.isWhite() == white) {
                 return true;
-            } else {
-                // Invalid move - ask player to try again
-                LOGGER.warning("Server - Invalid move attempted by " + color + ": " + move);
-                players.get(playerIndex).sendInvalidMoveMessage();
-                return handlePlayerTurn(playerIndex, isWhite); // Retry
             }
+        }
+        return false;
+    }
 
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Server - Error in player turn for " + (isWhite ? "white" : "black"), e);
-            return false;
+    private static String describe(Session session) {
+        if (!session.isPlayer()) return "A spectator";
+        return session.isWhite() ? "White" : "Black";
+    }
+
+    // The player to move ran out of time, whether or not they are still connected
+    private void flagFell(boolean whiteFlagged) {
+        LOGGER.info("Server - " + (whiteFlagged ? COLOR_WHITE : COLOR_BLACK) + " lost on time");
+        forfeit(whiteFlagged ? "Black" : "White");
+    }
+
+    private void resign(ClientHandler player) {
+        int playerIndex = players.indexOf(player);
+        if (playerIndex < 0 || gameBoard == null) {
+            endGame(); // resigned before the game began
+            return;
         }
+        LOGGER.info("Server - " + (playerIndex == 0 ? COLOR_WHITE : COLOR_BLACK) + " resigned");
+        forfeit(playerIndex == 0 ? "Black" : "White");
     }
 
-    private boolean validateAndApplyMove(ChessMove move, boolean isWhite) {
+    // Ends the game in the winner's favour, whatever the board says
+    private void forfeit(String winner) {
+        forfeitWinner = winner;
+        GameState last = currentState;
+        GameState finalState = last != null ? last.copy() : new GameState();
+        finalState.setGameOver(true);
+        finalState.setWinner(winner);
+        stampClocks(finalState);
+        currentState = finalState;
+        broadcastGameState(finalState);
+        endGame();
+    }
+
+    private boolean validateMove(ChessMove move, boolean isWhite) {
         try {
             Square[][] board = gameBoard.getSquareArray();
             Square fromSquare = board[move.getFromRow()][move.getFromCol()];
@@ -333,20 +632,20 @@ public class Server {
                 return false;
             }
 
-            if (!piece.getLegalMoves(gameBoard).contains(toSquare)) {
+            Position position = gameBoard.toPosition();
+            int candidate = position.findMove(
+                    Bitboards.square(move.getFromRow(), move.getFromCol()),
+                    Bitboards.square(move.getToRow(), move.getToCol()));
+
+            if (candidate == Moves.NONE) {
                 LOGGER.warning("Server - Illegal move for piece");
                 return false;
             }
 
-            if (!gameBoard.isKingSafeAfterMove(piece, toSquare)) {
+            if (!position.isLegal(candidate)) {
                 LOGGER.warning("Server - Move would put king in check");
                 return false;
             }
-
-            // Apply move
-            gameBoard.commitMove(fromSquare, toSquare, piece);
-            LOGGER.info("Server - Move applied successfully");
-
             return true;
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Server - Error validating move", e);
@@ -354,10 +653,12 @@ public class Server {
         }
     }
 
-    private boolean bothPlayersAlive() {
-        return players.size() >= 2 &&
-                players.get(0).getIsAlive() &&
-                players.get(1).getIsAlive();
+    // The move has passed validateMove
+    private void applyMove(ChessMove move) {
+        Square[][] board = gameBoard.getSquareArray();
+        gameBoard.commitMove(board[move.getFromRow()][move.getFromCol()],
+                board[move.getToRow()][move.getToCol()]);
+        LOGGER.info("Server - Move applied successfully");
     }
 
     private boolean isPlayerAlive(int playerIndex) {
@@ -372,28 +673,39 @@ public class Server {
         }
     }
 
-    private boolean isGameFinished() {
-        boolean finished = gameFinished.get() || gameBoard == null || !bothPlayersAlive();
-        LOGGER.info("Checking if game finished: gameFinished=" + gameFinished.get()
-                + ", gameBoard null? " + (gameBoard == null)
-                + ", bothPlayersAlive=" + bothPlayersAlive());
-        return finished;
-    }
-
     private void broadcastGameState(GameState gameState) {
         LOGGER.info("Server - Broadcasting game state to all clients");
+        send(Broadcast.of(gameState), allClients());
+    }
+
+    private void broadcastMove(ChessMove move, MoveDelta delta, GameState newState) {
+        boolean keyframe = newState.getMoveCount() % KEYFRAME_INTERVAL == 0 || newState.isGameOver();
+        if (keyframe) {
+            broadcastGameState(newState);
+            return;
+        }
+        LOGGER.info("Server - Broadcasting move " + move.toChessNotation() + " to all clients");
+        send(Broadcast.of(newState, delta), allClients());
+    }
 
-        // Send to all players and spectators
+    private List<ClientHandler> allClients() {
         List<ClientHandler> allClients = new ArrayList<>(players);
         allClients.addAll(spectators);
+        return allClients;
+    }
 
-        allClients.forEach(client -> {
+    // Every client gets the same encoded frame for its protocol, so the cost of
+    // encoding does not grow with the number of spectators
+    private static void send(Broadcast update, List<ClientHandler> clients) {
+        clients.forEach(client -> {
             try {
-                client.sendGameState(gameState);
+                client.sendBroadcast(update);
             } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Server - Error sending game state to client", e);
+                LOGGER.log(Level.WARNING, "Server - Error sending update to client", e);
             }
         });
+        LOGGER.fine(() -> "Server - Sent update to " + clients.size() + " clients in "
+                + update.getEncodingCount() + " encodings");
     }
 
 //    public static void endGame() {
@@ -439,29 +751,36 @@ public void endGame() {
     if (gameFinished.getAndSet(true)) {
         return; // Already ending/ended
     }
+    cancelAbandonTimer();
+    GameClock gameClock = clock;
+    if (gameClock != null) {
+        gameClock.stop();
+    }
 
-    try {
-        if (gameBoard == null) {
-            System.err.println("❌ Cannot save game: gameBoard is null");
-            return; // Abort early
-        }
+    // A game that never started has nothing to save, but its clients still need closing;
+    // a relay leaves saving to the origin
+    if (relay) {
+        LOGGER.info("Server - Relay of game " + GAME_ID + " ended");
+    } else if (gameBoard == null) {
+        System.err.println("❌ Cannot save game: gameBoard is null");
+    } else if (PERSIST_GAMES) {
+        try {
+            GameState finalState = new GameState(gameBoard);
+            if (forfeitWinner != null) {
+                finalState.setGameOver(true);
+                finalState.setWinner(forfeitWinner);
+            }
+            String result = PGNWriter.resultFor(finalState.getWinner());
+            String pgn = PGNWriter.generatePGN(moveHistory, String.valueOf(whiteId), String.valueOf(blackId), result);
 
-        GameState finalState = new GameState(gameBoard);
-        String result;
-        switch (finalState.getWinner()) {
-            case "white" -> result = "1-0";
-            case "black" -> result = "0-1";
-            default -> result = "1/2-1/2";
+            // Queued for the persister's writer thread; ending the game never waits on the disk
+            if (GamePersister.shared().submit(new FinishedGame(whiteId, blackId, result, moveHistory, pgn))) {
+                System.out.println("✅ Game and moves queued for saving.");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Failed to save game data: " + e.getMessage());
+            e.printStackTrace();
         }
-        String pgn = PGNWriter.generatePGN(moveHistory, String.valueOf(whiteId), String.valueOf(blackId), result);
-
-        GameDatabase db = new GameDatabase();
-        db.insertGameWithMoves(whiteId, blackId, moveHistory, pgn);
-
-        System.out.println("✅ Game and moves saved to database.");
-    } catch (Exception e) {
-        System.err.println("❌ Failed to save game data: " + e.getMessage());
-        e.printStackTrace();
     }
 
     LOGGER.info("Server - Ending game");
@@ -505,6 +824,11 @@ public void endGame() {
     }
 
     System.out.println("Server shutdown completed");
+
+    Runnable finished = onFinished;
+    if (finished != null) {
+        finished.run();
+    }
 }
 
     private void closeServerSocket() {
@@ -520,9 +844,8 @@ public void endGame() {
     }
 
     public void kickoutSpectator(){
-        spectators = spectators.stream()
-                .filter(ClientHandler::getIsAlive)
-                .collect(Collectors.toList());
+        // In place, so the list stays synchronized for concurrent joins
+        spectators.removeIf(client -> !client.getIsAlive());
     }
 
     // Broadcasts game state to spectators
@@ -534,19 +857,8 @@ public void endGame() {
 
         Thread.startVirtualThread(() -> {
             try {
-                spectators = spectators.stream()
-                        .filter(client -> client.getMoveSocket() != null)
-                        .collect(Collectors.toList());
-
-                spectators.forEach(client -> {
-                    try {
-                        client.sendGameState(gameState);
-                    } catch (Exception e) {
-                        LOGGER.log(Level.WARNING, "Server - Error broadcasting to spectator", e);
-                    }
-                });
-
-                LOGGER.fine("Server - Broadcasted game state to " + spectators.size() + " spectators");
+                spectators.removeIf(client -> !client.getIsAlive());
+                send(Broadcast.of(gameState), new ArrayList<>(spectators));
             } catch (Exception e) {
                 LOGGER.log(Level.WARNING, "Server - Error during broadcast", e);
             }
@@ -0,0 +1,69 @@
+package serverSide;
+
+import shared.timer.TimerWheel;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * A seat in one game (a player's colour or a spectator's place) that a client
+ * asked to be able to reclaim. While the client is connected the session points
+ * at its handler; after the connection drops it is held for the game's grace
+ * period, and a client presenting the token gets the seat back.
+ *
+ * Everything but the token and seat is read and changed on the game's actor.
+ */
+public final class Session {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final String token;
+    private final boolean player;
+    private final boolean white;
+    private volatile ClientHandler client;
+    private TimerWheel.Timeout grace;
+
+    public Session(String token, boolean player, boolean white, ClientHandler client) {
+        this.token = token;
+        this.player = player;
+        this.white = white;
+        this.client = client;
+    }
+
+    /** 128 random bits, hex encoded; hard to guess, short to send. */
+    public static String newToken() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isPlayer() {
+        return player;
+    }
+
+    /** The player's colour; meaningless for spectators. */
+    public boolean isWhite() {
+        return white;
+    }
+
+    /** The connected handler, or {@code null} while the seat is held for a reconnect. */
+    public ClientHandler getClient() {
+        return client;
+    }
+
+    void detach(TimerWheel.Timeout grace) {
+        this.client = null;
+        this.grace = grace;
+    }
+
+    void attach(ClientHandler client) {
+        if (grace != null) {
+            grace.cancel();
+            grace = null;
+        }
+        this.client = client;
+    }
+}
@@ -0,0 +1,93 @@
+package serverSide;
+
+import shared.protocol.MessageWriter;
+import shared.timer.TimerWheel;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Blocking transport: one virtual thread reads the game socket line by line,
+ * heartbeats included, and hands every line to the handler.
+ */
+public class SocketClientHandler extends AbstractClientHandler {
+    private static final Logger LOGGER = Logger.getLogger(SocketClientHandler.class.getName());
+    // Lets GAME_END reach the client before the socket goes away
+    private static final long CLOSE_DELAY_MILLIS = 100;
+
+    private final Socket moveSocket;
+
+    public Socket getMoveSocket() {
+        return moveSocket;
+    }
+
+    private final BufferedReader reader;
+
+    public SocketClientHandler(Socket socket, Server server) {
+        super(createWriter(socket), server);
+        this.moveSocket = socket;
+        try {
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Server - Failed to initialize ClientHandler streams", e);
+            throw new RuntimeException(e);
+        }
+        LOGGER.info("Server - ClientHandler initialized for new connection");
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        Thread.startVirtualThread(this::readLines);
+    }
+
+    private static MessageWriter createWriter(Socket socket) {
+        try {
+            return new MessageWriter(socket.getOutputStream());
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Server - Failed to initialize ClientHandler streams", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void readLines() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineReceived(line);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Server - Client input closed", e);
+        }
+        inputClosed();
+    }
+
+    @Override
+    protected void closeNow() {
+        // The socket first: that fails a write the outbound writer may be blocked in, which holds the writer's lock
+        try {
+            if (!moveSocket.isClosed()) {
+                moveSocket.close();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Server - Error closing client socket", e);
+            System.out.println("Error during cleanup: " + e.getMessage());
+        }
+        try {
+            messageWriter.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Server - Error closing writer", e);
+        }
+    }
+
+    @Override
+    protected void closeConnection() {
+        // Close the socket after a brief delay to ensure messages are sent, without holding up the caller
+        TimerWheel.shared().schedule(() -> Thread.startVirtualThread(this::closeNow),
+                CLOSE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,63 @@
+package serverSide.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size direct buffers for socket I/O. Direct buffers are expensive to
+ * allocate and are only freed by the garbage collector, so outgoing messages
+ * borrow one from here and return it once the selector has written it.
+ * At most {@code maxPooled} idle buffers are kept; extra ones are dropped.
+ */
+public final class BufferPool {
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong allocated = new AtomicLong();
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /** A cleared buffer of {@link #getBufferSize()} bytes, pooled if one is free. */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || !buffer.isDirect()) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        free.offer(buffer.clear());
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /** Idle buffers waiting in the pool. */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+
+    /** Buffers allocated since the pool was created, pooled or not. */
+    public long getAllocatedCount() {
+        return allocated.get();
+    }
+}
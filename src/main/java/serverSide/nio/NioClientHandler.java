@@ -0,0 +1,37 @@
+package serverSide.nio;
+
+import serverSide.AbstractClientHandler;
+import serverSide.Server;
+
+/**
+ * A client served by the {@link NioServer} selector. Lines, heartbeats included,
+ * are decoded on the selector thread and handed to the handler there; the
+ * handshake runs on a virtual thread that waits for them, and once a client
+ * has joined nothing waits on it at all: a player's moves go to the game's
+ * {@link serverSide.GameActor}.
+ */
+public class NioClientHandler extends AbstractClientHandler {
+    private final NioConnection connection;
+
+    NioClientHandler(NioConnection connection, Server server) {
+        super(connection.getWriter(), server);
+        this.connection = connection;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        connection.setLineHandler(this::lineReceived);
+        connection.setOnClose(this::inputClosed);
+    }
+
+    @Override
+    protected void closeNow() {
+        connection.close();
+    }
+
+    @Override
+    protected void closeConnection() {
+        connection.closeAfterFlush();
+    }
+}
@@ -0,0 +1,323 @@
+package serverSide.nio;
+
+import shared.protocol.MessageWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One non-blocking socket registered with a {@link NioServer}.
+ *
+ * Inbound bytes are split into lines on the selector thread and handed to the
+ * current line handler.
+ * Outbound messages go through {@link #getWriter()}, whose bytes are copied into
+ * pooled direct buffers. A send first tries to write straight to the socket;
+ * whatever the socket does not take waits in a write queue that the selector
+ * drains. Once more than {@link #HIGH_WATER_BYTES} are queued, senders block
+ * until the queue drains below {@link #LOW_WATER_BYTES}, and a client that does
+ * not read for {@link #WRITE_TIMEOUT_MILLIS} is disconnected.
+ */
+public final class NioConnection {
+    private static final Logger LOGGER = Logger.getLogger(NioConnection.class.getName());
+    public static final int HIGH_WATER_BYTES = 256 * 1024;
+    public static final int LOW_WATER_BYTES = 64 * 1024;
+    public static final long WRITE_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_LINE_BYTES = 8 * 1024;
+
+    private final SocketChannel channel;
+    private final NioServer server;
+    private final BufferPool pool;
+    private SelectionKey key;
+
+    // Inbound, selector thread only
+    private byte[] partial = new byte[0];
+    private int partialLength;
+    private volatile Consumer<String> lineHandler = line -> { };
+
+    // Outbound, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean closeWhenFlushed;
+    private volatile boolean closed;
+    private volatile Runnable onClose;
+
+    private final MessageWriter writer;
+
+    NioConnection(SocketChannel channel, NioServer server, BufferPool pool) {
+        this.channel = channel;
+        this.server = server;
+        this.pool = pool;
+        this.writer = new MessageWriter(new ChannelOutputStream(), false);
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    public MessageWriter getWriter() {
+        return writer;
+    }
+
+    /** Where complete lines go from now on; it runs on the selector thread and must not block. */
+    public void setLineHandler(Consumer<String> lineHandler) {
+        this.lineHandler = lineHandler;
+    }
+
+    /** Runs once when the connection closes, for whatever reason. */
+    public void setOnClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /** Bytes waiting in the write queue. */
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Selector thread: read whatever arrived and deliver complete lines
+    void onReadable(ByteBuffer readBuffer) {
+        try {
+            while (true) {
+                readBuffer.clear();
+                int read = channel.read(readBuffer);
+                if (read < 0) {
+                    close();
+                    return;
+                }
+                if (read == 0) {
+                    return;
+                }
+                readBuffer.flip();
+                decodeLines(readBuffer);
+                if (read < readBuffer.capacity()) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "NIO - Read failed, closing connection", e);
+            close();
+        }
+    }
+
+    private void decodeLines(ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            byte b = bytes.get();
+            if (b == '\n') {
+                int length = partialLength;
+                if (length > 0 && partial[length - 1] == '\r') length--;
+                String line = new String(partial, 0, length, StandardCharsets.UTF_8);
+                partialLength = 0;
+                lineHandler.accept(line);
+                if (closed) return;
+                continue;
+            }
+            if (partialLength == MAX_LINE_BYTES) {
+                LOGGER.warning("NIO - Line longer than " + MAX_LINE_BYTES + " bytes, closing connection");
+                close();
+                return;
+            }
+            if (partialLength == partial.length) {
+                partial = Arrays.copyOf(partial, Math.max(64, partial.length * 2));
+            }
+            partial[partialLength++] = b;
+        }
+    }
+
+    // Selector thread: drain the write queue as far as the socket takes it
+    void onWritable() {
+        lock.lock();
+        try {
+            flushQueue();
+            if (writeQueue.isEmpty()) {
+                if (closeWhenFlushed) {
+                    closeLocked();
+                } else if (key.isValid()) {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "NIO - Write failed, closing connection", e);
+            closeLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushQueue() throws IOException {
+        while (!writeQueue.isEmpty()) {
+            ByteBuffer head = writeQueue.peek();
+            queuedBytes -= channel.write(head);
+            if (head.hasRemaining()) {
+                break; // socket buffer full
+            }
+            pool.release(writeQueue.poll());
+        }
+        if (queuedBytes <= LOW_WATER_BYTES) {
+            drained.signalAll();
+        }
+    }
+
+    private void send(List<ByteBuffer> buffers) throws IOException {
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MILLIS);
+            while (!closed && queuedBytes > HIGH_WATER_BYTES) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || server.isSelectorThread()) {
+                    LOGGER.warning("NIO - Client stopped reading, " + queuedBytes + " bytes queued; disconnecting");
+                    closeLocked();
+                    break;
+                }
+                try {
+                    drained.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the client to read", e);
+                }
+            }
+            if (closed || closeWhenFlushed) {
+                buffers.forEach(pool::release);
+                throw new IOException("Connection closed");
+            }
+            boolean wasEmpty = writeQueue.isEmpty();
+            for (ByteBuffer buffer : buffers) {
+                writeQueue.add(buffer);
+                queuedBytes += buffer.remaining();
+            }
+            if (wasEmpty) {
+                // Usually the socket takes it all right away and the selector never gets involved
+                try {
+                    flushQueue();
+                } catch (IOException e) {
+                    closeLocked();
+                    throw e;
+                }
+                if (!writeQueue.isEmpty()) {
+                    server.requestWrite(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Closes once everything queued so far has been written. */
+    public void closeAfterFlush() {
+        lock.lock();
+        try {
+            if (writeQueue.isEmpty()) {
+                closeLocked();
+            } else {
+                closeWhenFlushed = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closeLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeLocked() {
+        if (closed) return;
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "NIO - Error closing channel", e);
+        }
+        writeQueue.forEach(pool::release);
+        writeQueue.clear();
+        queuedBytes = 0;
+        drained.signalAll();
+        server.connectionClosed();
+        Runnable callback = onClose;
+        if (callback != null) {
+            // Callbacks may block (ending a game), which the selector thread must not
+            Thread.startVirtualThread(callback);
+        }
+    }
+
+    /**
+     * Collects a message's bytes in pooled buffers and sends them on flush.
+     * {@link MessageWriter} calls it under its own lock, one message at a time.
+     */
+    private final class ChannelOutputStream extends OutputStream {
+        private final List<ByteBuffer> pending = new ArrayList<>(2);
+        private ByteBuffer current;
+
+        @Override
+        public void write(int b) {
+            room().put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                room();
+                int chunk = Math.min(length, current.remaining());
+                current.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private ByteBuffer room() {
+            if (current == null || !current.hasRemaining()) {
+                current = pool.acquire();
+                pending.add(current);
+            }
+            return current;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (pending.isEmpty()) return;
+            List<ByteBuffer> buffers = new ArrayList<>(pending);
+            pending.clear();
+            current = null;
+            buffers.forEach(ByteBuffer::flip);
+            send(buffers);
+        }
+
+        @Override
+        public void close() {
+            pending.forEach(pool::release);
+            pending.clear();
+            current = null;
+        }
+    }
+}
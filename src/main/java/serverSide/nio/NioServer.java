@@ -0,0 +1,178 @@
+package serverSide.nio;
+
+import serverSide.LobbyServer;
+import serverSide.Server;
+import shared.protocol.WireProtocol;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking front end for a {@link LobbyServer}: one selector thread accepts,
+ * reads and writes for every connection, so idle clients cost a registered key
+ * and a few small objects instead of blocked threads.
+ *
+ * The first line routes the connection to its game; the rest of the
+ * conversation, in-band heartbeats included, belongs to a {@link NioClientHandler}.
+ */
+public final class NioServer implements Runnable {
+    private static final Logger LOGGER = Logger.getLogger(NioServer.class.getName());
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    private static final int READ_BUFFER_BYTES = 16 * 1024;
+
+    private final LobbyServer lobby;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final BufferPool pool = new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE,
+            Integer.getInteger("server.nio.pooledBuffers", 1024));
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile Thread selectorThread;
+    private volatile boolean running;
+
+    public NioServer(LobbyServer lobby, ServerSocketChannel serverChannel) throws IOException {
+        this.lobby = lobby;
+        this.serverChannel = serverChannel;
+        this.selector = Selector.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public BufferPool getPool() {
+        return pool;
+    }
+
+    /** Open client connections, routed or not. */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /** Runs the selector loop until {@link #stop()}; blocks the calling thread. */
+    @Override
+    public void run() {
+        selectorThread = Thread.currentThread();
+        running = true;
+        while (running) {
+            try {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    dispatch(key);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.log(Level.WARNING, "NIO - Selector failed", e);
+                }
+            }
+        }
+        closeAll();
+        LOGGER.info("NIO - Selector loop ended");
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    boolean isSelectorThread() {
+        return Thread.currentThread() == selectorThread;
+    }
+
+    /** Asks the selector to finish a write the sending thread could not complete. */
+    void requestWrite(SelectionKey key) {
+        if (!key.isValid()) return;
+        key.interestOpsOr(SelectionKey.OP_WRITE);
+        if (!isSelectorThread()) {
+            selector.wakeup();
+        }
+    }
+
+    void connectionClosed() {
+        connections.decrementAndGet();
+    }
+
+    private void dispatch(SelectionKey key) {
+        if (!key.isValid()) return;
+        Object attachment = key.attachment();
+        try {
+            if (attachment == null) {
+                acceptClients();
+            } else if (attachment instanceof NioConnection connection) {
+                if (key.isReadable()) {
+                    connection.onReadable(readBuffer);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.onWritable();
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "NIO - Error handling " + attachment, e);
+        }
+    }
+
+    private void acceptClients() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            NioConnection connection = register(channel);
+            connection.setLineHandler(line -> route(connection, line));
+        }
+    }
+
+    private NioConnection register(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        NioConnection connection = new NioConnection(channel, this, pool);
+        connections.incrementAndGet();
+        connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+        return connection;
+    }
+
+    // Selector thread: the first line names the game
+    private void route(NioConnection connection, String line) {
+        int gameId = LobbyServer.parseGameId(line);
+        Server game = gameId >= 0 ? lobby.getGame(gameId) : null;
+        if (game == null) {
+            LOGGER.warning("NIO - No game " + gameId + ", refusing client");
+            try {
+                connection.getWriter().sendLine(WireProtocol.GAME_NOT_FOUND);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "NIO - Error refusing client", e);
+            }
+            connection.closeAfterFlush();
+            return;
+        }
+        NioClientHandler handler = new NioClientHandler(connection, game);
+        handler.start();
+        Thread.startVirtualThread(handler::handleClient);
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) {
+                connection.close();
+            } else {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "NIO - Error closing channel", e);
+                }
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "NIO - Error closing selector", e);
+        }
+    }
+}
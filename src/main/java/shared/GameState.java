@@ -1,7 +1,12 @@
 package shared;
 
 import chess.model.BoardState;
+import chess.model.Fen;
 import chess.model.Square;
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import chess.model.bitboard.Zobrist;
 import chess.model.pieces.*;
 
 import java.awt.*;
@@ -18,6 +23,16 @@ public class GameState implements Serializable {
     private String winner;
     private int moveCount;
     private String lastMove;
+    private int castlingRights;
+    private String enPassantSquare; // e.g. "e3", null when the last move was not a double pawn step
+    private long zobristKey; // lets clients check they are in sync without comparing the board
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long whiteTimeMillis = -1; // clock time left when the state was sent, -1 in untimed games
+    private long blackTimeMillis = -1;
+
+    // Piece names used in the board array, indexed by bitboard piece type
+    private static final String[] TYPE_NAMES = {"pawn", "knight", "bishop", "rook", "queen", "king"};
 
     public GameState() {
         this.board = new String[8][8];
@@ -28,6 +43,7 @@ public class GameState implements Serializable {
         this.winner = null;
         this.moveCount = 0;
         this.lastMove = "";
+        this.fullmoveNumber = 1;
     }
 
     // Constructor from BoardState
@@ -51,13 +67,94 @@ public class GameState implements Serializable {
         }
 
         this.whiteTurn = boardState.isWhiteTurn();
+        this.castlingRights = boardState.getCastlingRights();
+        Square ep = boardState.getEnPassantSquare();
+        this.enPassantSquare = ep != null ? Moves.squareName(Bitboards.square(ep.getYNum(), ep.getXNum())) : null;
+        this.zobristKey = boardState.getZobristKey();
+        this.halfmoveClock = boardState.getHalfmoveClock();
+        this.fullmoveNumber = boardState.getFullmoveNumber();
+        this.moveCount = 2 * (fullmoveNumber - 1) + (whiteTurn ? 0 : 1);
+
+        updateStatus(boardState.toPosition());
+    }
+
+    /** Independent copy, e.g. to apply a move without touching a state another thread holds. */
+    public GameState copy() {
+        GameState copy = new GameState();
+        for (int row = 0; row < 8; row++) {
+            copy.board[row] = board[row].clone();
+        }
+        copy.whiteTurn = whiteTurn;
+        copy.whiteInCheck = whiteInCheck;
+        copy.blackInCheck = blackInCheck;
+        copy.gameOver = gameOver;
+        copy.winner = winner;
+        copy.moveCount = moveCount;
+        copy.lastMove = lastMove;
+        copy.castlingRights = castlingRights;
+        copy.enPassantSquare = enPassantSquare;
+        copy.zobristKey = zobristKey;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.whiteTimeMillis = whiteTimeMillis;
+        copy.blackTimeMillis = blackTimeMillis;
+        return copy;
+    }
+
+    /**
+     * State for the position described by {@code fen}, with check and game-over flags
+     * filled in. Cheaper than going through a {@link BoardState}, which builds pieces.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static GameState fromFen(String fen) {
+        Fen.Fields fields = Fen.parse(fen);
+        GameState state = new GameState();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                char letter = fields.pieces()[row][col];
+                if (letter != 0) {
+                    state.board[row][col] = (Fen.color(letter) == Position.WHITE ? "w" : "b") + TYPE_NAMES[Fen.type(letter)];
+                }
+            }
+        }
+        state.whiteTurn = fields.whiteTurn();
+        state.castlingRights = fields.castlingRights();
+        state.enPassantSquare = fields.enPassantSquare();
+        state.halfmoveClock = fields.halfmoveClock();
+        state.fullmoveNumber = fields.fullmoveNumber();
+        state.moveCount = 2 * (state.fullmoveNumber - 1) + (state.whiteTurn ? 0 : 1);
+        state.zobristKey = state.computeZobristKey();
+        state.updateStatus(state.toPosition());
+        return state;
+    }
+
+    /** This position in Forsyth-Edwards Notation, e.g. for snapshots and storage. */
+    public String toFen() {
+        char[][] pieces = new char[8][8];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                String notation = board[row][col];
+                int type = notation != null ? getPieceType(notation) : Position.EMPTY;
+                if (type != Position.EMPTY) {
+                    pieces[row][col] = Fen.letter(notation.startsWith("w") ? Position.WHITE : Position.BLACK, type);
+                }
+            }
+        }
+        return Fen.format(new Fen.Fields(pieces, whiteTurn, castlingRights, enPassantSquare,
+                halfmoveClock, fullmoveNumber));
+    }
+
+    private void updateStatus(Position position) {
+        this.whiteInCheck = position.isInCheck(Position.WHITE);
+        this.blackInCheck = position.isInCheck(Position.BLACK);
 
         // Check for checkmate/stalemate
-        if (!boardState.hasAnyLegalMovesForCurrentPlayer()) {
+        if (!position.hasLegalMoves()) {
             this.gameOver = true;
-            if (boardState.isWhiteCheckmated()) {
+            if (whiteTurn && whiteInCheck) {
                 this.winner = "Black";
-            } else if (boardState.isBlackCheckmated()) {
+            } else if (!whiteTurn && blackInCheck) {
                 this.winner = "White";
             } else {
                 this.winner = "Draw"; // Stalemate
@@ -65,6 +162,47 @@ public class GameState implements Serializable {
         }
     }
 
+    // Bitboard position for this state, e.g. for move generation on the client side
+    public Position toPosition() {
+        Position position = new Position();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                String notation = board[row][col];
+                int type = notation != null ? getPieceType(notation) : Position.EMPTY;
+                if (type != Position.EMPTY) {
+                    int color = notation.startsWith("w") ? Position.WHITE : Position.BLACK;
+                    position.put(Bitboards.square(row, col), color, type);
+                }
+            }
+        }
+        position.setSideToMove(whiteTurn ? Position.WHITE : Position.BLACK);
+        return position;
+    }
+
+    /** Zobrist key recomputed from the board, turn, castling rights and en passant square. */
+    public long computeZobristKey() {
+        return Zobrist.keyOf(toPosition())
+                ^ Zobrist.castling(castlingRights)
+                ^ Zobrist.enPassant(Moves.parseSquare(enPassantSquare));
+    }
+
+    /** Whether the board in this state still matches the key it was sent with. */
+    public boolean isInSync() {
+        return zobristKey == computeZobristKey();
+    }
+
+    private int getPieceType(String notation) {
+        return switch (notation.substring(1)) {
+            case "pawn" -> Position.PAWN;
+            case "knight" -> Position.KNIGHT;
+            case "bishop" -> Position.BISHOP;
+            case "rook" -> Position.ROOK;
+            case "queen" -> Position.QUEEN;
+            case "king" -> Position.KING;
+            default -> Position.EMPTY;
+        };
+    }
+
     private String getPieceNotation(Piece piece) {
         String color = piece.getColor() == 1 ? "w" : "b";
         String type;
@@ -119,6 +257,21 @@ public class GameState implements Serializable {
     public void setMoveCount(int moveCount) { this.moveCount = moveCount; }
     public String getLastMove() { return lastMove; }
     public void setLastMove(String lastMove) { this.lastMove = lastMove; }
+    public int getCastlingRights() { return castlingRights; }
+    public void setCastlingRights(int castlingRights) { this.castlingRights = castlingRights; }
+    public String getEnPassantSquare() { return enPassantSquare; }
+    public void setEnPassantSquare(String enPassantSquare) { this.enPassantSquare = enPassantSquare; }
+    public long getZobristKey() { return zobristKey; }
+    public void setZobristKey(long zobristKey) { this.zobristKey = zobristKey; }
+    public int getHalfmoveClock() { return halfmoveClock; }
+    public void setHalfmoveClock(int halfmoveClock) { this.halfmoveClock = halfmoveClock; }
+    public int getFullmoveNumber() { return fullmoveNumber; }
+    public void setFullmoveNumber(int fullmoveNumber) { this.fullmoveNumber = fullmoveNumber; }
+    public long getWhiteTimeMillis() { return whiteTimeMillis; }
+    public void setWhiteTimeMillis(long whiteTimeMillis) { this.whiteTimeMillis = whiteTimeMillis; }
+    public long getBlackTimeMillis() { return blackTimeMillis; }
+    public void setBlackTimeMillis(long blackTimeMillis) { this.blackTimeMillis = blackTimeMillis; }
+    public boolean hasClocks() { return whiteTimeMillis >= 0 && blackTimeMillis >= 0; }
 
     public void incrementMoveCount() { this.moveCount++; }
 
@@ -151,11 +304,23 @@ public class GameState implements Serializable {
 
         String piece = board[fromRow][fromCol];
         if (piece != null) {
+            boolean capture = board[toRow][toCol] != null;
             board[toRow][toCol] = piece;
             board[fromRow][fromCol] = null;
             this.lastMove = uci;
             incrementMoveCount();
             this.whiteTurn = !this.whiteTurn;
+
+            int from = Bitboards.square(fromRow, fromCol);
+            int to = Bitboards.square(toRow, toCol);
+            castlingRights = BoardState.castlingRightsAfterMove(castlingRights, piece.endsWith("king"),
+                    piece.startsWith("w") ? 1 : 0, from, to);
+            enPassantSquare = piece.endsWith("pawn") && Math.abs(fromRow - toRow) == 2
+                    ? Moves.squareName(Bitboards.square((fromRow + toRow) / 2, fromCol))
+                    : null;
+            halfmoveClock = piece.endsWith("pawn") || capture ? 0 : halfmoveClock + 1;
+            if (whiteTurn) fullmoveNumber++; // black just moved
+            this.zobristKey = computeZobristKey();
         }
     }
 
@@ -226,5 +391,11 @@ public class GameState implements Serializable {
             board[6][i] = "wpawn";           // White pawns
             board[7][i] = "w" + backRank[i]; // White back rank
         }
+        this.castlingRights = BoardState.WHITE_KINGSIDE | BoardState.WHITE_QUEENSIDE
+                | BoardState.BLACK_KINGSIDE | BoardState.BLACK_QUEENSIDE;
+        this.enPassantSquare = null;
+        this.halfmoveClock = 0;
+        this.fullmoveNumber = 1;
+        this.zobristKey = computeZobristKey();
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package shared.protocol;
+
+import shared.GameState;
+
+/**
+ * One update for every client of a game: a new state and, for a plain move,
+ * the delta that leads to it. Each encoding is built the first time a client
+ * needs it and then shared, so an update is encoded at most three times
+ * however many clients watch.
+ */
+public final class Broadcast {
+    private final GameState gameState;
+    private final MoveDelta delta;
+    private Frame textState;
+    private Frame binaryState;
+    private Frame deltaFrame;
+    private int encodings;
+
+    private Broadcast(GameState gameState, MoveDelta delta) {
+        this.gameState = gameState;
+        this.delta = delta;
+    }
+
+    /** A full state for everyone, e.g. the initial position or a keyframe. */
+    public static Broadcast of(GameState gameState) {
+        return new Broadcast(gameState, null);
+    }
+
+    /** A move: delta clients get {@code delta}, the others {@code gameState}. */
+    public static Broadcast of(GameState gameState, MoveDelta delta) {
+        return new Broadcast(gameState, delta);
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    /** The frame for a client in the given mode; safe to call from several threads. */
+    public synchronized Frame frameFor(boolean binary, boolean acceptsDeltas) {
+        if (delta != null && binary && acceptsDeltas) {
+            if (deltaFrame == null) {
+                deltaFrame = Frame.delta(delta);
+                encodings++;
+            }
+            return deltaFrame;
+        }
+        if (binary) {
+            if (binaryState == null) {
+                binaryState = Frame.gameState(gameState, true);
+                encodings++;
+            }
+            return binaryState;
+        }
+        if (textState == null) {
+            textState = Frame.gameState(gameState, false);
+            encodings++;
+        }
+        return textState;
+    }
+
+    /** How many encodings were built so far, at most one per kind of client. */
+    public synchronized int getEncodingCount() {
+        return encodings;
+    }
+}
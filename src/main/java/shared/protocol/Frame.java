@@ -0,0 +1,76 @@
+package shared.protocol;
+
+import shared.GameState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One message encoded exactly as it goes on the wire, text lines or a binary
+ * frame with its header. Frames are immutable, so one can be written to any
+ * number of connections that use the same encoding.
+ */
+public final class Frame {
+    private final byte[] bytes;
+    private final boolean binary;
+
+    private Frame(byte[] bytes, boolean binary) {
+        this.bytes = bytes;
+        this.binary = binary;
+    }
+
+    /** One line of text, as {@link MessageWriter#sendLine} writes it in the given mode. */
+    public static Frame line(String line, boolean binary) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (binary) {
+            return binary(WireProtocol.FRAME_TEXT, bytes);
+        }
+        byte[] text = Arrays.copyOf(bytes, bytes.length + 1);
+        text[bytes.length] = '\n';
+        return new Frame(text, false);
+    }
+
+    /** A full game state, as {@link MessageWriter#sendGameState} writes it in the given mode. */
+    public static Frame gameState(GameState gameState, boolean binary) {
+        if (binary) {
+            return binary(WireProtocol.FRAME_GAME_STATE, GameStateCodec.encode(gameState));
+        }
+        String text = WireProtocol.GAME_STATE_UPDATE + '\n' + GameStateCodec.encodeText(gameState) + '\n';
+        return new Frame(text.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    /** A move delta; deltas exist only in the binary protocol. */
+    public static Frame delta(MoveDelta delta) {
+        return binary(WireProtocol.FRAME_MOVE_DELTA, GameStateCodec.encodeDelta(delta));
+    }
+
+    private static Frame binary(byte type, byte[] payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Integer.BYTES + 1 + payload.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(payload.length + 1);
+            out.writeByte(type);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by an in-memory stream
+        }
+        return new Frame(bytes.toByteArray(), true);
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /** Bytes on the wire, framing included. */
+    public int size() {
+        return bytes.length;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,333 @@
+package shared.protocol;
+
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import shared.GameState;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes {@link GameState} for the wire, in both the binary layout and the
+ * original text format, so server and all clients share one implementation.
+ *
+ * Binary layout, version 1 (51 bytes plus the last move):
+ * <pre>
+ *  0      version
+ *  1..32  board, 4 bits per square in a8..h1 order, high nibble first:
+ *         0 empty, 1..6 white pawn..king, 9..14 black pawn..king
+ *  33     flags: whiteTurn, whiteInCheck, blackInCheck, gameOver (bits 0..3), winner (bits 4..5)
+ *  34     castling rights
+ *  35     en passant square 0..63, or 0xFF
+ *  36     move count, halfmove clock, fullmove number (unsigned 16 bits each)
+ *  42     Zobrist key (8 bytes)
+ *  50     last move length n, then n ASCII bytes
+ *  51+n   in timed games only: White's and Black's remaining time in ms (4 bytes each)
+ * </pre>
+ *
+ * {@link MoveDelta}, version 1 (14 bytes):
+ * <pre>
+ *  0      version
+ *  1, 2   from and to square 0..63
+ *  3      flags as above, without whiteTurn (it follows from the move)
+ *  4      move count (unsigned 16 bits)
+ *  6      Zobrist key after the move (8 bytes)
+ *  14     in timed games only: remaining times as above (8 bytes)
+ * </pre>
+ *
+ * The clock times are a trailer rather than a new version: older readers stop
+ * before them, and a payload that ends early simply has no clocks.
+ */
+public final class GameStateCodec {
+    public static final int VERSION = 1;
+
+    private static final int BOARD_BYTES = 32;
+    private static final int FIXED_BYTES = 1 + BOARD_BYTES + 3 + 6 + 8 + 1;
+    private static final int DELTA_BYTES = 1 + 2 + 1 + 2 + 8;
+    private static final int CLOCK_BYTES = 4 + 4;
+    private static final int BLACK_NIBBLE = 8;
+    private static final int NO_SQUARE = 0xFF;
+    private static final String[] TYPE_NAMES = {"pawn", "knight", "bishop", "rook", "queen", "king"};
+    private static final String[] WINNERS = {null, "White", "Black", "Draw"};
+    private static final String[] NIBBLE_NAMES = new String[16];
+
+    static {
+        for (int type = 0; type < TYPE_NAMES.length; type++) {
+            NIBBLE_NAMES[type + 1] = "w" + TYPE_NAMES[type];
+            NIBBLE_NAMES[type + 1 | BLACK_NIBBLE] = "b" + TYPE_NAMES[type];
+        }
+    }
+
+    private GameStateCodec() {
+    }
+
+    public static byte[] encode(GameState state) {
+        String lastMove = state.getLastMove() != null ? state.getLastMove() : "";
+        byte[] move = lastMove.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_BYTES + move.length + (state.hasClocks() ? CLOCK_BYTES : 0));
+        encode(state, move, buffer);
+        return buffer.array();
+    }
+
+    private static void encode(GameState state, byte[] move, ByteBuffer buffer) {
+        buffer.put((byte) VERSION);
+        String[][] board = state.getBoard();
+        for (int sq = 0; sq < 64; sq += 2) {
+            int high = nibble(board[sq >> 3][sq & 7]);
+            int low = nibble(board[(sq + 1) >> 3][(sq + 1) & 7]);
+            buffer.put((byte) (high << 4 | low));
+        }
+        buffer.put((byte) flags(state.isWhiteTurn(), state.isWhiteInCheck(), state.isBlackInCheck(),
+                state.isGameOver(), state.getWinner()));
+        buffer.put((byte) state.getCastlingRights());
+        int ep = Moves.parseSquare(state.getEnPassantSquare());
+        buffer.put((byte) (ep == Position.EMPTY ? NO_SQUARE : ep));
+        buffer.putShort((short) state.getMoveCount());
+        buffer.putShort((short) state.getHalfmoveClock());
+        buffer.putShort((short) state.getFullmoveNumber());
+        buffer.putLong(state.getZobristKey());
+        buffer.put((byte) move.length);
+        buffer.put(move);
+        if (state.hasClocks()) {
+            putClocks(buffer, state.getWhiteTimeMillis(), state.getBlackTimeMillis());
+        }
+    }
+
+    /**
+     * Decodes a state written by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the payload is truncated or of an unknown version
+     */
+    public static GameState decode(byte[] payload, int offset, int length) {
+        if (length < FIXED_BYTES) {
+            throw new IllegalArgumentException("Game state payload too short: " + length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload, offset, length);
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported game state version " + version);
+        }
+
+        GameState state = new GameState();
+        String[][] board = state.getBoard();
+        for (int sq = 0; sq < 64; sq += 2) {
+            int packed = buffer.get() & 0xFF;
+            board[sq >> 3][sq & 7] = NIBBLE_NAMES[packed >>> 4];
+            board[(sq + 1) >> 3][(sq + 1) & 7] = NIBBLE_NAMES[packed & 0xF];
+        }
+        int flags = buffer.get();
+        state.setWhiteTurn((flags & 1) != 0);
+        state.setWhiteInCheck((flags & 2) != 0);
+        state.setBlackInCheck((flags & 4) != 0);
+        state.setGameOver((flags & 8) != 0);
+        state.setWinner(WINNERS[(flags >> 4) & 3]);
+        state.setCastlingRights(buffer.get() & 0xF);
+        int ep = buffer.get() & 0xFF;
+        state.setEnPassantSquare(ep == NO_SQUARE ? null : Moves.squareName(ep));
+        state.setMoveCount(buffer.getShort() & 0xFFFF);
+        state.setHalfmoveClock(buffer.getShort() & 0xFFFF);
+        state.setFullmoveNumber(buffer.getShort() & 0xFFFF);
+        state.setZobristKey(buffer.getLong());
+        int moveLength = buffer.get() & 0xFF;
+        if (buffer.remaining() < moveLength) {
+            throw new IllegalArgumentException("Game state payload truncated in last move");
+        }
+        String lastMove = new String(payload, buffer.position(), moveLength, StandardCharsets.US_ASCII);
+        state.setLastMove(lastMove.isEmpty() ? null : lastMove);
+        buffer.position(buffer.position() + moveLength);
+        if (buffer.remaining() >= CLOCK_BYTES) {
+            state.setWhiteTimeMillis(buffer.getInt() & 0xFFFFFFFFL);
+            state.setBlackTimeMillis(buffer.getInt() & 0xFFFFFFFFL);
+        }
+        return state;
+    }
+
+    public static byte[] encodeDelta(MoveDelta delta) {
+        ByteBuffer buffer = ByteBuffer.allocate(DELTA_BYTES + (delta.hasClocks() ? CLOCK_BYTES : 0));
+        buffer.put((byte) VERSION);
+        buffer.put((byte) delta.from());
+        buffer.put((byte) delta.to());
+        buffer.put((byte) flags(false, delta.whiteInCheck(), delta.blackInCheck(), delta.gameOver(), delta.winner()));
+        buffer.putShort((short) delta.moveCount());
+        buffer.putLong(delta.zobristKey());
+        if (delta.hasClocks()) {
+            putClocks(buffer, delta.whiteTimeMillis(), delta.blackTimeMillis());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a delta written by {@link #encodeDelta}.
+     *
+     * @throws IllegalArgumentException if the payload is truncated, of an unknown version or names no square
+     */
+    public static MoveDelta decodeDelta(byte[] payload, int offset, int length) {
+        if (length < DELTA_BYTES) {
+            throw new IllegalArgumentException("Move delta payload too short: " + length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload, offset, length);
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported move delta version " + version);
+        }
+        int from = buffer.get() & 0xFF;
+        int to = buffer.get() & 0xFF;
+        if (from > 63 || to > 63) {
+            throw new IllegalArgumentException("Move delta square out of range: " + from + ", " + to);
+        }
+        int flags = buffer.get();
+        int moveCount = buffer.getShort() & 0xFFFF;
+        long key = buffer.getLong();
+        long whiteTime = -1;
+        long blackTime = -1;
+        if (buffer.remaining() >= CLOCK_BYTES) {
+            whiteTime = buffer.getInt() & 0xFFFFFFFFL;
+            blackTime = buffer.getInt() & 0xFFFFFFFFL;
+        }
+        return new MoveDelta(from, to, (flags & 2) != 0, (flags & 4) != 0, (flags & 8) != 0,
+                WINNERS[(flags >> 4) & 3], moveCount, key, whiteTime, blackTime);
+    }
+
+    // Unsigned 32 bits of milliseconds is over 49 days, far beyond any time control
+    private static void putClocks(ByteBuffer buffer, long whiteMillis, long blackMillis) {
+        buffer.putInt((int) Math.min(whiteMillis, 0xFFFFFFFFL));
+        buffer.putInt((int) Math.min(blackMillis, 0xFFFFFFFFL));
+    }
+
+    private static int flags(boolean whiteTurn, boolean whiteInCheck, boolean blackInCheck,
+                             boolean gameOver, String winner) {
+        return (whiteTurn ? 1 : 0)
+                | (whiteInCheck ? 2 : 0)
+                | (blackInCheck ? 4 : 0)
+                | (gameOver ? 8 : 0)
+                | winnerCode(winner) << 4;
+    }
+
+    private static int nibble(String notation) {
+        if (notation == null) return 0;
+        return switch (notation) {
+            case "wpawn" -> 1;
+            case "wknight" -> 2;
+            case "wbishop" -> 3;
+            case "wrook" -> 4;
+            case "wqueen" -> 5;
+            case "wking" -> 6;
+            case "bpawn" -> 1 | BLACK_NIBBLE;
+            case "bknight" -> 2 | BLACK_NIBBLE;
+            case "bbishop" -> 3 | BLACK_NIBBLE;
+            case "brook" -> 4 | BLACK_NIBBLE;
+            case "bqueen" -> 5 | BLACK_NIBBLE;
+            case "bking" -> 6 | BLACK_NIBBLE;
+            default -> 0;
+        };
+    }
+
+    private static int winnerCode(String winner) {
+        for (int i = 1; i < WINNERS.length; i++) {
+            if (WINNERS[i].equals(winner)) return i;
+        }
+        return 0;
+    }
+
+    /** The original text format: {@code row,col,piece;...|key:value;...}. */
+    public static String encodeText(GameState gameState) {
+        StringBuilder sb = new StringBuilder();
+
+        // Serialize board state
+        String[][] board = gameState.getBoard();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                if (board[row][col] != null) {
+                    sb.append(row).append(",").append(col).append(",").append(board[row][col]).append(";");
+                }
+            }
+        }
+
+        // Always add the separator, even if board is empty
+        sb.append("|");
+
+        // Serialize metadata
+        sb.append("whiteTurn:").append(gameState.isWhiteTurn()).append(";");
+        sb.append("whiteInCheck:").append(gameState.isWhiteInCheck()).append(";");
+        sb.append("blackInCheck:").append(gameState.isBlackInCheck()).append(";");
+        sb.append("gameOver:").append(gameState.isGameOver()).append(";");
+        sb.append("winner:").append(gameState.getWinner() != null ? gameState.getWinner() : "none").append(";");
+        sb.append("moveCount:").append(gameState.getMoveCount()).append(";");
+        sb.append("castling:").append(gameState.getCastlingRights()).append(";");
+        sb.append("enPassant:").append(gameState.getEnPassantSquare() != null ? gameState.getEnPassantSquare() : "none").append(";");
+        sb.append("zobristKey:").append(Long.toHexString(gameState.getZobristKey())).append(";");
+        sb.append("halfmoveClock:").append(gameState.getHalfmoveClock()).append(";");
+        sb.append("fullmoveNumber:").append(gameState.getFullmoveNumber()).append(";");
+        if (gameState.hasClocks()) {
+            sb.append("whiteTime:").append(gameState.getWhiteTimeMillis()).append(";");
+            sb.append("blackTime:").append(gameState.getBlackTimeMillis()).append(";");
+        }
+        sb.append("lastMove:").append(gameState.getLastMove() != null ? gameState.getLastMove() : "none");
+        return sb.toString();
+    }
+
+    /** Parses {@link #encodeText} output; malformed parts are reported and skipped. */
+    public static GameState decodeText(String data) {
+        GameState gameState = new GameState();
+
+        try {
+            if (data == null || data.trim().isEmpty()) {
+                return gameState;
+            }
+
+            String[] parts = data.split("\\|", -1);
+
+            // Parse board state
+            if (parts.length > 0 && !parts[0].isEmpty()) {
+                String[] pieces = parts[0].split(";");
+                String[][] board = gameState.getBoard();
+
+                for (String piece : pieces) {
+                    if (!piece.trim().isEmpty()) {
+                        String[] pieceData = piece.split(",");
+                        if (pieceData.length >= 3) {
+                            int row = Integer.parseInt(pieceData[0]);
+                            int col = Integer.parseInt(pieceData[1]);
+                            board[row][col] = pieceData[2];
+                        }
+                    }
+                }
+            }
+
+            // Parse metadata
+            if (parts.length > 1 && !parts[1].isEmpty()) {
+                for (String meta : parts[1].split(";")) {
+                    String[] keyValue = meta.split(":", 2);
+                    if (keyValue.length < 2) continue;
+                    String key = keyValue[0].trim();
+                    String value = keyValue[1].trim();
+
+                    switch (key) {
+                        case "whiteTurn" -> gameState.setWhiteTurn(Boolean.parseBoolean(value));
+                        case "whiteInCheck" -> gameState.setWhiteInCheck(Boolean.parseBoolean(value));
+                        case "blackInCheck" -> gameState.setBlackInCheck(Boolean.parseBoolean(value));
+                        case "gameOver" -> gameState.setGameOver(Boolean.parseBoolean(value));
+                        case "winner" -> gameState.setWinner(value.equals("none") ? null : value);
+                        case "moveCount" -> gameState.setMoveCount(Integer.parseInt(value));
+                        case "lastMove" -> gameState.setLastMove(value.equals("none") ? null : value);
+                        case "castling" -> gameState.setCastlingRights(Integer.parseInt(value));
+                        case "enPassant" -> gameState.setEnPassantSquare(value.equals("none") ? null : value);
+                        case "zobristKey" -> gameState.setZobristKey(Long.parseUnsignedLong(value, 16));
+                        case "halfmoveClock" -> gameState.setHalfmoveClock(Integer.parseInt(value));
+                        case "fullmoveNumber" -> gameState.setFullmoveNumber(Integer.parseInt(value));
+                        case "whiteTime" -> gameState.setWhiteTimeMillis(Long.parseLong(value));
+                        case "blackTime" -> gameState.setBlackTimeMillis(Long.parseLong(value));
+                        default -> {
+                            // Unknown keys come from newer servers; ignore them
+                        }
+                    }
+                }
+            }
+
+        } catch (Exception e) {
+            System.out.println("Error deserializing game state: " + e.getMessage());
+        }
+
+        return gameState;
+    }
+}
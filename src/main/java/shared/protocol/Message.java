@@ -0,0 +1,19 @@
+package shared.protocol;
+
+import shared.GameState;
+
+/** One message from the server: either a line of text or a complete game state. */
+public record Message(String text, GameState gameState) {
+
+    public static Message text(String text) {
+        return new Message(text, null);
+    }
+
+    public static Message gameState(GameState gameState) {
+        return new Message(null, gameState);
+    }
+
+    public boolean isGameState() {
+        return gameState != null;
+    }
+}
@@ -0,0 +1,263 @@
+package shared.protocol;
+
+import shared.GameState;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+/**
+ * Client side of the wire protocol: reads the server's messages from the game
+ * socket, as text lines or binary frames depending on what was negotiated.
+ * It must be the only reader of the stream, since it buffers ahead.
+ *
+ * With the delta protocol it keeps the last state it returned and applies each
+ * {@link MoveDelta} to it, so callers only ever see full game states. If a delta
+ * does not fit (a gap or a key mismatch) it sends {@link WireProtocol#RESYNC} once
+ * and drops further deltas until the next full state arrives. A full state whose
+ * board does not match its position key is still returned, but gets the same
+ * treatment, once per run of bad states.
+ *
+ * The ply of the last state it returned is what a client that lost its connection
+ * presents when it resumes its session; {@link #reattach} moves the reader to the
+ * new connection without forgetting that state, so the missed moves still apply.
+ */
+public class MessageReader implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(MessageReader.class.getName());
+    private volatile DataInputStream in;
+    private volatile boolean binary;
+    private PrintWriter resyncWriter;
+    private GameState current;
+    private MoveDelta lastDelta;
+    private boolean awaitingKeyframe;
+    private boolean outOfSync; // the last full state failed its key check
+
+    public MessageReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    /** Where RESYNC requests go; set by {@link #negotiate}. */
+    public void setResyncWriter(PrintWriter resyncWriter) {
+        this.resyncWriter = resyncWriter;
+    }
+
+    /** The last full state returned by {@link #read}, or {@code null} before the first one. */
+    public GameState getCurrentState() {
+        return current;
+    }
+
+    /** The ply of the last full state returned by {@link #read}, or -1 before the first one. */
+    public int getLastSeenPly() {
+        return current == null ? -1 : current.getMoveCount();
+    }
+
+    /**
+     * The delta the last state returned by {@link #read} was built from, or {@code null}
+     * if that state arrived whole; lets a relay pass deltas on instead of full states.
+     */
+    public MoveDelta getLastDelta() {
+        return lastDelta;
+    }
+
+    /**
+     * Asks the server for {@code requested} and switches to the protocol it accepts.
+     * Must be called before anything else is read, right after the USER_ID line.
+     *
+     * @return the protocol now in use
+     */
+    public String negotiate(PrintWriter writer, String requested) throws IOException {
+        writer.println(WireProtocol.HELLO_PREFIX + requested);
+        writer.flush();
+        String reply = readLine();
+        if (reply == null || !reply.startsWith(WireProtocol.ACCEPT_PREFIX)) {
+            throw new IOException("Unexpected protocol reply: " + reply);
+        }
+        String accepted = reply.substring(WireProtocol.ACCEPT_PREFIX.length());
+        setBinary(WireProtocol.isBinary(accepted));
+        setResyncWriter(writer);
+        return accepted;
+    }
+
+    /**
+     * Asks for a session token, so the seat can be resumed after a dropped connection.
+     * Sent after {@link #negotiate} and before the role.
+     */
+    public String requestSession(PrintWriter writer) throws IOException {
+        writer.println(WireProtocol.SESSION_REQUEST);
+        writer.flush();
+        String reply = readLine();
+        if (reply == null || !reply.startsWith(WireProtocol.SESSION_PREFIX)) {
+            throw new IOException("Unexpected session reply: " + reply);
+        }
+        return reply.substring(WireProtocol.SESSION_PREFIX.length());
+    }
+
+    /**
+     * Continues on a new connection to the same game, e.g. after a drop. The last
+     * state is kept; the protocol is text again until {@link #negotiate} is called.
+     */
+    public void reattach(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        binary = false;
+        resyncWriter = null;
+        awaitingKeyframe = false;
+    }
+
+    /**
+     * Reclaims the session's seat on a reattached connection, in place of the role,
+     * presenting {@link #getLastSeenPly()}; the server then sends what was missed.
+     *
+     * @return whether the server still held the session
+     */
+    public boolean resume(PrintWriter writer, String token) throws IOException {
+        writer.println(WireProtocol.resumeRequest(token, getLastSeenPly()));
+        writer.flush();
+        readLine(); // informative
+        return "ok".equals(readLine());
+    }
+
+    /** The next message, or {@code null} once the server closed the connection. */
+    public Message read() throws IOException {
+        lastDelta = null;
+        Message message = binary ? readFrame() : readTextMessage();
+        if (message != null && message.isGameState()) {
+            current = message.gameState();
+            awaitingKeyframe = false;
+            checkKey(current);
+        }
+        return message;
+    }
+
+    // A board that disagrees with its key was garbled somewhere; asking again once may fix it
+    private void checkKey(GameState state) {
+        if (state.getZobristKey() == 0 || state.isInSync()) {
+            outOfSync = false;
+            return;
+        }
+        LOGGER.warning("Received a board that does not match its position key at ply " + state.getMoveCount());
+        if (!outOfSync) {
+            outOfSync = true;
+            requestResync();
+        }
+    }
+
+    private Message readTextMessage() throws IOException {
+        String line = readTextLine();
+        if (line == null) return null;
+        if (line.equals(WireProtocol.GAME_STATE_UPDATE)) {
+            String data = readTextLine();
+            if (data == null) return null;
+            return Message.gameState(GameStateCodec.decodeText(data));
+        }
+        return Message.text(line);
+    }
+
+    /**
+     * The next text message, for the parts of the conversation that are always text
+     * (handshake replies, the line after INVALID_MOVE or GAME_END).
+     *
+     * @throws IOException if a game state arrives instead
+     */
+    public String readLine() throws IOException {
+        Message message = read();
+        if (message == null) return null;
+        if (message.isGameState()) {
+            throw new IOException("Expected a text message but received a game state");
+        }
+        return message.text();
+    }
+
+    private Message readFrame() throws IOException {
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            if (length < 1 || length > WireProtocol.MAX_FRAME_BYTES) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            byte type = in.readByte();
+            byte[] payload = new byte[length - 1];
+            in.readFully(payload);
+            switch (type) {
+                case WireProtocol.FRAME_TEXT:
+                    return Message.text(new String(payload, StandardCharsets.UTF_8));
+                case WireProtocol.FRAME_GAME_STATE:
+                    try {
+                        return Message.gameState(GameStateCodec.decode(payload, 0, payload.length));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Corrupt game state frame: " + e.getMessage(), e);
+                    }
+                case WireProtocol.FRAME_MOVE_DELTA:
+                    MoveDelta delta;
+                    try {
+                        delta = GameStateCodec.decodeDelta(payload, 0, payload.length);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Corrupt move delta frame: " + e.getMessage(), e);
+                    }
+                    Message applied = applyDelta(delta);
+                    if (applied != null) return applied;
+                    break; // stale or unusable, wait for the next frame
+                default:
+                    throw new IOException("Unknown frame type " + type);
+            }
+        }
+    }
+
+    private Message applyDelta(MoveDelta delta) {
+        if (awaitingKeyframe || delta.isIncludedIn(current)) {
+            return null;
+        }
+        GameState next = delta.applyTo(current);
+        if (next == null) {
+            requestResync();
+            return null;
+        }
+        lastDelta = delta;
+        return Message.gameState(next);
+    }
+
+    // Deltas are dropped until the full state asked for arrives
+    private void requestResync() {
+        awaitingKeyframe = true;
+        if (resyncWriter != null) {
+            resyncWriter.println(WireProtocol.RESYNC);
+            resyncWriter.flush();
+        }
+    }
+
+    private String readTextLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+        }
+        if (b == -1 && line.size() == 0) return null;
+        int size = line.size();
+        byte[] bytes = line.toByteArray();
+        if (size > 0 && bytes[size - 1] == '\r') size--;
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
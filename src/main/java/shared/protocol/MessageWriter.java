@@ -0,0 +1,82 @@
+package shared.protocol;
+
+import shared.GameState;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Server side of the wire protocol: writes lines and game states to one client,
+ * as text lines or as binary frames depending on what was negotiated. Every call
+ * sends one complete message and flushes; calls from different threads do not
+ * interleave.
+ */
+public class MessageWriter implements Closeable {
+    private final DataOutputStream out;
+    private volatile boolean binary;
+    private long bytesWritten;
+
+    public MessageWriter(OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     * @param buffered false when {@code out} already gathers bytes until flush,
+     *                 which saves a buffer per connection
+     */
+    public MessageWriter(OutputStream out, boolean buffered) {
+        this.out = new DataOutputStream(buffered ? new BufferedOutputStream(out) : out);
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /** Switches to binary frames; everything written afterwards is framed. */
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public synchronized void sendLine(String line) throws IOException {
+        sendFrame(Frame.line(line, binary));
+    }
+
+    public synchronized void sendGameState(GameState gameState) throws IOException {
+        sendFrame(Frame.gameState(gameState, binary));
+    }
+
+    /** Sends a move delta; only valid once the delta protocol was negotiated. */
+    public synchronized void sendDelta(MoveDelta delta) throws IOException {
+        if (!binary) {
+            throw new IllegalStateException("Move deltas need the binary protocol");
+        }
+        sendFrame(Frame.delta(delta));
+    }
+
+    /**
+     * Sends a message encoded beforehand, e.g. one {@link Broadcast} frame shared
+     * by every client; it must match this writer's mode.
+     */
+    public synchronized void sendFrame(Frame frame) throws IOException {
+        if (frame.isBinary() != binary) {
+            throw new IllegalStateException("A " + (frame.isBinary() ? "binary" : "text")
+                    + " frame cannot go to a " + (binary ? "binary" : "text") + " connection");
+        }
+        frame.writeTo(out);
+        bytesWritten += frame.size();
+        out.flush();
+    }
+
+    /** Bytes handed to the socket so far, including framing. */
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
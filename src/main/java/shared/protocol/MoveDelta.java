@@ -0,0 +1,69 @@
+package shared.protocol;
+
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import shared.ChessMove;
+import shared.GameState;
+
+/**
+ * One applied move as sent in the delta protocol: the move itself, the flags
+ * the server computed after it, the ply number it produced and the new position
+ * key, plus the remaining clock times in timed games (-1 otherwise). Everything
+ * else (turn, castling, en passant, halfmove clock) follows from replaying the
+ * move, and the key tells the client whether it got it right.
+ */
+public record MoveDelta(int from, int to, boolean whiteInCheck, boolean blackInCheck, boolean gameOver,
+                        String winner, int moveCount, long zobristKey, long whiteTimeMillis, long blackTimeMillis) {
+
+    /** A delta from an untimed game. */
+    public MoveDelta(int from, int to, boolean whiteInCheck, boolean blackInCheck, boolean gameOver,
+                     String winner, int moveCount, long zobristKey) {
+        this(from, to, whiteInCheck, blackInCheck, gameOver, winner, moveCount, zobristKey, -1, -1);
+    }
+
+    /** The delta for {@code move}, given the state the server computed after playing it. */
+    public static MoveDelta of(ChessMove move, GameState after) {
+        return new MoveDelta(
+                Bitboards.square(move.getFromRow(), move.getFromCol()),
+                Bitboards.square(move.getToRow(), move.getToCol()),
+                after.isWhiteInCheck(), after.isBlackInCheck(), after.isGameOver(), after.getWinner(),
+                after.getMoveCount(), after.getZobristKey(), after.getWhiteTimeMillis(), after.getBlackTimeMillis());
+    }
+
+    /**
+     * The state after this move, or {@code null} if it does not follow from
+     * {@code previous} (a gap in the stream or a key mismatch); the caller should
+     * then ask for a keyframe. {@code previous} is not modified.
+     */
+    public GameState applyTo(GameState previous) {
+        if (previous == null || previous.getMoveCount() + 1 != moveCount) {
+            return null;
+        }
+        GameState next = previous.copy();
+        next.makeMove(new ChessMove(Bitboards.row(from), Bitboards.col(from), Bitboards.row(to), Bitboards.col(to)));
+        if (next.getZobristKey() != zobristKey || next.getMoveCount() != moveCount) {
+            return null;
+        }
+        next.setWhiteInCheck(whiteInCheck);
+        next.setBlackInCheck(blackInCheck);
+        next.setGameOver(gameOver);
+        next.setWinner(winner);
+        next.setWhiteTimeMillis(whiteTimeMillis);
+        next.setBlackTimeMillis(blackTimeMillis);
+        return next;
+    }
+
+    /** Whether the delta carries clock times, i.e. comes from a timed game. */
+    public boolean hasClocks() {
+        return whiteTimeMillis >= 0 && blackTimeMillis >= 0;
+    }
+
+    /** Whether {@code state} already includes this move, e.g. after a keyframe overtook it. */
+    public boolean isIncludedIn(GameState state) {
+        return state != null && state.getMoveCount() >= moveCount;
+    }
+
+    public String notation() {
+        return Moves.squareName(from) + Moves.squareName(to);
+    }
+}
@@ -0,0 +1,89 @@
+package shared.protocol;
+
+/**
+ * Names and constants of the server-to-client wire protocol.
+ *
+ * Every connection opens with {@code GAME:<id>}, which the lobby uses to route the
+ * client to its game; unknown games are answered with {@link #GAME_NOT_FOUND}.
+ * The game then sends {@code HEARTBEAT_INTERVAL:<millis>}, and from there on the
+ * client sends a {@link #HEARTBEAT} line at that interval on the same connection.
+ * A client the server hears nothing from for a few intervals is disconnected.
+ *
+ * A client may send {@code PROTOCOL:<name>} after its {@code USER_ID} line; the
+ * server answers {@code PROTOCOL_OK:<name>} with the protocol it will use from then
+ * on. Clients that never ask get the original line-based text protocol.
+ *
+ * In the binary protocol every server message is a frame: a 4-byte big-endian
+ * length (type byte plus payload), a type byte, then the payload. Text messages
+ * are UTF-8; game states use the {@link GameStateCodec} binary layout.
+ *
+ * The delta protocol is the binary protocol plus {@link MoveDelta} frames: after a
+ * move the server sends only the move, flags and new position key, with a full
+ * state (keyframe) every few moves. A client that cannot apply a delta sends
+ * {@link #RESYNC} and gets a keyframe. Client-to-server messages (role, moves,
+ * RESYNC) stay text lines in all protocols.
+ *
+ * A client that wants to survive a dropped connection sends {@link #SESSION_REQUEST}
+ * before its role and gets {@code SESSION_TOKEN:<token>}. After a drop it reconnects
+ * and, instead of a role, sends {@code RESUME:<token>:<ply>} with the ply number of
+ * the last update it saw: every state and delta carries its ply, which serves as the
+ * update's sequence number. The server answers like a role request ("ok" or
+ * "not ok") and then sends the moves the client missed, or one full state if it is
+ * too far behind or does not take deltas. Seats are held for a grace period.
+ */
+public final class WireProtocol {
+    public static final String GAME_PREFIX = "GAME:";
+    public static final String GAME_NOT_FOUND = "GAME_NOT_FOUND";
+
+    public static final String HEARTBEAT_INTERVAL_PREFIX = "HEARTBEAT_INTERVAL:";
+    /** Liveness line from client to server; it carries nothing else. */
+    public static final String HEARTBEAT = "HEARTBEAT";
+
+    public static final String HELLO_PREFIX = "PROTOCOL:";
+    public static final String ACCEPT_PREFIX = "PROTOCOL_OK:";
+
+    public static final String TEXT = "text";
+    public static final String BINARY = "binary/1";
+    public static final String DELTA = "binary-delta/1";
+
+    /** Sent by a client that lost track of the position and needs a full state. */
+    public static final String RESYNC = "RESYNC";
+
+    /** Asks the server for a session token, sent before the role. */
+    public static final String SESSION_REQUEST = "SESSION";
+    public static final String SESSION_PREFIX = "SESSION_TOKEN:";
+    /** {@code RESUME:<token>:<last seen ply>}, sent instead of a role to reclaim a seat. */
+    public static final String RESUME_PREFIX = "RESUME:";
+
+    /** Line that precedes a serialized game state in the text protocol. */
+    public static final String GAME_STATE_UPDATE = "GAME_STATE_UPDATE";
+
+    public static final byte FRAME_TEXT = 1;
+    public static final byte FRAME_GAME_STATE = 2;
+    public static final byte FRAME_MOVE_DELTA = 3;
+
+    /** Frames larger than this are rejected as corrupt. */
+    public static final int MAX_FRAME_BYTES = 64 * 1024;
+
+    private WireProtocol() {
+    }
+
+    /** The protocol the server uses for a client asking for {@code requested}; unknown names fall back to text. */
+    public static String negotiate(String requested) {
+        if (DELTA.equals(requested)) return DELTA;
+        return BINARY.equals(requested) ? BINARY : TEXT;
+    }
+
+    public static boolean isBinary(String protocol) {
+        return BINARY.equals(protocol) || DELTA.equals(protocol);
+    }
+
+    public static String resumeRequest(String token, int lastSeenPly) {
+        return RESUME_PREFIX + token + ":" + lastSeenPly;
+    }
+
+    /** The protocol clients ask for, e.g. {@code -Dchess.protocol=text} to force the text protocol. */
+    public static String requestedByClient() {
+        return System.getProperty("chess.protocol", DELTA);
+    }
+}
@@ -0,0 +1,289 @@
+package shared.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel: a ring of buckets that one thread walks every tick,
+ * firing the timeouts whose deadline falls in the current bucket. Scheduling
+ * and cancelling are O(1) and a tick only touches one bucket, so thousands of
+ * heartbeat checks cost a few objects each instead of a sleeping thread each.
+ *
+ * Timeouts fire at most one tick late. Tasks run on the wheel's thread and must
+ * not block; anything slow belongs on a virtual thread started from the task.
+ */
+public final class TimerWheel implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(TimerWheel.class.getName());
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static TimerWheel shared;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    /** @param wheelSize number of buckets, rounded up to a power of two */
+    public TimerWheel(String name, long tickMillis, int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = Thread.ofPlatform().daemon().name(name).start(this::run);
+    }
+
+    /** The process-wide wheel, started on first use. */
+    public static synchronized TimerWheel shared() {
+        if (shared == null) {
+            shared = new TimerWheel("Timer-Wheel", DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+        }
+        return shared;
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduleAt(task, System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startTime);
+    }
+
+    /**
+     * Runs {@code task} every {@code period}, the first time one period from now,
+     * until the returned handle is cancelled. Runs keep to the original schedule,
+     * so a late tick does not push the following ones back.
+     */
+    public Repeating scheduleAtFixedRate(Runnable task, long period, TimeUnit unit) {
+        long periodNanos = unit.toNanos(period);
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period + " " + unit);
+        }
+        Repeating repeating = new Repeating(task, periodNanos, System.nanoTime() - startTime);
+        repeating.scheduleNext();
+        return repeating;
+    }
+
+    // deadline is in nanos since startTime
+    private Timeout scheduleAt(Runnable task, long deadline) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is closed");
+        }
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /** Timeouts scheduled and neither fired nor cancelled yet. */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            if (!waitForNextTick()) break;
+            removeCancelled();
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+        LOGGER.fine("Timer - Wheel stopped with " + pending.get() + " pending timeouts");
+    }
+
+    // Sleeps until the end of the current tick; false once closed
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - now + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (!running) return false;
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() == Timeout.CANCELLED) continue;
+            long expiryTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            wheel[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /** A scheduled task; cancel it when it is no longer needed. */
+    public final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        // Owned by the wheel thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** @return false if the task already ran or was cancelled */
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) return false;
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) return;
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOGGER.log(Level.WARNING, "Timer - Task failed", t);
+            }
+        }
+    }
+
+    /** A task that reschedules itself every period until cancelled. */
+    public final class Repeating {
+        private final Runnable task;
+        private final long periodNanos;
+        private long nextDeadline;
+        private volatile Timeout next;
+        private volatile boolean cancelled;
+
+        private Repeating(Runnable task, long periodNanos, long from) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.nextDeadline = from;
+        }
+
+        private void scheduleNext() {
+            nextDeadline += periodNanos;
+            next = scheduleAt(this::fire, nextDeadline);
+        }
+
+        private void fire() {
+            if (cancelled) return;
+            try {
+                task.run();
+            } finally {
+                if (!cancelled && running) {
+                    scheduleNext();
+                }
+            }
+        }
+
+        /** @return false if it was already cancelled */
+        public boolean cancel() {
+            if (cancelled) return false;
+            cancelled = true;
+            Timeout timeout = next;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /** Doubly linked list of the timeouts hashed to one slot. */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    // The bucket is only reached once its tick has passed, so the deadline has too
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) return;
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
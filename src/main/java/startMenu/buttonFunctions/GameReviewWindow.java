@@ -1,6 +1,11 @@
 package startMenu.buttonFunctions;
 
+import database.ConnectionPool;
 import database.GameDatabase;
+import database.GameSummary;
+import database.HistoryPage;
+import database.PooledConnection;
+import database.UserService;
 import parsing.GameParser;
 import parsing.Move;
 import parsing.Record;
@@ -11,12 +16,25 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.File;
 import java.nio.file.Files;
-import java.sql.*;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 public class GameReviewWindow extends JFrame {
+    // Only one page of summaries is held; a game's PGN is read when it is replayed
+    private static final int PAGE_SIZE = 50;
+
     private final ClientConnection clientConnection;
+    private final transient GameDatabase database = new GameDatabase();
+    private final DefaultListModel<GameSummary> model = new DefaultListModel<>();
+    private final transient Deque<Long> previousCursors = new ArrayDeque<>();
+    private final JButton newerButton = new JButton("< Newer");
+    private final JButton olderButton = new JButton("Older >");
+    private final JLabel pageLabel = new JLabel();
+    private long cursor = HistoryPage.FIRST;
+    private transient HistoryPage page;
 
     public GameReviewWindow(JFrame previousWindow, ClientConnection clientConnection) {
         this.clientConnection = clientConnection;
@@ -35,31 +53,59 @@ public class GameReviewWindow extends JFrame {
         titleLabel.setForeground(Color.WHITE);
         mainPanel.add(titleLabel, BorderLayout.NORTH);
 
-        DefaultListModel<String> model = new DefaultListModel<>();
-        JList<String> gameList = new JList<>(model);
-        gameList.setFont(new Font("Monospaced", Font.BOLD, 16));
+        JList<GameSummary> gameList = new JList<>(model);
+        gameList.setFont(new Font("Monospaced", Font.BOLD, 14));
+        gameList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, describe((GameSummary) value), index,
+                        isSelected, cellHasFocus);
+            }
+        });
         JScrollPane scrollPane = new JScrollPane(gameList);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
 
-        List<String> pgnList = GameDatabase.getPGNsByUser(clientConnection.getClientID());
-        for (int i = 0; i < pgnList.size(); i++) {
-            model.addElement("Game #" + (i + 1));
-        }
-
         JButton replayButton = new JButton("Replay Selected Game");
         JButton importButton = new JButton("Import Game (PGN)");
+        pageLabel.setForeground(Color.WHITE);
 
         JPanel bottomPanel = new JPanel();
         bottomPanel.setBackground(new Color(60, 60, 60));
+        bottomPanel.add(newerButton);
+        bottomPanel.add(pageLabel);
+        bottomPanel.add(olderButton);
         bottomPanel.add(replayButton);
         bottomPanel.add(importButton);
         mainPanel.add(bottomPanel, BorderLayout.SOUTH);
 
+        newerButton.addActionListener(e -> {
+            if (!previousCursors.isEmpty()) {
+                loadPage(previousCursors.pop());
+            }
+        });
+        olderButton.addActionListener(e -> {
+            if (page != null && page.hasMore()) {
+                previousCursors.push(cursor);
+                loadPage(page.nextCursor());
+            }
+        });
+        loadPage(HistoryPage.FIRST);
+
         replayButton.addActionListener(e -> {
-            int selectedIndex = gameList.getSelectedIndex();
-            if (selectedIndex >= 0) {
-                String pgn = pgnList.get(selectedIndex);
-                launchReplay(pgn, previousWindow);
+            GameSummary selected = gameList.getSelectedValue();
+            if (selected != null) {
+                // Off the event thread: the PGN is only read now
+                Thread.startVirtualThread(() -> {
+                    String pgn = database.loadPGNByGameId(selected.id());
+                    SwingUtilities.invokeLater(() -> {
+                        if (pgn == null) {
+                            JOptionPane.showMessageDialog(this, "Game could not be loaded!");
+                        } else {
+                            launchReplay(pgn, previousWindow);
+                        }
+                    });
+                });
             }
         });
 
@@ -82,8 +128,8 @@ public class GameReviewWindow extends JFrame {
                     if (currentUsername.equals(white) || currentUsername.equals(black)) {
                         GameDatabase.insertGamePGN(clientConnection.getClientID(), pgnText);
                         JOptionPane.showMessageDialog(this, "Game imported to your list.");
-                        model.addElement("Game #" + (model.size() + 1));
-                        pgnList.add(pgnText);
+                        previousCursors.clear();
+                        loadPage(HistoryPage.FIRST);
                     } else {
                         JOptionPane.showMessageDialog(this,
                                 "This game is not played by you. Replaying it temporarily.");
@@ -111,15 +157,38 @@ public class GameReviewWindow extends JFrame {
         });
     }
 
+    // Event thread; the query runs on a virtual thread and the list is filled when it returns
+    private void loadPage(long from) {
+        newerButton.setEnabled(false);
+        olderButton.setEnabled(false);
+        int userId = clientConnection.getClientID();
+        Thread.startVirtualThread(() -> {
+            HistoryPage loaded = database.loadHistory(userId, from, PAGE_SIZE);
+            SwingUtilities.invokeLater(() -> {
+                cursor = from;
+                page = loaded;
+                model.clear();
+                loaded.games().forEach(model::addElement);
+                pageLabel.setText("Page " + (previousCursors.size() + 1));
+                newerButton.setEnabled(!previousCursors.isEmpty());
+                olderButton.setEnabled(loaded.hasMore());
+            });
+        });
+    }
+
+    private static String describe(GameSummary game) {
+        String opponent = game.opponentName() != null ? game.opponentName() : "#" + game.opponentId();
+        String date = game.endTime() != null && game.endTime().length() >= 10 ? game.endTime().substring(0, 10) : "?";
+        return String.format("%s  vs %-12s %-5s %-10s %3d moves", date, opponent,
+                game.playedWhite() ? "(W)" : "(B)", game.outcome(), game.moveCount());
+    }
+
     private String getUsernameById(String id) {
         String username = "Unknown";
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:chess.db");
-             PreparedStatement stmt = conn.prepareStatement("SELECT username FROM users WHERE id = ?")) {
-            stmt.setString(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    username = rs.getString("username");
-                }
+        try (PooledConnection conn = ConnectionPool.shared().borrow()) {
+            String found = UserService.getUsername(conn, id);
+            if (found != null) {
+                username = found;
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -1,14 +1,13 @@
 package startMenu.buttonFunctions;
 
 import clientSide.Client;
-import serverSide.Server;
+import serverSide.LobbyServer;
 import startMenu.ClientConnection;
 
 import javax.swing.*;
+import java.io.IOException;
 
 public class HostGameButton {
-    private Thread currentServerThread;
-    private Server currentServer;
     private ClientConnection clientConnection;
     private int GAME_ID;
 
@@ -22,66 +21,41 @@ public class HostGameButton {
     }
 
     private int gameIDGenerator(){
-        return 0;
+        return 0; // the lobby assigns the real ID when the game is hosted
     }
 
     public void hostGame(){
-        // Stop any existing server first
-        clientConnection.stopCurrentServer();
-
         // Hide the menu window
         clientConnection.setVisible(false);
 
-        // Start server in background thread
-
-        currentServer = new Server(GAME_ID);
-
-
-        currentServerThread = new Thread(() -> {
-            try {
-                System.out.println("Starting new server thread...");
-                currentServer.start();
-            } catch (Exception e) {
-                System.err.println("Server error: " + e.getMessage());
-                e.printStackTrace();
-            }
-            finally {
-                SwingUtilities.invokeLater(() -> {
-                    clientConnection.showStartMenu();
-                });
-            }
-        });
-        currentServerThread.setName("Chess-Server-Thread");
-        currentServerThread.setDaemon(true);
-        currentServerThread.start();
-
-        // Wait longer for server to start and add verification
+        // Register the game with this process's lobby, starting the lobby on first use
+        LobbyServer lobby;
         try {
-            Thread.sleep(3000); // Increased wait time
-
-            // Verify server is actually running by checking thread state
-            if (!currentServerThread.isAlive()) {
-                throw new RuntimeException("Server thread died during startup");
-            }
-
-            System.out.println("Server should be ready, starting client...");
-
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            lobby = LobbyServer.local();
+        } catch (IOException e) {
+            System.err.println("Server error: " + e.getMessage());
+            JOptionPane.showMessageDialog(null, "Could not start the game server: " + e.getMessage(),
+                    "Host Game", JOptionPane.ERROR_MESSAGE);
+            clientConnection.showStartMenu();
+            return;
         }
+        GAME_ID = lobby.createGame();
+        System.out.println("Hosting game " + GAME_ID + " on port " + lobby.getPort());
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                "Your game ID is " + GAME_ID + ". Share it with your opponent and spectators.",
+                "Host Game", JOptionPane.INFORMATION_MESSAGE));
 
         // Start client in background thread (not on EDT)
+        int port = lobby.getPort();
         Thread whitePlayer = new Thread(() -> {
             try {
-                // Add small additional delay
-                Thread.sleep(500);
-                Client client = new Client(currentServer.getPort(), "player", clientConnection);
+                Client client = new Client(port, GAME_ID, "player", clientConnection);
                 client.start();
             } catch (Exception e) {
                 System.err.println("Client error: " + e.getMessage());
                 e.printStackTrace();
-
-                // If client fails, show start menu again
+            }
+            finally {
                 SwingUtilities.invokeLater(() -> {
                     clientConnection.showStartMenu();
                 });
@@ -1,14 +1,13 @@
 package startMenu.buttonFunctions;
 
 import clientSide.Client;
-import serverSide.Server;
+import serverSide.LobbyServer;
 import startMenu.ClientConnection;
 
 import javax.swing.*;
+import java.io.IOException;
 
 public class PlayWithBotButton {
-    private Thread currentServerThread;
-    private Server currentServer;
     private ClientConnection clientConnection;
     private int GAME_ID;
 
@@ -17,50 +16,28 @@ public class PlayWithBotButton {
     }
 
     public void hostGameWithBot(){
-        // Stop any existing server first
-        clientConnection.stopCurrentServer();
-
         // Hide the menu window
         clientConnection.setVisible(false);
 
-        // Start server in background thread
-
-        currentServer = new Server(10000);
-
-        currentServerThread = new Thread(() -> {
-            try {
-                System.out.println("Starting new server thread...");
-                currentServer.start();
-            } catch (Exception e) {
-                System.err.println("Server error: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
-        currentServerThread.setName("Chess-Server-Thread");
-        currentServerThread.setDaemon(true);
-        currentServerThread.start();
-
-        // Wait longer for server to start and add verification
+        // Register the game with this process's lobby, starting the lobby on first use
+        LobbyServer lobby;
         try {
-            Thread.sleep(3000); // Increased wait time
-
-            // Verify server is actually running by checking thread state
-            if (!currentServerThread.isAlive()) {
-                throw new RuntimeException("Server thread died during startup");
-            }
-
-            System.out.println("Server should be ready, starting client...");
-
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            lobby = LobbyServer.local();
+        } catch (IOException e) {
+            System.err.println("Server error: " + e.getMessage());
+            JOptionPane.showMessageDialog(null, "Could not start the game server: " + e.getMessage(),
+                    "Play vs Bot", JOptionPane.ERROR_MESSAGE);
+            clientConnection.showStartMenu();
+            return;
         }
+        GAME_ID = lobby.createGame();
+        int port = lobby.getPort();
+        System.out.println("Hosting bot game " + GAME_ID + " on port " + port);
 
         // Start client in background thread (not on EDT)
         Thread whitePlayer = new Thread(() -> {
             try {
-                // Add small additional delay
-                Thread.sleep(500);
-                Client client = new Client(currentServer.getPort(), "player", clientConnection);
+                Client client = new Client(port, GAME_ID, "player", clientConnection);
                 client.start();
             } catch (Exception e) {
                 System.err.println("Client error: " + e.getMessage());
@@ -78,8 +55,9 @@ public class PlayWithBotButton {
 
         Thread botPlayer = new Thread(() -> {
             try{
-                Thread.sleep(5000);
-                Client client = new Client(currentServer.getPort(), "bot", clientConnection);
+                // Let the human take the first seat, which plays white
+                Thread.sleep(1000);
+                Client client = new Client(port, GAME_ID, "bot", clientConnection);
                 client.start();
             }
             catch (Exception e){
@@ -72,10 +72,7 @@ public class ReplayWindowWithBoard extends JFrame {
         prev.addActionListener(e -> {
             if (moveIndex > 0) {
                 moveIndex--;
-                boardPanel.resetBoard();
-                for (int i = 0; i < moveIndex; i++) {
-                    boardPanel.applyMove(moves.get(i));
-                }
+                boardPanel.undoMove();
             }
         });
 
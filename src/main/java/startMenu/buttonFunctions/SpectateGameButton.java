@@ -1,20 +1,25 @@
 package startMenu.buttonFunctions;
 
 import clientSide.Client;
+import serverSide.LobbyServer;
 import startMenu.ClientConnection;
 
 import javax.swing.*;
 
 public class SpectateGameButton {
     private ClientConnection clientConnection;
-    private int GAME_PORT;
+    private int GAME_ID;
     public SpectateGameButton(ClientConnection clientConnection, JTextField gameIDText){
         this.clientConnection = clientConnection;
-        this.GAME_PORT = findGamePort(gameIDText);
+        this.GAME_ID = findGameId(gameIDText);
     }
 
-    private int findGamePort(JTextField gameIDText) {
-        return 0;
+    private int findGameId(JTextField gameIDText) {
+        try {
+            return Integer.parseInt(gameIDText.getText().trim());
+        } catch (NumberFormatException e) {
+            return -1; // the lobby answers GAME_NOT_FOUND
+        }
     }
 
     public void spectate(){
@@ -25,7 +30,7 @@ public class SpectateGameButton {
             Thread blackPlayer = new Thread(() ->{
                 try {
                     Thread.sleep(500);
-                    Client client = new Client(10000, "spectator", clientConnection);
+                    Client client = new Client(LobbyServer.DEFAULT_PORT, GAME_ID, "spectator", clientConnection);
                     client.start();
                 } catch (Exception e) {
                     // If client fails, show start menu again
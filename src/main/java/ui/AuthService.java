@@ -1,18 +1,15 @@
 package ui;
 
-import database.DatabaseManager;
+import database.ConnectionPool;
+import database.PooledConnection;
 import database.UserLoginResult;
 import database.UserService;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-
+// Connections come from the shared pool, which creates the schema once, on its first connection
 public class AuthService {
-    private static final String DB_URL = "jdbc:sqlite:chess.db"; // persistent file
 
     public static UserLoginResult login(String username, String password) {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            DatabaseManager.initializeSchema(conn);
+        try (PooledConnection conn = ConnectionPool.shared().borrow()) {
             return UserService.login(conn, username, password);
         } catch (Exception e) {
             e.printStackTrace();
@@ -22,8 +19,7 @@ public class AuthService {
 
 
     public static boolean register(String username, String password) {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            DatabaseManager.initializeSchema(conn);
+        try (PooledConnection conn = ConnectionPool.shared().borrow()) {
             return UserService.register(conn, username, password, null);
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,124 @@
+package chess.engine;
+
+import chess.model.BoardState;
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+
+    @Test
+    public void testFindsBackRankMate() {
+        Position position = new Position();
+        position.put(sq("g8"), Position.BLACK, Position.KING);
+        position.put(sq("f7"), Position.BLACK, Position.PAWN);
+        position.put(sq("g7"), Position.BLACK, Position.PAWN);
+        position.put(sq("h7"), Position.BLACK, Position.PAWN);
+        position.put(sq("g1"), Position.WHITE, Position.KING);
+        position.put(sq("a1"), Position.WHITE, Position.ROOK);
+
+        SearchResult result = new Search().search(position, 4, 5000);
+
+        assertEquals("a1a8", Moves.toNotation(result.getBestMove()));
+        assertTrue(result.getScore() >= Search.MATE - Search.MAX_PLY);
+    }
+
+    @Test
+    public void testBlackTakesHangingQueen() {
+        Position position = new Position();
+        position.put(sq("e8"), Position.BLACK, Position.KING);
+        position.put(sq("c6"), Position.BLACK, Position.KNIGHT);
+        position.put(sq("e1"), Position.WHITE, Position.KING);
+        position.put(sq("d4"), Position.WHITE, Position.QUEEN);
+        position.setSideToMove(Position.BLACK);
+
+        SearchResult result = new Search().search(position, 3, 5000);
+
+        assertEquals("c6d4", Moves.toNotation(result.getBestMove()));
+    }
+
+    @Test
+    public void testNoMoveWhenCheckmated() {
+        Position position = new Position();
+        position.put(sq("h8"), Position.BLACK, Position.KING);
+        position.put(sq("g7"), Position.WHITE, Position.QUEEN);
+        position.put(sq("f6"), Position.WHITE, Position.KING);
+        position.setSideToMove(Position.BLACK);
+
+        SearchResult result = new Search().search(position, 1000);
+
+        assertEquals(Moves.NONE, result.getBestMove());
+        assertEquals(-Search.MATE, result.getScore());
+    }
+
+    @Test
+    public void testRespectsTimeBudgetAndRestoresPosition() {
+        Position position = new BoardState().toPosition();
+        long key = position.getKey();
+
+        SearchResult result = new Search().search(position, 200);
+
+        assertNotEquals(Moves.NONE, result.getBestMove());
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(result.getElapsedMillis() < 1000, "took " + result.getElapsedMillis() + " ms");
+        assertTrue(result.getNodes() > 0);
+        assertEquals(key, position.getKey());
+        assertEquals(Position.WHITE, position.getSideToMove());
+    }
+
+    @Test
+    public void testParallelSearchAgreesOnMateAndCountsAllThreads() {
+        Position position = new Position();
+        position.put(sq("g8"), Position.BLACK, Position.KING);
+        position.put(sq("f7"), Position.BLACK, Position.PAWN);
+        position.put(sq("g7"), Position.BLACK, Position.PAWN);
+        position.put(sq("h7"), Position.BLACK, Position.PAWN);
+        position.put(sq("g1"), Position.WHITE, Position.KING);
+        position.put(sq("a1"), Position.WHITE, Position.ROOK);
+        long key = position.getKey();
+
+        try (ParallelSearch search = new ParallelSearch(4)) {
+            SearchResult result = search.search(position, 4, 5000);
+
+            assertEquals(4, search.getThreads());
+            assertEquals("a1a8", Moves.toNotation(result.getBestMove()));
+            assertTrue(result.getNodes() > 0);
+            assertEquals(key, position.getKey());
+        }
+    }
+
+    @Test
+    public void testParallelSearchRespectsTimeBudget() {
+        try (ParallelSearch search = new ParallelSearch(3)) {
+            SearchResult result = search.search(new BoardState().toPosition(), 200);
+
+            assertNotEquals(Moves.NONE, result.getBestMove());
+            assertTrue(result.getElapsedMillis() < 1000, "took " + result.getElapsedMillis() + " ms");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0));
+    }
+
+    @Test
+    public void testStatsAccumulate() {
+        SearchStats stats = new SearchStats();
+        stats.record(new SearchResult(Moves.NONE, 0, 1, 1000, 2_000_000));
+        stats.record(new SearchResult(Moves.NONE, 0, 1, 3000, 6_000_000));
+
+        assertEquals(2, stats.getSearches());
+        assertEquals(4000, stats.getTotalNodes());
+        assertEquals(500_000, stats.getNodesPerSecond());
+        assertEquals(4.0, stats.getAverageTimeToMoveMillis(), 1e-9);
+        assertEquals(6.0, stats.getMaxTimeToMoveMillis(), 1e-9);
+    }
+
+    private static int sq(String name) {
+        int square = Moves.parseSquare(name);
+        assertNotEquals(Position.EMPTY, square);
+        assertEquals(name, Moves.squareName(square));
+        assertEquals(square, Bitboards.square(Bitboards.row(square), Bitboards.col(square)));
+        return square;
+    }
+}
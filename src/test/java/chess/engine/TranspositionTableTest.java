@@ -0,0 +1,154 @@
+package chess.engine;
+
+import chess.engine.TranspositionTable.ReplacementPolicy;
+import chess.model.bitboard.Moves;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testPackedFieldsRoundTrip() {
+        int move = Moves.encode(52, 36, 0, 7);
+        long entry = TranspositionTable.pack(move, -29950, 63, TranspositionTable.UPPER_BOUND, 5);
+
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-29950, TranspositionTable.score(entry));
+        assertEquals(63, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(5, TranspositionTable.generation(entry));
+        assertEquals(Moves.NONE, TranspositionTable.move(TranspositionTable.pack(Moves.NONE, 0, 0, 0, 0)));
+    }
+
+    @Test
+    public void testSizedInMegabytesAsPowerOfTwo() {
+        TranspositionTable table = new TranspositionTable(3);
+
+        assertEquals(Integer.highestOneBit(table.getEntries()), table.getEntries());
+        assertTrue(table.getSizeBytes() <= 3L * 1024 * 1024);
+        assertTrue(table.getSizeBytes() * 2 > 3L * 1024 * 1024);
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void testKeepsDeeperEntryOfSameSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.newSearch();
+        table.store(42L, 7, 100, 5, TranspositionTable.EXACT);
+        table.store(42L, 9, -50, 2, TranspositionTable.LOWER_BOUND);
+
+        long entry = table.probe(42L);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(7, TranspositionTable.move(entry));
+        assertEquals(5, TranspositionTable.depth(entry));
+
+        // A later search may overwrite it, and keeps the old move if it has none
+        table.newSearch();
+        table.store(42L, Moves.NONE, 10, 1, TranspositionTable.UPPER_BOUND);
+        entry = table.probe(42L);
+        assertEquals(1, TranspositionTable.depth(entry));
+        assertEquals(7, TranspositionTable.move(entry));
+    }
+
+    @Test
+    public void testReplacementPolicies() {
+        int buckets = new TranspositionTable(1).getEntries() / 2;
+        long a = 1;
+        long b = a + buckets;
+        long c = b + buckets; // a, b and c share a bucket
+
+        TranspositionTable depthPreferred = new TranspositionTable(1, ReplacementPolicy.DEPTH_PREFERRED);
+        depthPreferred.store(a, 1, 0, 8, TranspositionTable.EXACT);
+        depthPreferred.store(b, 2, 0, 6, TranspositionTable.EXACT);
+        depthPreferred.store(c, 3, 0, 3, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, depthPreferred.probe(c));
+        assertNotEquals(TranspositionTable.MISS, depthPreferred.probe(b));
+
+        TranspositionTable always = new TranspositionTable(1, ReplacementPolicy.ALWAYS_REPLACE);
+        always.store(a, 1, 0, 8, TranspositionTable.EXACT);
+        always.store(b, 2, 0, 6, TranspositionTable.EXACT);
+        always.store(c, 3, 0, 3, TranspositionTable.EXACT);
+        assertNotEquals(TranspositionTable.MISS, always.probe(c));
+        assertNotEquals(TranspositionTable.MISS, always.probe(a));
+        assertEquals(TranspositionTable.MISS, always.probe(b));
+        assertEquals(1, always.getOverwrites());
+
+        TranspositionTable aged = new TranspositionTable(1, ReplacementPolicy.AGE_THEN_DEPTH);
+        aged.store(a, 1, 0, 8, TranspositionTable.EXACT);
+        aged.newSearch();
+        aged.store(b, 2, 0, 2, TranspositionTable.EXACT);
+        aged.store(c, 3, 0, 1, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, aged.probe(a));
+        assertNotEquals(TranspositionTable.MISS, aged.probe(b));
+        assertNotEquals(TranspositionTable.MISS, aged.probe(c));
+    }
+
+    @Test
+    public void testHitAndCollisionMetrics() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.getEntries() / 2;
+        table.store(5L, 1, 0, 1, TranspositionTable.EXACT);
+
+        table.probe(5L);                 // hit
+        table.probe(5L + buckets);       // same bucket, other position
+        table.probe(6L);                 // empty bucket
+
+        assertEquals(3, table.getProbes());
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getCollisions());
+        assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+
+        table.resetStatistics();
+        assertEquals(0, table.getProbes());
+    }
+
+    @Test
+    public void testConcurrentWritersNeverProduceMismatchedEntries() throws Exception {
+        TranspositionTable table = new TranspositionTable(1);
+        int buckets = table.getEntries() / 2;
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong mismatches = new AtomicLong();
+
+        // Writers hammer a handful of buckets; every entry's score is derived from its key
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            int seed = w;
+            writers[w] = Thread.ofPlatform().start(() -> {
+                Random random = new Random(seed);
+                while (!stop.get()) {
+                    long key = keyFor(random.nextInt(64), buckets);
+                    table.store(key, (int) (key & 0xFFF), scoreFor(key), random.nextInt(20), TranspositionTable.EXACT);
+                }
+            });
+        }
+        Random random = new Random(99);
+        for (int i = 0; i < 500_000; i++) {
+            long key = keyFor(random.nextInt(64), buckets);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS
+                    && (TranspositionTable.score(entry) != scoreFor(key)
+                    || TranspositionTable.move(entry) != (int) (key & 0xFFF))) {
+                mismatches.incrementAndGet();
+            }
+        }
+        stop.set(true);
+        for (Thread writer : writers) writer.join();
+
+        assertEquals(0, mismatches.get());
+        assertTrue(table.getHits() > 0);
+    }
+
+    // 64 distinct keys spread over 4 buckets
+    private static long keyFor(int i, int buckets) {
+        return (i & 3) + (long) (i >> 2) * buckets + ((long) i << 40);
+    }
+
+    private static int scoreFor(long key) {
+        return (int) (key >>> 40) * 7 - 200;
+    }
+}
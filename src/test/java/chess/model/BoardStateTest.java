@@ -0,0 +1,170 @@
+package chess.model;
+
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.MoveList;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import chess.model.pieces.Pawn;
+import chess.model.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardStateTest {
+
+    @Test
+    public void testMakeUnmakeRestoresEveryLegalMove() {
+        Random random = new Random(5);
+        BoardState board = new BoardState();
+        for (int ply = 0; ply < 60; ply++) {
+            MoveList moves = legalMoves(board);
+            if (moves.isEmpty()) break;
+
+            String before = snapshot(board);
+            for (int i = 0; i < moves.size(); i++) {
+                makeMove(board, moves.get(i));
+                board.unmakeMove();
+                assertEquals(before, snapshot(board), "ply " + ply + ", move " + Moves.toNotation(moves.get(i)));
+            }
+            makeMove(board, moves.get(random.nextInt(moves.size())));
+        }
+    }
+
+    @Test
+    public void testUnmakeWholeGameReturnsToStart() {
+        Random random = new Random(17);
+        BoardState board = new BoardState();
+        String start = snapshot(board);
+        int played = 0;
+        for (int ply = 0; ply < 80; ply++) {
+            MoveList moves = legalMoves(board);
+            if (moves.isEmpty()) break;
+            makeMove(board, moves.get(random.nextInt(moves.size())));
+            played++;
+        }
+
+        assertEquals(played, board.getUndoDepth());
+        while (board.getUndoDepth() > 0) {
+            board.unmakeMove();
+        }
+        assertEquals(start, snapshot(board));
+        assertFalse(board.isWhiteCheckmated());
+        assertTrue(board.hasAnyLegalMovesForCurrentPlayer());
+    }
+
+    @Test
+    public void testCaptureIsRestoredToPieceList() {
+        BoardState board = new BoardState();
+        Square[][] sq = board.getSquareArray();
+        board.makeMove(sq[6][4], sq[4][4]); // e4
+        board.makeMove(sq[1][3], sq[3][3]); // d5
+        Piece blackPawn = sq[3][3].getOccupyingPiece();
+
+        board.makeMove(sq[4][4], sq[3][3]); // exd5
+        assertFalse(board.getBlackPieces().contains(blackPawn));
+        assertEquals(15, board.getBlackPieces().size());
+
+        board.unmakeMove();
+        assertSame(blackPawn, sq[3][3].getOccupyingPiece());
+        assertSame(sq[3][3], blackPawn.getPosition());
+        assertTrue(board.getBlackPieces().contains(blackPawn));
+        assertEquals(16, board.getBlackPieces().size());
+        assertTrue(board.isWhiteTurn());
+    }
+
+    @Test
+    public void testPawnDoubleStepIsAvailableAgainAfterUnmake() {
+        BoardState board = new BoardState();
+        Square[][] sq = board.getSquareArray();
+        Pawn pawn = (Pawn) sq[6][0].getOccupyingPiece();
+
+        board.makeMove(sq[6][0], sq[5][0]);
+        assertTrue(pawn.hasMoved());
+        board.unmakeMove();
+
+        assertFalse(pawn.hasMoved());
+        assertTrue(pawn.getLegalMoves(board).contains(sq[4][0]));
+    }
+
+    @Test
+    public void testCastlingRightsAndEnPassantSquareAreTracked() {
+        BoardState board = new BoardState();
+        Square[][] sq = board.getSquareArray();
+        assertEquals(15, board.getCastlingRights());
+        assertNull(board.getEnPassantSquare());
+
+        board.makeMove(sq[6][7], sq[4][7]); // h4
+        assertSame(sq[5][7], board.getEnPassantSquare());
+        board.makeMove(sq[1][0], sq[2][0]); // a6
+        assertNull(board.getEnPassantSquare());
+        board.makeMove(sq[7][7], sq[5][7]); // Rh3
+        assertEquals(BoardState.WHITE_QUEENSIDE | BoardState.BLACK_KINGSIDE | BoardState.BLACK_QUEENSIDE,
+                board.getCastlingRights());
+
+        board.unmakeMove();
+        assertEquals(15, board.getCastlingRights());
+        board.unmakeMove();
+        assertSame(sq[5][7], board.getEnPassantSquare());
+    }
+
+    @Test
+    public void testCommittedMovesKeepNoUndoRecords() {
+        BoardState board = new BoardState();
+        Square[][] sq = board.getSquareArray();
+        board.makeMove(sq[6][4], sq[4][4]); // e4
+        board.commitMove(sq[1][3], sq[3][3]); // d5
+        board.commitMove(sq[4][4], sq[3][3]); // exd5
+
+        assertEquals(0, board.getUndoDepth());
+        assertEquals(15, board.getBlackPieces().size());
+        assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    @Test
+    public void testUnmakeWithoutMoveThrows() {
+        assertThrows(IllegalStateException.class, () -> new BoardState().unmakeMove());
+    }
+
+    private MoveList legalMoves(BoardState board) {
+        Position position = board.toPosition();
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        return moves;
+    }
+
+    private void makeMove(BoardState board, int move) {
+        Square[][] squares = board.getSquareArray();
+        board.makeMove(squares[Bitboards.row(Moves.from(move))][Bitboards.col(Moves.from(move))],
+                squares[Bitboards.row(Moves.to(move))][Bitboards.col(Moves.to(move))]);
+    }
+
+    // Everything make/unmake has to restore, in a form that compares with equals
+    private String snapshot(BoardState board) {
+        StringBuilder sb = new StringBuilder();
+        for (Square[] row : board.getSquareArray()) {
+            for (Square square : row) {
+                Piece p = square.getOccupyingPiece();
+                if (p == null) {
+                    sb.append('.');
+                    continue;
+                }
+                assertSame(square, p.getPosition());
+                sb.append(p.getColor()).append(p.getClass().getSimpleName().charAt(0));
+                if (p instanceof Pawn pawn && pawn.hasMoved()) sb.append('\'');
+            }
+            sb.append('/');
+        }
+        List<Piece> pieces = new ArrayList<>(board.getWhitePieces());
+        pieces.addAll(board.getBlackPieces());
+        for (Piece p : pieces) {
+            sb.append(System.identityHashCode(p)).append(',');
+        }
+        sb.append(board.isWhiteTurn()).append(board.getCastlingRights()).append(board.getEnPassantSquare());
+        sb.append(board.isWhiteCheckmated() || board.isBlackCheckmated());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,187 @@
+package chess.model;
+
+import chess.model.bitboard.AttackMap;
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.MoveList;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import chess.model.pieces.King;
+import chess.model.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the previous full-rebuild checkmate detection with the incremental
+ * attack map on middlegame positions (20-40 random plies from the start).
+ *
+ * Each iteration answers "in check / checkmated / stalemated" for the side to
+ * move after the last move was played. Run with:
+ * {@code java -cp target/classes:target/test-classes chess.model.CheckmateDetectorBenchmark}
+ */
+public class CheckmateDetectorBenchmark {
+    private static final int POSITIONS = 40;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        List<BoardState> boards = new ArrayList<>();
+        List<Integer> lastMoves = new ArrayList<>();
+        Random random = new Random(11);
+        while (boards.size() < POSITIONS) {
+            BoardState board = new BoardState();
+            int plies = 20 + random.nextInt(21);
+            int last = Moves.NONE;
+            for (int ply = 0; ply < plies; ply++) {
+                int played = playRandomMove(board, random);
+                if (played == Moves.NONE) break;
+                last = played;
+            }
+            if (last != Moves.NONE) {
+                boards.add(board);
+                lastMoves.add(last);
+            }
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long legacyNanos = 0;
+            long incrementalNanos = 0;
+            int agree = 0;
+            for (int i = 0; i < boards.size(); i++) {
+                BoardState board = boards.get(i);
+                int last = lastMoves.get(i);
+
+                long start = System.nanoTime();
+                int legacy = legacyQueries(board);
+                legacyNanos += System.nanoTime() - start;
+
+                // The incremental map already tracks the position before the last move
+                Position before = board.toPosition();
+                before.unmakeMove(last);
+                AttackMap map = new AttackMap(before);
+
+                start = System.nanoTime();
+                map.makeMove(last);
+                int side = before.getSideToMove();
+                int incremental = outcome(map.isInCheck(side), map.isCheckmated(side) || map.isStalemated(side));
+                incrementalNanos += System.nanoTime() - start;
+
+                if (legacy == incremental) agree++;
+            }
+            System.out.printf("round %d: legacy %8.1f us/pos, incremental %6.1f us/pos, speed-up %.0fx (%d/%d agree)%n",
+                    round + 1,
+                    legacyNanos / 1000.0 / boards.size(),
+                    incrementalNanos / 1000.0 / boards.size(),
+                    (double) legacyNanos / incrementalNanos,
+                    agree, boards.size());
+        }
+    }
+
+    private static int playRandomMove(BoardState board, Random random) {
+        Position position = board.toPosition();
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        if (moves.isEmpty()) return Moves.NONE;
+
+        int move = moves.get(random.nextInt(moves.size()));
+        Square[][] squares = board.getSquareArray();
+        Square from = squares[Bitboards.row(Moves.from(move))][Bitboards.col(Moves.from(move))];
+        Square to = squares[Bitboards.row(Moves.to(move))][Bitboards.col(Moves.to(move))];
+        board.commitMove(from, to);
+        return move;
+    }
+
+    private static int outcome(boolean inCheck, boolean noMoves) {
+        return (inCheck ? 1 : 0) | (noMoves ? 2 : 0);
+    }
+
+    // The query set the server used to run: legal-move scan plus a fresh detector per question
+    private static int legacyQueries(BoardState board) {
+        boolean white = board.isWhiteTurn();
+        LegacyDetector detector = new LegacyDetector(board);
+        boolean inCheck = white ? detector.whiteInCheck() : detector.blackInCheck();
+        boolean anyMove = false;
+        List<Piece> pieces = new ArrayList<>(white ? board.getWhitePieces() : board.getBlackPieces());
+        for (Piece p : pieces) {
+            for (Square target : p.getLegalMoves(board)) {
+                if (legacyKingSafe(board, p, target)) {
+                    anyMove = true;
+                    break;
+                }
+            }
+            if (anyMove) break;
+        }
+        return outcome(inCheck, !anyMove);
+    }
+
+    private static boolean legacyKingSafe(BoardState board, Piece p, Square target) {
+        Square original = p.getPosition();
+        Piece captured = target.getOccupyingPiece();
+        original.removePiece();
+        target.setOccupyingPiece(p);
+        p.setPosition(target);
+
+        LegacyDetector detector = new LegacyDetector(board);
+        boolean safe = p.getColor() == 1 ? !detector.whiteInCheck() : !detector.blackInCheck();
+
+        target.setOccupyingPiece(captured);
+        original.setOccupyingPiece(p);
+        p.setPosition(original);
+        return safe;
+    }
+
+    /** The HashMap-based detector this benchmark replaces, reduced to its check query. */
+    private static final class LegacyDetector {
+        private final BoardState boardState;
+        private final Map<Square, List<Piece>> whiteMoves = new HashMap<>();
+        private final Map<Square, List<Piece>> blackMoves = new HashMap<>();
+
+        LegacyDetector(BoardState boardState) {
+            this.boardState = boardState;
+            for (Square[] row : boardState.getSquareArray()) {
+                for (Square sq : row) {
+                    whiteMoves.put(sq, new LinkedList<>());
+                    blackMoves.put(sq, new LinkedList<>());
+                }
+            }
+            update();
+        }
+
+        void update() {
+            whiteMoves.values().forEach(List::clear);
+            blackMoves.values().forEach(List::clear);
+            for (Square[] row : boardState.getSquareArray()) {
+                for (Square sq : row) {
+                    Piece p = sq.getOccupyingPiece();
+                    if (p == null || p instanceof King) continue;
+                    Map<Square, List<Piece>> target = p.getColor() == 1 ? whiteMoves : blackMoves;
+                    for (Square move : p.getLegalMoves(boardState)) {
+                        target.get(move).add(p);
+                    }
+                }
+            }
+        }
+
+        boolean whiteInCheck() {
+            update();
+            return !blackMoves.get(kingSquare(1)).isEmpty();
+        }
+
+        boolean blackInCheck() {
+            update();
+            return !whiteMoves.get(kingSquare(0)).isEmpty();
+        }
+
+        private Square kingSquare(int color) {
+            for (Square[] row : boardState.getSquareArray()) {
+                for (Square sq : row) {
+                    if (sq.getOccupyingPiece() instanceof King k && k.getColor() == color) return sq;
+                }
+            }
+            throw new IllegalStateException("No king for color " + color);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package chess.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.timer.TimerWheel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClockTest {
+
+    private TimerWheel timers;
+
+    @BeforeEach
+    public void setUp() {
+        timers = new TimerWheel("clock-test", 5, 64);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timers.close();
+    }
+
+    @Test
+    public void testFlagFallsWhenTimeRunsOut() throws InterruptedException {
+        Clock clock = new Clock(100, timers);
+        CountDownLatch flagged = new CountDownLatch(1);
+        clock.setOnFlag(flagged::countDown);
+
+        clock.start();
+
+        assertTrue(flagged.await(2, TimeUnit.SECONDS));
+        assertTrue(clock.outOfTime());
+        assertFalse(clock.isRunning());
+    }
+
+    @Test
+    public void testStoppedClockKeepsItsTimeAndNeverFlags() throws InterruptedException {
+        Clock clock = new Clock(200, timers);
+        CountDownLatch flagged = new CountDownLatch(1);
+        clock.setOnFlag(flagged::countDown);
+
+        clock.start();
+        Thread.sleep(50);
+        long left = clock.stop();
+
+        assertTrue(left <= 160 && left > 0, "left " + left);
+        assertFalse(flagged.await(300, TimeUnit.MILLISECONDS));
+        assertEquals(left, clock.getRemainingMillis());
+    }
+
+    @Test
+    public void testAddedTimeMovesTheFlag() throws InterruptedException {
+        Clock clock = new Clock(50, timers);
+        CountDownLatch flagged = new CountDownLatch(1);
+        clock.setOnFlag(flagged::countDown);
+
+        clock.start();
+        clock.addMillis(300);
+
+        assertFalse(flagged.await(150, TimeUnit.MILLISECONDS));
+        assertTrue(flagged.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeFormatting() {
+        Clock clock = new Clock(1, 2, 3);
+
+        assertEquals("01:02:03", clock.getTime());
+        clock.decr();
+        assertEquals("01:02:02", clock.getTime());
+        assertFalse(clock.outOfTime());
+        assertTrue(new Clock(0, 0, 0).outOfTime());
+    }
+}
@@ -0,0 +1,73 @@
+package chess.model;
+
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.Moves;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTest {
+
+    @Test
+    public void testStartPositionRoundTrip() {
+        assertEquals(Fen.START_POSITION, new BoardState().toFen());
+        BoardState board = Fen.toBoardState(Fen.START_POSITION);
+        assertEquals(Fen.START_POSITION, board.toFen());
+        assertEquals(new BoardState().getZobristKey(), board.getZobristKey());
+    }
+
+    @Test
+    public void testRoundTripKeepsAllFields() {
+        String[] fens = {
+                "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 37 61",
+                "r3k2r/8/8/8/8/8/8/R3K2R w Kq - 4 20"
+        };
+        for (String fen : fens) {
+            assertEquals(fen, Fen.toBoardState(fen).toFen());
+            assertEquals(fen, Fen.format(Fen.parse(fen)));
+        }
+    }
+
+    @Test
+    public void testMovesUpdateClocksAndUnmakeRestoresThem() {
+        BoardState board = new BoardState();
+        play(board, "e2e4");
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board.toFen());
+        play(board, "g8f6");
+        play(board, "b1c3");
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/2N5/PPPP1PPP/R1BQKBNR b KQkq - 2 2", board.toFen());
+        play(board, "f6e4");
+        assertEquals("rnbqkb1r/pppppppp/8/8/4n3/2N5/PPPP1PPP/R1BQKBNR w KQkq - 0 3", board.toFen());
+
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", board.toFen());
+    }
+
+    @Test
+    public void testMissingFieldsDefault() {
+        BoardState board = Fen.toBoardState("4k3/8/8/8/8/8/8/4K3 b");
+
+        assertFalse(board.isWhiteTurn());
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", board.toFen());
+    }
+
+    @Test
+    public void testRejectsMalformedFen() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 0"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - z9 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w KX - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/9/8/8/8/8/8/4K3 w - - 0 1"));
+    }
+
+    private static void play(BoardState board, String move) {
+        Square[][] squares = board.getSquareArray();
+        int from = Moves.parseSquare(move.substring(0, 2));
+        int to = Moves.parseSquare(move.substring(2, 4));
+        board.makeMove(squares[Bitboards.row(from)][Bitboards.col(from)], squares[Bitboards.row(to)][Bitboards.col(to)]);
+    }
+}
@@ -0,0 +1,74 @@
+package chess.model;
+
+import chess.model.pieces.Pawn;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+    // Standard suite positions; depths stop before castling, en passant or promotion change the count
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    @Test
+    public void testStartPosition() {
+        BoardState board = Fen.toBoardState(Fen.START_POSITION);
+        assertEquals(20, Perft.perft(board, 1));
+        assertEquals(400, Perft.perft(board, 2));
+        assertEquals(8902, Perft.perft(board, 3));
+        assertEquals(197281, Perft.perft(board, 4));
+        assertEquals(new BoardState().getZobristKey(), board.getZobristKey());
+    }
+
+    @Test
+    public void testPosition3() {
+        BoardState board = Fen.toBoardState(POSITION_3);
+        assertEquals(14, Perft.perft(board, 1));
+        assertEquals(191, Perft.perft(board, 2));
+    }
+
+    @Test
+    public void testPosition6() {
+        BoardState board = Fen.toBoardState(POSITION_6);
+        assertEquals(46, Perft.perft(board, 1));
+        assertEquals(2079, Perft.perft(board, 2));
+        assertEquals(89890, Perft.perft(board, 3));
+    }
+
+    @Test
+    public void testDivideSumsToPerftAndMatchesBitboards() {
+        BoardState board = Fen.toBoardState(POSITION_6);
+        Map<String, Long> divide = Perft.divide(board, 2);
+
+        assertEquals(46, divide.size());
+        assertEquals(2079, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(Perft.divide(board.toPosition(), 2), divide);
+        assertEquals(0, board.getUndoDepth());
+    }
+
+    @Test
+    public void testBoardAndBitboardAgreeOnBlackToMove() {
+        BoardState board = Fen.toBoardState("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 3");
+        assertFalse(board.isWhiteTurn());
+        assertEquals(Perft.perft(board.toPosition(), 3), Perft.perft(board, 3));
+    }
+
+    @Test
+    public void testFenSetsUpBoardState() {
+        BoardState board = Fen.toBoardState("4k3/8/8/3pP3/8/8/P7/4K3 w - d6 0 2");
+
+        assertTrue(board.isWhiteTurn());
+        assertEquals(0, board.getCastlingRights());
+        assertEquals(3, board.getEnPassantSquare().getXNum());
+        assertEquals(2, board.getEnPassantSquare().getYNum());
+        assertFalse(((Pawn) board.getSquareArray()[6][0].getOccupyingPiece()).hasMoved());
+        assertTrue(((Pawn) board.getSquareArray()[3][4].getOccupyingPiece()).hasMoved());
+        assertEquals(board.computeZobristKey(), board.getZobristKey());
+
+        assertThrows(IllegalArgumentException.class, () -> Fen.toBoardState("8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toBoardState("4k3/8/8/8/8/8/8/4K3 x - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toBoardState("4k3/8/8/8/8/8/8/4X3 w - - 0 1"));
+    }
+}
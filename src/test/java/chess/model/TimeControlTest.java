@@ -0,0 +1,35 @@
+package chess.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeControlTest {
+
+    @Test
+    public void testParsesEachMode() {
+        assertEquals(new TimeControl(600_000, 5_000, TimeControl.Mode.INCREMENT), TimeControl.parse("10+5"));
+        assertEquals(new TimeControl(300_000, 3_000, TimeControl.Mode.SIMPLE_DELAY), TimeControl.parse("5d3"));
+        assertEquals(new TimeControl(30_000, 2_000, TimeControl.Mode.BRONSTEIN), TimeControl.parse("0.5b2"));
+    }
+
+    @Test
+    public void testNoneIsUntimed() {
+        assertFalse(TimeControl.parse("none").isTimed());
+        assertTrue(TimeControl.parse("1+0").isTimed());
+    }
+
+    @Test
+    public void testToStringParsesBack() {
+        for (String spec : new String[]{"10+5", "5d3", "0.5b2", "none"}) {
+            assertEquals(spec, TimeControl.parse(spec).toString());
+        }
+    }
+
+    @Test
+    public void testRejectsMalformedSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> TimeControl.parse("10"));
+        assertThrows(IllegalArgumentException.class, () -> TimeControl.parse("x+5"));
+        assertThrows(IllegalArgumentException.class, () -> TimeControl.parse("+5"));
+    }
+}
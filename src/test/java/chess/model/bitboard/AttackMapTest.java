@@ -0,0 +1,80 @@
+package chess.model.bitboard;
+
+import chess.model.BoardState;
+import chess.model.Square;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttackMapTest {
+
+    @Test
+    public void testIncrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(2024);
+        for (int game = 0; game < 20; game++) {
+            Position position = new BoardState().toPosition();
+            AttackMap map = new AttackMap(position);
+            MoveList moves = new MoveList();
+
+            for (int ply = 0; ply < 120; ply++) {
+                position.generateLegalMoves(moves);
+                if (moves.isEmpty()) break;
+
+                // Every candidate must round-trip through make/unmake unchanged
+                for (int i = 0; i < moves.size(); i++) {
+                    map.makeMove(moves.get(i));
+                    assertMatchesRebuild(map);
+                    map.unmakeMove(moves.get(i));
+                }
+                assertMatchesRebuild(map);
+                map.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    public void testFoolsMateIsCheckmate() {
+        BoardState board = new BoardState();
+        assertTrue(board.hasAnyLegalMovesForCurrentPlayer()); // builds the detector before the moves
+        play(board, 6, 5, 5, 5); // f2f3
+        play(board, 1, 4, 3, 4); // e7e5
+        play(board, 6, 6, 4, 6); // g2g4
+        play(board, 0, 3, 4, 7); // d8h4
+
+        assertTrue(board.isWhiteCheckmated());
+        assertFalse(board.isBlackCheckmated());
+        assertFalse(board.hasAnyLegalMovesForCurrentPlayer());
+        assertFalse(board.isStalemate());
+    }
+
+    @Test
+    public void testLoneKingStalemate() {
+        Position position = new Position();
+        position.put(Bitboards.square(0, 0), Position.BLACK, Position.KING);   // a8
+        position.put(Bitboards.square(2, 1), Position.WHITE, Position.QUEEN);  // b6
+        position.put(Bitboards.square(2, 2), Position.WHITE, Position.KING);   // c6
+        position.setSideToMove(Position.BLACK);
+        AttackMap map = new AttackMap(position);
+
+        assertFalse(map.isInCheck(Position.BLACK));
+        assertTrue(map.isStalemated(Position.BLACK));
+        assertFalse(map.isCheckmated(Position.BLACK));
+    }
+
+    private void play(BoardState board, int fromRow, int fromCol, int toRow, int toCol) {
+        Square[][] squares = board.getSquareArray();
+        Square from = squares[fromRow][fromCol];
+        board.commitMove(from, squares[toRow][toCol]);
+    }
+
+    private void assertMatchesRebuild(AttackMap map) {
+        AttackMap fresh = new AttackMap(map.getPosition());
+        for (int sq = 0; sq < 64; sq++) {
+            assertEquals(fresh.attacksFrom(sq), map.attacksFrom(sq), "attacks from " + sq);
+            assertEquals(fresh.attackerCount(sq, Position.WHITE), map.attackerCount(sq, Position.WHITE));
+            assertEquals(fresh.attackerCount(sq, Position.BLACK), map.attackerCount(sq, Position.BLACK));
+        }
+    }
+}
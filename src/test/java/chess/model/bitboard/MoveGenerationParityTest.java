@@ -0,0 +1,175 @@
+package chess.model.bitboard;
+
+import chess.model.BoardState;
+import chess.model.Square;
+import chess.model.pieces.King;
+import chess.model.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the bitboard generator against the legacy {@code chess.model.pieces}
+ * generators on positions reached by seeded random playouts.
+ */
+public class MoveGenerationParityTest {
+
+    private static final int GAMES = 12;
+    private static final int MAX_PLIES = 80;
+
+    @Test
+    public void testSliderTablesMatchRayWalk() {
+        Random random = new Random(7);
+        for (int sq = 0; sq < 64; sq++) {
+            for (int i = 0; i < 200; i++) {
+                long occupied = random.nextLong() & random.nextLong();
+                assertEquals(Bitboards.rookAttacksSlow(sq, occupied), Bitboards.rookAttacks(sq, occupied));
+                assertEquals(Bitboards.bishopAttacksSlow(sq, occupied), Bitboards.bishopAttacks(sq, occupied));
+            }
+        }
+    }
+
+    @Test
+    public void testStartingPositionHasTwentyMoves() {
+        Position position = new BoardState().toPosition();
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+
+        assertEquals(20, moves.size());
+        assertFalse(position.isInCheck(Position.WHITE));
+        assertFalse(position.isInCheck(Position.BLACK));
+    }
+
+    @Test
+    public void testPseudoLegalMovesMatchPieceGenerators() {
+        Random random = new Random(42);
+        for (int game = 0; game < GAMES; game++) {
+            BoardState board = new BoardState();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                Position position = board.toPosition();
+                MoveList moves = new MoveList();
+                position.generatePseudoLegalMoves(moves);
+
+                assertEquals(legacyPseudoLegal(board), asStrings(moves), "game " + game + ", ply " + ply);
+                if (!playRandomMove(board, position, random)) break;
+            }
+        }
+    }
+
+    @Test
+    public void testLegalMovesMatchKingSafetyCheck() {
+        Random random = new Random(1234);
+        for (int game = 0; game < GAMES; game++) {
+            BoardState board = new BoardState();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                Position position = board.toPosition();
+                MoveList moves = new MoveList();
+                position.generateLegalMoves(moves);
+
+                assertEquals(legacyLegal(board), asStrings(moves), "game " + game + ", ply " + ply);
+                assertEquals(board.hasAnyLegalMovesForCurrentPlayer(), position.hasLegalMoves());
+                if (!playRandomMove(board, position, random)) break;
+            }
+        }
+    }
+
+    @Test
+    public void testMakeUnmakeRestoresPosition() {
+        Random random = new Random(99);
+        BoardState board = new BoardState();
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            Position position = board.toPosition();
+            MoveList moves = new MoveList();
+            position.generateLegalMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                position.makeMove(moves.get(i));
+                position.unmakeMove(moves.get(i));
+                assertSamePosition(board.toPosition(), position);
+            }
+            if (!playRandomMove(board, position, random)) break;
+        }
+    }
+
+    private boolean playRandomMove(BoardState board, Position position, Random random) {
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        if (moves.isEmpty()) return false;
+
+        int move = moves.get(random.nextInt(moves.size()));
+        Square[][] squares = board.getSquareArray();
+        Square from = squares[Bitboards.row(Moves.from(move))][Bitboards.col(Moves.from(move))];
+        Square to = squares[Bitboards.row(Moves.to(move))][Bitboards.col(Moves.to(move))];
+        board.commitMove(from, to);
+        return true;
+    }
+
+    private Set<String> legacyPseudoLegal(BoardState board) {
+        Set<String> result = new TreeSet<>();
+        for (Piece piece : activePieces(board)) {
+            for (Square target : piece.getLegalMoves(board)) {
+                result.add(notation(piece.getPosition(), target));
+            }
+        }
+        return result;
+    }
+
+    private Set<String> legacyLegal(BoardState board) {
+        Set<String> result = new TreeSet<>();
+        for (Piece piece : activePieces(board)) {
+            for (Square target : piece.getLegalMoves(board)) {
+                // The legacy detector ignores the enemy king, so it lets the kings touch
+                if (piece instanceof King && touchesEnemyKing(board, piece, target)) continue;
+                if (board.isKingSafeAfterMove(piece, target)) {
+                    result.add(notation(piece.getPosition(), target));
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean touchesEnemyKing(BoardState board, Piece king, Square target) {
+        List<Piece> enemies = king.getColor() == 1 ? board.getBlackPieces() : board.getWhitePieces();
+        for (Piece enemy : enemies) {
+            if (enemy instanceof King) {
+                Square sq = enemy.getPosition();
+                return Math.abs(sq.getXNum() - target.getXNum()) <= 1
+                        && Math.abs(sq.getYNum() - target.getYNum()) <= 1;
+            }
+        }
+        return false;
+    }
+
+    private List<Piece> activePieces(BoardState board) {
+        return new ArrayList<>(board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces());
+    }
+
+    private Set<String> asStrings(MoveList moves) {
+        Set<String> result = new TreeSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            result.add(Moves.toNotation(moves.get(i)));
+        }
+        return result;
+    }
+
+    private String notation(Square from, Square to) {
+        return Moves.squareName(Bitboards.square(from.getYNum(), from.getXNum()))
+                + Moves.squareName(Bitboards.square(to.getYNum(), to.getXNum()));
+    }
+
+    private void assertSamePosition(Position expected, Position actual) {
+        assertEquals(expected.getSideToMove(), actual.getSideToMove());
+        for (int sq = 0; sq < 64; sq++) {
+            assertEquals(expected.typeAt(sq), actual.typeAt(sq));
+            assertEquals(expected.colorAt(sq), actual.colorAt(sq));
+        }
+        for (int color = 0; color < 2; color++) {
+            assertEquals(expected.occupancy(color), actual.occupancy(color));
+        }
+    }
+}
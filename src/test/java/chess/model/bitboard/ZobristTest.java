@@ -0,0 +1,120 @@
+package chess.model.bitboard;
+
+import chess.model.BoardState;
+import chess.model.Square;
+import org.junit.jupiter.api.Test;
+import shared.ChessMove;
+import shared.GameState;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTest {
+
+    @Test
+    public void testIncrementalKeyMatchesRecomputedKey() {
+        Random random = new Random(3);
+        for (int game = 0; game < 10; game++) {
+            BoardState board = new BoardState();
+            Position position = board.toPosition();
+            for (int ply = 0; ply < 80; ply++) {
+                MoveList moves = new MoveList();
+                position.generateLegalMoves(moves);
+                if (moves.isEmpty()) break;
+
+                int move = moves.get(random.nextInt(moves.size()));
+                play(board, move);
+                position.makeMove(move);
+
+                assertEquals(board.computeZobristKey(), board.getZobristKey(), "game " + game + ", ply " + ply);
+                assertEquals(Zobrist.keyOf(position), position.getKey());
+            }
+        }
+    }
+
+    @Test
+    public void testUnmakeRestoresKey() {
+        BoardState board = new BoardState();
+        Position position = board.toPosition();
+        long boardKey = board.getZobristKey();
+        long positionKey = position.getKey();
+
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            play(board, moves.get(i));
+            board.unmakeMove();
+            position.makeMove(moves.get(i));
+            position.unmakeMove(moves.get(i));
+
+            assertEquals(boardKey, board.getZobristKey());
+            assertEquals(positionKey, position.getKey());
+        }
+    }
+
+    @Test
+    public void testTranspositionsShareKey() {
+        BoardState first = new BoardState();
+        Square[][] a = first.getSquareArray();
+        first.makeMove(a[7][6], a[5][5]); // Nf3
+        first.makeMove(a[0][6], a[2][5]); // Nf6
+        first.makeMove(a[7][1], a[5][2]); // Nc3
+        first.makeMove(a[0][1], a[2][2]); // Nc6
+
+        BoardState second = new BoardState();
+        Square[][] b = second.getSquareArray();
+        second.makeMove(b[7][1], b[5][2]); // Nc3
+        second.makeMove(b[0][1], b[2][2]); // Nc6
+        second.makeMove(b[7][6], b[5][5]); // Nf3
+        second.makeMove(b[0][6], b[2][5]); // Nf6
+
+        assertEquals(first.getZobristKey(), second.getZobristKey());
+        assertNotEquals(new BoardState().getZobristKey(), first.getZobristKey());
+    }
+
+    @Test
+    public void testSideToMoveAndEnPassantChangeKey() {
+        BoardState single = new BoardState();
+        Square[][] a = single.getSquareArray();
+        single.makeMove(a[6][4], a[5][4]); // e3
+        single.makeMove(a[1][0], a[2][0]); // a6
+        single.makeMove(a[5][4], a[4][4]); // e4
+
+        BoardState jump = new BoardState();
+        Square[][] b = jump.getSquareArray();
+        jump.makeMove(b[1][0], b[2][0]);
+        jump.toggleTurn();
+        jump.makeMove(b[6][4], b[4][4]); // e4, leaves an en passant square
+
+        assertEquals(single.toPosition().getKey(), jump.toPosition().getKey());
+        assertNotEquals(single.getZobristKey(), jump.getZobristKey());
+    }
+
+    @Test
+    public void testGameStateCarriesKey() {
+        BoardState board = new BoardState();
+        Square[][] sq = board.getSquareArray();
+        board.makeMove(sq[6][4], sq[4][4]); // e4
+
+        GameState state = new GameState(board);
+        assertEquals(board.getZobristKey(), state.getZobristKey());
+        assertTrue(state.isInSync());
+        assertEquals("e3", state.getEnPassantSquare());
+
+        GameState client = new GameState();
+        client.reset();
+        assertEquals(new BoardState().getZobristKey(), client.getZobristKey());
+        client.makeMove(new ChessMove(6, 4, 4, 4));
+        assertEquals(state.getZobristKey(), client.getZobristKey());
+
+        state.getBoard()[4][4] = null;
+        assertFalse(state.isInSync());
+    }
+
+    private void play(BoardState board, int move) {
+        Square[][] squares = board.getSquareArray();
+        board.makeMove(squares[Bitboards.row(Moves.from(move))][Bitboards.col(Moves.from(move))],
+                squares[Bitboards.row(Moves.to(move))][Bitboards.col(Moves.to(move))]);
+    }
+}
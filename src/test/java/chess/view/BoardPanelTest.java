@@ -0,0 +1,45 @@
+package chess.view;
+
+import org.junit.jupiter.api.Test;
+import shared.ChessMove;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardPanelTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    public void testReplayStepsForwardAndBack() {
+        BoardPanel panel = new BoardPanel(null);
+        ChessMove e4 = new ChessMove(6, 4, 4, 4);
+        ChessMove d5 = new ChessMove(1, 3, 3, 3);
+        ChessMove exd5 = new ChessMove(4, 4, 3, 3);
+
+        panel.applyMove(e4);
+        panel.applyMove(d5);
+        String afterD5 = panel.model.toFen();
+        panel.applyMove(exd5);
+        assertEquals(15, panel.model.getBlackPieces().size());
+
+        panel.undoMove();
+        assertEquals(afterD5, panel.model.toFen());
+        assertEquals(16, panel.model.getBlackPieces().size());
+        panel.undoMove();
+        panel.undoMove();
+        assertEquals(START, panel.model.toFen());
+
+        // Stepping forward again replays onto the right position
+        panel.applyMove(e4);
+        panel.applyMove(d5);
+        panel.applyMove(exd5);
+        assertEquals("rnbqkbnr/ppp1pppp/8/3P4/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2", panel.model.toFen());
+    }
+
+    @Test
+    public void testUndoAtStartLeavesBoardAlone() {
+        BoardPanel panel = new BoardPanel(null);
+        panel.undoMove();
+        assertEquals(START, panel.model.toFen());
+    }
+}
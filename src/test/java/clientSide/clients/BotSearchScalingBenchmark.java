@@ -0,0 +1,126 @@
+package clientSide.clients;
+
+import chess.engine.SearchStats;
+import chess.model.BoardState;
+import chess.model.Square;
+import chess.model.bitboard.Bitboards;
+import chess.model.bitboard.MoveList;
+import chess.model.bitboard.Moves;
+import chess.model.bitboard.Position;
+import clientSide.utils.ServerConnector;
+import shared.GameState;
+import shared.protocol.MessageReader;
+import shared.protocol.MessageWriter;
+import shared.protocol.WireProtocol;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Nodes per second of the bot at 1/2/4/8 search threads, measured end to end
+ * through {@link BotPlayerClient#runBot()}.
+ *
+ * A stand-in server on a loopback socket announces the heartbeat interval on the
+ * game socket, as the real one does, then sends each test position as a binary game
+ * state frame followed by REQUEST_MOVE and waits for the bot's reply. Run with:
+ * {@code java -cp target/classes:target/test-classes clientSide.clients.BotSearchScalingBenchmark [moveMillis]}
+ */
+public class BotSearchScalingBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final int POSITIONS = 8;
+
+    public static void main(String[] args) throws Exception {
+        long moveMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        List<GameState> positions = positions();
+        PrintStream console = System.out;
+        // The bot and its shutdown thread log every message; keep the report readable
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        console.printf("%d positions, %d ms per move, %d cores%n",
+                positions.size(), moveMillis, Runtime.getRuntime().availableProcessors());
+
+        long baseline = 0;
+        for (int threads : THREADS) {
+            SearchStats stats = runBot(positions, threads, moveMillis);
+            if (baseline == 0) baseline = stats.getNodesPerSecond();
+            console.printf("%d thread(s): %,12d nps (x%.2f), depth avg %.1f, time to move avg %.0f ms / max %.0f ms%n",
+                    threads, stats.getNodesPerSecond(), (double) stats.getNodesPerSecond() / baseline,
+                    stats.getAverageDepth(), stats.getAverageTimeToMoveMillis(), stats.getMaxTimeToMoveMillis());
+        }
+    }
+
+    private static SearchStats runBot(List<GameState> positions, int threads, long moveMillis) throws Exception {
+        try (ServerSocket gameServer = new ServerSocket(0)) {
+            Thread server = Thread.ofPlatform().start(() -> serve(gameServer, positions));
+
+            Socket socket = new Socket("localhost", gameServer.getLocalPort());
+            ServerConnector connector = new ServerConnector(socket);
+            MessageReader reader = new MessageReader(socket.getInputStream());
+            reader.setBinary(true);
+            PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+            boolean white = positions.get(0).isWhiteTurn();
+            BotPlayerClient bot = new BotPlayerClient(white, connector, reader, writer, null, null, socket);
+            bot.setSearchThreads(threads);
+            bot.setMoveTimeMillis(moveMillis);
+
+            bot.runBot();
+            server.join();
+            return bot.getSearchStats();
+        }
+    }
+
+    private static void serve(ServerSocket gameServer, List<GameState> positions) {
+        try (Socket socket = gameServer.accept()) {
+            MessageWriter out = new MessageWriter(socket.getOutputStream());
+            Scanner in = new Scanner(socket.getInputStream());
+            out.sendLine(WireProtocol.HEARTBEAT_INTERVAL_PREFIX + 500);
+            // The connector has read the interval line; everything after it is framed
+            out.setBinary(true);
+
+            for (GameState state : positions) {
+                out.sendGameState(state);
+                out.sendLine("REQUEST_MOVE");
+                in.nextLine();
+            }
+            out.sendLine("GAME_END");
+            out.sendLine("benchmark finished");
+        } catch (Exception e) {
+            throw new IllegalStateException("Benchmark server failed", e);
+        }
+    }
+
+    // Random middlegame positions, all with the same side to move so one bot can answer them
+    private static List<GameState> positions() {
+        List<GameState> positions = new ArrayList<>();
+        Random random = new Random(2024);
+        while (positions.size() < POSITIONS) {
+            BoardState board = new BoardState();
+            int plies = 2 * (6 + random.nextInt(10));
+            boolean finished = true;
+            for (int ply = 0; ply < plies && finished; ply++) {
+                Position position = board.toPosition();
+                MoveList moves = new MoveList();
+                position.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    finished = false;
+                    break;
+                }
+                int move = moves.get(random.nextInt(moves.size()));
+                Square[][] squares = board.getSquareArray();
+                board.makeMove(squares[Bitboards.row(Moves.from(move))][Bitboards.col(Moves.from(move))],
+                        squares[Bitboards.row(Moves.to(move))][Bitboards.col(Moves.to(move))]);
+            }
+            GameState state = new GameState(board);
+            if (finished && !state.isGameOver()) {
+                positions.add(state);
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,91 @@
+package database;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    private static final String TEST_DB_PATH = "test_pool.db";
+    private static final String TEST_DB_URL = "jdbc:sqlite:" + TEST_DB_PATH;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(TEST_DB_URL, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    @Test
+    void testConnectionsAreReusedUpToThePoolSize() throws SQLException {
+        for (int i = 0; i < 50; i++) {
+            try (PooledConnection conn = pool.borrow()) {
+                assertNotNull(conn.connection());
+            }
+        }
+        List<PooledConnection> held = new ArrayList<>();
+        held.add(pool.borrow());
+        held.add(pool.borrow());
+        held.forEach(PooledConnection::close);
+
+        assertEquals(2, pool.getOpenedCount());
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(52, pool.getBorrowCount());
+    }
+
+    @Test
+    void testSchemaIsReadyOnFirstBorrow() throws SQLException {
+        try (PooledConnection conn = pool.borrow()) {
+            assertTrue(UserService.register(conn, "carol", "secret", null));
+            assertTrue(UserService.getUserId(conn, "carol") > 0);
+        }
+    }
+
+    @Test
+    void testStatementsArePreparedOncePerConnection() throws SQLException {
+        try (PooledConnection conn = pool.borrow()) {
+            PreparedStatement first = conn.prepare("SELECT COUNT(*) FROM games WHERE white_id = ?");
+            first.setInt(1, 7);
+            first.executeQuery().close();
+        }
+        try (PooledConnection conn = pool.borrow()) {
+            PreparedStatement again = conn.prepare("SELECT COUNT(*) FROM games WHERE white_id = ?");
+            again.setInt(1, 8);
+            try (ResultSet rs = again.executeQuery()) {
+                assertTrue(rs.next());
+            }
+            assertEquals(1, conn.getCacheHits());
+        }
+    }
+
+    @Test
+    void testUncommittedWorkIsRolledBackOnReturn() throws SQLException {
+        try (PooledConnection conn = pool.borrow()) {
+            conn.connection().setAutoCommit(false);
+            conn.prepare("INSERT INTO games (white_id, black_id, result) VALUES (1, 2, '*')").executeUpdate();
+        }
+        try (PooledConnection conn = pool.borrow();
+             ResultSet rs = conn.prepare("SELECT COUNT(*) FROM games").executeQuery()) {
+            assertTrue(conn.connection().getAutoCommit());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testClosedPoolRefusesToLend() {
+        pool.close();
+
+        assertThrows(SQLException.class, pool::borrow);
+    }
+}
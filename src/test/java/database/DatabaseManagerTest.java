@@ -0,0 +1,72 @@
+package database;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.sql.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseManagerTest {
+
+    private static final String TEST_DB_PATH = "test_schema.db";
+    private static final String TEST_DB_URL = "jdbc:sqlite:" + TEST_DB_PATH;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection(TEST_DB_URL);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    @Test
+    void testOldSchemaIsMigratedOnce() throws SQLException {
+        DatabaseManager.migrate(conn, 1);
+        assertEquals(1, DatabaseManager.schemaVersion(conn));
+        assertTrue(plan("SELECT pgn_text FROM games WHERE white_id = 1 OR black_id = 1").contains("SCAN"));
+
+        DatabaseManager.initializeSchema(conn);
+        DatabaseManager.initializeSchema(conn);
+
+        assertEquals(DatabaseManager.SCHEMA_VERSION, DatabaseManager.schemaVersion(conn));
+    }
+
+    @Test
+    void testHistoryQueriesUseTheIndexes() throws SQLException {
+        DatabaseManager.initializeSchema(conn);
+
+        String history = plan("SELECT pgn_text FROM games WHERE white_id = 1 OR black_id = 1");
+        String moves = plan("SELECT move_text FROM moves WHERE game_id = 1 ORDER BY move_number");
+
+        assertTrue(history.contains("idx_games_white") && history.contains("idx_games_black"), history);
+        assertTrue(moves.contains("idx_moves_game") && !moves.contains("TEMP B-TREE"), moves);
+    }
+
+    @Test
+    void testPooledConnectionsUseWriteAheadLogging() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(TEST_DB_URL, 1);
+             PooledConnection pooled = pool.borrow();
+             ResultSet mode = pooled.prepare("PRAGMA journal_mode").executeQuery();
+             ResultSet sync = pooled.prepare("PRAGMA synchronous").executeQuery()) {
+            assertEquals("wal", mode.getString(1));
+            assertEquals(1, sync.getInt(1)); // NORMAL
+        }
+    }
+
+    private String plan(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString("detail")).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
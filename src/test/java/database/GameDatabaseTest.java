@@ -15,18 +15,15 @@ public class GameDatabaseTest {
 
     private static final String TEST_DB_PATH = "test_chess.db";
     private static final String TEST_DB_URL = "jdbc:sqlite:" + TEST_DB_PATH;
+    private ConnectionPool pool;
     private GameDatabase db;
 
     @BeforeAll
     void setupSchema() throws SQLException {
-        db = new GameDatabase() {
-            @Override
-            protected Connection getConnection() throws SQLException {
-                return DriverManager.getConnection(TEST_DB_URL);
-            }
-        };
+        pool = new ConnectionPool(TEST_DB_URL, 2);
+        db = new GameDatabase(pool);
 
-        try (Connection conn = db.getConnection();
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL);
              Statement stmt = conn.createStatement()) {
             stmt.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS games (
@@ -53,6 +50,7 @@ public class GameDatabaseTest {
 
     @AfterAll
     void cleanup() {
+        pool.close();
         File file = new File(TEST_DB_PATH);
         if (file.exists()) {
             file.delete();
@@ -75,7 +73,7 @@ public class GameDatabaseTest {
 
         // Fetch the last inserted game ID
         int gameId = -1;
-        try (Connection conn = db.getConnection();
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL);
              PreparedStatement stmt = conn.prepareStatement("SELECT id FROM games ORDER BY id DESC LIMIT 1")) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -97,4 +95,52 @@ public class GameDatabaseTest {
         String result = db.loadPGNByGameId(-1);
         assertNull(result, "Should return null for invalid game ID");
     }
+
+    @Test
+    void testHistoryPagesAreKeysetOrderedSummaries() throws SQLException {
+        List<ChessMove> moves = List.of(new ChessMove(6, 4, 4, 4), new ChessMove(1, 4, 3, 4));
+        List<FinishedGame> games = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            games.add(i % 2 == 0
+                    ? new FinishedGame(50, 51, "1-0", moves, "pgn " + i)
+                    : new FinishedGame(52, 50, "1-0", moves.subList(0, 1), "pgn " + i));
+        }
+        games.add(new FinishedGame(51, 52, "0-1", moves, "someone else's"));
+        db.insertGames(games);
+        // The pool created the users table with the rest of the schema
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL);
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO users (id, username, password_hash) VALUES (51, 'bob', 'x')");
+        }
+
+        HistoryPage first = db.loadHistory(50, HistoryPage.FIRST, 3);
+        db.insertGames(List.of(new FinishedGame(50, 51, "*", moves, "played meanwhile")));
+        HistoryPage second = db.loadHistory(50, first.nextCursor(), 3);
+        HistoryPage last = db.loadHistory(50, second.nextCursor(), 3);
+
+        assertEquals(3, first.games().size());
+        assertEquals(3, second.games().size());
+        assertEquals(1, last.games().size());
+        assertTrue(first.hasMore() && second.hasMore());
+        assertFalse(last.hasMore());
+        List<GameSummary> all = new ArrayList<>(first.games());
+        all.addAll(second.games());
+        all.addAll(last.games());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).id() > all.get(i).id(), "newest first, no repeats");
+        }
+
+        GameSummary newest = all.get(0); // game 6: white against bob
+        assertTrue(newest.playedWhite());
+        assertEquals("bob", newest.opponentName());
+        assertEquals("won", newest.outcome());
+        assertEquals(2, newest.moveCount());
+        GameSummary asBlack = all.get(1); // game 5: black against user 52, who has no account
+        assertFalse(asBlack.playedWhite());
+        assertEquals(52, asBlack.opponentId());
+        assertNull(asBlack.opponentName());
+        assertEquals("lost", asBlack.outcome());
+        assertEquals(1, asBlack.moveCount());
+        assertEquals("pgn 6", db.loadPGNByGameId(newest.id()));
+    }
 }
@@ -0,0 +1,174 @@
+package database;
+
+import org.junit.jupiter.api.*;
+import shared.ChessMove;
+
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GamePersisterTest {
+
+    private static final String TEST_DB_PATH = "test_persister.db";
+    private static final String TEST_DB_URL = "jdbc:sqlite:" + TEST_DB_PATH;
+
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final ConnectionPool pool = new ConnectionPool(TEST_DB_URL, 2);
+    private GamePersister persister;
+
+    private final GameDatabase db = new GameDatabase(pool) {
+        @Override
+        public void insertGames(List<FinishedGame> games) throws SQLException {
+            transactions.incrementAndGet();
+            super.insertGames(games);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (persister != null) {
+            persister.close();
+        }
+        pool.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    private static FinishedGame game(int whiteId, String result) {
+        List<ChessMove> moves = List.of(new ChessMove(6, 4, 4, 4), new ChessMove(1, 4, 3, 4));
+        return new FinishedGame(whiteId, whiteId + 1, result, moves, "1. e2e4 e7e5 " + result);
+    }
+
+    @Test
+    void testBurstOfGamesFoldsIntoFewTransactions() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        persister = new GamePersister(new GameDatabase(pool) {
+            @Override
+            public void insertGames(List<FinishedGame> games) throws SQLException {
+                if (writerBusy.getCount() > 0) {
+                    writerBusy.countDown();
+                    try {
+                        release.await(); // hold the writer so the rest of the burst piles up
+                    } catch (InterruptedException e) {
+                        throw new SQLException(e);
+                    }
+                }
+                db.insertGames(games);
+            }
+        }, 1000);
+
+        persister.submit(game(0, "1-0"));
+        assertTrue(writerBusy.await(2, TimeUnit.SECONDS));
+        for (int i = 1; i < 100; i++) {
+            assertTrue(persister.submit(game(i, "0-1")));
+        }
+        assertEquals(99, persister.getQueueDepth());
+        release.countDown();
+
+        assertTrue(persister.awaitIdle(10, TimeUnit.SECONDS));
+        assertEquals(100, persister.getSavedCount());
+        assertEquals(2, transactions.get());
+        assertEquals(2, persister.getBatchCount());
+        assertEquals(99, persister.getPeakQueueDepth());
+        assertEquals(0, persister.getQueueDepth());
+        assertEquals(200, count("SELECT COUNT(*) FROM moves"));
+        assertEquals(99, count("SELECT COUNT(*) FROM games WHERE result = '0-1'"));
+    }
+
+    @Test
+    void testFailedBatchIsRetried() throws Exception {
+        AtomicInteger failures = new AtomicInteger(2);
+        persister = new GamePersister(new GameDatabase(pool) {
+            @Override
+            public void insertGames(List<FinishedGame> games) throws SQLException {
+                if (failures.getAndDecrement() > 0) {
+                    throw new SQLException("database is locked");
+                }
+                db.insertGames(games);
+            }
+        }, 10);
+
+        persister.submit(game(1, "1/2-1/2"));
+
+        assertTrue(persister.awaitIdle(10, TimeUnit.SECONDS));
+        assertEquals(1, persister.getSavedCount());
+        assertEquals(2, persister.getRetryCount());
+        assertEquals(0, persister.getFailedCount());
+        assertEquals(1, count("SELECT COUNT(*) FROM games WHERE result = '1/2-1/2'"));
+    }
+
+    @Test
+    void testBadGameDoesNotSinkItsBatch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        persister = new GamePersister(new GameDatabase(pool) {
+            @Override
+            public void insertGames(List<FinishedGame> games) throws SQLException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+                for (FinishedGame game : games) {
+                    if (game.whiteId() == 13) throw new SQLException("constraint failed");
+                }
+                db.insertGames(games);
+            }
+        }, 10);
+
+        List<FinishedGame> games = new ArrayList<>();
+        for (int i = 10; i < 16; i++) {
+            games.add(game(i, "1-0"));
+        }
+        games.forEach(persister::submit);
+        release.countDown();
+
+        assertTrue(persister.awaitIdle(10, TimeUnit.SECONDS));
+        assertEquals(1, persister.getFailedCount());
+        assertEquals(5, persister.getSavedCount());
+        assertEquals(5, count("SELECT COUNT(*) FROM games"));
+    }
+
+    @Test
+    void testFullQueueRejectsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        persister = new GamePersister(new GameDatabase(pool) {
+            @Override
+            public void insertGames(List<FinishedGame> games) throws SQLException {
+                writerBusy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            }
+        }, 2);
+        persister.submit(game(0, "1-0"));
+        assertTrue(writerBusy.await(2, TimeUnit.SECONDS));
+
+        int accepted = 0;
+        for (int i = 1; i <= 10; i++) {
+            if (persister.submit(game(i, "1-0"))) accepted++;
+        }
+        release.countDown();
+
+        assertEquals(2, accepted);
+        assertEquals(8, persister.getRejectedCount());
+        assertTrue(persister.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(3, persister.getSavedCount());
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+}
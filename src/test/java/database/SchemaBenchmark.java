@@ -0,0 +1,180 @@
+package database;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * Measures the history queries and the per-game commit on a large database,
+ * first with the version 1 schema (no indexes, rollback journal, full sync)
+ * and then after {@link DatabaseManager#initializeSchema} and
+ * {@link DatabaseManager#configureConnection} (indexes, WAL, tuned pragmas).
+ *
+ * The database is built in the temp directory and deleted afterwards; at the
+ * default million games of twenty moves it takes under 1 GB. Run with:
+ * {@code java -cp target/classes:target/test-classes:<sqlite-jdbc.jar> database.SchemaBenchmark [games] [moves per game]}
+ */
+public class SchemaBenchmark {
+    private static final int USERS = 10_000;
+    private static final int HEAVY_USER = 0; // white in every 20th game, 50,000 at the default size
+    private static final int PAGE_SIZE = 50;
+    private static final int LOAD_CHUNK = 50_000;
+    private static final int COMMITS = 300;
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int movesPerGame = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        File file = new File(System.getProperty("java.io.tmpdir"), "chess-schema-benchmark.db");
+        delete(file);
+        String url = "jdbc:sqlite:" + file.getPath();
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            long start = System.nanoTime();
+            load(conn, games, movesPerGame);
+            System.out.printf("loaded %,d games with %,d moves in %.1f s (%.0f MB)%n", games,
+                    (long) games * movesPerGame, seconds(start), file.length() / 1e6);
+
+            execute(conn, "PRAGMA journal_mode = DELETE", "PRAGMA synchronous = FULL");
+            Random random = new Random(7);
+            System.out.println("schema v1, rollback journal, synchronous=FULL:");
+            measure(conn, games, random, 20);
+
+            start = System.nanoTime();
+            DatabaseManager.initializeSchema(conn);
+            DatabaseManager.configureConnection(conn);
+            System.out.printf("migrated to v%d in %.1f s%n", DatabaseManager.schemaVersion(conn), seconds(start));
+            System.out.println("schema v" + DatabaseManager.SCHEMA_VERSION + ", WAL, synchronous=NORMAL:");
+            measure(conn, games, random, 2000);
+            pageThroughHistory(url);
+        } finally {
+            delete(file);
+        }
+    }
+
+    private static void load(Connection conn, int games, int movesPerGame) throws SQLException {
+        execute(conn, "PRAGMA journal_mode = OFF", "PRAGMA synchronous = OFF");
+        DatabaseManager.migrate(conn, 1);
+        conn.setAutoCommit(false);
+        Random random = new Random(1);
+        try (PreparedStatement game = conn.prepareStatement(
+                "INSERT INTO games (id, white_id, black_id, result, status, pgn_text) VALUES (?, ?, ?, '1-0', 'finished', ?)");
+             PreparedStatement move = conn.prepareStatement(
+                     "INSERT INTO moves (game_id, move_number, move_text) VALUES (?, ?, 'e2e4')")) {
+            for (int id = 1; id <= games; id++) {
+                game.setInt(1, id);
+                game.setInt(2, id % 20 == 0 ? HEAVY_USER : 1 + random.nextInt(USERS - 1));
+                game.setInt(3, random.nextInt(USERS));
+                game.setString(4, "[Event \"Casual Game\"]\n\n1. e2e4 e7e5 2. g1f3 b8c6 1-0");
+                game.addBatch();
+                for (int ply = 1; ply <= movesPerGame; ply++) {
+                    move.setInt(1, id);
+                    move.setInt(2, ply);
+                    move.addBatch();
+                }
+                if (id % LOAD_CHUNK == 0 || id == games) {
+                    game.executeBatch();
+                    move.executeBatch();
+                    conn.commit();
+                }
+            }
+        }
+        conn.setAutoCommit(true);
+    }
+
+    private static void measure(Connection conn, int games, Random random, int lookups) throws SQLException {
+        try (PreparedStatement history = conn.prepareStatement(
+                "SELECT pgn_text FROM games WHERE white_id = ? OR black_id = ?");
+             PreparedStatement moves = conn.prepareStatement(
+                     "SELECT move_text FROM moves WHERE game_id = ? ORDER BY move_number");
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO games (white_id, black_id, result, status, pgn_text) VALUES (1, 2, '*', 'finished', '')")) {
+            long start = System.nanoTime();
+            long rows = 0;
+            for (int i = 0; i < lookups; i++) {
+                int user = random.nextInt(USERS);
+                history.setInt(1, user);
+                history.setInt(2, user);
+                rows += count(history);
+            }
+            System.out.printf("  history by user: %.3f ms per lookup (%d games each)%n",
+                    millis(start) / lookups, rows / lookups);
+
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                moves.setInt(1, 1 + random.nextInt(games));
+                count(moves);
+            }
+            System.out.printf("  moves by game:   %.3f ms per lookup%n", millis(start) / lookups);
+
+            // One game per transaction, as every finished game was committed before batching
+            start = System.nanoTime();
+            for (int i = 0; i < COMMITS; i++) {
+                insert.executeUpdate();
+            }
+            System.out.printf("  single-game commit: %.3f ms each%n", millis(start) / COMMITS);
+        }
+    }
+
+    // The heavy user's whole history at once, against one page at a time
+    private static void pageThroughHistory(String url) {
+        try (ConnectionPool pool = new ConnectionPool(url, 1)) {
+            GameDatabase db = new GameDatabase(pool);
+            db.loadHistory(HEAVY_USER, HistoryPage.FIRST, PAGE_SIZE); // opens the connection
+
+            long start = System.nanoTime();
+            int pgns = db.loadPGNsByUser(HEAVY_USER).size();
+            System.out.printf("heavy user: all %,d PGNs at once in %.1f ms%n", pgns, millis(start));
+
+            long cursor = HistoryPage.FIRST;
+            int pages = 0;
+            double firstPage = 0;
+            double slowest = 0;
+            start = System.nanoTime();
+            while (cursor != -1) {
+                long pageStart = System.nanoTime();
+                HistoryPage page = db.loadHistory(HEAVY_USER, cursor, PAGE_SIZE);
+                double took = millis(pageStart);
+                if (pages++ == 0) firstPage = took;
+                slowest = Math.max(slowest, took);
+                cursor = page.nextCursor();
+            }
+            System.out.printf("heavy user: %,d pages of %d summaries, first %.3f ms, mean %.3f ms, slowest %.3f ms%n",
+                    pages, PAGE_SIZE, firstPage, millis(start) / pages, slowest);
+        }
+    }
+
+    private static int count(PreparedStatement stmt) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) rows++;
+        }
+        return rows;
+    }
+
+    private static void execute(Connection conn, String... sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String s : sql) {
+                stmt.execute(s);
+            }
+        }
+    }
+
+    private static void delete(File file) {
+        for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static double millis(long start) {
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
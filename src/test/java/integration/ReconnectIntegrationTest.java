@@ -0,0 +1,110 @@
+package integration;
+
+import clientSide.clients.BotPlayerClient;
+import clientSide.utils.Reconnector;
+import clientSide.utils.ServerConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import serverSide.LobbyServer;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReconnectIntegrationTest {
+
+    private LobbyServer lobby;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        lobby = new LobbyServer(0);
+        Thread.startVirtualThread(lobby::start);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lobby.stop();
+    }
+
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    public void testBotResumesItsSeatAfterItsSocketDrops() throws Exception {
+        int gameId = lobby.createGame();
+
+        // White is the shipped bot client, joined the way Client joins
+        Socket botSocket = route(gameId);
+        ServerConnector botConnector = new ServerConnector(botSocket);
+        PrintWriter botWriter = new PrintWriter(botSocket.getOutputStream(), true);
+        botConnector.handleHeartbeat(botWriter);
+        MessageReader botReader = new MessageReader(botSocket.getInputStream());
+        botWriter.println("USER_ID:1");
+        String protocol = botReader.negotiate(botWriter, WireProtocol.DELTA);
+        String token = botReader.requestSession(botWriter);
+        botWriter.println("bot");
+        botReader.readLine();
+        assertEquals("ok", botReader.readLine());
+        assertEquals("white", botReader.readLine());
+
+        BotPlayerClient bot = new BotPlayerClient(true, botConnector, botReader, botWriter, null, null, botSocket);
+        bot.setMoveTimeMillis(20);
+        bot.setReconnector(new Reconnector("localhost", lobby.getPort(), gameId, 1, protocol, token,
+                new Reconnector.Connection(botSocket, botConnector, botWriter)));
+        Thread botThread = Thread.ofPlatform().name("bot").start(bot::runBot);
+
+        // Black is a plain text client that keeps its heartbeats going
+        try (Socket black = route(gameId)) {
+            black.setSoTimeout(5000);
+            ServerConnector blackConnector = new ServerConnector(black);
+            PrintWriter blackOut = new PrintWriter(black.getOutputStream(), true);
+            blackConnector.handleHeartbeat(blackOut);
+            BufferedReader blackIn = new BufferedReader(new InputStreamReader(black.getInputStream()));
+            blackOut.println("USER_ID:2\nplayer");
+            readUntil(blackIn, line -> line.equals("black"));
+            readUntil(blackIn, line -> line.contains("moveCount:1;"));
+
+            botSocket.close(); // the bot's connection drops mid-game
+            readUntil(blackIn, line -> line.equals("REQUEST_MOVE"));
+            blackOut.println("e7e5");
+
+            // Only a bot that took its seat back can make the third ply
+            readUntil(blackIn, line -> line.contains("moveCount:3;"));
+            assertNotNull(lobby.getGame(gameId));
+
+            blackOut.println("resign");
+            readUntil(blackIn, line -> line.equals("GAME_END"));
+            blackConnector.shutdown();
+        }
+        botThread.join(5000);
+        assertFalse(botThread.isAlive(), "the bot should stop once the game ends");
+    }
+
+    private Socket route(int gameId) throws IOException {
+        Socket socket = new Socket("localhost", lobby.getPort());
+        OutputStream out = socket.getOutputStream();
+        out.write((WireProtocol.GAME_PREFIX + gameId + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        return socket;
+    }
+
+    private static void readUntil(BufferedReader in, Predicate<String> match) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (match.test(line)) {
+                return;
+            }
+        }
+        fail("connection closed before the expected line");
+    }
+}
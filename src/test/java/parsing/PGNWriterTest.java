@@ -41,4 +41,12 @@ public class PGNWriterTest {
         assertTrue(pgn.contains("2. g1f3 b8c6"));
         assertTrue(pgn.endsWith("1-0"));
     }
+
+    @Test
+    void testResultForWinner() {
+        assertEquals("1-0", PGNWriter.resultFor("White"));
+        assertEquals("0-1", PGNWriter.resultFor("Black"));
+        assertEquals("1/2-1/2", PGNWriter.resultFor("Draw"));
+        assertEquals("*", PGNWriter.resultFor(null));
+    }
 }
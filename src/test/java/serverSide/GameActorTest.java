@@ -0,0 +1,87 @@
+package serverSide;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameActorTest {
+
+    private final ExecutorService scheduler = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testEventsAreHandledInOrderOneAtATime() throws InterruptedException {
+        List<Boolean> seen = new ArrayList<>();
+        AtomicBoolean busy = new AtomicBoolean();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1000);
+        GameActor actor = new GameActor(event -> {
+            if (!busy.compareAndSet(false, true)) overlaps.incrementAndGet();
+            seen.add(((GameEvent.FlagFell) event).white());
+            busy.set(false);
+            done.countDown();
+        }, scheduler);
+
+        for (int i = 0; i < 1000; i++) {
+            actor.post(new GameEvent.FlagFell(i % 2 == 0));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0, seen.get(i));
+        }
+        assertEquals(0, actor.getPendingCount());
+    }
+
+    @Test
+    public void testManyActorsShareTheScheduler() throws InterruptedException {
+        int games = 2000;
+        CountDownLatch done = new CountDownLatch(games * 3);
+        List<GameActor> actors = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            actors.add(new GameActor(event -> done.countDown(), scheduler));
+        }
+
+        // From several posting threads at once, as selector, readers and timers would
+        Thread[] posters = new Thread[3];
+        for (int p = 0; p < posters.length; p++) {
+            posters[p] = Thread.startVirtualThread(() -> actors.forEach(actor -> actor.post(new GameEvent.Start())));
+        }
+        for (Thread poster : posters) {
+            poster.join();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailingHandlerDoesNotStopTheMailbox() throws InterruptedException {
+        CountDownLatch handled = new CountDownLatch(2);
+        GameActor actor = new GameActor(event -> {
+            handled.countDown();
+            if (event instanceof GameEvent.Start) {
+                throw new IllegalStateException("boom");
+            }
+        }, scheduler);
+
+        actor.post(new GameEvent.Start());
+        actor.post(new GameEvent.FlagFell(true));
+
+        assertTrue(handled.await(2, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,116 @@
+package serverSide;
+
+import chess.model.TimeControl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.timer.TimerWheel;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameClockTest {
+
+    private TimerWheel timers;
+    private final BlockingQueue<Boolean> flags = new ArrayBlockingQueue<>(2);
+
+    @BeforeEach
+    public void setUp() {
+        timers = new TimerWheel("game-clock-test", 5, 64);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timers.close();
+    }
+
+    private GameClock clock(long baseMillis, long bonusMillis, TimeControl.Mode mode) {
+        return new GameClock(new TimeControl(baseMillis, bonusMillis, mode), timers, flags::add);
+    }
+
+    @Test
+    public void testPlayerWhoNeverMovesLosesOnTime() throws InterruptedException {
+        GameClock clock = clock(100, 0, TimeControl.Mode.INCREMENT);
+
+        clock.startTurn(false);
+
+        assertEquals(Boolean.FALSE, flags.poll(2, TimeUnit.SECONDS));
+        assertFalse(clock.endTurn(false), "a move after the flag must not count");
+    }
+
+    @Test
+    public void testIncrementIsAddedAfterTheMove() {
+        GameClock clock = clock(1_000, 500, TimeControl.Mode.INCREMENT);
+
+        clock.startTurn(true);
+        assertTrue(clock.endTurn(true));
+
+        long white = clock.getRemainingMillis(true);
+        assertTrue(white > 1_400 && white <= 1_500, "white " + white);
+        assertEquals(1_000, clock.getRemainingMillis(false));
+    }
+
+    @Test
+    public void testSimpleDelayIsSpentBeforeTheClockRuns() throws InterruptedException {
+        GameClock clock = clock(1_000, 200, TimeControl.Mode.SIMPLE_DELAY);
+
+        clock.startTurn(true);
+        Thread.sleep(100);
+        assertTrue(clock.endTurn(true));
+
+        assertEquals(1_000, clock.getRemainingMillis(true));
+    }
+
+    @Test
+    public void testBronsteinRefundsNoMoreThanTheTimeUsed() throws InterruptedException {
+        GameClock clock = clock(1_000, 5_000, TimeControl.Mode.BRONSTEIN);
+
+        clock.startTurn(true);
+        Thread.sleep(100);
+        assertTrue(clock.endTurn(true));
+
+        long white = clock.getRemainingMillis(true);
+        assertTrue(white >= 995 && white <= 1_000, "white " + white);
+    }
+
+    @Test
+    public void testRetryAfterInvalidMoveKeepsTheTurnRunning() throws InterruptedException {
+        GameClock clock = clock(1_000, 0, TimeControl.Mode.INCREMENT);
+
+        clock.startTurn(true);
+        Thread.sleep(100);
+        clock.startTurn(true);
+        clock.endTurn(true);
+
+        assertTrue(clock.getRemainingMillis(true) <= 910);
+    }
+
+    @Test
+    public void testMoveBetweenDeadlineAndTimeoutStillFlags() throws InterruptedException {
+        // Ticks far coarser than the time control: the timeout fires long after the deadline
+        try (TimerWheel coarse = new TimerWheel("game-clock-coarse", 1_000, 64)) {
+            GameClock clock = new GameClock(new TimeControl(50, 0, TimeControl.Mode.INCREMENT), coarse, flags::add);
+
+            clock.startTurn(true);
+            Thread.sleep(100);
+            assertNull(flags.poll(), "the wheel has not ticked yet");
+            assertFalse(clock.endTurn(true));
+
+            assertEquals(Boolean.TRUE, flags.poll());
+            assertNull(flags.poll(1_500, TimeUnit.MILLISECONDS), "the flag falls once");
+        }
+    }
+
+    @Test
+    public void testStoppedClockNeverFlags() throws InterruptedException {
+        GameClock clock = clock(50, 0, TimeControl.Mode.INCREMENT);
+
+        clock.startTurn(true);
+        clock.stop();
+
+        assertNull(flags.poll(200, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,205 @@
+package serverSide;
+
+import shared.GameState;
+import shared.protocol.MessageWriter;
+import shared.protocol.WireProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Idle-spectator test for {@link LobbyServer}: N spectators join one game and
+ * only send heartbeats. Reports the platform threads and heap the server needs
+ * to hold them, and how long one game state takes to reach all of them.
+ *
+ * The spectators live in the same JVM and are driven by two client threads (a
+ * selector that drains what they receive and a heartbeat loop), so the thread
+ * count is the server's plus those two. Each spectator holds two descriptors
+ * here (both ends of its socket); mind {@code ulimit -n}. Run with:
+ * {@code java -cp target/classes:target/test-classes serverSide.IdleSpectatorBenchmark [spectators] [nio|blocking]}
+ */
+public class IdleSpectatorBenchmark {
+    private static final long HEARTBEAT_MILLIS = 250;
+    private static final int BROADCASTS = 20;
+
+    private static final AtomicLong received = new AtomicLong();
+    private static final List<SocketChannel> channels = new CopyOnWriteArrayList<>();
+    private static final Queue<SocketChannel> toRegister = new ConcurrentLinkedQueue<>();
+
+    public static void main(String[] args) throws Exception {
+        int spectators = args.length > 0 ? Integer.parseInt(args[0]) : 9000;
+        LobbyServer.Transport transport = LobbyServer.Transport.valueOf(
+                (args.length > 1 ? args[1] : "nio").toUpperCase());
+        System.setProperty("server.persistGames", "false");
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        Logger.getLogger("").setLevel(Level.OFF);
+
+        LobbyServer lobby = new LobbyServer(0, transport);
+        Thread.ofPlatform().daemon().start(lobby::start);
+        int gameId = lobby.createGame();
+        Server game = lobby.getGame(gameId);
+
+        int baseThreads = threadCount();
+        long baseHeap = usedHeap();
+        Selector selector = Selector.open();
+        Thread.ofPlatform().daemon().name("spectator-reader").start(() -> drain(selector));
+        Thread.ofPlatform().daemon().name("spectator-heartbeats").start(IdleSpectatorBenchmark::beat);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < spectators; i++) {
+            join(lobby.getPort(), gameId, i);
+            selector.wakeup();
+        }
+        while (game.getSpectators().size() < spectators) {
+            Thread.sleep(50);
+        }
+        double joinSeconds = (System.nanoTime() - start) / 1e9;
+        Thread.sleep(2000); // let handshakes settle and a few heartbeat sweeps pass
+
+        int threads = threadCount();
+        long heap = usedHeap();
+        console.printf("%d spectators via %s joined in %.1f s (%d cores)%n",
+                spectators, transport, joinSeconds, Runtime.getRuntime().availableProcessors());
+        console.printf("platform threads: %d before, %d with spectators (2 of them the benchmark's clients)%n",
+                baseThreads, threads);
+        console.printf("heap: %.1f MB more, %.1f KB per spectator (client and server side)%n",
+                (heap - baseHeap) / 1e6, (heap - baseHeap) / 1e3 / spectators);
+
+        GameState state = GameState.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1");
+        long frameBytes = frameBytes(state);
+        long[] fanOut = new long[BROADCASTS];
+        for (int round = 0; round < BROADCASTS; round++) {
+            long target = received.get() + frameBytes * spectators;
+            long sent = System.nanoTime();
+            game.broadcast(state);
+            while (received.get() < target) {
+                Thread.onSpinWait();
+            }
+            fanOut[round] = System.nanoTime() - sent;
+        }
+        Arrays.sort(fanOut);
+        console.printf("broadcast of a %d-byte frame to all: median %.2f ms, max %.2f ms; %d still watching%n",
+                frameBytes, fanOut[BROADCASTS / 2] / 1e6, fanOut[BROADCASTS - 1] / 1e6, game.getSpectators().size());
+        if (lobby.getNioServer() != null) {
+            console.printf("direct buffers allocated: %d%n", lobby.getNioServer().getPool().getAllocatedCount());
+        }
+        lobby.stop();
+    }
+
+    private static void join(int port, int gameId, int userId) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+        write(channel, WireProtocol.GAME_PREFIX + gameId + "\n");
+        readLine(channel); // heartbeat interval
+        write(channel, "USER_ID:" + userId + "\n" + WireProtocol.HELLO_PREFIX + WireProtocol.BINARY + "\nspectator\n");
+        channel.configureBlocking(false);
+        channels.add(channel);
+        toRegister.add(channel);
+    }
+
+    private static long frameBytes(GameState state) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(out);
+        writer.setBinary(true);
+        writer.sendGameState(state);
+        return out.size();
+    }
+
+    private static void drain(Selector selector) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (true) {
+                selector.select();
+                SocketChannel pending;
+                while ((pending = toRegister.poll()) != null) {
+                    pending.register(selector, SelectionKey.OP_READ);
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    buffer.clear();
+                    int read = ((SocketChannel) key.channel()).read(buffer);
+                    if (read < 0) {
+                        key.cancel();
+                    } else {
+                        received.addAndGet(read);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void beat() {
+        ByteBuffer beat = ByteBuffer.wrap((WireProtocol.HEARTBEAT + "\n").getBytes(StandardCharsets.UTF_8));
+        while (true) {
+            for (SocketChannel channel : channels) {
+                try {
+                    write(channel, beat.rewind());
+                } catch (IOException e) {
+                    channels.remove(channel);
+                }
+            }
+            try {
+                Thread.sleep(HEARTBEAT_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void write(SocketChannel channel, String text) throws IOException {
+        write(channel, ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    // Byte at a time, so nothing after the line is consumed
+    private static String readLine(SocketChannel channel) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            one.clear();
+            if (channel.read(one) < 0) throw new IOException("Server closed the connection");
+            char c = (char) one.get(0);
+            if (c == '\n') return line.toString();
+            if (c != '\r') line.append(c);
+        }
+    }
+
+    private static int threadCount() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,198 @@
+package serverSide;
+
+import chess.model.bitboard.MoveList;
+import chess.model.bitboard.Moves;
+import shared.GameState;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Load test for {@link LobbyServer}: N concurrent bot-vs-bot games on one port,
+ * reporting moves per second and move latency (move sent until the server's
+ * update for it arrives back at the mover).
+ *
+ * The bots speak the real client protocol (routing line, in-band heartbeats,
+ * USER_ID, binary-delta/1, "bot" role) but pick random legal moves, so the
+ * numbers measure the server rather than the search. Each game ends by
+ * resignation after a fixed number of plies unless it finishes earlier. Run with:
+ * {@code java -cp target/classes:target/test-classes serverSide.LobbyLoadBenchmark [games] [plies] [nio|blocking]}
+ */
+public class LobbyLoadBenchmark {
+    private static final long HEARTBEAT_MILLIS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        LobbyServer.Transport transport = LobbyServer.Transport.valueOf(
+                (args.length > 2 ? args[2] : "nio").toUpperCase());
+        System.setProperty("server.persistGames", "false");
+
+        PrintStream console = System.out;
+        // Server and handlers log every message; keep the report readable
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        Logger.getLogger("").setLevel(Level.OFF);
+
+        LobbyServer lobby = new LobbyServer(0, transport);
+        Thread.ofPlatform().daemon().start(lobby::start);
+        console.printf("%d games, %d plies each, %s transport, %d cores, port %d%n",
+                games, plies, transport, Runtime.getRuntime().availableProcessors(), lobby.getPort());
+
+        List<LoadBot> bots = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            int gameId = lobby.createGame();
+            bots.add(new LoadBot(lobby.getPort(), gameId, 2 * game, plies));
+            bots.add(new LoadBot(lobby.getPort(), gameId, 2 * game + 1, plies));
+        }
+
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (LoadBot bot : bots) {
+            threads.add(Thread.startVirtualThread(bot));
+        }
+        int peakGames = 0;
+        for (Thread thread : threads) {
+            while (!thread.join(Duration.ofMillis(100))) {
+                peakGames = Math.max(peakGames, lobby.getGames().size());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lobby.stop();
+
+        long[] latencies = bots.stream().flatMapToLong(bot -> Arrays.stream(bot.latencies())).sorted().toArray();
+        int failed = (int) bots.stream().filter(bot -> bot.error != null).count();
+        console.printf("%d moves in %.1f s: %.0f moves/s, peak %d active games, %d bot(s) failed%n",
+                latencies.length, seconds, latencies.length / seconds, peakGames, failed);
+        if (latencies.length > 0) {
+            console.printf("move latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                    latencies[latencies.length - 1] / 1e6);
+        }
+        bots.stream().filter(bot -> bot.error != null).limit(3)
+                .forEach(bot -> console.println("failure: " + bot.error));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /** One side of a game: answers REQUEST_MOVE with a random legal move and times the round trip. */
+    private static final class LoadBot implements Runnable {
+        private static final AtomicInteger SEEDS = new AtomicInteger();
+
+        private final int port;
+        private final int gameId;
+        private final int userId;
+        private final int maxPlies;
+        private final Random random = new Random(SEEDS.incrementAndGet());
+        private final long[] samples;
+        private int count;
+        private volatile Exception error;
+
+        LoadBot(int port, int gameId, int userId, int maxPlies) {
+            this.port = port;
+            this.gameId = gameId;
+            this.userId = userId;
+            this.maxPlies = maxPlies;
+            this.samples = new long[maxPlies];
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(samples, count);
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket("localhost", port)) {
+                PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+                writer.println(WireProtocol.GAME_PREFIX + gameId);
+                MessageReader reader = new MessageReader(socket.getInputStream());
+                String interval = reader.readLine();
+                if (!interval.startsWith(WireProtocol.HEARTBEAT_INTERVAL_PREFIX)) {
+                    throw new IllegalStateException("Game " + gameId + " refused the bot: " + interval);
+                }
+                Thread beating = Thread.startVirtualThread(() -> beat(writer));
+                try {
+                    writer.println("USER_ID:" + userId);
+                    reader.negotiate(writer, WireProtocol.DELTA);
+                    writer.println("bot");
+                    reader.readLine();
+                    if (!"ok".equals(reader.readLine())) {
+                        throw new IllegalStateException("Game " + gameId + " refused the bot");
+                    }
+                    reader.readLine(); // color
+                    play(reader, writer);
+                } finally {
+                    beating.interrupt();
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+
+        private void play(MessageReader reader, PrintWriter writer) throws Exception {
+            GameState state = null;
+            long sentAt = 0;
+            int awaitedCount = -1;
+            Message message;
+            while ((message = reader.read()) != null) {
+                if (message.isGameState()) {
+                    state = message.gameState();
+                    if (awaitedCount >= 0 && state.getMoveCount() >= awaitedCount) {
+                        samples[count++] = System.nanoTime() - sentAt;
+                        awaitedCount = -1;
+                    }
+                    continue;
+                }
+                switch (message.text()) {
+                    case "REQUEST_MOVE" -> {
+                        MoveList moves = new MoveList();
+                        state.toPosition().generateLegalMoves(moves);
+                        if (state.getMoveCount() >= maxPlies || moves.isEmpty() || count == samples.length) {
+                            writer.println("resign");
+                        } else {
+                            awaitedCount = state.getMoveCount() + 1;
+                            sentAt = System.nanoTime();
+                            writer.println(Moves.toNotation(moves.get(random.nextInt(moves.size()))));
+                        }
+                    }
+                    case "INVALID_MOVE" -> throw new IllegalStateException("Server rejected a legal move: "
+                            + reader.readLine() + " at " + state.toFen());
+                    case "GAME_END" -> {
+                        reader.readLine();
+                        return;
+                    }
+                    default -> {
+                        // informational lines
+                    }
+                }
+            }
+        }
+
+        private static void beat(PrintWriter beats) {
+            while (!Thread.currentThread().isInterrupted()) {
+                beats.println(WireProtocol.HEARTBEAT);
+                try {
+                    Thread.sleep(HEARTBEAT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package serverSide;
+
+import chess.model.TimeControl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.protocol.WireProtocol;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LobbyServerTest {
+
+    private LobbyServer lobby;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        lobby = new LobbyServer(0);
+        Thread.startVirtualThread(lobby::start);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lobby.stop();
+    }
+
+    @Test
+    public void testGamesAreSeparateSessions() {
+        int first = lobby.createGame();
+        int second = lobby.createGame();
+
+        assertNotEquals(first, second);
+        assertFalse(lobby.createGame(first));
+        assertEquals(first, lobby.getGame(first).getGameId());
+        assertNotSame(lobby.getGame(first).getPlayers(), lobby.getGame(second).getPlayers());
+        assertEquals(2, lobby.getGames().size());
+    }
+
+    @Test
+    public void testFinishedGameLeavesRegistry() {
+        int gameId = lobby.createGame();
+
+        lobby.getGame(gameId).endGame();
+
+        assertNull(lobby.getGame(gameId));
+        assertTrue(lobby.createGame(gameId));
+    }
+
+    @Test
+    public void testUnknownGameIsRefused() throws IOException {
+        try (Socket socket = new Socket("localhost", lobby.getPort())) {
+            new PrintWriter(socket.getOutputStream(), true).println(WireProtocol.GAME_PREFIX + 42);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            assertEquals(WireProtocol.GAME_NOT_FOUND, in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    public void testKnownGameStartsHandshake() throws IOException {
+        int gameId = lobby.createGame();
+        try (Socket socket = new Socket("localhost", lobby.getPort())) {
+            new PrintWriter(socket.getOutputStream(), true).println(WireProtocol.GAME_PREFIX + gameId);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            assertTrue(in.readLine().startsWith(WireProtocol.HEARTBEAT_INTERVAL_PREFIX));
+        }
+    }
+
+    @Test
+    public void testSilentPlayerLosesOnTime() throws IOException {
+        int gameId = lobby.createGame();
+        lobby.getGame(gameId).setTimeControl(new TimeControl(300, 0, TimeControl.Mode.INCREMENT));
+        try (Socket white = join(gameId, 1); Socket black = join(gameId, 2)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(white.getInputStream()));
+            white.setSoTimeout(5000);
+
+            // White never answers REQUEST_MOVE; the flag, not the heartbeat timeout, ends the game
+            String line;
+            boolean lostOnTime = false;
+            while ((line = in.readLine()) != null) {
+                lostOnTime |= line.contains("gameOver:true") && line.contains("winner:Black");
+            }
+
+            assertTrue(lostOnTime);
+            long deadline = System.currentTimeMillis() + 2000;
+            while (lobby.getGame(gameId) != null && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertNull(lobby.getGame(gameId));
+        }
+    }
+
+    @Test
+    public void testResigningOffTurnAwardsTheGame() throws IOException {
+        int gameId = lobby.createGame();
+        try (Socket white = join(gameId, 1); Socket black = join(gameId, 2)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(black.getInputStream()));
+            black.setSoTimeout(5000);
+
+            // Either may be seated first; if this is Black it resigns before White has moved
+            String line;
+            String winner = null;
+            boolean opponentWon = false;
+            while ((line = in.readLine()) != null) {
+                if (winner == null && (line.equals("black") || line.equals("white"))) {
+                    new PrintWriter(black.getOutputStream(), true).println("resign");
+                    winner = line.equals("black") ? "White" : "Black";
+                }
+                opponentWon |= line.contains("gameOver:true") && line.contains("winner:" + winner);
+            }
+
+            assertTrue(opponentWon);
+        }
+    }
+
+    @Test
+    public void testPlayerResumesAfterDroppedConnection() throws IOException {
+        int gameId = lobby.createGame();
+        Socket white = connect(gameId, 1, WireProtocol.SESSION_REQUEST + "\nplayer");
+        BufferedReader whiteIn = reader(white);
+        String token = readUntil(whiteIn, line -> line.startsWith(WireProtocol.SESSION_PREFIX))
+                .substring(WireProtocol.SESSION_PREFIX.length());
+        readUntil(whiteIn, line -> line.equals("white"));
+        try (Socket black = join(gameId, 2)) {
+            readUntil(whiteIn, line -> line.equals("REQUEST_MOVE"));
+            white.close();
+
+            // The seat is held: White comes back on a new connection and is asked again
+            try (Socket resumed = connect(gameId, 1, WireProtocol.resumeRequest(token, 0))) {
+                BufferedReader in = reader(resumed);
+                readUntil(in, line -> line.equals("Session resumed"));
+                assertEquals("ok", in.readLine());
+                readUntil(in, line -> line.equals("REQUEST_MOVE"));
+                new PrintWriter(resumed.getOutputStream(), true).println("e2e4");
+
+                readUntil(reader(black), line -> line.contains("moveCount:1;"));
+                assertNotNull(lobby.getGame(gameId));
+            }
+        }
+    }
+
+    @Test
+    public void testSeatIsGivenUpAfterTheGracePeriod() throws IOException {
+        int gameId = lobby.createGame();
+        lobby.getGame(gameId).setReconnectGraceMillis(100);
+        Socket white = connect(gameId, 1, WireProtocol.SESSION_REQUEST + "\nplayer");
+        BufferedReader whiteIn = reader(white);
+        String token = readUntil(whiteIn, line -> line.startsWith(WireProtocol.SESSION_PREFIX))
+                .substring(WireProtocol.SESSION_PREFIX.length());
+        readUntil(whiteIn, line -> line.equals("white"));
+        try (Socket black = join(gameId, 2)) {
+            readUntil(whiteIn, line -> line.equals("REQUEST_MOVE"));
+            white.close();
+
+            readUntil(reader(black), line -> line.equals("GAME_END"));
+            try (Socket late = connect(gameId, 1, WireProtocol.resumeRequest(token, 0))) {
+                // The game ended and left the lobby, its sessions with it
+                assertEquals(WireProtocol.GAME_NOT_FOUND, reader(late).readLine());
+            }
+        }
+    }
+
+    private Socket connect(int gameId, int userId, String request) throws IOException {
+        Socket socket = new Socket("localhost", lobby.getPort());
+        socket.setSoTimeout(5000);
+        new PrintWriter(socket.getOutputStream(), true)
+                .println(WireProtocol.GAME_PREFIX + gameId + "\nUSER_ID:" + userId + "\n" + request);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream()));
+    }
+
+    private static String readUntil(BufferedReader in, Predicate<String> match) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (match.test(line)) {
+                return line;
+            }
+        }
+        fail("connection closed before the expected line");
+        return null;
+    }
+
+    private Socket join(int gameId, int userId) throws IOException {
+        Socket socket = new Socket("localhost", lobby.getPort());
+        new PrintWriter(socket.getOutputStream(), true)
+                .println(WireProtocol.GAME_PREFIX + gameId + "\nUSER_ID:" + userId + "\nplayer");
+        return socket;
+    }
+
+    @Test
+    public void testReadGameIdStopsAtLineEnd() throws IOException {
+        InputStream in = new ByteArrayInputStream("GAME:17\r\nUSER_ID:3\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(17, LobbyServer.readGameId(in));
+        assertEquals('U', in.read());
+        assertEquals(-1, LobbyServer.readGameId(new ByteArrayInputStream("USER_ID:3\n".getBytes())));
+        assertEquals(-1, LobbyServer.readGameId(new ByteArrayInputStream("GAME:x\n".getBytes())));
+    }
+}
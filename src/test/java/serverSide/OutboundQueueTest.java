@@ -0,0 +1,184 @@
+package serverSide;
+
+import chess.model.Fen;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import shared.ChessMove;
+import shared.GameState;
+import shared.protocol.Broadcast;
+import shared.protocol.Frame;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.MessageWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundQueueTest {
+
+    private final StalledStream stream = new StalledStream();
+    private final MessageWriter writer = new MessageWriter(stream, false);
+    private final CountDownLatch slow = new CountDownLatch(1);
+    private OutboundQueue queue;
+
+    @AfterEach
+    public void tearDown() {
+        stream.release.countDown();
+        queue.stop();
+    }
+
+    private OutboundQueue start(int capacity, OutboundQueue.Policy policy) throws InterruptedException {
+        queue = new OutboundQueue(writer, capacity, policy, 60_000, slow::countDown, () -> { });
+        queue.start();
+        // The first update is taken by the writer, which then blocks on the stalled socket
+        queue.offer(Broadcast.of(states().get(0)), false);
+        waitFor(() -> queue.getQueueDepth() == 0 && stream.blocked);
+        return queue;
+    }
+
+    // Knights out and back: every state differs in its move count
+    private static List<GameState> states() {
+        List<GameState> states = new ArrayList<>();
+        GameState state = GameState.fromFen(Fen.START_POSITION);
+        states.add(state);
+        ChessMove[] moves = {new ChessMove(7, 6, 5, 5), new ChessMove(0, 6, 2, 5),
+                new ChessMove(5, 5, 7, 6), new ChessMove(2, 5, 0, 6)};
+        for (int i = 0; i < 20; i++) {
+            state = state.copy();
+            state.makeMove(moves[i % moves.length]);
+            states.add(state);
+        }
+        return states;
+    }
+
+    @Test
+    public void testStalledClientNeverBlocksTheSenderAndCoalesces() throws Exception {
+        start(4, OutboundQueue.Policy.COALESCE);
+        List<GameState> states = states();
+
+        long start = System.nanoTime();
+        for (int i = 1; i < states.size(); i++) {
+            queue.offer(Broadcast.of(states.get(i)), false);
+            assertTrue(queue.getQueueDepth() <= 4);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(queue.getCoalescedCount() > 0);
+        assertEquals(4, queue.getPeakQueueDepth());
+
+        stream.release.countDown();
+        waitFor(() -> queue.getLagMillis() == 0);
+        List<Message> received = read(false);
+        assertEquals(queue.getSentCount(), received.size());
+        assertEquals(20, received.get(received.size() - 1).gameState().getMoveCount());
+    }
+
+    @Test
+    public void testDropDiscardsOldestUpdatesButKeepsControlMessages() throws Exception {
+        start(3, OutboundQueue.Policy.DROP);
+        List<GameState> states = states();
+        queue.offer(Frame.line("REQUEST_MOVE", false));
+        for (int i = 1; i <= 10; i++) {
+            queue.offer(Broadcast.of(states.get(i)), false);
+        }
+        assertEquals(3, queue.getQueueDepth());
+        assertEquals(8, queue.getDroppedCount());
+
+        stream.release.countDown();
+        waitFor(() -> queue.getSentCount() == 4);
+        List<Message> received = read(false);
+        assertEquals(0, received.get(0).gameState().getMoveCount());
+        assertEquals("REQUEST_MOVE", received.get(1).text());
+        assertEquals(9, received.get(2).gameState().getMoveCount());
+        assertEquals(10, received.get(3).gameState().getMoveCount());
+    }
+
+    @Test
+    public void testDisconnectPolicyGivesUpOnFullQueue() throws Exception {
+        start(2, OutboundQueue.Policy.DISCONNECT);
+        List<GameState> states = states();
+        queue.offer(Broadcast.of(states.get(1)), false);
+        queue.offer(Broadcast.of(states.get(2)), false);
+        assertEquals(1, slow.getCount());
+
+        Thread.sleep(20);
+        assertTrue(queue.getLagMillis() >= 20);
+        queue.offer(Broadcast.of(states.get(3)), false);
+        assertEquals(0, slow.getCount());
+        assertEquals(2, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testCloseRunsAfterQueuedMessages() throws Exception {
+        start(8, OutboundQueue.Policy.COALESCE);
+        CountDownLatch closed = new CountDownLatch(1);
+        queue.offer(Frame.line("GAME_END", false));
+        queue.closeAfterDrain(closed::countDown);
+        queue.offer(Frame.line("never sent", false));
+
+        stream.release.countDown();
+        assertTrue(closed.await(2, TimeUnit.SECONDS));
+        List<Message> received = read(false);
+        assertEquals(2, received.size());
+        assertEquals("GAME_END", received.get(1).text());
+    }
+
+    private List<Message> read(boolean binary) throws IOException {
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(stream.bytes()));
+        reader.setBinary(binary);
+        List<Message> messages = new ArrayList<>();
+        for (Message message = reader.read(); message != null; message = reader.read()) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    // A socket whose peer stopped reading until release is counted down
+    private static final class StalledStream extends OutputStream {
+        final CountDownLatch release = new CountDownLatch(1);
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        volatile boolean blocked;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            blocked = true;
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            blocked = false;
+            synchronized (written) {
+                written.write(b, off, len);
+            }
+        }
+
+        byte[] bytes() {
+            synchronized (written) {
+                return written.toByteArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package serverSide;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.protocol.Message;
+import shared.protocol.MessageReader;
+import shared.protocol.WireProtocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelayNodeTest {
+
+    private LobbyServer origin;
+    private int gameId;
+    private RelayNode first;
+    private RelayNode second;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        origin = new LobbyServer(0);
+        Thread.startVirtualThread(origin::start);
+        gameId = origin.createGame();
+        // Two hops: origin -> first -> second
+        first = new RelayNode("localhost", origin.getPort(), gameId, 0);
+        first.start();
+        second = new RelayNode("localhost", first.getPort(), gameId, 0);
+        second.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        second.stop();
+        first.stop();
+        origin.stop();
+    }
+
+    @Test
+    public void testChainedRelaysPassOnEveryUpdate() throws Exception {
+        try (Socket spectator = connect(second.getPort(), "spectator");
+             Socket deltaSpectator = new Socket("localhost", second.getPort())) {
+            BufferedReader watched = reader(spectator);
+            readUntil(watched, line -> line.equals("ok"));
+            MessageReader deltas = joinWithDeltas(deltaSpectator);
+            waitFor(() -> second.getGame().getSpectators().size() == 2);
+
+            try (Socket white = connect(origin.getPort(), "player")) {
+                BufferedReader whiteIn = reader(white);
+                readUntil(whiteIn, line -> line.equals("white"));
+                try (Socket black = connect(origin.getPort(), "player")) {
+                    readUntil(whiteIn, line -> line.equals("REQUEST_MOVE"));
+                    new PrintWriter(white.getOutputStream(), true).println("e2e4");
+
+                    readUntil(watched, line -> line.contains("moveCount:1;"));
+                    Message move;
+                    do {
+                        move = deltas.read();
+                    } while (!move.isGameState() || move.gameState().getMoveCount() != 1);
+                    assertNotNull(deltas.getLastDelta(), "the move should arrive as a delta after two hops");
+                    // However many watch the last relay, the origin only writes to the first
+                    assertEquals(1, origin.getGame(gameId).getSpectators().size());
+
+                    new PrintWriter(black.getOutputStream(), true).println("resign");
+                    readUntil(watched, line -> line.contains("gameOver:true") && line.contains("winner:White"));
+                    readUntil(watched, line -> line.equals("GAME_END"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRelayOnlySeatsSpectators() throws IOException {
+        try (Socket player = connect(first.getPort(), "player")) {
+            BufferedReader in = reader(player);
+            readUntil(in, line -> line.startsWith(WireProtocol.HEARTBEAT_INTERVAL_PREFIX));
+            in.readLine();
+            assertEquals("not ok", in.readLine());
+        }
+    }
+
+    @Test
+    public void testUnknownGameUpstreamIsRefused() {
+        assertThrows(IOException.class, () -> new RelayNode("localhost", origin.getPort(), gameId + 1, 0).start());
+    }
+
+    private Socket connect(int port, String role) throws IOException {
+        Socket socket = new Socket("localhost", port);
+        socket.setSoTimeout(5000);
+        new PrintWriter(socket.getOutputStream(), true)
+                .println(WireProtocol.GAME_PREFIX + gameId + "\nUSER_ID:1\n" + role);
+        return socket;
+    }
+
+    private MessageReader joinWithDeltas(Socket socket) throws IOException {
+        socket.setSoTimeout(5000);
+        PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+        writer.println(WireProtocol.GAME_PREFIX + gameId + "\nUSER_ID:2");
+        MessageReader reader = new MessageReader(socket.getInputStream());
+        assertTrue(reader.readLine().startsWith(WireProtocol.HEARTBEAT_INTERVAL_PREFIX));
+        assertEquals(WireProtocol.DELTA, reader.negotiate(writer, WireProtocol.DELTA));
+        writer.println("spectator");
+        reader.readLine();
+        assertEquals("ok", reader.readLine());
+        return reader;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream()));
+    }
+
+    private static void readUntil(BufferedReader in, Predicate<String> match) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (match.test(line)) {
+                return;
+            }
+        }
+        fail("connection closed before the expected line");
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package serverSide;
+
+import org.junit.jupiter.api.Test;
+import shared.protocol.MoveDelta;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayBufferTest {
+
+    private static MoveDelta delta(int ply) {
+        return new MoveDelta(52, 36, false, false, false, null, ply, ply);
+    }
+
+    @Test
+    public void testReturnsOnlyTheMissedMoves() {
+        ReplayBuffer buffer = new ReplayBuffer(8);
+        for (int ply = 1; ply <= 5; ply++) {
+            buffer.add(delta(ply));
+        }
+
+        List<MoveDelta> missed = buffer.since(2);
+        assertEquals(3, missed.size());
+        assertEquals(3, missed.get(0).moveCount());
+        assertEquals(5, missed.get(2).moveCount());
+        assertTrue(buffer.since(5).isEmpty());
+        assertEquals(5, buffer.since(0).size());
+    }
+
+    @Test
+    public void testTooFarBehindGetsNothing() {
+        ReplayBuffer buffer = new ReplayBuffer(4);
+        for (int ply = 1; ply <= 10; ply++) {
+            buffer.add(delta(ply));
+        }
+
+        assertNull(buffer.since(5));
+        assertEquals(4, buffer.since(6).size());
+        assertNull(buffer.since(11)); // from the future
+    }
+
+    @Test
+    public void testClearForgetsTheGame() {
+        ReplayBuffer buffer = new ReplayBuffer(4);
+        buffer.add(delta(1));
+        buffer.clear();
+
+        assertTrue(buffer.since(0).isEmpty());
+        assertNull(buffer.since(1));
+    }
+}
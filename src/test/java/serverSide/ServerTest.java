@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class ServerTest {
 
@@ -57,4 +59,25 @@ public class ServerTest {
     public void testBoardStateInitialization() {
         assertNull(server.getBoard()); // Board should be null until game starts
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGameWithoutPlayersIsAbandoned() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        server.setOnFinished(finished::countDown);
+
+        server.abandonIfNotStartedWithin(50);
+
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testGameStartedBeforeTheAbandonEventIsKept() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        server.setOnFinished(finished::countDown);
+
+        server.setGameStarted(true);
+        server.abandonIfNotStartedWithin(50);
+
+        assertFalse(finished.await(500, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,40 @@
+package serverSide.nio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testReleasedBufferIsReusedCleared() {
+        BufferPool pool = new BufferPool(64, 4);
+        ByteBuffer buffer = pool.acquire();
+        buffer.put((byte) 1).flip();
+
+        pool.release(buffer);
+        ByteBuffer again = pool.acquire();
+
+        assertSame(buffer, again);
+        assertTrue(again.isDirect());
+        assertEquals(0, again.position());
+        assertEquals(64, again.remaining());
+        assertEquals(1, pool.getAllocatedCount());
+    }
+
+    @Test
+    public void testPoolKeepsAtMostMaxPooled() {
+        BufferPool pool = new BufferPool(64, 2);
+        ByteBuffer[] buffers = {pool.acquire(), pool.acquire(), pool.acquire()};
+
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        pool.release(ByteBuffer.allocateDirect(32)); // wrong size, not pooled
+
+        assertEquals(2, pool.getPooledCount());
+        assertEquals(3, pool.getAllocatedCount());
+    }
+}
@@ -0,0 +1,107 @@
+package serverSide.nio;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import serverSide.AbstractClientHandler;
+import serverSide.LobbyServer;
+import serverSide.Server;
+import shared.protocol.WireProtocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioServerTest {
+
+    private LobbyServer lobby;
+    private int gameId;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        lobby = new LobbyServer(0, LobbyServer.Transport.NIO);
+        Thread.startVirtualThread(lobby::start);
+        gameId = lobby.createGame();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lobby.stop();
+    }
+
+    @Test
+    public void testSpectatorHandshakeAndGameEnd() throws Exception {
+        try (Socket socket = new Socket("localhost", lobby.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            joinAsSpectator(socket, in);
+            Server game = lobby.getGame(gameId);
+            waitFor(() -> game.getSpectators().size() == 1);
+
+            game.endGame();
+
+            assertEquals("GAME_END", in.readLine());
+            assertEquals("Game has ended", in.readLine());
+            assertNull(in.readLine());
+            waitFor(() -> lobby.getNioServer().getConnectionCount() == 0);
+        }
+    }
+
+    @Test
+    public void testSpectatorWithoutHeartbeatIsDropped() throws Exception {
+        try (Socket socket = new Socket("localhost", lobby.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            joinAsSpectator(socket, in);
+            Server game = lobby.getGame(gameId);
+            waitFor(() -> game.getSpectators().size() == 1);
+
+            // No heartbeats: the idle check closes the connection
+            assertNull(in.readLine());
+            waitFor(() -> game.getSpectators().isEmpty());
+            waitFor(() -> lobby.getNioServer().getConnectionCount() == 0);
+        }
+    }
+
+    @Test
+    public void testHeartbeatsKeepSpectator() throws Exception {
+        try (Socket socket = new Socket("localhost", lobby.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            PrintWriter out = joinAsSpectator(socket, in);
+            Server game = lobby.getGame(gameId);
+
+            long until = System.currentTimeMillis() + AbstractClientHandler.IDLE_TIMEOUT_MILLIS + 500;
+            while (System.currentTimeMillis() < until) {
+                out.println(WireProtocol.HEARTBEAT);
+                Thread.sleep(AbstractClientHandler.HEARTBEAT_INTERVAL_MILLIS);
+            }
+
+            assertEquals(1, game.getSpectators().size());
+            assertEquals(1, lobby.getNioServer().getConnectionCount());
+        }
+    }
+
+    private PrintWriter joinAsSpectator(Socket socket, BufferedReader in) throws IOException {
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+        out.println(WireProtocol.GAME_PREFIX + gameId);
+        assertEquals(WireProtocol.HEARTBEAT_INTERVAL_PREFIX + AbstractClientHandler.HEARTBEAT_INTERVAL_MILLIS,
+                in.readLine());
+
+        out.println("USER_ID:7");
+        out.println("spectator");
+        assertEquals("You successfully connected to server as Spectator", in.readLine());
+        assertEquals("ok", in.readLine());
+        return out;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2 * AbstractClientHandler.IDLE_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+}
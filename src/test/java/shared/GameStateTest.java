@@ -1,6 +1,7 @@
 package shared;
 
 import chess.model.BoardState;
+import chess.model.Fen;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -68,4 +69,48 @@ public class GameStateTest {
         gameState.setLastMove("e2e4");
         assertEquals("e2e4", gameState.getLastMove());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFenRoundTrip() {
+        String fen = "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2";
+        GameState gameState = GameState.fromFen(fen);
+
+        assertEquals(fen, gameState.toFen());
+        assertEquals("wpawn", gameState.getBoard()[4][4]);
+        assertEquals("c6", gameState.getEnPassantSquare());
+        assertEquals(2, gameState.getMoveCount());
+        assertTrue(gameState.isInSync());
+        assertEquals(new GameState(Fen.toBoardState(fen)).getZobristKey(), gameState.getZobristKey());
+        assertEquals(fen, new GameState(Fen.toBoardState(fen)).toFen());
+    }
+
+    @Test
+    public void testFenDetectsCheckmateAndTracksClocks() {
+        GameState mated = GameState.fromFen("7k/6Q1/5K2/8/8/8/8/8 b - - 3 40");
+        assertTrue(mated.isBlackInCheck());
+        assertTrue(mated.isGameOver());
+        assertEquals("White", mated.getWinner());
+
+        GameState gameState = new GameState();
+        gameState.reset();
+        gameState.makeMove(new ChessMove(7, 6, 5, 5)); // g1f3
+        gameState.makeMove(new ChessMove(0, 6, 2, 5)); // g8f6
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 2 2", gameState.toFen());
+    }
+
+    @Test
+    public void testCopyIsIndependentAndMoveCountFollowsBoard() {
+        BoardState boardState = new BoardState();
+        boardState.makeMove(boardState.getSquareArray()[6][4], boardState.getSquareArray()[4][4]); // e2e4
+        GameState gameState = new GameState(boardState);
+        assertEquals(1, gameState.getMoveCount());
+
+        GameState copy = gameState.copy();
+        copy.makeMove(new ChessMove(1, 4, 3, 4)); // e7e5
+        assertEquals(2, copy.getMoveCount());
+        assertEquals(1, gameState.getMoveCount());
+        assertNull(gameState.getBoard()[3][4]);
+        assertEquals("bpawn", copy.getBoard()[3][4]);
+        assertEquals(gameState.toFen(), new GameState(boardState).toFen());
+    }
+}
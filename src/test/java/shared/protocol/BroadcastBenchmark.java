@@ -0,0 +1,68 @@
+package shared.protocol;
+
+import shared.ChessMove;
+import shared.GameState;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Time to send one move to every client of a game, encoding it for each client
+ * as the server used to, against one shared {@link Broadcast}. The clients are
+ * split evenly between the text, binary and delta protocols and write to null
+ * streams, so only encoding and framing are measured, not the network. Run with:
+ * {@code java -cp target/classes:target/test-classes shared.protocol.BroadcastBenchmark [moves]}
+ */
+public class BroadcastBenchmark {
+    private static final int[] SPECTATORS = {10, 100, 1000};
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int moves = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        GameState before = GameState.fromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        ChessMove move = new ChessMove(7, 2, 3, 6); // c1g5
+        GameState after = before.copy();
+        after.makeMove(move);
+        MoveDelta delta = MoveDelta.of(move, after);
+
+        for (int spectators : SPECTATORS) {
+            MessageWriter[] writers = new MessageWriter[spectators + 2]; // and the two players
+            boolean[] deltas = new boolean[writers.length];
+            for (int i = 0; i < writers.length; i++) {
+                writers[i] = new MessageWriter(OutputStream.nullOutputStream());
+                writers[i].setBinary(i % 3 != 0);
+                deltas[i] = i % 3 == 2;
+            }
+            int updates = Math.max(20, moves * 10 / writers.length);
+
+            double perClient = Double.MAX_VALUE;
+            double shared = Double.MAX_VALUE;
+            int encodings = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int u = 0; u < updates; u++) {
+                    for (int i = 0; i < writers.length; i++) {
+                        if (deltas[i]) {
+                            writers[i].sendDelta(delta);
+                        } else {
+                            writers[i].sendGameState(after);
+                        }
+                    }
+                }
+                perClient = Math.min(perClient, (System.nanoTime() - start) / 1e3 / updates);
+
+                start = System.nanoTime();
+                for (int u = 0; u < updates; u++) {
+                    Broadcast update = Broadcast.of(after, delta);
+                    for (int i = 0; i < writers.length; i++) {
+                        writers[i].sendFrame(update.frameFor(writers[i].isBinary(), deltas[i]));
+                    }
+                    encodings = update.getEncodingCount();
+                }
+                shared = Math.min(shared, (System.nanoTime() - start) / 1e3 / updates);
+            }
+            System.out.printf("%,5d spectators: encode per client %9.1f us, encode once %8.1f us (%d encodings) x%.1f%n",
+                    spectators, perClient, shared, encodings, perClient / shared);
+        }
+    }
+}
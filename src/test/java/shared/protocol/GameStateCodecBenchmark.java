@@ -0,0 +1,61 @@
+package shared.protocol;
+
+import chess.model.Fen;
+import shared.ChessMove;
+import shared.GameState;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bytes per update and encode/decode time of the text and binary game state
+ * formats, on a middlegame position. Run with:
+ * {@code java -cp target/classes:target/test-classes shared.protocol.GameStateCodecBenchmark}
+ */
+public class GameStateCodecBenchmark {
+    private static final int ITERATIONS = 200_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        GameState state = GameState.fromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        state.setLastMove("c8g4");
+
+        String text = GameStateCodec.encodeText(state);
+        byte[] binary = GameStateCodec.encode(state);
+        // Text: two lines; binary: one frame with a 5-byte header
+        int textBytes = WireProtocol.GAME_STATE_UPDATE.length() + 1 + text.getBytes(StandardCharsets.UTF_8).length + 1;
+        int binaryBytes = binary.length + 5;
+        System.out.printf("bytes per update: text %d, binary %d (x%.1f)%n",
+                textBytes, binaryBytes, (double) textBytes / binaryBytes);
+        GameState next = state.copy();
+        ChessMove move = new ChessMove(7, 2, 3, 6); // c1g5
+        next.makeMove(move);
+        int deltaBytes = GameStateCodec.encodeDelta(MoveDelta.of(move, next)).length + 5;
+        System.out.printf("bytes per move with deltas: %d (x%.1f vs text)%n",
+                deltaBytes, (double) textBytes / deltaBytes);
+
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) sink += GameStateCodec.encodeText(state).length();
+            long textEncode = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) sink += GameStateCodec.decodeText(text).getMoveCount();
+            long textDecode = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) sink += GameStateCodec.encode(state).length;
+            long binaryEncode = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) sink += GameStateCodec.decode(binary, 0, binary.length).getMoveCount();
+            long binaryDecode = System.nanoTime() - start;
+
+            System.out.printf("round %d: encode text %.0f ns, binary %.0f ns | decode text %.0f ns, binary %.0f ns (x%.1f)%n",
+                    round + 1, (double) textEncode / ITERATIONS, (double) binaryEncode / ITERATIONS,
+                    (double) textDecode / ITERATIONS, (double) binaryDecode / ITERATIONS,
+                    (double) textDecode / binaryDecode);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,153 @@
+package shared.protocol;
+
+import chess.model.Fen;
+import org.junit.jupiter.api.Test;
+import shared.ChessMove;
+import shared.GameState;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateCodecTest {
+
+    @Test
+    public void testBinaryRoundTrip() {
+        GameState state = GameState.fromFen("rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2");
+        state.setLastMove("c7c5");
+
+        GameState decoded = roundTrip(state);
+
+        assertSameState(state, decoded);
+        assertEquals("c6", decoded.getEnPassantSquare());
+        assertEquals("c7c5", decoded.getLastMove());
+        assertTrue(decoded.isInSync());
+    }
+
+    @Test
+    public void testBinaryKeepsGameOverAndWinner() {
+        GameState state = GameState.fromFen("7k/6Q1/5K2/8/8/8/8/8 b - - 3 40");
+
+        GameState decoded = roundTrip(state);
+
+        assertSameState(state, decoded);
+        assertTrue(decoded.isGameOver());
+        assertTrue(decoded.isBlackInCheck());
+        assertEquals("White", decoded.getWinner());
+        assertNull(decoded.getLastMove());
+    }
+
+    @Test
+    public void testClockTimesRideAlongWhenTimed() {
+        GameState state = GameState.fromFen(Fen.START_POSITION);
+        state.setLastMove("e2e4");
+        state.setWhiteTimeMillis(299_250);
+        state.setBlackTimeMillis(300_000);
+
+        GameState binary = roundTrip(state);
+        GameState text = GameStateCodec.decodeText(GameStateCodec.encodeText(state));
+
+        assertEquals(55 + 8, GameStateCodec.encode(state).length);
+        for (GameState decoded : new GameState[]{binary, text}) {
+            assertEquals(299_250, decoded.getWhiteTimeMillis());
+            assertEquals(300_000, decoded.getBlackTimeMillis());
+            assertEquals("e2e4", decoded.getLastMove());
+        }
+        assertFalse(roundTrip(GameState.fromFen(Fen.START_POSITION)).hasClocks());
+    }
+
+    @Test
+    public void testTextRoundTrip() {
+        GameState state = GameState.fromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 b - - 5 10");
+        state.setLastMove("c1g5");
+
+        GameState decoded = GameStateCodec.decodeText(GameStateCodec.encodeText(state));
+
+        assertSameState(state, decoded);
+        assertEquals("c1g5", decoded.getLastMove());
+    }
+
+    @Test
+    public void testBinaryIsMuchSmallerThanText() {
+        GameState state = GameState.fromFen(Fen.START_POSITION);
+        state.setLastMove("e2e4");
+
+        int binary = GameStateCodec.encode(state).length;
+        int text = GameStateCodec.encodeText(state).getBytes(StandardCharsets.UTF_8).length;
+
+        assertEquals(55, binary);
+        assertTrue(binary * 8 < text, binary + " vs " + text + " bytes");
+    }
+
+    @Test
+    public void testRejectsTruncatedOrUnknownVersion() {
+        byte[] payload = GameStateCodec.encode(GameState.fromFen(Fen.START_POSITION));
+
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(payload, 0, 20));
+        payload[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(payload, 0, payload.length));
+    }
+
+    @Test
+    public void testDeltaRoundTrip() {
+        GameState before = GameState.fromFen(Fen.START_POSITION);
+        GameState after = before.copy();
+        ChessMove move = new ChessMove(6, 4, 4, 4); // e2e4
+        after.makeMove(move);
+
+        byte[] payload = GameStateCodec.encodeDelta(MoveDelta.of(move, after));
+        MoveDelta delta = GameStateCodec.decodeDelta(payload, 0, payload.length);
+
+        assertEquals(14, payload.length);
+        assertEquals("e2e4", delta.notation());
+        assertEquals(MoveDelta.of(move, after), delta);
+        assertSameState(after, delta.applyTo(before));
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decodeDelta(payload, 0, 10));
+    }
+
+    @Test
+    public void testDeltaCarriesClockTimes() {
+        GameState before = GameState.fromFen(Fen.START_POSITION);
+        GameState after = before.copy();
+        ChessMove move = new ChessMove(6, 4, 4, 4);
+        after.makeMove(move);
+        after.setWhiteTimeMillis(61_500);
+        after.setBlackTimeMillis(60_000);
+
+        byte[] payload = GameStateCodec.encodeDelta(MoveDelta.of(move, after));
+        GameState applied = GameStateCodec.decodeDelta(payload, 0, payload.length).applyTo(before);
+
+        assertEquals(22, payload.length);
+        assertEquals(61_500, applied.getWhiteTimeMillis());
+        assertEquals(60_000, applied.getBlackTimeMillis());
+    }
+
+    @Test
+    public void testDeltaRejectsGapOrWrongKey() {
+        GameState start = GameState.fromFen(Fen.START_POSITION);
+        GameState after = start.copy();
+        after.makeMove(new ChessMove(6, 4, 4, 4));
+        MoveDelta delta = MoveDelta.of(new ChessMove(6, 4, 4, 4), after);
+
+        assertNull(delta.applyTo(after)); // already applied
+        assertTrue(delta.isIncludedIn(after));
+        MoveDelta wrongKey = new MoveDelta(delta.from(), delta.to(), false, false, false, null,
+                delta.moveCount(), delta.zobristKey() ^ 1);
+        assertNull(wrongKey.applyTo(start));
+    }
+
+    private static GameState roundTrip(GameState state) {
+        byte[] payload = GameStateCodec.encode(state);
+        return GameStateCodec.decode(payload, 0, payload.length);
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.toFen(), actual.toFen());
+        assertEquals(expected.isWhiteInCheck(), actual.isWhiteInCheck());
+        assertEquals(expected.isBlackInCheck(), actual.isBlackInCheck());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        assertEquals(expected.getWinner(), actual.getWinner());
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        assertEquals(expected.getZobristKey(), actual.getZobristKey());
+    }
+}
@@ -0,0 +1,234 @@
+package shared.protocol;
+
+import chess.model.Fen;
+import org.junit.jupiter.api.Test;
+import shared.ChessMove;
+import shared.GameState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageStreamTest {
+
+    @Test
+    public void testTextProtocolKeepsTheOriginalLines() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        writer.sendGameState(GameState.fromFen(Fen.START_POSITION));
+        writer.sendLine("REQUEST_MOVE");
+
+        String text = bytes.toString();
+        assertTrue(text.startsWith("GAME_STATE_UPDATE\n0,0,brook;"));
+        assertTrue(text.endsWith("\nREQUEST_MOVE\n"));
+
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(Fen.START_POSITION, reader.read().gameState().toFen());
+        assertEquals("REQUEST_MOVE", reader.readLine());
+        assertNull(reader.read());
+    }
+
+    @Test
+    public void testBinaryFramesAfterSwitch() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        writer.sendLine(WireProtocol.ACCEPT_PREFIX + WireProtocol.BINARY);
+        writer.setBinary(true);
+        writer.sendLine("ok");
+        writer.sendGameState(GameState.fromFen(Fen.START_POSITION));
+        writer.sendLine("GAME_END");
+        assertEquals(bytes.size(), writer.getBytesWritten());
+
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(WireProtocol.ACCEPT_PREFIX + WireProtocol.BINARY, reader.readLine());
+        reader.setBinary(true);
+        assertEquals("ok", reader.readLine());
+        assertThrows(IOException.class, reader::readLine); // a game state, not text
+        assertEquals("GAME_END", reader.read().text());
+        assertNull(reader.read());
+    }
+
+    @Test
+    public void testDeltasAreAppliedToTheLastState() throws IOException {
+        GameState start = GameState.fromFen(Fen.START_POSITION);
+        GameState afterE4 = start.copy();
+        afterE4.makeMove(new ChessMove(6, 4, 4, 4));
+        GameState afterE5 = afterE4.copy();
+        afterE5.makeMove(new ChessMove(1, 4, 3, 4));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        writer.setBinary(true);
+        writer.sendGameState(start);
+        writer.sendDelta(MoveDelta.of(new ChessMove(6, 4, 4, 4), afterE4));
+        writer.sendDelta(MoveDelta.of(new ChessMove(6, 4, 4, 4), afterE4)); // duplicate, skipped
+        writer.sendDelta(MoveDelta.of(new ChessMove(1, 4, 3, 4), afterE5));
+
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(bytes.toByteArray()));
+        reader.setBinary(true);
+        assertEquals(start.toFen(), reader.read().gameState().toFen());
+        GameState first = reader.read().gameState();
+        assertEquals(afterE4.toFen(), first.toFen());
+        assertEquals("e2e4", first.getLastMove());
+        assertEquals(afterE5.toFen(), reader.read().gameState().toFen());
+        assertNull(reader.read());
+    }
+
+    @Test
+    public void testResumeOnNewConnectionContinuesFromLastSeenPly() throws IOException {
+        GameState start = GameState.fromFen(Fen.START_POSITION);
+        GameState afterE4 = start.copy();
+        afterE4.makeMove(new ChessMove(6, 4, 4, 4));
+        GameState afterE5 = afterE4.copy();
+        afterE5.makeMove(new ChessMove(1, 4, 3, 4));
+
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        MessageWriter firstWriter = new MessageWriter(first);
+        firstWriter.setBinary(true);
+        firstWriter.sendGameState(start);
+        firstWriter.sendDelta(MoveDelta.of(new ChessMove(6, 4, 4, 4), afterE4));
+
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(first.toByteArray()));
+        assertEquals(-1, reader.getLastSeenPly());
+        reader.setBinary(true);
+        reader.read();
+        reader.read();
+        assertEquals(1, reader.getLastSeenPly());
+        assertNull(reader.read()); // the connection drops
+
+        // The new connection negotiates again, resumes and gets only the missed move
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        MessageWriter secondWriter = new MessageWriter(second);
+        secondWriter.sendLine(WireProtocol.ACCEPT_PREFIX + WireProtocol.DELTA);
+        secondWriter.setBinary(true);
+        secondWriter.sendLine("Resumed as white");
+        secondWriter.sendLine("ok");
+        secondWriter.sendDelta(MoveDelta.of(new ChessMove(1, 4, 3, 4), afterE5));
+
+        reader.reattach(new ByteArrayInputStream(second.toByteArray()));
+        assertFalse(reader.isBinary());
+        StringWriter sent = new StringWriter();
+        PrintWriter out = new PrintWriter(sent);
+        assertEquals(WireProtocol.DELTA, reader.negotiate(out, WireProtocol.DELTA));
+        assertTrue(reader.resume(out, "abc"));
+        assertTrue(sent.toString().endsWith(WireProtocol.resumeRequest("abc", 1) + System.lineSeparator()));
+        assertEquals(afterE5.toFen(), reader.read().gameState().toFen());
+        assertEquals(2, reader.getLastSeenPly());
+    }
+
+    @Test
+    public void testGapRequestsResyncAndWaitsForKeyframe() throws IOException {
+        GameState start = GameState.fromFen(Fen.START_POSITION);
+        GameState afterE4 = start.copy();
+        afterE4.makeMove(new ChessMove(6, 4, 4, 4));
+        GameState afterE5 = afterE4.copy();
+        afterE5.makeMove(new ChessMove(1, 4, 3, 4));
+        GameState afterNf3 = afterE5.copy();
+        afterNf3.makeMove(new ChessMove(7, 6, 5, 5));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        writer.setBinary(true);
+        writer.sendGameState(start);
+        writer.sendDelta(MoveDelta.of(new ChessMove(1, 4, 3, 4), afterE5)); // e2e4 was lost
+        writer.sendDelta(MoveDelta.of(new ChessMove(7, 6, 5, 5), afterNf3));
+        writer.sendGameState(afterNf3);
+
+        StringWriter requests = new StringWriter();
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(bytes.toByteArray()));
+        reader.setBinary(true);
+        reader.setResyncWriter(new PrintWriter(requests));
+        reader.read();
+        assertEquals(afterNf3.toFen(), reader.read().gameState().toFen());
+        assertEquals(WireProtocol.RESYNC + System.lineSeparator(), requests.toString());
+    }
+
+    @Test
+    public void testBoardNotMatchingItsKeyRequestsOneResync() throws IOException {
+        GameState good = GameState.fromFen(Fen.START_POSITION);
+        GameState garbled = good.copy();
+        garbled.setZobristKey(good.getZobristKey() ^ 1);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        writer.setBinary(true);
+        writer.sendGameState(garbled);
+        writer.sendGameState(garbled);
+        writer.sendGameState(good);
+
+        StringWriter requests = new StringWriter();
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(bytes.toByteArray()));
+        reader.setBinary(true);
+        reader.setResyncWriter(new PrintWriter(requests));
+        assertFalse(reader.read().gameState().isInSync());
+        assertFalse(reader.read().gameState().isInSync());
+        assertTrue(reader.read().gameState().isInSync());
+        assertEquals(WireProtocol.RESYNC + System.lineSeparator(), requests.toString());
+    }
+
+    @Test
+    public void testBroadcastEncodesOncePerProtocol() throws IOException {
+        GameState start = GameState.fromFen(Fen.START_POSITION);
+        GameState afterE4 = start.copy();
+        afterE4.makeMove(new ChessMove(6, 4, 4, 4));
+        Broadcast update = Broadcast.of(afterE4, MoveDelta.of(new ChessMove(6, 4, 4, 4), afterE4));
+
+        ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[30];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+            MessageWriter writer = new MessageWriter(outputs[i]);
+            boolean binary = i % 3 != 0;
+            writer.setBinary(binary);
+            if (i % 3 == 2) {
+                writer.sendGameState(start); // what the delta applies to
+            }
+            writer.sendFrame(update.frameFor(binary, i % 3 == 2));
+        }
+        assertEquals(3, update.getEncodingCount());
+
+        // The shared frames are byte for byte what each writer would have encoded itself
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        new MessageWriter(text).sendGameState(afterE4);
+        assertArrayEquals(text.toByteArray(), outputs[0].toByteArray());
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        MessageWriter binaryWriter = new MessageWriter(binary);
+        binaryWriter.setBinary(true);
+        binaryWriter.sendGameState(afterE4);
+        assertArrayEquals(binary.toByteArray(), outputs[1].toByteArray());
+
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(outputs[2].toByteArray()));
+        reader.setBinary(true);
+        reader.read();
+        assertEquals(afterE4.toFen(), reader.read().gameState().toFen());
+    }
+
+    @Test
+    public void testFrameMustMatchTheConnectionMode() {
+        MessageWriter writer = new MessageWriter(new ByteArrayOutputStream());
+        Frame binary = Frame.gameState(GameState.fromFen(Fen.START_POSITION), true);
+
+        assertThrows(IllegalStateException.class, () -> writer.sendFrame(binary));
+        assertEquals(0, writer.getBytesWritten());
+    }
+
+    @Test
+    public void testRejectsOversizedFrame() {
+        byte[] frame = {0x7F, 0, 0, 0, WireProtocol.FRAME_TEXT};
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(frame));
+        reader.setBinary(true);
+
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    public void testNegotiationFallsBackToText() {
+        assertEquals(WireProtocol.BINARY, WireProtocol.negotiate(WireProtocol.BINARY));
+        assertEquals(WireProtocol.DELTA, WireProtocol.negotiate(WireProtocol.DELTA));
+        assertEquals(WireProtocol.TEXT, WireProtocol.negotiate("binary/9"));
+        assertEquals(WireProtocol.TEXT, WireProtocol.negotiate(WireProtocol.TEXT));
+    }
+}
@@ -0,0 +1,92 @@
+package shared.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerWheelTest {
+
+    private TimerWheel wheel;
+
+    @BeforeEach
+    public void setUp() {
+        // A small wheel, so the longer delays below need several rounds
+        wheel = new TimerWheel("test-wheel", 5, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    public void testTimeoutFiresAfterDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicLong firedAt = new AtomicLong();
+        long start = System.nanoTime();
+
+        TimerWheel.Timeout timeout = wheel.schedule(() -> {
+            firedAt.set(System.nanoTime());
+            fired.countDown();
+        }, 120, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAt.get() - start >= TimeUnit.MILLISECONDS.toNanos(120));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void testCancelledTimeoutNeverFires() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        TimerWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        Thread.sleep(150);
+
+        assertEquals(0, fired.get());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void testTimeoutsFireInDeadlineOrder() throws InterruptedException {
+        int count = 200;
+        CountDownLatch fired = new CountDownLatch(count);
+        AtomicLong lastDelay = new AtomicLong(-1);
+        AtomicInteger outOfOrder = new AtomicInteger();
+        for (int i = count - 1; i >= 0; i--) {
+            long delay = 10L * (i / 10); // ten per tick-ish, spread over several rounds
+            wheel.schedule(() -> {
+                if (lastDelay.getAndSet(delay) > delay) outOfOrder.incrementAndGet();
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(3, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrder.get());
+    }
+
+    @Test
+    public void testFixedRateRepeatsUntilCancelled() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(5);
+        TimerWheel.Repeating repeating = wheel.scheduleAtFixedRate(fired::countDown, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(repeating.cancel());
+        Thread.sleep(50);
+        long afterCancel = fired.getCount();
+        Thread.sleep(100);
+
+        assertEquals(afterCancel, fired.getCount());
+        assertEquals(0, wheel.getPendingCount());
+    }
+}